@@ -0,0 +1,136 @@
+package com.ftc.containerView.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Envolve o DataSource e, enquanto {@link #record(Runnable)} está ativo, roda
+ * EXPLAIN (FORMAT JSON) para cada SELECT/UPDATE/DELETE preparado pelo Hibernate,
+ * com os mesmos parâmetros que a consulta real recebeu.
+ */
+final class ExplainRecorder {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile List<Plan> plans;
+
+    record Plan(String sql, JsonNode plan) {
+
+        /** Tabelas (entre as informadas) lidas com Seq Scan em algum nó do plano. */
+        List<String> seqScansOn(Set<String> tables) {
+            List<String> found = new ArrayList<>();
+            collectSeqScans(plan, tables, found);
+            return found;
+        }
+
+        private static void collectSeqScans(JsonNode node, Set<String> tables, List<String> found) {
+            if (node.isArray()) {
+                node.forEach(child -> collectSeqScans(child, tables, found));
+                return;
+            }
+            if (!node.isObject()) {
+                return;
+            }
+            if ("Seq Scan".equals(node.path("Node Type").asText())
+                    && tables.contains(node.path("Relation Name").asText())) {
+                found.add(node.path("Relation Name").asText());
+            }
+            node.forEach(child -> collectSeqScans(child, tables, found));
+        }
+    }
+
+    List<Plan> record(Runnable action) {
+        plans = new CopyOnWriteArrayList<>();
+        try {
+            action.run();
+            return List.copyOf(plans);
+        } finally {
+            plans = null;
+        }
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? wrapConnection(connection) : result);
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+                        ? wrapStatement(statement, (String) args[0], connection)
+                        : result);
+    }
+
+    private PreparedStatement wrapStatement(PreparedStatement statement, String sql, Connection connection) {
+        // Último setXxx(índice, ...) de cada parâmetro, para repetir no EXPLAIN
+        Map<Integer, Object[]> bindings = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bindings.put(index, new Object[]{method, args});
+                    } else if (name.equals("clearParameters")) {
+                        bindings.clear();
+                    } else if ((name.equals("executeQuery") || name.equals("execute") || name.equals("executeUpdate"))
+                            && (args == null || args.length == 0)) {
+                        explain(connection, sql, bindings);
+                    }
+                    return invoke(method, statement, args);
+                });
+    }
+
+    private void explain(Connection connection, String sql, Map<Integer, Object[]> bindings) throws SQLException {
+        List<Plan> current = plans;
+        String statement = sql.stripLeading().toLowerCase();
+        if (current == null || !(statement.startsWith("select") || statement.startsWith("update")
+                || statement.startsWith("delete"))) {
+            return;
+        }
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (Object[] binding : bindings.values()) {
+                invoke((Method) binding[0], explain, (Object[]) binding[1]);
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                current.add(new Plan(sql, objectMapper.readTree(resultSet.getString(1))));
+            }
+        } catch (SQLException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Falha ao rodar EXPLAIN para: " + sql, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object wrap(Method method, Object[] args, Object result) throws Throwable;
+    }
+
+    private <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> wrapper.wrap(method, args, invoke(method, target, args))));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
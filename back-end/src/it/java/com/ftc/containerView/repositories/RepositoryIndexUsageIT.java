@@ -0,0 +1,267 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerSortField;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.operation.OperationSortField;
+import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.user.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Roda EXPLAIN em cada consulta filtrada dos repositórios sobre uma massa de dados
+ * semeada e falha se alguma delas fizer Seq Scan nas tabelas principais.
+ *
+ * Usa um postgres:16 do Testcontainers, ou o banco de -Dit.datasource.url (vazio,
+ * as migrations do Flyway são aplicadas nele).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexUsageIT {
+
+    private static final Set<String> INDEXED_TABLES = Set.of(
+            "containers", "operations", "container_images", "sack_images", "container_other_seals");
+
+    private static final int USERS = 200;
+    private static final int OPERATIONS = 2_000;
+    private static final int CONTAINERS = 50_000;
+
+    private static final String EXTERNAL_URL = System.getProperty("it.datasource.url");
+    private static PostgreSQLContainer<?> postgres;
+
+    private static final ExplainRecorder recorder = new ExplainRecorder();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("it.datasource.username", "test"));
+            registry.add("spring.datasource.password", () -> System.getProperty("it.datasource.password", "test"));
+        } else {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recorder.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ContainerRepository containerRepository;
+    @Autowired
+    private OperationRepository operationRepository;
+    @Autowired
+    private ContainerImageRepository containerImageRepository;
+    @Autowired
+    private SackImageRepository sackImageRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private LocalDateTime seedStart;
+    private long userBase;
+    private long operationBase;
+
+    // Entidades carregadas antes da gravação, para não entrarem nos planos verificados
+    private Operation operation;
+    private Container container;
+    private Container otherContainer;
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        seedStart = now.minusDays(730);
+
+        Integer seeded = jdbcTemplate.queryForObject("select count(*) from users where cpf like 'seed-%'", Integer.class);
+        if (seeded == null || seeded == 0) {
+            jdbcTemplate.update("""
+                    insert into users (first_name, last_name, cpf, email, password, role, two_factor_enabled)
+                    select 'Seed', 'User ' || g, 'seed-' || g, 'seed' || g || '@example.com', 'x', 'INSPETOR', false
+                    from generate_series(1, ?) g""", USERS);
+            long users = minId("users", "cpf like 'seed-%'");
+
+            // 10% das operações abertas, created_at espalhado em dois anos
+            jdbcTemplate.update("""
+                    insert into operations (user_id, ctv, exporter, ship, terminal, deadline_draft, destination,
+                                            arrival_date, reservation, ref_client, load_deadline, status, created_at)
+                    select ? + g % ?, 'CTV-' || g, 'Exportadora', 'Navio', 'Terminal', current_date, 'Destino',
+                           current_date, 'RES-' || g, 'REF-' || g, '2026-12-31',
+                           case when g % 10 = 0 then 'OPEN' else 'COMPLETED' end,
+                           ?::timestamp + g * (interval '730 days' / ?)
+                    from generate_series(1, ?) g""", users, USERS, seedStart, OPERATIONS, OPERATIONS);
+            long operations = minId("operations", "ctv like 'CTV-%'");
+
+            // 2% dos containers abertos, 2% pendentes
+            jdbcTemplate.update("""
+                    insert into containers (container_id, description, user_id, operation_id, sacks_count, status, created_at)
+                    select 'SEED' || g, 'Container ' || g, ? + g % ?, ? + g % ?, 100,
+                           case when g % 50 = 0 then 'OPEN' when g % 50 = 1 then 'PENDING' else 'COMPLETED' end,
+                           ?::timestamp + g * (interval '730 days' / ?)
+                    from generate_series(1, ?) g""",
+                    users, USERS, operations, OPERATIONS, seedStart, CONTAINERS, CONTAINERS);
+
+            jdbcTemplate.update("""
+                    insert into container_other_seals (container_id, other_seals)
+                    select c.id, 'LACRE-' || c.id || '-' || s from containers c, generate_series(1, 2) s""");
+            jdbcTemplate.update("""
+                    insert into container_images (container_id_def, image_key, category)
+                    select c.id, 'images/' || c.id || '/' || s,
+                           (array['VAZIO_FORRADO', 'FIADA', 'CHEIO_ABERTO', 'MEIA_PORTA',
+                                  'LACRADO_FECHADO', 'LACRES_PRINCIPAIS', 'LACRES_OUTROS'])[1 + (c.id + s) % 7]
+                    from containers c, generate_series(1, 3) s""");
+            jdbcTemplate.update("""
+                    insert into sack_images (operation_id, image_key)
+                    select o.id, 'sacks/' || o.id || '/' || s from operations o, generate_series(1, 10) s""");
+
+            for (String table : List.of("users", "operations", "containers", "container_other_seals",
+                    "container_images", "sack_images")) {
+                jdbcTemplate.execute("vacuum analyze " + table);
+            }
+        }
+
+        userBase = minId("users", "cpf like 'seed-%'");
+        operationBase = minId("operations", "ctv like 'CTV-%'");
+
+        operation = operationRepository.findById(operationBase + 7).orElseThrow();
+        container = containerRepository.findByContainerId("SEED123").orElseThrow();
+        otherContainer = containerRepository.findByContainerId("SEED124").orElseThrow();
+        user = userRepository.findById(userBase + 3).orElseThrow();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> filteredQueriesUseIndexes() {
+        return Stream.of(
+                query("ContainerRepository.findByContainerId", () -> containerRepository.findByContainerId("SEED123")),
+                query("ContainerRepository.findIdByContainerId", () -> containerRepository.findIdByContainerId("SEED123")),
+                query("ContainerRepository.existsByContainerId", () -> containerRepository.existsByContainerId("SEED123")),
+                query("ContainerRepository.findExistingContainerIds",
+                        () -> containerRepository.findExistingContainerIds(List.of("SEED1", "SEED2", "NOVO"))),
+                query("ContainerRepository.findByOperation",
+                        () -> containerRepository.findByOperation(operation, PageRequest.of(1, 10, Sort.by("id")))),
+                query("ContainerRepository.findByStatus",
+                        () -> containerRepository.findByStatus(ContainerStatus.OPEN, PageRequest.of(1, 20, Sort.by("id")))),
+                query("ContainerRepository.countByOperation", () -> containerRepository.countByOperation(operation)),
+                query("ContainerRepository.countByStatus", () -> containerRepository.countByStatus(ContainerStatus.OPEN)),
+                query("ContainerRepository.findSummariesByOperationId",
+                        () -> containerRepository.findSummariesByOperationId(operation.getId(), PageRequest.of(1, 10, Sort.by("id")))),
+                query("ContainerRepository.findSummariesByStatus",
+                        () -> containerRepository.findSummariesByStatus(ContainerStatus.PENDING, PageRequest.of(1, 20, Sort.by("createdAt")))),
+                query("ContainerRepository.findSealsByContainerIds", () -> containerRepository.findSealsByContainerIds(
+                        List.of(container.getId(), otherContainer.getId()))),
+                query("ContainerRepository.findSummariesAfter", () -> containerRepository.findSummariesAfter(
+                        null, ContainerStatus.OPEN, ContainerSortField.CREATED_AT, Sort.Direction.DESC, null, 21)),
+                query("OperationRepository.findByContainers", () -> operationRepository.findByContainers(container)),
+                query("OperationRepository.findByUser", () -> operationRepository.findByUser(user)),
+                query("OperationRepository.findByUser(Pageable)",
+                        () -> operationRepository.findByUser(user, PageRequest.of(0, 5, Sort.by("id")))),
+                query("OperationRepository.countByUser", () -> operationRepository.countByUser(user)),
+                query("OperationRepository.findByStatus",
+                        () -> operationRepository.findByStatus(OperationStatus.OPEN, PageRequest.of(1, 20, Sort.by("id")))),
+                query("OperationRepository.countByStatus", () -> operationRepository.countByStatus(OperationStatus.OPEN)),
+                query("OperationRepository.findByCreatedAt",
+                        () -> operationRepository.findByCreatedAt(operation.getCreatedAt())),
+                query("OperationRepository.findByCreatedAtBefore",
+                        () -> operationRepository.findByCreatedAtBefore(seedStart.plusDays(2))),
+                query("OperationRepository.findByCreatedAtAfter",
+                        () -> operationRepository.findByCreatedAtAfter(seedStart.plusDays(728))),
+                query("OperationRepository.findByCreatedAtBetween",
+                        () -> operationRepository.findByCreatedAtBetween(seedStart.plusDays(300), seedStart.plusDays(302))),
+                query("OperationRepository.findSummariesByStatus",
+                        () -> operationRepository.findSummariesByStatus(OperationStatus.OPEN, PageRequest.of(1, 20, Sort.by("createdAt")))),
+                query("OperationRepository.findSummariesByUserId",
+                        () -> operationRepository.findSummariesByUserId(user.getId(), PageRequest.of(0, 5, Sort.by("id")))),
+                query("OperationRepository.findSummariesAfter", () -> operationRepository.findSummariesAfter(
+                        OperationStatus.OPEN, OperationSortField.ID, Sort.Direction.ASC, null, 21)),
+                query("SackImageRepository.findByOperation", () -> sackImageRepository.findByOperation(operation)),
+                query("SackImageRepository.countByOperation", () -> sackImageRepository.countByOperation(operation)),
+                query("SackImageRepository.deleteAllByOperation", () -> sackImageRepository.deleteAllByOperation(operation)),
+                query("ContainerImageRepository.findByContainer", () -> containerImageRepository.findByContainer(container)),
+                query("ContainerImageRepository.findByContainerIdOrderById",
+                        () -> containerImageRepository.findByContainerIdOrderById(container.getId())),
+                query("ContainerImageRepository.findByContainerIdAndCategoryOrderById",
+                        () -> containerImageRepository.findByContainerIdAndCategoryOrderById(
+                                container.getId(), ContainerImageCategory.FIADA))
+        );
+    }
+
+    /**
+     * Executa a consulta (em transação desfeita no final) e verifica o plano de
+     * todo SQL gerado por ela, inclusive COUNT de paginação e carregamentos EAGER.
+     */
+    private DynamicTest query(String name, Runnable action) {
+        return DynamicTest.dynamicTest(name, () -> {
+            List<ExplainRecorder.Plan> plans = transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                return recorder.record(action);
+            });
+
+            assertFalse(plans == null || plans.isEmpty(), "Nenhum SQL registrado para " + name);
+            String seqScans = plans.stream()
+                    .filter(plan -> !plan.seqScansOn(INDEXED_TABLES).isEmpty())
+                    .map(plan -> plan.seqScansOn(INDEXED_TABLES) + " em: " + plan.sql())
+                    .collect(Collectors.joining("\n"));
+            if (!seqScans.isEmpty()) {
+                fail(name + " faz Seq Scan:\n" + seqScans);
+            }
+        });
+    }
+
+    private long minId(String table, String condition) {
+        Long id = jdbcTemplate.queryForObject("select min(id) from " + table + " where " + condition, Long.class);
+        if (id == null) {
+            throw new IllegalStateException("Massa de dados não encontrada em " + table);
+        }
+        return id;
+    }
+}
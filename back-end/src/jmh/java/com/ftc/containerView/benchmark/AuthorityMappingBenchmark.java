@@ -0,0 +1,59 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.infra.security.SecurityFilter;
+import com.ftc.containerView.infra.security.auth.PrincipalCache;
+import com.ftc.containerView.infra.security.auth.PrincipalCache.CachedPrincipal;
+import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.model.user.UserRole;
+import com.ftc.containerView.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Resolução de authorities no SecurityFilter.
+ *
+ * - perRequestMapping: mapeamento de ROLE_PERMISSIONS refeito a cada requisição
+ * - cachedPrincipal: usuário e authorities já resolvidos no PrincipalCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityMappingBenchmark {
+
+    private User user;
+    private PrincipalCache principalCache;
+
+    @Setup
+    public void setup() {
+        user = BenchmarkFixtures.user(UserRole.ADMIN);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByCpf(user.getCpf())).thenReturn(Optional.of(user));
+        principalCache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 10_000, 60);
+        principalCache.getPrincipal(user.getCpf());
+    }
+
+    @Benchmark
+    public List<SimpleGrantedAuthority> perRequestMapping() {
+        return SecurityFilter.ROLE_PERMISSIONS.getOrDefault(user.getRole(), Collections.emptyList())
+                .stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Optional<CachedPrincipal> cachedPrincipal() {
+        return principalCache.getPrincipal(user.getCpf());
+    }
+}
@@ -0,0 +1,121 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.model.user.UserRole;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Objetos compartilhados pelos benchmarks. Nada aqui acessa a AWS ou o banco.
+ */
+final class BenchmarkFixtures {
+
+    static final String BUCKET = "container-view-benchmark";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Endpoint S3 local (S3Proxy, MinIO...). A assinatura de URLs é feita localmente pelo
+     * SDK; só os benchmarks de upload precisam do servidor rodando.
+     */
+    static final URI LOCAL_S3_ENDPOINT = URI.create(System.getProperty("benchmark.s3.endpoint", "http://localhost:9000"));
+
+    private static final StaticCredentialsProvider LOCAL_CREDENTIALS =
+            StaticCredentialsProvider.create(AwsBasicCredentials.create("benchmark", "benchmark"));
+
+    static S3AsyncClient localS3Client() {
+        return S3AsyncClient.builder()
+                .credentialsProvider(LOCAL_CREDENTIALS)
+                .region(Region.US_EAST_1)
+                .endpointOverride(LOCAL_S3_ENDPOINT)
+                .forcePathStyle(true)
+                .build();
+    }
+
+    static S3Presigner localS3Presigner() {
+        return S3Presigner.builder()
+                .credentialsProvider(LOCAL_CREDENTIALS)
+                .region(Region.US_EAST_1)
+                .endpointOverride(LOCAL_S3_ENDPOINT)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+    }
+
+    static S3Service localS3Service(S3AsyncClient s3Client) {
+        S3Service s3Service = new S3Service(s3Client, localS3Presigner());
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "imagesFolder", "images");
+        return s3Service;
+    }
+
+    static S3Service localS3Service() {
+        return localS3Service(localS3Client());
+    }
+
+    static User user(UserRole role) {
+        User user = new User("Bench", "Mark", "12345678900", "bench@example.com", "senha", role);
+        user.setId(1L);
+        return user;
+    }
+
+    static Operation operation(long id, User user) {
+        Operation operation = new Operation();
+        operation.setId(id);
+        operation.setUser(user);
+        operation.setCtv("CTV-" + id);
+        operation.setExporter("Exportadora Benchmark S.A.");
+        operation.setShip("MSC Benchmark");
+        operation.setTerminal("Terminal 1");
+        operation.setDeadlineDraft(new Date());
+        operation.setDestination("Rotterdam");
+        operation.setArrivalDate(new Date());
+        operation.setReservation("RES-" + id);
+        operation.setRefClient("REF-" + id);
+        operation.setLoadDeadline("2026-12-31");
+        operation.setStatus(OperationStatus.OPEN);
+        operation.setCreatedAt(LocalDateTime.now());
+        return operation;
+    }
+
+    static List<Operation> operations(int count) {
+        User user = user(UserRole.INSPETOR);
+        List<Operation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            operations.add(operation(i + 1, user));
+        }
+        return operations;
+    }
+
+    static List<Container> containers(int count) {
+        User user = user(UserRole.INSPETOR);
+        Operation operation = operation(1, user);
+        List<Container> containers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Container container = new Container("MSCU" + (1000000 + i), "Container de benchmark " + i, user, operation,
+                    1200, 2.3f, 25.0f, 27.3f, "AG-" + i, new ArrayList<>(List.of("S1-" + i, "S2-" + i)),
+                    ContainerStatus.OPEN);
+            container.setId((long) i + 1);
+            container.setCreatedAt(LocalDateTime.now());
+            containers.add(container);
+        }
+        return containers;
+    }
+}
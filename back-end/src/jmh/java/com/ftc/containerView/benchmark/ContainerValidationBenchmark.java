@@ -0,0 +1,50 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.model.images.ContainerImage;
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import com.ftc.containerView.service.ContainerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de ContainerService.validateMandatoryCategories ao finalizar um container.
+ * O método não usa repositórios, então o serviço é criado sem dependências.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerValidationBenchmark {
+
+    @Param({"7", "70"})
+    public int imagesCount;
+
+    private ContainerService containerService;
+    private List<ContainerImage> images;
+
+    @Setup
+    public void setup() {
+        containerService = new ContainerService(null, null, null, null, null, null, null);
+
+        ContainerImageCategory[] categories = ContainerImageCategory.values();
+        images = new ArrayList<>(imagesCount);
+        for (int i = 0; i < imagesCount; i++) {
+            ContainerImage image = new ContainerImage();
+            image.setId((long) i);
+            image.setImageKey("containerImage_" + i + ".jpg");
+            image.setCategory(categories[i % categories.length]);
+            images.add(image);
+        }
+    }
+
+    @Benchmark
+    public List<ContainerImage> validateMandatoryCategories() {
+        containerService.validateMandatoryCategories(images);
+        return images;
+    }
+}
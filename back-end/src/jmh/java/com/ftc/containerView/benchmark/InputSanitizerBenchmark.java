@@ -0,0 +1,40 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.infra.security.InputSanitizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de InputSanitizer.sanitizePlainText, chamado para cada parâmetro de cada requisição
+ * (SanitizationInterceptor) e para os campos de texto dos cadastros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputSanitizerBenchmark {
+
+    @Param({"plain", "html", "long"})
+    public String input;
+
+    private InputSanitizer sanitizer;
+    private String value;
+
+    @Setup
+    public void setup() {
+        sanitizer = new InputSanitizer();
+        value = switch (input) {
+            case "plain" -> "MSCU1234567";
+            case "html" -> "<b>Exportadora</b> <script>alert('x')</script> Benchmark S.A.";
+            default -> "Descrição do container com observações da inspeção ".repeat(20);
+        };
+    }
+
+    @Benchmark
+    public String sanitizePlainText() {
+        return sanitizer.sanitizePlainText(value);
+    }
+}
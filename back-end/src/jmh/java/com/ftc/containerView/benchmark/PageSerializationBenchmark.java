@@ -0,0 +1,73 @@
+package com.ftc.containerView.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerSummaryDTO;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das páginas de GET /containers e GET /operations, com um
+ * ObjectMapper configurado como o do Spring MVC: entidades completas (formato antigo)
+ * contra os DTOs de listagem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Container> containerPage;
+    private Page<Operation> operationPage;
+    private Page<ContainerSummaryDTO> containerSummaryPage;
+    private Page<OperationSummaryDTO> operationSummaryPage;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        containerPage = new PageImpl<>(BenchmarkFixtures.containers(pageSize), PageRequest.of(0, pageSize), 1000);
+        operationPage = new PageImpl<>(BenchmarkFixtures.operations(pageSize), PageRequest.of(0, pageSize), 1000);
+        containerSummaryPage = containerPage.map(c -> new ContainerSummaryDTO(c.getId(), c.getContainerId(),
+                c.getDescription(), c.getStatus(), c.getOperation().getId(), c.getUser().getId(), c.getSacksCount(),
+                c.getTareTons(), c.getLiquidWeight(), c.getGrossWeight(), c.getAgencySeal(), c.getOtherSeals(),
+                c.getCreatedAt(), c.getUpdatedAt(), c.getUpdatedByCpf()));
+        operationSummaryPage = operationPage.map(o -> new OperationSummaryDTO(o.getId(), o.getCtv(), o.getExporter(),
+                o.getShip(), o.getTerminal(), o.getDeadlineDraft(), o.getDestination(), o.getArrivalDate(),
+                o.getReservation(), o.getRefClient(), o.getLoadDeadline(), o.getStatus(), o.getUser().getId(),
+                o.getCreatedAt(), o.getUpdatedAt(), o.getUpdatedByCpf()));
+    }
+
+    @Benchmark
+    public byte[] serializeContainerPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(containerPage);
+    }
+
+    @Benchmark
+    public byte[] serializeOperationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(operationPage);
+    }
+
+    @Benchmark
+    public byte[] serializeContainerSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(containerSummaryPage);
+    }
+
+    @Benchmark
+    public byte[] serializeOperationSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(operationSummaryPage);
+    }
+}
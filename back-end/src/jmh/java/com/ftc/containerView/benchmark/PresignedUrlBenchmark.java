@@ -0,0 +1,50 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
+import com.ftc.containerView.infra.aws.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de URLs pré-assinadas, com um cliente S3 local (sem acesso à AWS).
+ *
+ * - generatePresignedUrl: assinatura SigV4 feita pelo SDK a cada chamada
+ * - cachedPresignedUrl: URL reaproveitada pelo PresignedUrlCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresignedUrlBenchmark {
+
+    private static final String IMAGE_KEY = "images/containerImage_4f1c2d3e_FIADA_42.jpg";
+
+    private S3Service s3Service;
+    private PresignedUrlCache presignedUrlCache;
+
+    @Setup
+    public void setup() {
+        s3Service = BenchmarkFixtures.localS3Service();
+        presignedUrlCache = new PresignedUrlCache(s3Service, new SimpleMeterRegistry(), 10_000, 0.5);
+        presignedUrlCache.getPresignedUrl(IMAGE_KEY, 120);
+    }
+
+    @TearDown
+    public void tearDown() {
+        s3Service.shutdown();
+    }
+
+    @Benchmark
+    public String generatePresignedUrl() {
+        return s3Service.generatePresignedUrl(IMAGE_KEY, 120);
+    }
+
+    @Benchmark
+    public String cachedPresignedUrl() {
+        return presignedUrlCache.getPresignedUrl(IMAGE_KEY, 120);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ftc.containerView.benchmark;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de upload de imagens para um S3 local. Requer um servidor compatível em
+ * benchmark.s3.endpoint (padrão http://localhost:9000, credenciais benchmark/benchmark),
+ * por exemplo S3Proxy com jclouds.provider=transient ou MinIO. Por isso fica fora de
+ * mvn -P jmh; rodar com mvn -P jmh -Djmh.includes=S3UploadThroughputBenchmark.
+ *
+ * - blockingThreadPool: N threads chamando o adaptador síncrono (uma thread por upload em andamento)
+ * - asyncComposed: N uploads em andamento via CompletableFuture, sem threads dedicadas
+ *
+ * Score em uploads por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class S3UploadThroughputBenchmark {
+
+    private static final int UPLOADS_PER_OP = 64;
+
+    @Param({"8", "32"})
+    public int concurrency;
+
+    @Param({"262144"})
+    public int objectSize;
+
+    private S3AsyncClient s3Client;
+    private S3Service s3Service;
+    private ExecutorService uploadThreads;
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        s3Client = BenchmarkFixtures.localS3Client();
+        try {
+            s3Client.createBucket(builder -> builder.bucket(BenchmarkFixtures.BUCKET)).join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof BucketAlreadyOwnedByYouException)) {
+                throw e;
+            }
+        }
+        s3Service = BenchmarkFixtures.localS3Service(s3Client);
+        uploadThreads = Executors.newFixedThreadPool(concurrency);
+        content = new byte[objectSize];
+        new Random(42).nextBytes(content);
+    }
+
+    @TearDown
+    public void tearDown() {
+        uploadThreads.shutdown();
+        s3Service.shutdown();
+        s3Client.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPLOADS_PER_OP)
+    public void blockingThreadPool() throws InterruptedException, ExecutionException {
+        List<Future<String>> uploads = new ArrayList<>(UPLOADS_PER_OP);
+        for (int i = 0; i < UPLOADS_PER_OP; i++) {
+            String fileName = "blocking_" + i + ".jpg";
+            uploads.add(uploadThreads.submit(() ->
+                    s3Service.uploadFile(new ByteArrayInputStream(content), content.length, fileName, "image/jpeg")));
+        }
+        for (Future<String> upload : uploads) {
+            upload.get();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPLOADS_PER_OP)
+    public void asyncComposed() throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<CompletableFuture<String>> uploads = new ArrayList<>(UPLOADS_PER_OP);
+        for (int i = 0; i < UPLOADS_PER_OP; i++) {
+            inFlight.acquire();
+            uploads.add(s3Service.uploadFileAsync(new ByteArrayInputStream(content), content.length, "async_" + i + ".jpg", "image/jpeg")
+                    .whenComplete((key, error) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -0,0 +1,90 @@
+package com.ftc.containerView.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.ftc.containerView.infra.security.auth.TempTokenService;
+import com.ftc.containerView.infra.security.auth.TokenAuthenticator;
+import com.ftc.containerView.infra.security.auth.TokenAuthenticator.VerifiedToken;
+import com.ftc.containerView.infra.security.auth.TokenService;
+import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.model.user.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de autenticação por requisição no SecurityFilter.
+ *
+ * - legacyPerRequest: comportamento antigo, Algorithm/JWTVerifier criados a cada chamada
+ *   e o token temporário verificado antes do token normal
+ * - reusedVerifier: TokenService com verificador criado uma única vez
+ * - authenticatorColdCache: TokenAuthenticator sem cache (decodifica uma vez, escolhe o verificador pelo issuer)
+ * - authenticatorWarmCache: TokenAuthenticator com o token já verificado em cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+    private static final String TEMP_SECRET = "benchmark-temp-secret";
+
+    private TokenService tokenService;
+    private TokenAuthenticator coldAuthenticator;
+    private TokenAuthenticator warmAuthenticator;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenService = new TokenService(SECRET);
+        TempTokenService tempTokenService = new TempTokenService(TEMP_SECRET);
+        coldAuthenticator = new TokenAuthenticator(tokenService, tempTokenService, new SimpleMeterRegistry(), 0, 0);
+        warmAuthenticator = new TokenAuthenticator(tokenService, tempTokenService, new SimpleMeterRegistry(), 10_000, 30);
+
+        token = tokenService.generateToken(
+                new User("Bench", "Mark", "12345678900", "bench@example.com", "senha", UserRole.INSPETOR));
+        warmAuthenticator.authenticate(token);
+    }
+
+    @Benchmark
+    public String legacyPerRequest() {
+        try {
+            String tempSubject = JWT.require(Algorithm.HMAC256(TEMP_SECRET))
+                    .withIssuer(TempTokenService.ISSUER)
+                    .build()
+                    .verify(token)
+                    .getSubject();
+            if (tempSubject != null) {
+                return tempSubject;
+            }
+        } catch (JWTVerificationException ignored) {
+            // token normal: cai na segunda verificação, como o filtro fazia
+        }
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer(TokenService.ISSUER)
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public String reusedVerifier() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> authenticatorColdCache() {
+        return coldAuthenticator.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> authenticatorWarmCache() {
+        return warmAuthenticator.authenticate(token);
+    }
+}
@@ -1,18 +1,31 @@
 package com.ftc.containerView.controller;
 
+import com.ftc.containerView.infra.async.ImageExportExecutor;
 import com.ftc.containerView.infra.aws.S3Service;
 import com.ftc.containerView.infra.errorhandling.exceptions.ContainerNotFoundException;
+import com.ftc.containerView.infra.pagination.Pagination;
 import com.ftc.containerView.infra.security.auth.UserContextService;
 import com.ftc.containerView.model.container.*;
 import com.ftc.containerView.model.images.AddImagesToContainerResultDTO;
 import com.ftc.containerView.model.images.ContainerImage;
 import com.ftc.containerView.model.images.ContainerImageCategory;
 import com.ftc.containerView.model.images.ContainerImageResponseDTO;
+import com.ftc.containerView.model.images.ContainerImageSummaryDTO;
+import com.ftc.containerView.model.ingestion.ImageIngestionJobDTO;
+import com.ftc.containerView.model.pagination.CursorSliceDTO;
+import com.ftc.containerView.model.upload.CreateUploadSessionDTO;
+import com.ftc.containerView.model.upload.UploadSessionDTO;
+import com.ftc.containerView.model.upload.UploadSessionResultDTO;
+import com.ftc.containerView.model.upload.UploadSessionTarget;
 import com.ftc.containerView.repositories.ContainerRepository;
 import com.ftc.containerView.repositories.OperationRepository;
 import com.ftc.containerView.repositories.UserRepository;
 import com.ftc.containerView.service.ContainerImageService;
 import com.ftc.containerView.service.ContainerService;
+import com.ftc.containerView.service.ImageExportService;
+import com.ftc.containerView.service.ImageExportService.ImageExport;
+import com.ftc.containerView.service.ImageIngestionService;
+import com.ftc.containerView.service.ImageUploadSessionService;
 import com.ftc.containerView.service.StoreImageService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -24,13 +37,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/containers")
@@ -42,16 +61,27 @@ public class ContainerController {
     private final StoreImageService storeImageService;
     private final ContainerRepository containerRepository;
     private final ContainerImageService containerImageService;
+    private final ImageIngestionService imageIngestionService;
+    private final ImageUploadSessionService imageUploadSessionService;
+    private final ImageExportService imageExportService;
+    private final ImageExportExecutor imageExportExecutor;
     private static final Logger logger = LoggerFactory.getLogger(ContainerController.class);
 
+    // Um manifesto de navio tem tipicamente até ~200 containers
+    private static final int MAX_BATCH_SIZE = 200;
+
     @Autowired
-    public ContainerController(ContainerService containerService, S3Service s3Service, UserContextService userContextService, UserRepository userRepository, OperationRepository operationRepository, StoreImageService storeImageService, ContainerRepository containerRepository, ContainerImageService containerImageService) {
+    public ContainerController(ContainerService containerService, S3Service s3Service, UserContextService userContextService, UserRepository userRepository, OperationRepository operationRepository, StoreImageService storeImageService, ContainerRepository containerRepository, ContainerImageService containerImageService, ImageIngestionService imageIngestionService, ImageUploadSessionService imageUploadSessionService, ImageExportService imageExportService, ImageExportExecutor imageExportExecutor) {
         this.containerService = containerService;
         this.s3Service = s3Service;
         this.userContextService = userContextService;
         this.storeImageService = storeImageService;
         this.containerRepository = containerRepository;
         this.containerImageService = containerImageService;
+        this.imageIngestionService = imageIngestionService;
+        this.imageUploadSessionService = imageUploadSessionService;
+        this.imageExportService = imageExportService;
+        this.imageExportExecutor = imageExportExecutor;
     }
 
     @PostMapping
@@ -81,7 +111,7 @@ public class ContainerController {
     }
 
     @PostMapping("/batch")
-    public ResponseEntity<List<Container>> createMultipleContainers(
+    public ResponseEntity<BatchContainerResultDTO> createMultipleContainers(
             @RequestBody @Valid List<CreateContainerDTO> containers,
             HttpServletRequest request) {
 
@@ -98,19 +128,23 @@ public class ContainerController {
                 return ResponseEntity.badRequest().build();
             }
 
-            if (containers.size() > 50) {
-                logger.error("Tentativa de criar {} containers. Máximo permitido: 50", containers.size());
+            if (containers.size() > MAX_BATCH_SIZE) {
+                logger.error("Tentativa de criar {} containers. Máximo permitido: {}", containers.size(), MAX_BATCH_SIZE);
                 return ResponseEntity.badRequest().build();
             }
 
-            // Criar containers usando o service
-            List<Container> createdContainers = containerService.createMultipleContainers(containers, userId);
+            // Criar containers usando o service (relatório por linha)
+            BatchContainerResultDTO result = containerService.createMultipleContainers(containers, userId);
 
             long execTime = System.currentTimeMillis() - startTime;
-            logger.info("POST /containers/batch concluído. {} containers criados. Tempo: {}ms",
-                    createdContainers.size(), execTime);
+            logger.info("POST /containers/batch concluído. {} containers criados, {} rejeitados. Tempo: {}ms",
+                    result.created(), result.failed(), execTime);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdContainers);
+            // 201: todos criados / 207: parte criada / 400: nenhum criado
+            HttpStatus status = result.failed() == 0 ? HttpStatus.CREATED
+                    : result.created() > 0 ? HttpStatus.MULTI_STATUS
+                    : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(result);
 
         } catch (Exception e) {
             logger.error("Erro ao criar múltiplos containers: {}", e.getMessage(), e);
@@ -153,15 +187,10 @@ public class ContainerController {
 
         Container newContainer = containerService.createContainer(containerDTO);
 
-        List<ContainerImage> containerImages = new ArrayList<>();
+        Map<ContainerImageCategory, MultipartFile[]> imagesToStore = imagesByCategory(vazioForradoImages, fiadaImages,
+                cheioAbertoImages, meiaPortaImages, lacradoFechadoImages, lacresPrincipalImages, lacresOutrosImages);
 
-        containerImages.addAll(storeImageService.storeImagesToContainer(vazioForradoImages, newContainer.getId(), ContainerImageCategory.VAZIO_FORRADO));
-        containerImages.addAll(storeImageService.storeImagesToContainer(fiadaImages, newContainer.getId(), ContainerImageCategory.FIADA));
-        containerImages.addAll(storeImageService.storeImagesToContainer(cheioAbertoImages, newContainer.getId(), ContainerImageCategory.CHEIO_ABERTO));
-        containerImages.addAll(storeImageService.storeImagesToContainer(meiaPortaImages, newContainer.getId(), ContainerImageCategory.MEIA_PORTA));
-        containerImages.addAll(storeImageService.storeImagesToContainer(lacradoFechadoImages, newContainer.getId(), ContainerImageCategory.LACRADO_FECHADO));
-        containerImages.addAll(storeImageService.storeImagesToContainer(lacresPrincipalImages, newContainer.getId(), ContainerImageCategory.LACRES_PRINCIPAIS));
-        containerImages.addAll(storeImageService.storeImagesToContainer(lacresOutrosImages, newContainer.getId(), ContainerImageCategory.LACRES_OUTROS));
+        List<ContainerImage> containerImages = storeImageService.storeImagesToContainer(imagesToStore, newContainer.getId());
 
         newContainer.getContainerImages().addAll(containerImages); // Adiciona as imagens ao containerContainerImages(containerImages);
         containerRepository.save(newContainer);
@@ -228,8 +257,142 @@ public class ContainerController {
         }
     }
 
+    /**
+     * Versão assíncrona de POST /containers/images: cria o container, grava as imagens para
+     * processamento em background e responde 202 com o job. Reenvios com a mesma
+     * Idempotency-Key devolvem o mesmo job.
+     */
+    @PostMapping(path = "/images/async", consumes = "multipart/form-data")
+    public ResponseEntity<ImageIngestionJobDTO> createContainerWithImagesAsync(@RequestParam("containerId") String containerId,
+                                                                        @RequestParam("description") String description,
+                                                                        @RequestParam("operationId") Long operationId,
+                                                                        @RequestParam("sacksCount") int sacksCount,
+                                                                        @RequestParam("tareTons") float tareTons,
+                                                                        @RequestParam("liquidWeight") float liquidWeight,
+                                                                        @RequestParam("grossWeight") float grossWeight,
+                                                                        @RequestParam("agencySeal") String agencySeal,
+                                                                        @RequestParam("otherSeals") List<String> otherSeals,
+                                                                        @RequestParam(value = "vazioForrado", required = false) MultipartFile[] vazioForradoImages,
+                                                                        @RequestParam(value = "fiada", required = false) MultipartFile[] fiadaImages,
+                                                                        @RequestParam(value = "cheioAberto", required = false) MultipartFile[] cheioAbertoImages,
+                                                                        @RequestParam(value = "meiaPorta", required = false) MultipartFile[] meiaPortaImages,
+                                                                        @RequestParam(value = "lacradoFechado", required = false) MultipartFile[] lacradoFechadoImages,
+                                                                        @RequestParam(value = "lacresPrincipal", required = false) MultipartFile[] lacresPrincipalImages,
+                                                                        @RequestParam(value = "lacresOutros", required = false) MultipartFile[] lacresOutrosImages,
+                                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                        HttpServletRequest request) {
+
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /containers/images/async - Recebendo container com imagens. ContainerId: {}, UserId: {}, IP: {}",
+                containerId, userId, request.getRemoteAddr());
+
+        long startTime = System.currentTimeMillis();
+
+        CreateContainerDTO containerDTO = new CreateContainerDTO(containerId, description, new ArrayList<>(), userId, operationId,
+                sacksCount, tareTons, liquidWeight, grossWeight, agencySeal, otherSeals, ContainerStatus.PENDING);
+
+        Map<ContainerImageCategory, MultipartFile[]> imagesToStore = imagesByCategory(vazioForradoImages, fiadaImages,
+                cheioAbertoImages, meiaPortaImages, lacradoFechadoImages, lacresPrincipalImages, lacresOutrosImages);
+
+        ImageIngestionJobDTO job = imageIngestionService.submitNewContainer(containerDTO, imagesToStore, userId, idempotencyKey);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /containers/images/async concluído. Job {} registrado. Tempo de resposta: {}ms",
+                job.jobId(), executionTime);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/containers/ingestion-jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    /**
+     * Versão assíncrona de POST /containers/{containerId}/images (ver createContainerWithImagesAsync).
+     */
+    @PostMapping(path = "/{containerId}/images/async", consumes = "multipart/form-data")
+    public ResponseEntity<ImageIngestionJobDTO> addImagesToContainerAsync(
+            @PathVariable String containerId,
+            @RequestParam(value = "vazioForrado", required = false) MultipartFile[] vazioForradoImages,
+            @RequestParam(value = "fiada", required = false) MultipartFile[] fiadaImages,
+            @RequestParam(value = "cheioAberto", required = false) MultipartFile[] cheioAbertoImages,
+            @RequestParam(value = "meiaPorta", required = false) MultipartFile[] meiaPortaImages,
+            @RequestParam(value = "lacradoFechado", required = false) MultipartFile[] lacradoFechadoImages,
+            @RequestParam(value = "lacresPrincipal", required = false) MultipartFile[] lacresPrincipalImages,
+            @RequestParam(value = "lacresOutros", required = false) MultipartFile[] lacresOutrosImages,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /containers/{}/images/async - Recebendo imagens do container. UserId: {}, IP: {}",
+                containerId, userId, request.getRemoteAddr());
+
+        Map<ContainerImageCategory, MultipartFile[]> imagesToStore = imagesByCategory(vazioForradoImages, fiadaImages,
+                cheioAbertoImages, meiaPortaImages, lacradoFechadoImages, lacresPrincipalImages, lacresOutrosImages);
+
+        ImageIngestionJobDTO job = imageIngestionService.submitImagesToContainer(containerId, imagesToStore, userId, idempotencyKey);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /containers/{}/images/async concluído. Job {} registrado. Tempo de resposta: {}ms",
+                containerId, job.jobId(), execTime);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/containers/ingestion-jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    /**
+     * Abre uma sessão de upload direto ao S3: devolve uma URL PUT pré-assinada por arquivo.
+     * Depois dos PUTs o cliente chama POST /containers/images/upload-sessions/{sessionId}/complete.
+     */
+    @PostMapping("/{containerId}/images/upload-sessions")
+    public ResponseEntity<UploadSessionDTO> createImageUploadSession(@PathVariable String containerId,
+                                                                     @RequestBody CreateUploadSessionDTO uploadSessionDTO,
+                                                                     HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /containers/{}/images/upload-sessions - Abrindo sessão de upload. UserId: {}, IP: {}",
+                containerId, userId, request.getRemoteAddr());
+
+        UploadSessionDTO session = imageUploadSessionService.createContainerSession(containerId, uploadSessionDTO, userId);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /containers/{}/images/upload-sessions concluído. Sessão {} com {} URLs. Tempo de resposta: {}ms",
+                containerId, session.sessionId(), session.uploads().size(), execTime);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @PostMapping("/images/upload-sessions/{sessionId}/complete")
+    public ResponseEntity<UploadSessionResultDTO> completeImageUploadSession(@PathVariable Long sessionId,
+                                                                             HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /containers/images/upload-sessions/{}/complete - Finalizando sessão de upload. UserId: {}, IP: {}",
+                sessionId, userId, request.getRemoteAddr());
+
+        UploadSessionResultDTO result = imageUploadSessionService.complete(UploadSessionTarget.CONTAINER, sessionId, userId);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /containers/images/upload-sessions/{}/complete concluído. {} imagens registradas. Tempo de resposta: {}ms",
+                sessionId, result.registeredCount(), execTime);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/ingestion-jobs/{jobId}")
+    public ResponseEntity<ImageIngestionJobDTO> getIngestionJob(@PathVariable Long jobId, HttpServletRequest request) {
+        Long userId = userContextService.getCurrentUserId();
+        logger.info("GET /containers/ingestion-jobs/{} - Consultando job de ingestão. UserId: {}, IP: {}",
+                jobId, userId, request.getRemoteAddr());
+        return ResponseEntity.ok(imageIngestionService.getJob(jobId, userId));
+    }
+
     @GetMapping
-    public ResponseEntity<Page<Container>> getAllContainers(
+    public ResponseEntity<Page<ContainerSummaryDTO>> getAllContainers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -245,10 +408,10 @@ public class ContainerController {
             logger.warn("Tamanho da página limitado a 100 itens");
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = Pagination.sort(ContainerSortField.class, sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Container> containers = containerService.getContainers(pageable);
+        Page<ContainerSummaryDTO> containers = containerService.getContainers(pageable);
 
         long execTime = System.currentTimeMillis() - startTime;
         logger.info("GET /containers concluído. Página {} de {} ({} containers de {} total). Tempo: {}ms",
@@ -259,7 +422,7 @@ public class ContainerController {
     }
 
     @GetMapping("/by-operation/{operationId}")
-    public ResponseEntity<Page<Container>> getContainersByOperation(
+    public ResponseEntity<Page<ContainerSummaryDTO>> getContainersByOperation(
             @PathVariable Long operationId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -275,10 +438,10 @@ public class ContainerController {
             size = 100;
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = Pagination.sort(ContainerSortField.class, sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Container> containers = containerService.getContainersByOperation(operationId, pageable);
+        Page<ContainerSummaryDTO> containers = containerService.getContainersByOperation(operationId, pageable);
 
         long execTime = System.currentTimeMillis() - startTime;
         logger.info("GET /containers/by-operation/{} concluído. Página {} de {} ({} containers). Tempo: {}ms",
@@ -289,7 +452,7 @@ public class ContainerController {
     }
 
     @GetMapping("/by-status/{status}")
-    public ResponseEntity<Page<Container>> getContainersByStatus(
+    public ResponseEntity<Page<ContainerSummaryDTO>> getContainersByStatus(
             @PathVariable ContainerStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -305,10 +468,10 @@ public class ContainerController {
             size = 100;
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = Pagination.sort(ContainerSortField.class, sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Container> containers = containerService.getContainersByStatus(status, pageable);
+        Page<ContainerSummaryDTO> containers = containerService.getContainersByStatus(status, pageable);
 
         long execTime = System.currentTimeMillis() - startTime;
         logger.info("GET /containers/by-status/{} concluído. Página {} de {} ({} containers). Tempo: {}ms",
@@ -318,6 +481,78 @@ public class ContainerController {
         return ResponseEntity.ok(containers);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorSliceDTO<ContainerSummaryDTO>> getContainersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        logger.info("GET /containers/cursor - Tamanho: {}, Ordenação: {} {}. IP: {}",
+                size, sortBy, sortDirection, request.getRemoteAddr());
+
+        CursorSliceDTO<ContainerSummaryDTO> slice = containerService.getContainersSlice(
+                null, null, sortBy, sortDirection, cursor, sliceSize(size));
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /containers/cursor concluído. {} containers, próxima fatia: {}. Tempo: {}ms",
+                slice.size(), slice.hasNext(), execTime);
+
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/by-operation/{operationId}/cursor")
+    public ResponseEntity<CursorSliceDTO<ContainerSummaryDTO>> getContainersByOperationByCursor(
+            @PathVariable Long operationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        logger.info("GET /containers/by-operation/{}/cursor - Tamanho: {}. IP: {}",
+                operationId, size, request.getRemoteAddr());
+
+        CursorSliceDTO<ContainerSummaryDTO> slice = containerService.getContainersSlice(
+                operationId, null, sortBy, sortDirection, cursor, sliceSize(size));
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /containers/by-operation/{}/cursor concluído. {} containers, próxima fatia: {}. Tempo: {}ms",
+                operationId, slice.size(), slice.hasNext(), execTime);
+
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/by-status/{status}/cursor")
+    public ResponseEntity<CursorSliceDTO<ContainerSummaryDTO>> getContainersByStatusByCursor(
+            @PathVariable ContainerStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        logger.info("GET /containers/by-status/{}/cursor - Tamanho: {}. IP: {}",
+                status, size, request.getRemoteAddr());
+
+        CursorSliceDTO<ContainerSummaryDTO> slice = containerService.getContainersSlice(
+                null, status, sortBy, sortDirection, cursor, sliceSize(size));
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /containers/by-status/{}/cursor concluído. {} containers, próxima fatia: {}. Tempo: {}ms",
+                status, slice.size(), slice.hasNext(), execTime);
+
+        return ResponseEntity.ok(slice);
+    }
+
+    private static int sliceSize(int size) {
+        return Math.max(1, Math.min(size, Pagination.MAX_PAGE_SIZE));
+    }
+
     @PutMapping("/{containerId}")
     public ResponseEntity<Container> updateContainer(@PathVariable String containerId,
                                                      @RequestBody UpdateContainerDTO updateContainerDTO,
@@ -398,6 +633,62 @@ public class ContainerController {
         return ResponseEntity.ok(container);
     }
 
+    @GetMapping("/{id}/images")
+    public ResponseEntity<Map<ContainerImageCategory, List<ContainerImageResponseDTO>>> getContainerImageGallery(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "120") int expirationMinutes,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        logger.info("GET /containers/{}/images - Buscando todas as imagens do container. IP: {}", id, request.getRemoteAddr());
+
+        long startTime = System.currentTimeMillis();
+
+        List<ContainerImageSummaryDTO> images = containerImageService.findContainerImageSummaries(id);
+        // Galeria inalterada e URLs entregues ainda reaproveitáveis: responde 304 sem assinar nenhuma URL
+        Optional<String> cachedETag = containerImageService.findCachedGalleryETag(images, expirationMinutes);
+        if (cachedETag.isPresent() && eTagMatches(ifNoneMatch, cachedETag.get())) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("GET /containers/{}/images concluído sem alterações (304). Tempo de resposta: {}ms", id, executionTime);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cachedETag.get()).build();
+        }
+
+        List<ContainerImageResponseDTO> signedImages = containerImageService.signImages(images, expirationMinutes);
+        Map<ContainerImageCategory, List<ContainerImageResponseDTO>> gallery = containerImageService.buildImageGallery(signedImages);
+        String eTag = containerImageService.computeGalleryETag(signedImages);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /containers/{}/images concluído. Encontradas {} imagens. Tempo de resposta: {}ms",
+                id, images.size(), executionTime);
+
+        return ResponseEntity.ok().eTag(eTag).body(gallery);
+    }
+
+    /**
+     * Todas as imagens do container em um ZIP gerado em stream (pasta por categoria).
+     * Aceita Range/If-Range para retomar downloads interrompidos.
+     */
+    @GetMapping("/{id}/images/export")
+    public ResponseEntity<StreamingResponseBody> exportContainerImages(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("GET /containers/{}/images/export - Exportando imagens em ZIP. UserId: {}, Range: {}, IP: {}",
+                id, userId, range, request.getRemoteAddr());
+
+        imageExportExecutor.checkCapacity();
+        ImageExport export = imageExportService.prepareContainerExport(id);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /containers/{}/images/export preparado. {} imagens, {} bytes. Tempo de preparação: {}ms",
+                id, export.layout().size(), export.layout().length(), execTime);
+
+        return imageExportExecutor.submit(request, imageExportService.toResponse(export, range, ifRange));
+    }
+
     @GetMapping("/{id}/images/VAZIO_FORRADO")
     public ResponseEntity<List<ContainerImageResponseDTO>> getContainerImagesVazioForrado(@PathVariable String id, @RequestParam(defaultValue = "120") int expirationMinutes, HttpServletRequest request) {
         logger.info("GET /containers/{}/images/VAZIO_FORRADO - Buscando imagens categorizadas do container. IP: {}", id, request.getRemoteAddr());
@@ -567,6 +858,37 @@ public class ContainerController {
         return ResponseEntity.noContent().build();
     }
 
+    private boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals("\"" + eTag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private Map<ContainerImageCategory, MultipartFile[]> imagesByCategory(MultipartFile[] vazioForradoImages,
+                                                                          MultipartFile[] fiadaImages,
+                                                                          MultipartFile[] cheioAbertoImages,
+                                                                          MultipartFile[] meiaPortaImages,
+                                                                          MultipartFile[] lacradoFechadoImages,
+                                                                          MultipartFile[] lacresPrincipalImages,
+                                                                          MultipartFile[] lacresOutrosImages) {
+        Map<ContainerImageCategory, MultipartFile[]> imagesToStore = new EnumMap<>(ContainerImageCategory.class);
+        imagesToStore.put(ContainerImageCategory.VAZIO_FORRADO, vazioForradoImages);
+        imagesToStore.put(ContainerImageCategory.FIADA, fiadaImages);
+        imagesToStore.put(ContainerImageCategory.CHEIO_ABERTO, cheioAbertoImages);
+        imagesToStore.put(ContainerImageCategory.MEIA_PORTA, meiaPortaImages);
+        imagesToStore.put(ContainerImageCategory.LACRADO_FECHADO, lacradoFechadoImages);
+        imagesToStore.put(ContainerImageCategory.LACRES_PRINCIPAIS, lacresPrincipalImages);
+        imagesToStore.put(ContainerImageCategory.LACRES_OUTROS, lacresOutrosImages);
+        return imagesToStore;
+    }
 }
-
@@ -1,17 +1,29 @@
 package com.ftc.containerView.controller;
 
+import com.ftc.containerView.infra.async.ImageExportExecutor;
 import com.ftc.containerView.infra.errorhandling.exceptions.EntityAlreadyCompletedException;
 import com.ftc.containerView.infra.errorhandling.exceptions.ImageNotFoundException;
 import com.ftc.containerView.infra.errorhandling.exceptions.ImageStorageException;
 import com.ftc.containerView.infra.errorhandling.exceptions.OperationNotFoundException;
+import com.ftc.containerView.infra.pagination.Pagination;
 import com.ftc.containerView.infra.security.auth.UserContextService;
 import com.ftc.containerView.model.container.Container;
 import com.ftc.containerView.model.images.AddSackImagesResultDTO;
 import com.ftc.containerView.model.images.SackImageResponseDTO;
 import com.ftc.containerView.model.operation.OperationDTO;
+import com.ftc.containerView.model.operation.OperationSortField;
 import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
 import com.ftc.containerView.model.operation.UpdateOperationDTO;
+import com.ftc.containerView.model.pagination.CursorSliceDTO;
+import com.ftc.containerView.model.upload.CreateUploadSessionDTO;
+import com.ftc.containerView.model.upload.UploadSessionDTO;
+import com.ftc.containerView.model.upload.UploadSessionResultDTO;
+import com.ftc.containerView.model.upload.UploadSessionTarget;
+import com.ftc.containerView.service.ImageExportService;
+import com.ftc.containerView.service.ImageExportService.ImageExport;
+import com.ftc.containerView.service.ImageUploadSessionService;
 import com.ftc.containerView.service.OperationService;
 import com.ftc.containerView.service.SackImageService;
 import com.ftc.containerView.service.StoreImageService;
@@ -23,10 +35,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -42,19 +56,25 @@ public class OperationController {
     private final UserContextService userContextService;
     private static final Logger logger = LoggerFactory.getLogger(OperationController.class);
     private final SackImageService sackImageService;
+    private final ImageUploadSessionService imageUploadSessionService;
+    private final ImageExportService imageExportService;
+    private final ImageExportExecutor imageExportExecutor;
 
 
     @Autowired
-    public OperationController(OperationService operationService, StoreImageService storeImageService, UserContextService userContextService, SackImageService sackImageService) {
+    public OperationController(OperationService operationService, StoreImageService storeImageService, UserContextService userContextService, SackImageService sackImageService, ImageUploadSessionService imageUploadSessionService, ImageExportService imageExportService, ImageExportExecutor imageExportExecutor) {
         this.operationService = operationService;
         this.storeImageService = storeImageService;
         this.userContextService = userContextService;
         logger.info("OperationController inicializado com sucesso");
         this.sackImageService = sackImageService;
+        this.imageUploadSessionService = imageUploadSessionService;
+        this.imageExportService = imageExportService;
+        this.imageExportExecutor = imageExportExecutor;
     }
 
     @GetMapping
-    public ResponseEntity<Page<Operation>> getAllOperations(
+    public ResponseEntity<Page<OperationSummaryDTO>> getAllOperations(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -70,10 +90,10 @@ public class OperationController {
             logger.warn("Tamanho da página limitado a 100 itens");
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = Pagination.sort(OperationSortField.class, sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Operation> operations = operationService.findOperations(pageable);
+        Page<OperationSummaryDTO> operations = operationService.findOperations(pageable);
 
         long execTime = System.currentTimeMillis() - startTime;
         logger.info("GET /operations concluído. Página {} de {} ({} operações de {} total). Tempo: {}ms",
@@ -83,7 +103,7 @@ public class OperationController {
         return ResponseEntity.ok(operations);
     }
     @GetMapping("/by-status/{status}")
-    public ResponseEntity<Page<Operation>> getOperationsByStatus(
+    public ResponseEntity<Page<OperationSummaryDTO>> getOperationsByStatus(
             @PathVariable OperationStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -99,10 +119,10 @@ public class OperationController {
             size = 100;
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = Pagination.sort(OperationSortField.class, sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Operation> operations = operationService.getOperationsByStatus(status, pageable);
+        Page<OperationSummaryDTO> operations = operationService.getOperationsByStatus(status, pageable);
 
         long execTime = System.currentTimeMillis() - startTime;
         logger.info("GET /operations/by-status/{} concluído. Página {} de {} ({} operações). Tempo: {}ms",
@@ -112,6 +132,55 @@ public class OperationController {
         return ResponseEntity.ok(operations);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorSliceDTO<OperationSummaryDTO>> getOperationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        logger.info("GET /operations/cursor - Tamanho: {}, Ordenação: {} {}. IP: {}",
+                size, sortBy, sortDirection, request.getRemoteAddr());
+
+        CursorSliceDTO<OperationSummaryDTO> slice = operationService.getOperationsSlice(
+                null, sortBy, sortDirection, cursor, sliceSize(size));
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /operations/cursor concluído. {} operações, próxima fatia: {}. Tempo: {}ms",
+                slice.size(), slice.hasNext(), execTime);
+
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/by-status/{status}/cursor")
+    public ResponseEntity<CursorSliceDTO<OperationSummaryDTO>> getOperationsByStatusByCursor(
+            @PathVariable OperationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            HttpServletRequest request) {
+
+        long startTime = System.currentTimeMillis();
+        logger.info("GET /operations/by-status/{}/cursor - Tamanho: {}. IP: {}",
+                status, size, request.getRemoteAddr());
+
+        CursorSliceDTO<OperationSummaryDTO> slice = operationService.getOperationsSlice(
+                status, sortBy, sortDirection, cursor, sliceSize(size));
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /operations/by-status/{}/cursor concluído. {} operações, próxima fatia: {}. Tempo: {}ms",
+                status, slice.size(), slice.hasNext(), execTime);
+
+        return ResponseEntity.ok(slice);
+    }
+
+    private static int sliceSize(int size) {
+        return Math.max(1, Math.min(size, Pagination.MAX_PAGE_SIZE));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Operation> getOperationsById(@PathVariable Long id, HttpServletRequest request) {
 
@@ -216,6 +285,47 @@ public class OperationController {
         }
     }
 
+    /**
+     * Abre uma sessão de upload direto ao S3 para imagens de sacaria (ver
+     * POST /containers/{containerId}/images/upload-sessions).
+     */
+    @PostMapping("/{id}/sack-images/upload-sessions")
+    public ResponseEntity<UploadSessionDTO> createSackImageUploadSession(@PathVariable Long id,
+                                                                         @RequestBody CreateUploadSessionDTO uploadSessionDTO,
+                                                                         HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /operations/{}/sack-images/upload-sessions - Abrindo sessão de upload. UserId: {}, IP: {}",
+                id, userId, request.getRemoteAddr());
+
+        UploadSessionDTO session = imageUploadSessionService.createSackSession(id, uploadSessionDTO, userId);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /operations/{}/sack-images/upload-sessions concluído. Sessão {} com {} URLs. Tempo de resposta: {}ms",
+                id, session.sessionId(), session.uploads().size(), execTime);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @PostMapping("/sack-images/upload-sessions/{sessionId}/complete")
+    public ResponseEntity<UploadSessionResultDTO> completeSackImageUploadSession(@PathVariable Long sessionId,
+                                                                                 HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("POST /operations/sack-images/upload-sessions/{}/complete - Finalizando sessão de upload. UserId: {}, IP: {}",
+                sessionId, userId, request.getRemoteAddr());
+
+        UploadSessionResultDTO result = imageUploadSessionService.complete(UploadSessionTarget.SACK, sessionId, userId);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("POST /operations/sack-images/upload-sessions/{}/complete concluído. {} imagens registradas. Tempo de resposta: {}ms",
+                sessionId, result.registeredCount(), execTime);
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}/sack-images")
     public ResponseEntity<List<SackImageResponseDTO>> getSackImages(
             @PathVariable Long id,
@@ -247,6 +357,32 @@ public class OperationController {
         }
     }
 
+    /**
+     * Todas as imagens da operação em um ZIP gerado em stream: uma pasta por container e
+     * categoria, mais a pasta sacaria. Aceita Range/If-Range para retomar downloads.
+     */
+    @GetMapping("/{id}/images/export")
+    public ResponseEntity<StreamingResponseBody> exportOperationImages(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        Long userId = userContextService.getCurrentUserId();
+
+        logger.info("GET /operations/{}/images/export - Exportando imagens em ZIP. UserId: {}, Range: {}, IP: {}",
+                id, userId, range, request.getRemoteAddr());
+
+        imageExportExecutor.checkCapacity();
+        ImageExport export = imageExportService.prepareOperationExport(id);
+
+        long execTime = System.currentTimeMillis() - startTime;
+        logger.info("GET /operations/{}/images/export preparado. {} imagens, {} bytes. Tempo de preparação: {}ms",
+                id, export.layout().size(), export.layout().length(), execTime);
+
+        return imageExportExecutor.submit(request, imageExportService.toResponse(export, range, ifRange));
+    }
+
     @DeleteMapping("/{operationId}/sack-images/{imageId}")
     public ResponseEntity<Void> deleteSackImage(
             @PathVariable Long operationId,
@@ -0,0 +1,147 @@
+package com.ftc.containerView.infra.async;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.ExportCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool das respostas da exportação de imagens em ZIP (StreamingResponseBody).
+ *
+ * Uma exportação pode levar minutos, então só os endpoints de exportação usam este pool
+ * e o timeout longo (app.images.export.timeout-ms); as demais respostas assíncronas do MVC
+ * seguem com o pool e o timeout padrão. Até app.images.export.max-concurrent exportações
+ * são enviadas ao mesmo tempo e até app.images.export.queue-capacity aguardam na fila;
+ * acima disso a requisição é recusada com 503 e Retry-After.
+ *
+ * Cada exportação ocupa uma vaga do início do envio até o fim do processamento assíncrono
+ * (concluído, com erro ou por timeout), então o pool nunca recebe mais tarefas do que cabe
+ * na fila.
+ *
+ * Métricas expostas:
+ * - image_export_requests_total: exportações recebidas (tag outcome: accepted, rejected)
+ */
+@Component
+public class ImageExportExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageExportExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Semaphore slots;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public ImageExportExecutor(MeterRegistry meterRegistry,
+                               @Value("${app.images.export.max-concurrent:4}") int maxConcurrent,
+                               @Value("${app.images.export.queue-capacity:16}") int queueCapacity,
+                               @Value("${app.images.export.timeout-ms:3600000}") long timeoutMillis,
+                               @Value("${app.images.export.retry-after-seconds:30}") long retryAfterSeconds) {
+        int threads = Math.max(1, maxConcurrent);
+        int queued = Math.max(1, queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queued), new CustomizableThreadFactory("image-export-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.taskExecutor = new TaskExecutorAdapter(executor);
+        this.slots = new Semaphore(threads + queued);
+        this.timeoutMillis = Math.max(1, timeoutMillis);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        this.acceptedCounter = requestsCounter(meterRegistry, "accepted");
+        this.rejectedCounter = requestsCounter(meterRegistry, "rejected");
+
+        logger.info("ImageExportExecutor inicializado - Exportações simultâneas: {}, fila: {}, timeout: {}ms",
+                threads, queued, this.timeoutMillis);
+    }
+
+    /**
+     * Recusa a exportação logo no início, antes de preparar (HEADs no S3), se não houver
+     * vaga. Não reserva a vaga: isso é feito em submit.
+     * @throws ExportCapacityExceededException se o pool e a fila estão cheios
+     */
+    public void checkCapacity() {
+        if (slots.availablePermits() == 0) {
+            reject();
+        }
+    }
+
+    /**
+     * Reserva uma vaga para a resposta e faz o processamento assíncrono desta requisição
+     * usar este pool e o timeout das exportações. Respostas sem corpo (ex.: 416) passam direto.
+     * @throws ExportCapacityExceededException se o pool e a fila estão cheios
+     */
+    public ResponseEntity<StreamingResponseBody> submit(HttpServletRequest request, ResponseEntity<StreamingResponseBody> response) {
+        if (response.getBody() == null) {
+            return response;
+        }
+        if (!slots.tryAcquire()) {
+            reject();
+        }
+        acceptedCounter.increment();
+
+        // O RequestMappingHandlerAdapter já aplicou o pool e o timeout padrão; o handler pode substituí-los
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(taskExecutor);
+        asyncManager.getAsyncWebRequest().setTimeout(timeoutMillis);
+        asyncManager.registerCallableInterceptor(ImageExportExecutor.class.getName(), new SlotRelease());
+        return response;
+    }
+
+    private void reject() {
+        rejectedCounter.increment();
+        throw new ExportCapacityExceededException(retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Counter requestsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_export_requests_total")
+                .description("Exportações de imagens em ZIP recebidas")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devolve a vaga quando o processamento assíncrono termina, qualquer que seja o motivo.
+     */
+    private class SlotRelease implements CallableProcessingInterceptor {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            if (released.compareAndSet(false, true)) {
+                // Tarefas canceladas por timeout antes de começar ficariam ocupando a fila
+                executor.purge();
+                slots.release();
+            }
+        }
+    }
+}
@@ -1,24 +1,141 @@
 package com.ftc.containerView.infra.aws;
 
-import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.api.BackoffStrategy;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class AWSConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AWSConfig.class);
+
     @Value("${aws.region}")
     private String awsRegion;
 
+    // Endpoint alternativo (MinIO/LocalStack em desenvolvimento e testes); vazio usa o S3 da AWS
+    @Value("${aws.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
+    // Requisições simultâneas (conexões HTTP) do cliente Netty
+    @Value("${aws.s3.client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${aws.s3.client.connection-timeout-ms:5000}")
+    private int connectionTimeoutMs;
+
+    // Aplicado como read e write timeout do Netty
+    @Value("${aws.s3.client.socket-timeout-ms:30000}")
+    private int socketTimeoutMs;
+
+    // Conexões são recicladas após esse tempo para acompanhar mudanças de DNS do S3
+    @Value("${aws.s3.client.connection-ttl-ms:60000}")
+    private long connectionTtlMs;
+
+    @Value("${aws.s3.client.connection-max-idle-ms:30000}")
+    private long connectionMaxIdleMs;
+
+    @Value("${aws.s3.client.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${aws.s3.client.max-error-retry:3}")
+    private int maxErrorRetry;
+
+    @Value("${aws.s3.client.retry-base-delay-ms:100}")
+    private int retryBaseDelayMs;
+
+    @Value("${aws.s3.client.retry-max-backoff-ms:20000}")
+    private int retryMaxBackoffMs;
+
+    // Uploads acima do threshold são enviados em partes pelo próprio cliente assíncrono
+    @Value("${aws.s3.multipart.enabled:true}")
+    private boolean multipartEnabled;
+
+    @Value("${aws.s3.multipart.threshold:16777216}")
+    private long multipartThreshold;
+
+    @Value("${aws.s3.multipart.part-size:8388608}")
+    private long multipartPartSize;
+
     @Bean
-    public AmazonS3 createS3Instance() {
-        return AmazonS3ClientBuilder
-                .standard()
-                .withCredentials(new DefaultAWSCredentialsProviderChain())
-                .withRegion(awsRegion)
-                .build();
+    public S3AsyncClient s3AsyncClient(MeterRegistry meterRegistry) {
+        // Backoff exponencial com full jitter: retentativas de vários clientes após um throttling não chegam juntas
+        BackoffStrategy backoff = BackoffStrategy.exponentialDelay(
+                Duration.ofMillis(retryBaseDelayMs), Duration.ofMillis(retryMaxBackoffMs));
+
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .credentialsProvider(credentialsProvider())
+                .region(Region.of(awsRegion))
+                .forcePathStyle(pathStyleAccess)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .readTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .writeTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                        .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                        .tcpKeepAlive(tcpKeepAlive))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .retryStrategy(AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                                .maxAttempts(maxErrorRetry + 1)
+                                .backoffStrategy(backoff)
+                                .throttlingBackoffStrategy(backoff)
+                                .build())
+                        .addMetricPublisher(new S3ClientMetricPublisher(meterRegistry, maxConnections))
+                        .build())
+                .multipartEnabled(multipartEnabled)
+                .multipartConfiguration(multipart -> multipart
+                        .thresholdInBytes(multipartThreshold)
+                        .minimumPartSizeInBytes(multipartPartSize));
+
+        if (!s3Endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(s3Endpoint));
+        }
+
+        logger.info("Cliente S3 assíncrono configurado - Conexões: {}, timeouts: {}ms/{}ms, keep-alive: {}, retentativas: {}, multipart: {}",
+                maxConnections, connectionTimeoutMs, socketTimeoutMs, tcpKeepAlive, maxErrorRetry, multipartEnabled);
+        return builder.build();
+    }
+
+    /**
+     * Assinatura de URLs é feita localmente, sem chamadas de rede.
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .credentialsProvider(credentialsProvider())
+                .region(Region.of(awsRegion))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyleAccess)
+                        .build());
+
+        if (!s3Endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(s3Endpoint));
+        }
+
+        return builder.build();
+    }
+
+    private AwsCredentialsProvider credentialsProvider() {
+        return DefaultCredentialsProvider.create();
     }
 }
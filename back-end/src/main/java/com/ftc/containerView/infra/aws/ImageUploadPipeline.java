@@ -0,0 +1,294 @@
+package com.ftc.containerView.infra.aws;
+
+import com.ftc.containerView.infra.images.ImageNormalizer;
+import com.ftc.containerView.infra.images.ImageNormalizer.NormalizedImage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * Pipeline de upload de imagens para o S3 com concorrência limitada.
+ *
+ * Cada imagem passa antes pelo ImageNormalizer (redução, remoção de metadados e
+ * recodificação). A normalização roda no pool do pipeline, já com a vaga de upload
+ * ocupada: as imagens de uma requisição são normalizadas em paralelo, dentro dos mesmos
+ * limites dos uploads, e o arquivo segue em stream do multipart para o S3.
+ *
+ * Os uploads usam o cliente assíncrono do S3: nenhuma thread fica presa aguardando a
+ * rede. A concorrência respeita dois limites: um semáforo global (limite da instância)
+ * e um por requisição, para que um único envio grande não ocupe todas as vagas. Com
+ * as vagas esgotadas, o thread da requisição aguarda (backpressure).
+ *
+ * Métricas expostas:
+ * - image_upload_queue_depth: uploads aguardando vaga
+ * - image_upload_active: uploads em andamento
+ * - image_upload_duration_seconds: tempo de cada upload (tag outcome)
+ * - image_upload_failures_total: uploads que falharam
+ */
+@Component
+public class ImageUploadPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadPipeline.class);
+
+    private final S3Service s3Service;
+    private final ImageNormalizer imageNormalizer;
+    private final ThreadPoolExecutor normalizers;
+    private final Semaphore globalPermits;
+    private final int perRequestConcurrency;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter failureCounter;
+
+    public ImageUploadPipeline(S3Service s3Service,
+                               ImageNormalizer imageNormalizer,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.images.upload.max-concurrency:8}") int maxConcurrency,
+                               @Value("${app.images.upload.per-request-concurrency:4}") int perRequestConcurrency) {
+        this.s3Service = s3Service;
+        this.imageNormalizer = imageNormalizer;
+        this.perRequestConcurrency = Math.max(1, perRequestConcurrency);
+        // fair: requisições são atendidas na ordem de chegada
+        this.globalPermits = new Semaphore(Math.max(1, maxConcurrency), true);
+        // Cada tarefa só é submetida com uma vaga global: a fila nunca passa de maxConcurrency
+        this.normalizers = new ThreadPoolExecutor(Math.max(1, maxConcurrency), Math.max(1, maxConcurrency),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("image-upload-"));
+        this.normalizers.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("image_upload_queue_depth", globalPermits, Semaphore::getQueueLength)
+                .description("Uploads de imagens aguardando vaga")
+                .register(meterRegistry);
+        Gauge.builder("image_upload_active", globalPermits, permits -> Math.max(1, maxConcurrency) - permits.availablePermits())
+                .description("Uploads de imagens em andamento")
+                .register(meterRegistry);
+
+        this.successTimer = Timer.builder("image_upload_duration_seconds")
+                .description("Tempo de upload de cada imagem para o S3")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("image_upload_duration_seconds")
+                .description("Tempo de upload de cada imagem para o S3")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("image_upload_failures_total")
+                .description("Uploads de imagens que falharam")
+                .register(meterRegistry);
+
+        logger.info("ImageUploadPipeline inicializado - Concorrência global: {}, por requisição: {}",
+                maxConcurrency, this.perRequestConcurrency);
+    }
+
+    /**
+     * Envia todas as imagens em paralelo e aguarda o término de todas.
+     * Nunca lança exceção por falha individual: cada falha vem no resultado correspondente,
+     * na mesma ordem das tarefas recebidas.
+     */
+    public List<UploadResult> uploadAll(List<UploadTask> tasks) {
+        List<CompletableFuture<UploadResult>> futures = new ArrayList<>(tasks.size());
+        Semaphore requestPermits = new Semaphore(perRequestConcurrency);
+
+        for (UploadTask task : tasks) {
+            try {
+                requestPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.add(CompletableFuture.completedFuture(UploadResult.failed(task, e)));
+                continue;
+            }
+            try {
+                globalPermits.acquire();
+            } catch (InterruptedException e) {
+                requestPermits.release();
+                Thread.currentThread().interrupt();
+                futures.add(CompletableFuture.completedFuture(UploadResult.failed(task, e)));
+                continue;
+            }
+
+            CompletableFuture<UploadResult> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> imageNormalizer.normalize(task.file()), normalizers)
+                        .thenCompose(normalized -> upload(task, normalized.orElse(null)));
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(failed(task, e, System.nanoTime()));
+            }
+            futures.add(future.whenComplete((result, error) -> {
+                globalPermits.release();
+                requestPermits.release();
+            }));
+        }
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        normalizers.shutdownNow();
+    }
+
+    /**
+     * Inicia o upload sem bloquear. O future sempre completa normalmente.
+     * Sem versão normalizada, o arquivo é enviado como recebido. O conteúdo é lido em
+     * stream (do multipart ou da imagem recodificada), sem copiar o original para o heap.
+     */
+    private CompletableFuture<UploadResult> upload(UploadTask task, NormalizedImage normalized) {
+        long start = System.nanoTime();
+        String fileName = normalized != null ? withExtension(task.fileName(), normalized.extension()) : task.fileName();
+        String contentType = normalized != null ? normalized.contentType() : task.contentType();
+        long contentLength = normalized != null ? normalized.contentLength() : task.file().getSize();
+
+        Crc32InputStream content;
+        try {
+            content = new Crc32InputStream(normalized != null ? normalized.content().open() : task.file().getInputStream());
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failed(task, e, start));
+        }
+
+        CompletableFuture<String> upload;
+        try {
+            upload = s3Service.uploadFileAsync(content, contentLength, fileName, contentType);
+        } catch (Exception e) {
+            closeQuietly(content);
+            return CompletableFuture.completedFuture(failed(task, e, start));
+        }
+
+        return upload.handle((imageKey, error) -> {
+            closeQuietly(content);
+            return complete(task, imageKey, content.crc32(contentLength), error, start);
+        });
+    }
+
+    private UploadResult complete(UploadTask task, String imageKey, Long crc32, Throwable error, long start) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return failed(task, cause instanceof Exception exception ? exception : new RuntimeException(cause), start);
+        }
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return UploadResult.succeeded(task, imageKey, crc32);
+    }
+
+    private static String withExtension(String fileName, String extension) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot >= 0 ? fileName.substring(0, dot) : fileName) + "." + extension;
+    }
+
+    private UploadResult failed(UploadTask task, Exception e, long start) {
+        failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        failureCounter.increment();
+        logger.error("Falha no upload da imagem {}: {}", task.fileName(), e.getMessage(), e);
+        return UploadResult.failed(task, e);
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            logger.debug("Erro ao fechar stream de upload: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * CRC-32 dos bytes lidos pelo SDK durante o envio, guardado para a exportação em ZIP.
+     * O SDK marca o início do stream e volta a ele ao repetir o envio; nesse caso o
+     * cálculo recomeça. Voltar a outra posição invalida o valor.
+     */
+    private static final class Crc32InputStream extends FilterInputStream {
+
+        private final CRC32 crc = new CRC32();
+        private long position;
+        private long markedPosition = -1;
+        private boolean valid = true;
+
+        Crc32InputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                crc.update(b);
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = in.read(buffer, offset, length);
+            if (count > 0) {
+                crc.update(buffer, offset, count);
+                position += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            if (skipped > 0) {
+                valid = false;
+                position += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            in.mark(readLimit);
+            markedPosition = position;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            in.reset();
+            if (markedPosition == 0) {
+                crc.reset();
+            } else {
+                valid = false;
+            }
+            position = markedPosition;
+        }
+
+        /**
+         * @return o CRC-32, ou nulo se o stream não foi lido exatamente uma vez até o fim
+         */
+        Long crc32(long contentLength) {
+            return valid && position == contentLength ? crc.getValue() : null;
+        }
+    }
+
+    public record UploadTask(MultipartFile file, String fileName, String contentType) {}
+
+    /**
+     * @param crc32 CRC-32 do conteúdo enviado (o que ficou no S3), ou nulo se não pôde ser calculado
+     */
+    public record UploadResult(UploadTask task, String imageKey, Long crc32, Exception error) {
+
+        static UploadResult succeeded(UploadTask task, String imageKey, Long crc32) {
+            return new UploadResult(task, imageKey, crc32, null);
+        }
+
+        static UploadResult failed(UploadTask task, Exception error) {
+            return new UploadResult(task, null, null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
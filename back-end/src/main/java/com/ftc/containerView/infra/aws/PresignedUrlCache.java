@@ -0,0 +1,166 @@
+package com.ftc.containerView.infra.aws;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache em memória de URLs pré-assinadas do S3.
+ *
+ * A chave é a imageKey; cada entrada guarda uma URL por tempo de expiração pedido. Uma URL
+ * é reaproveitada enquanto ainda restar pelo menos {@code minRemainingFraction} do seu
+ * tempo de vida; depois disso uma nova URL é assinada. A entrada da imagem expira quando
+ * nenhuma das suas URLs pode mais ser reaproveitada, e invalidar uma imagem remove todas
+ * as suas URLs de uma vez. O tamanho (número de imagens) é limitado (LRU).
+ *
+ * Métricas via Micrometer com o nome "presigned_urls" (cache_gets hit/miss por imagem,
+ * cache_size, cache_evictions).
+ */
+@Component
+public class PresignedUrlCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresignedUrlCache.class);
+
+    private final S3Service s3Service;
+    private final Cache<String, Map<Integer, SignedUrl>> cache;
+    private final Ticker ticker;
+    private final double minRemainingFraction;
+
+    /**
+     * URL assinada e o instante (no relógio do cache, em nanos) até o qual ela é reaproveitada.
+     */
+    private record SignedUrl(String url, long reuseUntil) {}
+
+    @Autowired
+    public PresignedUrlCache(S3Service s3Service,
+                             MeterRegistry meterRegistry,
+                             @Value("${aws.s3.presigned-url.cache.max-size:10000}") long maxSize,
+                             @Value("${aws.s3.presigned-url.cache.min-remaining-fraction:0.5}") double minRemainingFraction) {
+        this(s3Service, meterRegistry, maxSize, minRemainingFraction, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker relógio do cache; testes usam um relógio controlado
+     */
+    public PresignedUrlCache(S3Service s3Service, MeterRegistry meterRegistry, long maxSize,
+                             double minRemainingFraction, Ticker ticker) {
+        this.s3Service = s3Service;
+        this.ticker = ticker;
+        this.minRemainingFraction = Math.min(Math.max(minRemainingFraction, 0.0), 0.95);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ReuseWindowExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "presigned_urls");
+
+        logger.info("PresignedUrlCache inicializado - Tamanho máximo: {}, fração mínima restante: {}",
+                maxSize, this.minRemainingFraction);
+    }
+
+    /**
+     * Retorna uma URL válida por pelo menos {@code minRemainingFraction * expirationMinutes},
+     * assinando uma nova apenas quando não houver uma reaproveitável.
+     */
+    public String getPresignedUrl(String imageKey, int expirationMinutes) {
+        long now = ticker.read();
+        Map<Integer, SignedUrl> urls = cache.getIfPresent(imageKey);
+        SignedUrl signed = urls != null ? urls.get(expirationMinutes) : null;
+        if (signed != null && now < signed.reuseUntil()) {
+            return signed.url();
+        }
+        return cache.asMap()
+                .compute(imageKey, (key, current) -> withUrl(key, current, expirationMinutes, ticker.read()))
+                .get(expirationMinutes)
+                .url();
+    }
+
+    /**
+     * A URL que getPresignedUrl devolveria agora, se já estiver em cache e ainda for
+     * reaproveitável. Não assina nada nem conta nas métricas.
+     */
+    public Optional<String> getCachedUrl(String imageKey, int expirationMinutes) {
+        Map<Integer, SignedUrl> urls = cache.asMap().get(imageKey);
+        SignedUrl signed = urls != null ? urls.get(expirationMinutes) : null;
+        return signed != null && ticker.read() < signed.reuseUntil() ? Optional.of(signed.url()) : Optional.empty();
+    }
+
+    /**
+     * Por quanto tempo uma URL com essa expiração é reaproveitada pelo cache.
+     */
+    private long reuseWindowMillis(int expirationMinutes) {
+        return (long) (TimeUnit.MINUTES.toMillis(Math.max(expirationMinutes, 0)) * (1.0 - minRemainingFraction));
+    }
+
+    /**
+     * Remove todas as URLs em cache de uma chave (qualquer tempo de expiração).
+     * Chamado quando a imagem é removida do S3.
+     */
+    public void invalidate(String imageKey) {
+        cache.invalidate(imageKey);
+        logger.debug("URLs em cache invalidadas para a imagem {}", imageKey);
+    }
+
+    /**
+     * Entrada da imagem com uma URL reaproveitável para a expiração pedida. Outra thread
+     * pode ter assinado enquanto esta esperava; URLs que não podem mais ser reaproveitadas
+     * são descartadas.
+     */
+    private Map<Integer, SignedUrl> withUrl(String imageKey, Map<Integer, SignedUrl> current,
+                                            int expirationMinutes, long now) {
+        SignedUrl signed = current != null ? current.get(expirationMinutes) : null;
+        if (signed != null && now < signed.reuseUntil()) {
+            return current;
+        }
+
+        Map<Integer, SignedUrl> urls = new HashMap<>();
+        if (current != null) {
+            current.forEach((expiration, url) -> {
+                if (now < url.reuseUntil()) {
+                    urls.put(expiration, url);
+                }
+            });
+        }
+        long reuseUntil = now + TimeUnit.MILLISECONDS.toNanos(reuseWindowMillis(expirationMinutes));
+        urls.put(expirationMinutes, new SignedUrl(s3Service.generatePresignedUrl(imageKey, expirationMinutes), reuseUntil));
+        return Map.copyOf(urls);
+    }
+
+    /**
+     * A entrada vive até a última das suas URLs deixar de ser reaproveitável:
+     * expirationMinutes * (1 - minRemainingFraction) depois da assinatura.
+     */
+    private static class ReuseWindowExpiry implements Expiry<String, Map<Integer, SignedUrl>> {
+
+        @Override
+        public long expireAfterCreate(String key, Map<Integer, SignedUrl> urls, long currentTime) {
+            long reuseUntil = urls.values().stream().mapToLong(SignedUrl::reuseUntil).max().orElse(currentTime);
+            return Math.max(reuseUntil - currentTime, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Map<Integer, SignedUrl> urls, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, urls, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Map<Integer, SignedUrl> urls, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
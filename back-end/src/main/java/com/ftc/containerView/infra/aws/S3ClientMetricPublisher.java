@@ -0,0 +1,104 @@
+package com.ftc.containerView.infra.aws;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica no Micrometer as métricas que o SDK coleta por chamada ao S3.
+ *
+ * s3_client_requests: latência total (inclui retentativas), por operação e resultado.
+ * s3_client_retries_total: retentativas feitas pelo SDK, por operação.
+ * s3_client_pool_{leased,available,pending}: estado do pool de conexões do Netty na
+ * última tentativa (o SDK só expõe esses valores por requisição).
+ */
+public class S3ClientMetricPublisher implements MetricPublisher {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong poolLeased = new AtomicLong();
+    private final AtomicLong poolAvailable = new AtomicLong();
+    private final AtomicLong poolPending = new AtomicLong();
+
+    public S3ClientMetricPublisher(MeterRegistry meterRegistry, int maxConnections) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("s3_client_pool_leased", poolLeased, AtomicLong::get)
+                .description("Conexões HTTP do cliente S3 em uso")
+                .register(meterRegistry);
+        Gauge.builder("s3_client_pool_available", poolAvailable, AtomicLong::get)
+                .description("Conexões HTTP do cliente S3 ociosas no pool")
+                .register(meterRegistry);
+        Gauge.builder("s3_client_pool_pending", poolPending, AtomicLong::get)
+                .description("Requisições ao S3 aguardando conexão livre no pool")
+                .register(meterRegistry);
+        Gauge.builder("s3_client_pool_max", () -> maxConnections)
+                .description("Tamanho máximo do pool de conexões do cliente S3")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        String operation = first(metrics, CoreMetric.OPERATION_NAME);
+        if (operation == null) {
+            operation = "Unknown";
+        }
+
+        Duration duration = first(metrics, CoreMetric.API_CALL_DURATION);
+        if (duration != null) {
+            Boolean successful = first(metrics, CoreMetric.API_CALL_SUCCESSFUL);
+            Timer.builder("s3_client_requests")
+                    .description("Latência das requisições ao S3, incluindo retentativas")
+                    .tag("operation", operation)
+                    .tag("outcome", Boolean.TRUE.equals(successful) ? "success" : "error")
+                    .register(meterRegistry)
+                    .record(duration);
+        }
+
+        Integer retries = first(metrics, CoreMetric.RETRY_COUNT);
+        if (retries != null && retries > 0) {
+            Counter.builder("s3_client_retries_total")
+                    .description("Retentativas de requisições ao S3 feitas pelo SDK")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+
+        updatePool(metrics);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // As métricas do pool ficam na coleção "HttpClient", filha de cada tentativa
+    private void updatePool(MetricCollection metrics) {
+        Integer leased = first(metrics, HttpMetric.LEASED_CONCURRENCY);
+        if (leased != null) {
+            poolLeased.set(leased);
+            update(poolAvailable, first(metrics, HttpMetric.AVAILABLE_CONCURRENCY));
+            update(poolPending, first(metrics, HttpMetric.PENDING_CONCURRENCY_ACQUIRES));
+        }
+        metrics.children().forEach(this::updatePool);
+    }
+
+    private static void update(AtomicLong gauge, Integer value) {
+        if (value != null) {
+            gauge.set(value);
+        }
+    }
+
+    private static <T> T first(MetricCollection metrics, SdkMetric<T> metric) {
+        List<T> values = metrics.metricValues(metric);
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -1,29 +1,52 @@
 package com.ftc.containerView.infra.aws;
 
-import com.amazonaws.HttpMethod;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.*;
-import com.amazonaws.util.IOUtils;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Acesso ao bucket de imagens com o cliente assíncrono do SDK v2.
+ *
+ * Os métodos *Async devolvem CompletableFuture e não ocupam thread enquanto a
+ * requisição está em andamento. Os métodos síncronos são adaptadores que aguardam
+ * o resultado e relançam a exceção original do SDK.
+ */
 @Service
 public class S3Service {
 
-    private final AmazonS3 amazonS3;
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
 
+    // Limite de chaves por requisição DeleteObjects
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final S3AsyncClient s3Client;
+    private final S3Presigner presigner;
+    // Lê os InputStreams dos uploads (leitura bloqueante) e entrega os bytes ao Netty
+    private final ExecutorService streamReaders;
+
     @Value("${aws.s3.bucket.name}")
     private String bucketName;
 
@@ -31,49 +54,77 @@ public class S3Service {
     private String imagesFolder;
 
     @Autowired
-    public S3Service(AmazonS3 amazonS3) {
-        this.amazonS3 = amazonS3;
+    public S3Service(S3AsyncClient s3Client, S3Presigner presigner) {
+        this.s3Client = s3Client;
+        this.presigner = presigner;
+        this.streamReaders = Executors.newCachedThreadPool(new CustomizableThreadFactory("s3-stream-"));
     }
 
     public String uploadFile(byte[] content, String fileName, String contentType) {
-        String fileKey = imagesFolder + "/" + fileName;
+        return await(uploadFileAsync(content, fileName, contentType));
+    }
 
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(content.length);
-        metadata.setContentType(contentType);
+    public CompletableFuture<String> uploadFileAsync(byte[] content, String fileName, String contentType) {
+        return putObjectAsync(AsyncRequestBody.fromBytes(content), content.length, imageKey(fileName), contentType);
+    }
 
-        amazonS3.putObject(
-                new PutObjectRequest(bucketName, fileKey,
-                        new ByteArrayInputStream(content),
-                        metadata));
+    /**
+     * Grava o conteúdo na chave informada (completa, sem prefixar a pasta de imagens).
+     */
+    public void putObject(byte[] content, String fileKey, String contentType) {
+        await(putObjectAsync(AsyncRequestBody.fromBytes(content), content.length, fileKey, contentType));
+    }
 
-        return fileKey;
+    /**
+     * Envia o conteúdo ao S3 lendo direto do stream, sem carregar o arquivo inteiro no heap.
+     */
+    public String uploadFile(InputStream content, long contentLength, String fileName, String contentType) {
+        return await(uploadFileAsync(content, contentLength, fileName, contentType));
     }
 
-    public void deleteFile(String fileKey) {
-        logger.info("Deletando arquivo do S3: {}", fileKey);
+    /**
+     * Envia o conteúdo ao S3 sem bloquear o chamador. O tamanho precisa ser conhecido:
+     * sem ele o SDK bufferiza o stream todo em memória. Acima de aws.s3.multipart.threshold
+     * o cliente envia em partes (multipart upload). O stream não é fechado aqui.
+     * @return future com a chave do objeto
+     */
+    public CompletableFuture<String> uploadFileAsync(InputStream content, long contentLength, String fileName, String contentType) {
+        return putObjectAsync(AsyncRequestBody.fromInputStream(content, contentLength, streamReaders),
+                contentLength, imageKey(fileName), contentType);
+    }
 
-        try {
-            // Verificar se o arquivo existe antes de tentar deletar
-            if (!fileExists(fileKey)) {
-                logger.warn("Arquivo não encontrado no S3 para deletar: {}", fileKey);
-                return;
-            }
+    private CompletableFuture<String> putObjectAsync(AsyncRequestBody body, long contentLength, String fileKey, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .contentLength(contentLength)
+                .contentType(contentType)
+                .build();
 
-            // Criar requisição de delete
-            DeleteObjectRequest deleteRequest = new DeleteObjectRequest(bucketName, fileKey);
+        return s3Client.putObject(request, body).thenApply(response -> fileKey);
+    }
 
-            // Executar delete
-            amazonS3.deleteObject(deleteRequest);
+    /**
+     * Remove um objeto do bucket. O DELETE do S3 é idempotente: uma chave inexistente
+     * não é erro, então não há consulta prévia de existência.
+     */
+    public void deleteFile(String fileKey) {
+        logger.info("Deletando arquivo do S3: {}", fileKey);
 
+        try {
+            await(deleteFileAsync(fileKey));
             logger.info("Arquivo {} deletado com sucesso do bucket {}", fileKey, bucketName);
-            
         } catch (Exception e) {
             logger.error("Erro inesperado ao deletar arquivo {} do S3: {}", fileKey, e.getMessage(), e);
             throw new RuntimeException("Erro ao deletar arquivo do S3", e);
         }
     }
 
+    public CompletableFuture<Void> deleteFileAsync(String fileKey) {
+        return s3Client.deleteObject(builder -> builder.bucket(bucketName).key(fileKey))
+                .thenApply(response -> null);
+    }
+
     /**
      * Deleta múltiplos arquivos do bucket S3 em lote
      * @param fileKeys - lista de chaves dos arquivos
@@ -82,58 +133,212 @@ public class S3Service {
     public int deleteFiles(List<String> fileKeys) {
         logger.info("Deletando {} arquivos do S3", fileKeys.size());
 
-        int deletedCount = 0;
-        List<String> errors = new ArrayList<>();
+        List<String> failed = deleteObjects(fileKeys);
+        int deletedCount = fileKeys.size() - failed.size();
 
-        for (String fileKey : fileKeys) {
-            try {
-                deleteFile(fileKey);
-                deletedCount++;
-            } catch (Exception e) {
-                errors.add(fileKey);
-                logger.error("Falha ao deletar arquivo {}: {}", fileKey, e.getMessage());
-            }
-        }
+        logger.info("Deletados {} de {} arquivos do S3", deletedCount, fileKeys.size());
+        return deletedCount;
+    }
+
+    /**
+     * Remove as chaves com DeleteObjects (multi-object delete), em requisições de até
+     * 1000 chaves, sem HEAD prévio.
+     * @return chaves que o S3 não conseguiu remover (erro por chave ou falha da requisição)
+     */
+    public List<String> deleteObjects(Collection<String> fileKeys) {
+        return await(deleteObjectsAsync(fileKeys));
+    }
+
+    /**
+     * Versão assíncrona de {@link #deleteObjects}: os lotes de 1000 chaves são enviados
+     * em paralelo. O future nunca falha; falhas vêm na lista de chaves não removidas.
+     */
+    public CompletableFuture<List<String>> deleteObjectsAsync(Collection<String> fileKeys) {
+        List<String> keys = new ArrayList<>(fileKeys);
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
 
-        if (!errors.isEmpty()) {
-            logger.warn("Falha ao deletar {} arquivos: {}", errors.size(), errors);
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = List.copyOf(keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size())));
+            DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder()
+                            .objects(chunk.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                            .quiet(true)
+                            .build())
+                    .build();
+
+            chunks.add(s3Client.deleteObjects(request)
+                    .thenApply(response -> {
+                        if (!response.hasErrors() || response.errors().isEmpty()) {
+                            return List.<String>of();
+                        }
+                        S3Error firstError = response.errors().get(0);
+                        logger.warn("DeleteObjects: {} de {} chaves não removidas. Primeiro erro: {} ({})",
+                                response.errors().size(), chunk.size(), firstError.code(), firstError.message());
+                        return response.errors().stream().map(S3Error::key).toList();
+                    })
+                    .exceptionally(e -> {
+                        logger.error("Falha no DeleteObjects de {} chaves: {}", chunk.size(), unwrap(e).getMessage(), unwrap(e));
+                        return chunk;
+                    }));
         }
 
-        logger.info("Deletados {} de {} arquivos do S3", deletedCount, fileKeys.size());
-        return deletedCount;
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<String> failed = new ArrayList<>();
+                    chunks.forEach(chunk -> failed.addAll(chunk.join()));
+                    if (!failed.isEmpty()) {
+                        logger.warn("Falha ao deletar {} arquivos: {}", failed.size(), failed);
+                    }
+                    return failed;
+                });
+    }
+
+    /**
+     * Lista uma página (até 1000 objetos, em ordem de chave) da pasta de imagens.
+     * @param continuationToken token da página anterior, ou null para a primeira
+     */
+    public ListObjectsV2Response listImages(String continuationToken) {
+        return await(s3Client.listObjectsV2(builder -> builder
+                .bucket(bucketName)
+                .prefix(imagesFolder + "/")
+                .continuationToken(continuationToken)));
+    }
+
+    /**
+     * Copia um objeto dentro do bucket (usado para mover imagens órfãs para quarentena).
+     */
+    public void copyObject(String sourceKey, String destinationKey) {
+        await(s3Client.copyObject(builder -> builder
+                .sourceBucket(bucketName)
+                .sourceKey(sourceKey)
+                .destinationBucket(bucketName)
+                .destinationKey(destinationKey)));
     }
 
     public byte[] getFile(String fileKey) throws IOException {
-        S3Object s3Object = amazonS3.getObject(bucketName, fileKey);
-        try (InputStream inputStream = s3Object.getObjectContent()) {
-            return IOUtils.toByteArray(inputStream);
-        }
+        return await(getFileAsync(fileKey));
+    }
+
+    public CompletableFuture<byte[]> getFileAsync(String fileKey) {
+        return s3Client.getObject(builder -> builder.bucket(bucketName).key(fileKey), AsyncResponseTransformer.toBytes())
+                .thenApply(ResponseBytes::asByteArray);
+    }
+
+    /**
+     * Trecho do objeto (bytes start a endInclusive) carregado em memória. Para prefixos
+     * pequenos, como o cabeçalho de uma imagem.
+     */
+    public CompletableFuture<byte[]> getRangeAsync(String fileKey, long start, long endInclusive) {
+        String range = "bytes=" + start + "-" + endInclusive;
+        return s3Client.getObject(builder -> builder.bucket(bucketName).key(fileKey).range(range), AsyncResponseTransformer.toBytes())
+                .thenApply(ResponseBytes::asByteArray);
+    }
+
+    /**
+     * Leitura em stream de um trecho do objeto (bytes start a endInclusive). O future completa
+     * quando a resposta começa a chegar; o SDK mantém até ~4 MB em buffer e deixa de ler da
+     * conexão até o stream ser consumido. O chamador precisa fechar o stream.
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> getObjectStreamAsync(String fileKey, long start, long endInclusive) {
+        return s3Client.getObject(builder -> builder
+                        .bucket(bucketName)
+                        .key(fileKey)
+                        .range("bytes=" + start + "-" + endInclusive),
+                AsyncResponseTransformer.toBlockingInputStream());
     }
 
     public String generatePresignedUrl(String fileKey, int expirationMinutes) {
-        Date expiration = new Date();
-        long expTimeMillis = expiration.getTime() + (expirationMinutes * 60 * 1000);
-        expiration.setTime(expTimeMillis);
+        return presigner.presignGetObject(builder -> builder
+                        .signatureDuration(Duration.ofMinutes(expirationMinutes))
+                        .getObjectRequest(request -> request.bucket(bucketName).key(fileKey)))
+                .url()
+                .toString();
+    }
+
+    /**
+     * URL para o cliente enviar o objeto direto ao bucket (PUT). Content-Type e
+     * Content-Length entram na assinatura: o S3 recusa um PUT com tipo ou tamanho
+     * diferentes dos declarados.
+     */
+    public String generatePresignedPutUrl(String fileKey, String contentType, long contentLength, int expirationMinutes) {
+        return presigner.presignPutObject(builder -> builder
+                        .signatureDuration(Duration.ofMinutes(expirationMinutes))
+                        .putObjectRequest(request -> request
+                                .bucket(bucketName)
+                                .key(fileKey)
+                                .contentType(contentType)
+                                .contentLength(contentLength)))
+                .url()
+                .toString();
+    }
 
-        GeneratePresignedUrlRequest generatePresignedUrlRequest =
-                new GeneratePresignedUrlRequest(bucketName, fileKey)
-                        .withMethod(HttpMethod.GET)
-                        .withExpiration(expiration);
+    /**
+     * Chave do objeto na pasta de imagens, a mesma usada por uploadFile.
+     */
+    public String imageKey(String fileName) {
+        return imagesFolder + "/" + fileName;
+    }
 
-        URL url = amazonS3.generatePresignedUrl(generatePresignedUrlRequest);
-        return url.toString();
+    /**
+     * Metadados do objeto (HEAD). O future completa com null se a chave não existir.
+     */
+    public CompletableFuture<HeadObjectResponse> headObjectAsync(String fileKey) {
+        return s3Client.headObject(builder -> builder.bucket(bucketName).key(fileKey))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return response;
+                    }
+                    if (unwrap(error) instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                        return null;
+                    }
+                    throw error instanceof CompletionException completionException
+                            ? completionException : new CompletionException(unwrap(error));
+                });
     }
 
     public boolean fileExists(String fileKey) {
         try {
-            amazonS3.getObjectMetadata(bucketName, fileKey);
+            await(s3Client.headObject(builder -> builder.bucket(bucketName).key(fileKey)));
             return true;
-        } catch (AmazonS3Exception e) {
-            if (e.getStatusCode() == 404) {
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
                 return false;
             }
             throw e;
         }
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        // O S3AsyncClient e o S3Presigner são beans compartilhados e são fechados pelo contexto
+        streamReaders.shutdown();
+    }
+
+    /**
+     * Aguarda o future e relança a exceção original (SdkException é unchecked).
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Requisição ao S3 interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
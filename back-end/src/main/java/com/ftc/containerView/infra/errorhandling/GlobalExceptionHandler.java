@@ -9,6 +9,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -144,6 +145,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(IngestionJobNotFoundException.class)
+    public ResponseEntity<RestErrorMessage> handleIngestionJobNotFound(IngestionJobNotFoundException ex, HttpServletRequest request) {
+        Timer.Sample sample = metricsCollector.startTimer();
+        String errorId = generateErrorId();
+
+        log.warn("Job de ingestão não encontrado - ID: {} - Path: {} - IP: {} - Detalhes: {}",
+                errorId, request.getRequestURI(), getClientIP(request), ex.getMessage());
+
+        // MÉTRICAS
+        metricsCollector.recordError("INGESTION_JOB_NOT_FOUND", "404", request.getRequestURI());
+        metricsCollector.recordDuration(sample, "ingestion_job_not_found");
+
+        RestErrorMessage error = RestErrorMessage.builder()
+                .status(HttpStatus.NOT_FOUND)
+                .code("INGESTION_JOB_NOT_FOUND")
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .errorId(errorId)
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<RestErrorMessage> handleUploadSessionNotFound(UploadSessionNotFoundException ex, HttpServletRequest request) {
+        Timer.Sample sample = metricsCollector.startTimer();
+        String errorId = generateErrorId();
+
+        log.warn("Sessão de upload não encontrada - ID: {} - Path: {} - IP: {} - Detalhes: {}",
+                errorId, request.getRequestURI(), getClientIP(request), ex.getMessage());
+
+        // MÉTRICAS
+        metricsCollector.recordError("UPLOAD_SESSION_NOT_FOUND", "404", request.getRequestURI());
+        metricsCollector.recordDuration(sample, "upload_session_not_found");
+
+        RestErrorMessage error = RestErrorMessage.builder()
+                .status(HttpStatus.NOT_FOUND)
+                .code("UPLOAD_SESSION_NOT_FOUND")
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .errorId(errorId)
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     @ExceptionHandler(ContainerExistsException.class)
     public ResponseEntity<RestErrorMessage> handleContainerExists(ContainerExistsException ex, HttpServletRequest request) {
         Timer.Sample sample = metricsCollector.startTimer();
@@ -375,6 +424,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<RestErrorMessage> handleInvalidPageRequest(InvalidPageRequestException ex, HttpServletRequest request) {
+        Timer.Sample sample = metricsCollector.startTimer();
+        String errorId = generateErrorId();
+
+        log.warn("Paginação inválida - ID: {} - Path: {} - IP: {} - Detalhes: {}",
+                errorId, request.getRequestURI(), getClientIP(request), ex.getMessage());
+
+        metricsCollector.recordError("INVALID_PAGE_REQUEST", "400", request.getRequestURI());
+        metricsCollector.recordDuration(sample, "invalid_page_request");
+
+        RestErrorMessage error = RestErrorMessage.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .code("INVALID_PAGE_REQUEST")
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .errorId(errorId)
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<RestErrorMessage> handleMaxUploadSize(MaxUploadSizeExceededException ex, HttpServletRequest request) {
         Timer.Sample sample = metricsCollector.startTimer();
@@ -467,6 +539,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
     }
 
+    @ExceptionHandler(ExportCapacityExceededException.class)
+    public ResponseEntity<RestErrorMessage> handleExportCapacityExceeded(ExportCapacityExceededException ex, HttpServletRequest request) {
+        Timer.Sample sample = metricsCollector.startTimer();
+        String errorId = generateErrorId();
+
+        log.warn("Exportação recusada, pool cheio - ID: {} - Path: {} - IP: {} - Retry-After: {}s",
+                errorId, request.getRequestURI(), getClientIP(request), ex.getRetryAfterSeconds());
+
+        metricsCollector.recordError("EXPORT_CAPACITY_EXCEEDED", "503", request.getRequestURI());
+        metricsCollector.recordDuration(sample, "export_capacity_exceeded");
+
+        RestErrorMessage error = RestErrorMessage.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .code("EXPORT_CAPACITY_EXCEEDED")
+                .timestamp(LocalDateTime.now())
+                .errorId(errorId)
+                .message("Muitas exportações em andamento. Tente novamente em instantes.")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<RestErrorMessage> handleConstraintViolation(
             ConstraintViolationException ex, HttpServletRequest request) {
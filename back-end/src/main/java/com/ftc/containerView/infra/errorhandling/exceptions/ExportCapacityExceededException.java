@@ -0,0 +1,15 @@
+package com.ftc.containerView.infra.errorhandling.exceptions;
+
+public class ExportCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExportCapacityExceededException(long retryAfterSeconds) {
+        super("Limite de exportações simultâneas atingido");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
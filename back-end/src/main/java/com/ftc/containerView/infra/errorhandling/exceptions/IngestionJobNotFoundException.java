@@ -0,0 +1,8 @@
+package com.ftc.containerView.infra.errorhandling.exceptions;
+
+public class IngestionJobNotFoundException extends RuntimeException {
+
+    public IngestionJobNotFoundException(Long jobId) {
+        super("Job de ingestão não encontrado com ID: " + jobId);
+    }
+}
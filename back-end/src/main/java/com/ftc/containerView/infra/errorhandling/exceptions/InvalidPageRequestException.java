@@ -0,0 +1,8 @@
+package com.ftc.containerView.infra.errorhandling.exceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
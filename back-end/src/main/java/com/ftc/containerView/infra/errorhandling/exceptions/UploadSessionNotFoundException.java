@@ -0,0 +1,8 @@
+package com.ftc.containerView.infra.errorhandling.exceptions;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+
+    public UploadSessionNotFoundException(Long sessionId) {
+        super("Sessão de upload não encontrada com ID: " + sessionId);
+    }
+}
@@ -0,0 +1,221 @@
+package com.ftc.containerView.infra.export;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Estrutura de um ZIP sem compressão (STORED) montado em stream, com a posição de cada
+ * byte conhecida antes de ler qualquer conteúdo.
+ *
+ * Cada entrada é: cabeçalho local, dados e data descriptor (o CRC-32 só é conhecido
+ * depois de ler os dados, então o cabeçalho local sai com CRC zero e o bit 3 ligado).
+ * Como os tamanhos vêm de antes (HEAD no S3), o tamanho total e o offset de cada parte
+ * dependem apenas dos nomes e tamanhos: isso permite Content-Length e respostas a
+ * requisições Range sem gerar o arquivo desde o início. ZIP64 é usado quando offsets ou
+ * o diretório central passam de 4 GB; cada entrada precisa ter menos de 4 GB.
+ *
+ * Fotos já são comprimidas (JPEG/PNG): deflate não reduziria o tamanho e impediria
+ * calcular os offsets antecipadamente.
+ */
+public final class ZipArchiveLayout {
+
+    public record Entry(String name, long size, Instant lastModified) {}
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int DATA_DESCRIPTOR_SIZE = 16;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int ZIP64_OFFSET_EXTRA_SIZE = 12;
+    private static final int ZIP64_END_SIZE = 56 + 20;
+    private static final int END_SIZE = 22;
+    private static final long MAX_32 = 0xFFFFFFFFL;
+    private static final int MAX_16 = 0xFFFF;
+
+    // Bit 3: CRC e tamanhos no data descriptor; bit 11: nomes em UTF-8
+    private static final int FLAGS = 0x0808;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+
+    private final List<Entry> entries;
+    private final byte[][] names;
+    private final long[] headerOffsets;
+    private final long centralDirectoryOffset;
+    private final long centralDirectorySize;
+    private final boolean zip64;
+    private final long length;
+    private final ZoneId zone;
+
+    public ZipArchiveLayout(List<Entry> entries, ZoneId zone) {
+        this.entries = List.copyOf(entries);
+        this.zone = zone;
+        this.names = new byte[this.entries.size()][];
+        this.headerOffsets = new long[this.entries.size()];
+
+        long offset = 0;
+        long centralSize = 0;
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            if (entry.size() < 0 || entry.size() >= MAX_32) {
+                throw new IllegalArgumentException("Entrada " + entry.name() + " com tamanho inválido para o ZIP: " + entry.size());
+            }
+            names[i] = entry.name().getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > MAX_16) {
+                throw new IllegalArgumentException("Nome de entrada muito longo: " + entry.name());
+            }
+            headerOffsets[i] = offset;
+            offset += LOCAL_HEADER_SIZE + names[i].length + entry.size() + DATA_DESCRIPTOR_SIZE;
+            centralSize += CENTRAL_HEADER_SIZE + names[i].length + (headerOffsets[i] >= MAX_32 ? ZIP64_OFFSET_EXTRA_SIZE : 0);
+        }
+
+        this.centralDirectoryOffset = offset;
+        this.centralDirectorySize = centralSize;
+        this.zip64 = this.entries.size() >= MAX_16 || offset >= MAX_32 || centralSize >= MAX_32;
+        this.length = offset + centralSize + (zip64 ? ZIP64_END_SIZE : 0) + END_SIZE;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Entry entry(int index) {
+        return entries.get(index);
+    }
+
+    /**
+     * Tamanho total do arquivo em bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    public long headerOffset(int index) {
+        return headerOffsets[index];
+    }
+
+    public long dataOffset(int index) {
+        return headerOffsets[index] + LOCAL_HEADER_SIZE + names[index].length;
+    }
+
+    public long descriptorOffset(int index) {
+        return dataOffset(index) + entries.get(index).size();
+    }
+
+    public long descriptorEnd(int index) {
+        return descriptorOffset(index) + DATA_DESCRIPTOR_SIZE;
+    }
+
+    /**
+     * Início do diretório central, seguido dos registros de fim de arquivo até length().
+     */
+    public long trailerOffset() {
+        return centralDirectoryOffset;
+    }
+
+    public byte[] localHeader(int index) {
+        Entry entry = entries.get(index);
+        ByteBuffer buffer = buffer(LOCAL_HEADER_SIZE + names[index].length);
+        buffer.putInt(0x04034b50);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) FLAGS);
+        buffer.putShort((short) 0); // STORED
+        putDosDateTime(buffer, entry.lastModified());
+        buffer.putInt(0); // CRC no data descriptor
+        // Tamanhos já conhecidos: leitores que percorrem o arquivo em stream não dependem do descriptor
+        buffer.putInt((int) entry.size());
+        buffer.putInt((int) entry.size());
+        buffer.putShort((short) names[index].length);
+        buffer.putShort((short) 0);
+        buffer.put(names[index]);
+        return buffer.array();
+    }
+
+    public byte[] dataDescriptor(int index, long crc) {
+        long size = entries.get(index).size();
+        ByteBuffer buffer = buffer(DATA_DESCRIPTOR_SIZE);
+        buffer.putInt(0x08074b50);
+        buffer.putInt((int) crc);
+        buffer.putInt((int) size);
+        buffer.putInt((int) size);
+        return buffer.array();
+    }
+
+    /**
+     * Diretório central e registros de fim de arquivo (ZIP64 quando necessário).
+     * @param crcs CRC-32 de cada entrada, na ordem das entradas
+     */
+    public byte[] trailer(long[] crcs) {
+        ByteBuffer buffer = buffer((int) (length - centralDirectoryOffset));
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            boolean offset64 = headerOffsets[i] >= MAX_32;
+            buffer.putInt(0x02014b50);
+            buffer.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION));
+            buffer.putShort((short) (offset64 ? VERSION_ZIP64 : VERSION));
+            buffer.putShort((short) FLAGS);
+            buffer.putShort((short) 0);
+            putDosDateTime(buffer, entry.lastModified());
+            buffer.putInt((int) crcs[i]);
+            buffer.putInt((int) entry.size());
+            buffer.putInt((int) entry.size());
+            buffer.putShort((short) names[i].length);
+            buffer.putShort((short) (offset64 ? ZIP64_OFFSET_EXTRA_SIZE : 0));
+            buffer.putShort((short) 0); // comentário
+            buffer.putShort((short) 0); // disco
+            buffer.putShort((short) 0); // atributos internos
+            buffer.putInt(0); // atributos externos
+            buffer.putInt((int) Math.min(headerOffsets[i], MAX_32));
+            buffer.put(names[i]);
+            if (offset64) {
+                buffer.putShort((short) 0x0001);
+                buffer.putShort((short) 8);
+                buffer.putLong(headerOffsets[i]);
+            }
+        }
+
+        if (zip64) {
+            long zip64EndOffset = centralDirectoryOffset + centralDirectorySize;
+            buffer.putInt(0x06064b50);
+            buffer.putLong(44); // tamanho do restante do registro
+            buffer.putShort((short) VERSION_ZIP64);
+            buffer.putShort((short) VERSION_ZIP64);
+            buffer.putInt(0);
+            buffer.putInt(0);
+            buffer.putLong(entries.size());
+            buffer.putLong(entries.size());
+            buffer.putLong(centralDirectorySize);
+            buffer.putLong(centralDirectoryOffset);
+
+            buffer.putInt(0x07064b50);
+            buffer.putInt(0);
+            buffer.putLong(zip64EndOffset);
+            buffer.putInt(1);
+        }
+
+        buffer.putInt(0x06054b50);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) Math.min(entries.size(), MAX_16));
+        buffer.putShort((short) Math.min(entries.size(), MAX_16));
+        buffer.putInt((int) Math.min(centralDirectorySize, MAX_32));
+        buffer.putInt((int) Math.min(centralDirectoryOffset, MAX_32));
+        buffer.putShort((short) 0);
+        return buffer.array();
+    }
+
+    private void putDosDateTime(ByteBuffer buffer, Instant instant) {
+        LocalDateTime time = LocalDateTime.ofInstant(instant, zone);
+        if (time.getYear() < 1980) {
+            time = LocalDateTime.of(1980, 1, 1, 0, 0);
+        }
+        buffer.putShort((short) ((time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1)));
+        buffer.putShort((short) (((time.getYear() - 1980) << 9) | (time.getMonthValue() << 5) | time.getDayOfMonth()));
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ftc.containerView.infra.images;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Leitura da tag Orientation (0x0112) do bloco EXIF de um JPEG, sem biblioteca externa:
+ * percorre os segmentos até o APP1 "Exif" e lê a IFD0 do cabeçalho TIFF.
+ */
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * @return valor de 1 a 8, ou NORMAL se não houver EXIF ou o bloco for inválido
+     */
+    static int read(byte[] jpeg) {
+        try {
+            return read(new ByteArrayInputStream(jpeg));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lê a orientação percorrendo o cabeçalho do stream: só o segmento EXIF (no máximo
+     * 64 KB) é carregado; os demais são pulados. O stream não é fechado.
+     * @return valor de 1 a 8, ou NORMAL se não houver EXIF ou o bloco for inválido
+     */
+    static int read(InputStream jpeg) throws IOException {
+        byte[] soi = jpeg.readNBytes(2);
+        if (soi.length < 2 || (soi[0] & 0xFF) != 0xFF || (soi[1] & 0xFF) != 0xD8) {
+            return NORMAL;
+        }
+
+        try {
+            while (true) {
+                byte[] header = jpeg.readNBytes(4);
+                if (header.length < 4 || (header[0] & 0xFF) != 0xFF) {
+                    return NORMAL;
+                }
+                int marker = header[1] & 0xFF;
+                // Início dos dados da imagem (SOS) ou fim (EOI): não há mais metadados
+                if (marker == 0xDA || marker == 0xD9) {
+                    return NORMAL;
+                }
+                int length = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+                if (length < 2) {
+                    return NORMAL;
+                }
+                if (marker == 0xE1) {
+                    byte[] segment = jpeg.readNBytes(length - 2);
+                    if (isExifHeader(segment, 0)) {
+                        return readTiff(segment, 6, segment.length);
+                    }
+                } else {
+                    jpeg.skipNBytes(length - 2);
+                }
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        }
+    }
+
+    private static boolean isExifHeader(byte[] data, int offset) {
+        return offset + 6 <= data.length
+                && data[offset] == 'E' && data[offset + 1] == 'x' && data[offset + 2] == 'i' && data[offset + 3] == 'f'
+                && data[offset + 4] == 0 && data[offset + 5] == 0;
+    }
+
+    private static int readTiff(byte[] data, int tiffStart, int segmentEnd) {
+        int end = Math.min(segmentEnd, data.length);
+        if (tiffStart + 8 > end) {
+            return NORMAL;
+        }
+        boolean littleEndian = data[tiffStart] == 'I' && data[tiffStart + 1] == 'I';
+        long ifdOffset = readInt(data, tiffStart + 4, littleEndian);
+        int ifd = tiffStart + (int) Math.min(ifdOffset, Integer.MAX_VALUE - tiffStart);
+        if (ifdOffset < 8 || ifd + 2 > end) {
+            return NORMAL;
+        }
+
+        int entries = readShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return NORMAL;
+            }
+            if (readShort(data, entry, littleEndian) == ORIENTATION_TAG) {
+                int value = readShort(data, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static long readInt(byte[] data, int offset, boolean littleEndian) {
+        long high = readShort(data, offset + (littleEndian ? 2 : 0), littleEndian);
+        long low = readShort(data, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+}
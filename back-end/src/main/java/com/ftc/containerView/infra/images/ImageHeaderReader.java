@@ -0,0 +1,122 @@
+package com.ftc.containerView.infra.images;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Identificação do formato e das dimensões de uma imagem pelo cabeçalho, sem decodificá-la:
+ * confere a assinatura (magic bytes) de PNG e JPEG e lê largura e altura do IHDR (PNG) ou
+ * do primeiro SOFn (JPEG). Os segmentos anteriores ao SOFn (EXIF, ICC...) são pulados pelo
+ * comprimento, sem leitura do conteúdo, então o custo não depende do tamanho do arquivo.
+ */
+public final class ImageHeaderReader {
+
+    public record ImageHeader(String contentType, int width, int height) {
+
+        public long pixels() {
+            return (long) width * height;
+        }
+    }
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int PNG_IHDR = 0x49484452;
+    // Segmentos APPn/COM somam no máximo isso antes do SOFn; além disso o arquivo é rejeitado
+    private static final long MAX_JPEG_HEADER_BYTES = 1_048_576;
+
+    /**
+     * Maior prefixo do arquivo que read pode consumir: os metadados JPEG até o limite, o
+     * segmento que o ultrapassa (até 64 KB) e o SOFn. Quem lê o arquivo aos pedaços (S3) não
+     * precisa buscar além disso.
+     */
+    public static final int MAX_HEADER_BYTES = (int) MAX_JPEG_HEADER_BYTES + 2 * 65_536;
+
+    private ImageHeaderReader() {
+    }
+
+    /**
+     * @throws IOException se a assinatura não for de PNG ou JPEG ou o cabeçalho estiver
+     * truncado ou malformado
+     */
+    public static ImageHeader read(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input, 512));
+        try {
+            int first = data.readUnsignedByte();
+            int second = data.readUnsignedByte();
+            if (first == 0xFF && second == 0xD8) {
+                return readJpeg(data);
+            }
+            if (first == (PNG_SIGNATURE[0] & 0xFF) && second == PNG_SIGNATURE[1]) {
+                return readPng(data);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Cabeçalho de imagem truncado", e);
+        }
+        throw new IOException("Assinatura de arquivo não reconhecida como PNG ou JPEG");
+    }
+
+    private static ImageHeader readPng(DataInputStream data) throws IOException {
+        byte[] signature = new byte[PNG_SIGNATURE.length - 2];
+        data.readFully(signature);
+        if (!Arrays.equals(signature, Arrays.copyOfRange(PNG_SIGNATURE, 2, PNG_SIGNATURE.length))) {
+            throw new IOException("Assinatura PNG inválida");
+        }
+        // O primeiro chunk é sempre o IHDR, com 13 bytes: largura e altura vêm primeiro
+        int length = data.readInt();
+        if (length != 13 || data.readInt() != PNG_IHDR) {
+            throw new IOException("PNG sem chunk IHDR no início");
+        }
+        return header("image/png", data.readInt(), data.readInt());
+    }
+
+    private static ImageHeader readJpeg(DataInputStream data) throws IOException {
+        long scanned = 0;
+        while (scanned <= MAX_JPEG_HEADER_BYTES) {
+            if (data.readUnsignedByte() != 0xFF) {
+                throw new IOException("Estrutura de segmentos JPEG inválida");
+            }
+            int marker = data.readUnsignedByte();
+            // Bytes 0xFF de preenchimento entre segmentos
+            while (marker == 0xFF) {
+                marker = data.readUnsignedByte();
+            }
+            // Marcadores sem comprimento (TEM, RSTn)
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                throw new IOException("JPEG sem segmento SOF antes dos dados da imagem");
+            }
+            int length = data.readUnsignedShort();
+            if (length < 2) {
+                throw new IOException("Segmento JPEG com comprimento inválido");
+            }
+            if (isStartOfFrame(marker)) {
+                data.readUnsignedByte(); // precisão
+                int height = data.readUnsignedShort();
+                int width = data.readUnsignedShort();
+                return header("image/jpeg", width, height);
+            }
+            data.skipNBytes(length - 2);
+            scanned += length + 2;
+        }
+        throw new IOException("Metadados JPEG excedem o limite antes do segmento SOF");
+    }
+
+    /**
+     * SOF0-SOF15, exceto DHT (C4), JPG (C8) e DAC (CC), que usam a mesma faixa.
+     */
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static ImageHeader header(String contentType, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IOException("Dimensões inválidas no cabeçalho: " + width + "x" + height);
+        }
+        return new ImageHeader(contentType, width, height);
+    }
+}
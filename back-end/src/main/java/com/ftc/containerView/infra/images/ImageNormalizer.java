@@ -0,0 +1,201 @@
+package com.ftc.containerView.infra.images;
+
+import com.ftc.containerView.infra.images.JpegMetadataStripper.Segment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Normalização das imagens antes do envio ao S3: decodifica, limita a resolução (maior
+ * lado), aplica a orientação EXIF aos pixels e recodifica sem metadados no formato e
+ * qualidade configurados. Fotos de celular saem sem o bloco EXIF (com GPS e miniatura
+ * embutida) e fotos salvas em PNG viram JPEG.
+ *
+ * Quando a recodificação não reduz o arquivo (capturas de tela em PNG, JPEGs já bem
+ * comprimidos) e não há redução nem rotação a aplicar, o original é mantido; de um JPEG
+ * só são removidos os metadados, sem recodificar. O original nunca é copiado para o heap:
+ * a decodificação lê do multipart com subsampling e o original mantido é enviado em
+ * stream a partir dele.
+ *
+ * Mesmo com subsampling a decodificação expande a imagem em memória (até o dobro do
+ * tamanho final em cada lado), então o número de normalizações simultâneas é limitado.
+ * Imagens que o ImageIO não consegue decodificar seguem sem alteração.
+ *
+ * Métricas expostas:
+ * - image_normalization_total: imagens processadas (tag outcome: normalized, kept, failed)
+ * - image_normalization_bytes_total: bytes antes e depois (tag stage: input, output)
+ * - image_normalization_saved_bytes: bytes economizados por imagem
+ */
+@Component
+public class ImageNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageNormalizer.class);
+
+    public enum Format {
+        JPEG("image/jpeg", "jpg"),
+        WEBP("image/webp", "webp");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Imagem a enviar ao S3. A recodificada já está em memória (reduzida); a original
+     * mantida é relida do multipart a cada abertura do conteúdo.
+     */
+    public record NormalizedImage(Content content, long contentLength, String contentType, String extension) {}
+
+    @FunctionalInterface
+    public interface Content {
+        InputStream open() throws IOException;
+    }
+
+    private final boolean enabled;
+    private final int maxDimension;
+    private final float quality;
+    private final Format format;
+    private final Semaphore permits;
+    private final Counter normalizedCounter;
+    private final Counter keptCounter;
+    private final Counter failedCounter;
+    private final Counter inputBytesCounter;
+    private final Counter outputBytesCounter;
+    private final DistributionSummary savedBytes;
+
+    public ImageNormalizer(MeterRegistry meterRegistry,
+                           @Value("${app.images.normalization.enabled:true}") boolean enabled,
+                           @Value("${app.images.normalization.max-dimension:2560}") int maxDimension,
+                           @Value("${app.images.normalization.quality:0.85}") float quality,
+                           @Value("${app.images.normalization.format:JPEG}") Format format,
+                           @Value("${app.images.normalization.max-concurrency:2}") int maxConcurrency) {
+        this.enabled = enabled;
+        this.maxDimension = Math.max(320, maxDimension);
+        this.quality = Math.min(1.0f, Math.max(0.1f, quality));
+
+        // WebP depende de um plugin do ImageIO no classpath; sem ele, JPEG
+        if (format != Format.JPEG && !ImageResizer.canEncode(format.contentType)) {
+            logger.warn("Nenhum codificador ImageIO para {}; imagens serão normalizadas em JPEG", format.contentType);
+            format = Format.JPEG;
+        }
+        this.format = format;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+
+        this.normalizedCounter = imagesCounter(meterRegistry, "normalized");
+        this.keptCounter = imagesCounter(meterRegistry, "kept");
+        this.failedCounter = imagesCounter(meterRegistry, "failed");
+        this.inputBytesCounter = bytesCounter(meterRegistry, "input");
+        this.outputBytesCounter = bytesCounter(meterRegistry, "output");
+        this.savedBytes = DistributionSummary.builder("image_normalization_saved_bytes")
+                .description("Bytes economizados por imagem na normalização")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("ImageNormalizer inicializado - Ativo: {}, formato: {}, maior lado: {}px, qualidade: {}, simultâneas: {}",
+                enabled, this.format, this.maxDimension, this.quality, maxConcurrency);
+    }
+
+    /**
+     * @return a imagem normalizada, ou vazio se a normalização estiver desligada ou a
+     * imagem não puder ser decodificada (nesse caso o arquivo deve seguir como recebido)
+     */
+    public Optional<NormalizedImage> normalize(MultipartFile file) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        try {
+            long originalSize = file.getSize();
+            int orientation;
+            try (InputStream input = file.getInputStream()) {
+                orientation = ExifOrientation.read(input);
+            }
+            BufferedImage decoded;
+            try (InputStream input = file.getInputStream()) {
+                decoded = ImageResizer.decode(input, maxDimension, orientation);
+            }
+            boolean resized = Math.max(decoded.getWidth(), decoded.getHeight()) > maxDimension;
+            boolean rotated = orientation != ExifOrientation.NORMAL;
+            BufferedImage image = ImageResizer.scaleToFit(decoded, maxDimension);
+            byte[] content = ImageResizer.encode(image, format.contentType, quality);
+
+            NormalizedImage result;
+            if (content.length < originalSize || resized || rotated) {
+                normalizedCounter.increment();
+                result = new NormalizedImage(() -> new ByteArrayInputStream(content), content.length,
+                        format.contentType, format.extension);
+            } else {
+                keptCounter.increment();
+                result = keepOriginal(file);
+            }
+
+            inputBytesCounter.increment(originalSize);
+            outputBytesCounter.increment(result.contentLength());
+            savedBytes.record(Math.max(0, originalSize - result.contentLength()));
+            logger.debug("Imagem {} normalizada: {} -> {} bytes ({}x{}, {})", file.getOriginalFilename(),
+                    originalSize, result.contentLength(), image.getWidth(), image.getHeight(), result.contentType());
+            return Optional.of(result);
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            logger.warn("Imagem {} não pôde ser normalizada; enviando sem alteração: {}", file.getOriginalFilename(), e.getMessage());
+            return Optional.empty();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * O original, lido em stream do multipart. De um JPEG são pulados os segmentos de
+     * metadados, localizados agora só pelo cabeçalho.
+     */
+    private static NormalizedImage keepOriginal(MultipartFile file) throws IOException {
+        if ("image/png".equals(file.getContentType())) {
+            return new NormalizedImage(file::getInputStream, file.getSize(), "image/png", "png");
+        }
+        List<Segment> metadata;
+        try (InputStream input = file.getInputStream()) {
+            metadata = JpegMetadataStripper.metadataSegments(input);
+        }
+        long removed = metadata.stream().mapToLong(Segment::length).sum();
+        return new NormalizedImage(() -> JpegMetadataStripper.without(file.getInputStream(), metadata),
+                file.getSize() - removed, "image/jpeg", "jpg");
+    }
+
+    private static Counter imagesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_normalization_total")
+                .description("Imagens processadas pela normalização antes do upload")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("image_normalization_bytes_total")
+                .description("Bytes das imagens antes e depois da normalização")
+                .tag("stage", stage)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+}
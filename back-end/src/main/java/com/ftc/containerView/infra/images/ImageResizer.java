@@ -0,0 +1,176 @@
+package com.ftc.containerView.infra.images;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Decodificação, redução e codificação de imagens com o ImageIO do JDK.
+ *
+ * A decodificação já descarta pixels (subsampling do ImageReader) até o dobro do tamanho
+ * pedido, então uma foto de 12 MP não é expandida inteira em memória para gerar uma
+ * miniatura; a redução final é feita em passos de no máximo 1/2 com interpolação bilinear.
+ * A orientação EXIF é aplicada aos pixels, porque a imagem gerada não leva metadados.
+ */
+public final class ImageResizer {
+
+    private ImageResizer() {
+    }
+
+    /**
+     * Decodifica a imagem com resolução suficiente para reduzi-la a maxDimension
+     * (maior lado) e aplica a orientação EXIF.
+     * @throws IOException se o formato não for suportado ou os dados estiverem corrompidos
+     */
+    public static BufferedImage decode(byte[] data, int maxDimension) throws IOException {
+        return decode(new ByteArrayInputStream(data), maxDimension, ExifOrientation.read(data));
+    }
+
+    /**
+     * Decodifica lendo direto do stream, sem copiar o arquivo para o heap, e aplica a
+     * orientação informada (lida antes do cabeçalho com ExifOrientation). O stream não
+     * é fechado.
+     * @throws IOException se o formato não for suportado ou os dados estiverem corrompidos
+     */
+    static BufferedImage decode(InputStream data, int maxDimension, int orientation) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(data)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Formato de imagem não suportado");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (2 * maxDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        return orient(image, orientation);
+    }
+
+    /**
+     * Reduz a imagem para que o maior lado tenha no máximo maxDimension pixels.
+     * Imagens menores são apenas convertidas para RGB.
+     */
+    public static BufferedImage scaleToFit(BufferedImage image, int maxDimension) {
+        BufferedImage current = toRgb(image);
+        int width = current.getWidth();
+        int height = current.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Passos de no máximo 1/2: bilinear em um passo só descarta pixels e gera serrilhado
+        while (width != targetWidth || height != targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, new AffineTransform(
+                    (double) width / current.getWidth(), 0, 0, (double) height / current.getHeight(), 0, 0));
+        }
+        return current;
+    }
+
+    public static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        return encode(image, "image/jpeg", quality);
+    }
+
+    /**
+     * Codifica a imagem sem metadados no formato informado, com compressão com perdas
+     * quando o writer suportar.
+     * @throws IOException se não houver writer registrado no ImageIO para o formato
+     */
+    public static byte[] encode(BufferedImage image, String mimeType, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("Nenhum codificador disponível para " + mimeType);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    param.setCompressionType(Arrays.asList(types).contains("Lossy") ? "Lossy" : types[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(toRgb(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    public static boolean canEncode(String mimeType) {
+        return ImageIO.getImageWritersByMIMEType(mimeType).hasNext();
+    }
+
+    /**
+     * JPEG não tem canal alfa: transparências viram fundo branco.
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        return draw(image, image.getWidth(), image.getHeight(), new AffineTransform());
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(-Math.PI / 2); transform.scale(-1, 1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.scale(-1, 1); transform.translate(-height, 0); transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            case 8 -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            default -> { return image; }
+        }
+        // 5 a 8 giram 90 graus: largura e altura trocam
+        boolean swapped = orientation >= 5;
+        return draw(image, swapped ? height : width, swapped ? width : height, transform);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ftc.containerView.infra.images;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Remoção sem perdas dos metadados de um JPEG: descarta os segmentos APP1-APP15 (EXIF,
+ * XMP, IPTC...) e comentários, mantendo o perfil de cor ICC e o segmento Adobe, que
+ * mudam a interpretação das cores. Os dados comprimidos são copiados sem recodificar.
+ *
+ * Funciona sobre streams: os segmentos são localizados lendo só o cabeçalho (até o SOS)
+ * e o conteúdo é copiado pulando esses trechos, sem carregar o arquivo no heap.
+ */
+final class JpegMetadataStripper {
+
+    // Bytes do payload necessários para reconhecer "ICC_PROFILE" e "Adobe"
+    private static final int PREFIX_BYTES = 11;
+
+    /**
+     * Trecho do arquivo a descartar: posição e tamanho em bytes, marcador incluído.
+     */
+    record Segment(long offset, long length) {}
+
+    private JpegMetadataStripper() {
+    }
+
+    /**
+     * @return o JPEG sem metadados, ou o próprio array se a estrutura não for reconhecida
+     * ou não houver metadados
+     */
+    static byte[] strip(byte[] jpeg) {
+        try {
+            List<Segment> metadata = metadataSegments(new ByteArrayInputStream(jpeg));
+            if (metadata.isEmpty()) {
+                return jpeg;
+            }
+            try (InputStream stripped = without(new ByteArrayInputStream(jpeg), metadata)) {
+                return stripped.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Localiza os segmentos de metadados lendo o cabeçalho do stream até o SOS. Dos
+     * payloads só são lidos os primeiros bytes; o restante é pulado. O stream não é fechado.
+     * @return segmentos a remover, em ordem, ou vazio se a estrutura não for reconhecida
+     */
+    static List<Segment> metadataSegments(InputStream jpeg) throws IOException {
+        byte[] soi = jpeg.readNBytes(2);
+        if (soi.length < 2 || (soi[0] & 0xFF) != 0xFF || (soi[1] & 0xFF) != 0xD8) {
+            return List.of();
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        long offset = 2;
+        try {
+            while (true) {
+                byte[] header = jpeg.readNBytes(4);
+                if (header.length < 4 || (header[0] & 0xFF) != 0xFF) {
+                    return List.of();
+                }
+                int marker = header[1] & 0xFF;
+                // A partir do SOS vêm os dados comprimidos, copiados sem alteração
+                if (marker == 0xDA) {
+                    return segments;
+                }
+                int length = ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+                if (length < 2) {
+                    return List.of();
+                }
+                int prefixLength = Math.min(length - 2, PREFIX_BYTES);
+                byte[] prefix = jpeg.readNBytes(prefixLength);
+                if (prefix.length < prefixLength) {
+                    return List.of();
+                }
+                jpeg.skipNBytes(length - 2 - prefixLength);
+                if (isMetadata(prefix, marker)) {
+                    segments.add(new Segment(offset, 2 + length));
+                }
+                offset += 2 + length;
+            }
+        } catch (EOFException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * O conteúdo do stream sem os segmentos informados (em ordem, de metadataSegments).
+     * Fechar o stream devolvido fecha o original.
+     */
+    static InputStream without(InputStream jpeg, List<Segment> segments) {
+        return new SkippingInputStream(jpeg, segments);
+    }
+
+    private static boolean isMetadata(byte[] prefix, int marker) {
+        if (marker == 0xFE) {
+            return true;
+        }
+        if (marker < 0xE1 || marker > 0xEF) {
+            return false;
+        }
+        return !(marker == 0xE2 && startsWith(prefix, "ICC_PROFILE"))
+                && !(marker == 0xEE && startsWith(prefix, "Adobe"));
+    }
+
+    private static boolean startsWith(byte[] data, String prefix) {
+        if (prefix.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (data[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class SkippingInputStream extends FilterInputStream {
+
+        private final Iterator<Segment> segments;
+        private Segment next;
+        private long position;
+
+        SkippingInputStream(InputStream in, List<Segment> segments) {
+            super(in);
+            this.segments = segments.iterator();
+            this.next = this.segments.hasNext() ? this.segments.next() : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (next != null && position == next.offset()) {
+                in.skipNBytes(next.length());
+                position += next.length();
+                next = segments.hasNext() ? segments.next() : null;
+            }
+            int limit = next != null ? (int) Math.min(length, next.offset() - position) : length;
+            int read = in.read(buffer, offset, limit);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset não suportado");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ftc.containerView.infra.pagination;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.InvalidPageRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição opaca de uma listagem por cursor: último (valor da coluna, id) entregue,
+ * junto com a ordenação em uso. Codificado em Base64 URL-safe para o cliente.
+ */
+public record KeysetCursor(
+        String sortBy,
+        Sort.Direction direction,
+        long id,
+        String value
+) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = String.join("|", VERSION, sortBy, direction.name(), Long.toString(id), value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // O valor vem por último e pode conter '|'
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new InvalidPageRequestException("Cursor inválido");
+            }
+            return new KeysetCursor(parts[1], Sort.Direction.valueOf(parts[2]), Long.parseLong(parts[3]), parts[4]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Cursor inválido");
+        }
+    }
+}
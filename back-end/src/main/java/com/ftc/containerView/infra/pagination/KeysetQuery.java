@@ -0,0 +1,80 @@
+package com.ftc.containerView.infra.pagination;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.InvalidPageRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta a consulta JPQL de uma fatia por cursor: filtros opcionais, a condição
+ * (coluna, id) > (valor, id) do cursor e a ordenação correspondente.
+ *
+ * A coluna vem sempre de um {@link SortField} (whitelist), nunca do texto do cliente.
+ */
+public class KeysetQuery {
+
+    private final String select;
+    private final String alias;
+    private final List<String> conditions = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private String orderBy;
+
+    public KeysetQuery(String select, String alias) {
+        this.select = select;
+        this.alias = alias;
+    }
+
+    public KeysetQuery where(String condition, String parameter, Object value) {
+        conditions.add(condition);
+        parameters.put(parameter, value);
+        return this;
+    }
+
+    public KeysetQuery after(SortField sortField, Sort.Direction direction, KeysetCursor cursor) {
+        String id = alias + ".id";
+        String column = alias + "." + sortField.property();
+        String operator = direction.isAscending() ? ">" : "<";
+        String order = direction.isAscending() ? "asc" : "desc";
+
+        if (sortField.isId()) {
+            orderBy = id + " " + order;
+            if (cursor != null) {
+                where(id + " " + operator + " :cursorId", "cursorId", cursor.id());
+            }
+            return this;
+        }
+
+        orderBy = column + " " + order + ", " + id + " " + order;
+        if (cursor != null) {
+            conditions.add("(" + column + ", " + id + ") " + operator + " (:cursorValue, :cursorId)");
+            parameters.put("cursorValue", parseCursorValue(sortField, cursor.value()));
+            parameters.put("cursorId", cursor.id());
+        }
+        return this;
+    }
+
+    public <T> List<T> list(EntityManager entityManager, Class<T> resultType, int limit) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ").append(orderBy);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static Object parseCursorValue(SortField sortField, String value) {
+        try {
+            return sortField.parse(value);
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException("Cursor inválido");
+        }
+    }
+}
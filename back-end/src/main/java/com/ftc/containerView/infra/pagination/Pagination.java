@@ -0,0 +1,37 @@
+package com.ftc.containerView.infra.pagination;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.InvalidPageRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validação dos parâmetros de ordenação das listagens (sortBy restrito aos campos indexados).
+ */
+public final class Pagination {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private Pagination() {
+    }
+
+    public static <E extends Enum<E> & SortField> E sortField(Class<E> type, String sortBy) {
+        return Arrays.stream(type.getEnumConstants())
+                .filter(field -> field.property().equals(sortBy))
+                .findFirst()
+                .orElseThrow(() -> new InvalidPageRequestException("Ordenação não permitida: " + sortBy
+                        + ". Campos aceitos: " + Arrays.stream(type.getEnumConstants())
+                        .map(SortField::property)
+                        .collect(Collectors.joining(", "))));
+    }
+
+    public static Sort.Direction direction(String sortDirection) {
+        return Sort.Direction.fromOptionalString(sortDirection)
+                .orElseThrow(() -> new InvalidPageRequestException("Direção de ordenação inválida: " + sortDirection));
+    }
+
+    public static <E extends Enum<E> & SortField> Sort sort(Class<E> type, String sortBy, String sortDirection) {
+        return Sort.by(direction(sortDirection), sortField(type, sortBy).property());
+    }
+}
@@ -0,0 +1,22 @@
+package com.ftc.containerView.infra.pagination;
+
+/**
+ * Campo permitido em ordenações de listagens. Cada campo aceito tem índice
+ * compatível com a paginação por cursor (coluna, id).
+ */
+public interface SortField {
+
+    /** Nome da propriedade na entidade, usado no parâmetro sortBy. */
+    String property();
+
+    /** Converte o valor da coluna para o texto guardado no cursor. */
+    String format(Object value);
+
+    /** Converte o texto do cursor de volta para o tipo da coluna. */
+    Object parse(String value);
+
+    /** Ordenação apenas pelo id (sem coluna secundária). */
+    default boolean isId() {
+        return "id".equals(property());
+    }
+}
@@ -5,9 +5,25 @@ import org.jsoup.safety.Safelist;
 import org.owasp.encoder.Encode;
 import org.springframework.stereotype.Component;
 
+import java.util.regex.Pattern;
+
 @Component
 public class InputSanitizer {
 
+    // Padrões compilados uma única vez (String.replaceAll recompila a regex a cada chamada)
+    private static final Pattern CONTROL_CHARS = Pattern.compile("[\\p{Cntrl}&&[^\r\n\t]]");
+    private static final Pattern WHITESPACE_RUNS = Pattern.compile("\\s+");
+    private static final Pattern EXTERNAL_LINK = Pattern.compile("<a href=\"(https?://[^\"]+)\"");
+    private static final Pattern NON_DIGITS = Pattern.compile("[^0-9]");
+    private static final Pattern NON_PHONE_CHARS = Pattern.compile("[^0-9+]");
+
+    private static final Safelist BASIC_HTML_SAFELIST = Safelist.basic()
+            .addAttributes("a", "href", "target")
+            .addProtocols("a", "href", "http", "https")
+            .addAttributes("a", "rel"); // Para noopener noreferrer
+
+    private enum ScanResult { UNCHANGED, WHITESPACE_ONLY, NEEDS_CLEANING }
+
     /**
      * Remove completamente qualquer HTML/JavaScript
      * Use para campos que NUNCA devem ter HTML (ex: nome, CPF, email)
@@ -15,16 +31,47 @@ public class InputSanitizer {
     public String sanitizePlainText(String input) {
         if (input == null) return null;
 
+        // Caminho rápido: sem marcação nem caracteres de controle (ex: page, size, IDs)
+        switch (scan(input)) {
+            case UNCHANGED:
+                return input;
+            case WHITESPACE_ONLY:
+                return WHITESPACE_RUNS.matcher(input.trim()).replaceAll(" ");
+            default:
+                break;
+        }
+
         // Remove todo HTML e mantém apenas texto
         String cleaned = Jsoup.clean(input, Safelist.none());
 
         // Remove caracteres de controle e normaliza espaços
-        cleaned = cleaned.replaceAll("[\\p{Cntrl}&&[^\r\n\t]]", "");
-        cleaned = cleaned.trim().replaceAll("\\s+", " ");
+        cleaned = CONTROL_CHARS.matcher(cleaned).replaceAll("");
+        cleaned = WHITESPACE_RUNS.matcher(cleaned.trim()).replaceAll(" ");
 
         return cleaned;
     }
 
+    /**
+     * Percorre a string uma vez e decide se o Jsoup é necessário.
+     * Só ASCII imprimível (exceto &lt; &gt; &amp;, que o Jsoup remove ou escapa) e caracteres
+     * acima de U+00A0 são considerados seguros; o resto cai no caminho completo.
+     */
+    private static ScanResult scan(String input) {
+        boolean needsWhitespaceNormalization = false;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == ' ') {
+                if (i == 0 || i == length - 1 || input.charAt(i - 1) == ' ') {
+                    needsWhitespaceNormalization = true;
+                }
+            } else if (c < 0x20 || c == '<' || c == '>' || c == '&' || (c >= 0x7F && c <= 0xA0)) {
+                return ScanResult.NEEDS_CLEANING;
+            }
+        }
+        return needsWhitespaceNormalization ? ScanResult.WHITESPACE_ONLY : ScanResult.UNCHANGED;
+    }
+
     /**
      * Permite HTML básico seguro (negrito, itálico, links)
      * Use para campos de descrição ou comentários
@@ -33,16 +80,10 @@ public class InputSanitizer {
         if (input == null) return null;
 
         // Permite apenas tags HTML seguras
-        Safelist safelist = Safelist.basic()
-                .addAttributes("a", "href", "target")
-                .addProtocols("a", "href", "http", "https")
-                .addAttributes("a", "rel"); // Para noopener noreferrer
-
-        String cleaned = Jsoup.clean(input, safelist);
+        String cleaned = Jsoup.clean(input, BASIC_HTML_SAFELIST);
 
         // Força links externos a abrir em nova aba com segurança
-        cleaned = cleaned.replaceAll(
-                "<a href=\"(https?://[^\"]+)\"",
+        cleaned = EXTERNAL_LINK.matcher(cleaned).replaceAll(
                 "<a href=\"$1\" target=\"_blank\" rel=\"noopener noreferrer\""
         );
 
@@ -82,7 +123,7 @@ public class InputSanitizer {
     public String sanitizeCep(String cep) {
         if (cep == null) return null;
         // Remove tudo que não é número
-        return cep.replaceAll("[^0-9]", "");
+        return NON_DIGITS.matcher(cep).replaceAll("");
     }
 
     /**
@@ -91,7 +132,7 @@ public class InputSanitizer {
     public String sanitizeDocument(String document) {
         if (document == null) return null;
         // Remove tudo que não é número
-        return document.replaceAll("[^0-9]", "");
+        return NON_DIGITS.matcher(document).replaceAll("");
     }
 
     /**
@@ -100,7 +141,7 @@ public class InputSanitizer {
     public String sanitizePhone(String phone) {
         if (phone == null) return null;
         // Mantém apenas números e o símbolo +
-        return phone.replaceAll("[^0-9+]", "");
+        return NON_PHONE_CHARS.matcher(phone).replaceAll("");
     }
 
     /**
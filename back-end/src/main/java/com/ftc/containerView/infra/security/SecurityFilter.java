@@ -1,10 +1,11 @@
 package com.ftc.containerView.infra.security;
 
-import com.ftc.containerView.infra.security.auth.TempTokenService;
-import com.ftc.containerView.infra.security.auth.TokenService;
-import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.infra.security.auth.PrincipalCache;
+import com.ftc.containerView.infra.security.auth.PrincipalCache.CachedPrincipal;
+import com.ftc.containerView.infra.security.auth.TokenAuthenticator;
+import com.ftc.containerView.infra.security.auth.TokenAuthenticator.TokenType;
+import com.ftc.containerView.infra.security.auth.TokenAuthenticator.VerifiedToken;
 import com.ftc.containerView.model.user.UserRole;
-import com.ftc.containerView.repositories.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,11 +22,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
@@ -34,13 +33,12 @@ public class SecurityFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(SecurityFilter.class);
 
     @Autowired
-    private TokenService tokenService;
+    private TokenAuthenticator tokenAuthenticator;
 
     @Autowired
-    private TempTokenService tempTokenService;
+    private PrincipalCache principalCache;
 
-    @Autowired
-    private UserRepository userRepository;
+    public static final String AUTHENTICATED_USER_ATTRIBUTE = SecurityFilter.class.getName() + ".AUTHENTICATED_USER";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -52,8 +50,18 @@ public class SecurityFilter extends OncePerRequestFilter {
             try {
                 logger.debug("Token recebido: {}", token);
 
-                var tempAuthCpf = tempTokenService.validateTempToken(token);
-                if (tempAuthCpf != null && !tempAuthCpf.isEmpty()) {
+                // Decodifica uma vez e verifica com o verificador do issuer (acesso ou temporário)
+                Optional<VerifiedToken> verifiedToken = tokenAuthenticator.authenticate(token);
+
+                // Token inválido: apenas continue o filtro
+                if (verifiedToken.isEmpty()) {
+                    logger.warn("Token com CPF vazio ou inválido");
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+
+                if (verifiedToken.get().type() == TokenType.TEMPORARY) {
+                    var tempAuthCpf = verifiedToken.get().subject();
                     logger.info("Usuário autenticado via token temporário: {}", tempAuthCpf);
                     var authorities = List.of(new SimpleGrantedAuthority("ROLE_TEMPORARY"));
                     UserDetails userDetails = new org.springframework.security.core.userdetails.User(
@@ -66,34 +74,25 @@ public class SecurityFilter extends OncePerRequestFilter {
                 }
 
                 // Obter CPF do token
-                var cpf = tokenService.validateToken(token);
-
-                // Se o CPF for vazio, apenas continue o filtro
-                if (cpf == null || cpf.isEmpty()) {
-                    logger.warn("Token com CPF vazio ou inválido");
-                    filterChain.doFilter(request, response);
-                    return;
-                }
+                var cpf = verifiedToken.get().subject();
 
                 logger.debug("CPF extraído do token: {}", cpf);
 
-                // Consultar o usuário pelo CPF
-                Optional<User> userOptional = userRepository.findByCpf(cpf);
+                // Consultar o usuário pelo CPF (cache com TTL, evita ida ao banco a cada requisição)
+                Optional<CachedPrincipal> principalOptional = principalCache.getPrincipal(cpf);
 
                 // Se o usuário existir, autenticar
-                if (userOptional.isPresent()) {
+                if (principalOptional.isPresent()) {
                     logger.info("Usuário autenticado via token: {}", cpf);
-                    var user = userOptional.get();
-
-                    var authorities = ROLE_PERMISSIONS.getOrDefault(user.getRole(), Collections.emptyList())
-                            .stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
+                    var user = principalOptional.get().user();
+                    var authorities = principalOptional.get().authorities();
 
-                    logger.debug(String.format("Usuário: %s, Role: %s, Authorities: %s",
-                            user.getCpf(),
-                            user.getRole(),
-                            String.join(", ", authorities.stream().map(a -> a.getAuthority()).toList())));
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Usuário: %s, Role: %s, Authorities: %s",
+                                user.getCpf(),
+                                user.getRole(),
+                                String.join(", ", authorities.stream().map(a -> a.getAuthority()).toList())));
+                    }
 
                     UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                             user.getCpf(), // username
@@ -104,6 +103,9 @@ public class SecurityFilter extends OncePerRequestFilter {
                     var authentication = new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
                     SecurityContextHolder.getContext().setAuthentication(authentication);
 
+                    // Disponibiliza o usuário para o restante da requisição (UserContextService)
+                    request.setAttribute(AUTHENTICATED_USER_ATTRIBUTE, user);
+
                     logger.debug("Usuário autenticado com sucesso: " + cpf);
                 } else {
                     logger.warn("Usuário não encontrado para CPF extraído do token: {}", cpf);
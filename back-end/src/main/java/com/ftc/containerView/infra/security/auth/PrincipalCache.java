@@ -0,0 +1,109 @@
+package com.ftc.containerView.infra.security.auth;
+
+import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.ftc.containerView.infra.security.SecurityFilter.ROLE_PERMISSIONS;
+
+/**
+ * Cache em memória dos usuários autenticados, indexado por CPF.
+ *
+ * Evita uma consulta ao banco a cada requisição autenticada. Cada entrada guarda o
+ * usuário e as authorities já resolvidas a partir do papel. As entradas expiram após
+ * {@code ttl-seconds} e são removidas explicitamente quando o usuário é alterado ou
+ * excluído (ver UserService). Dentro de uma transação a remoção só acontece após o
+ * commit: antes dele, uma requisição concorrente recarregaria a linha antiga (papel e
+ * senha anteriores) e a manteria no cache até o TTL.
+ *
+ * Métricas via Micrometer com o nome "authenticated_principals".
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final UserRepository userRepository;
+    private final Cache<String, CachedPrincipal> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authenticated_principals");
+
+        logger.info("PrincipalCache inicializado - Tamanho máximo: {}, TTL: {}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Retorna o usuário do CPF com suas authorities, consultando o banco apenas em caso de miss.
+     * Usuários inexistentes não são armazenados.
+     */
+    public Optional<CachedPrincipal> getPrincipal(String cpf) {
+        return Optional.ofNullable(cache.get(cpf, key -> userRepository.findByCpf(key)
+                .map(CachedPrincipal::of)
+                .orElse(null)));
+    }
+
+    public void evict(String cpf) {
+        afterCommit(() -> {
+            cache.invalidate(cpf);
+            logger.debug("Usuário removido do cache de autenticação: {}", cpf);
+        });
+    }
+
+    public void evictByUserId(Long userId) {
+        afterCommit(() -> {
+            cache.asMap().values().removeIf(principal -> principal.user().getId().equals(userId));
+            logger.debug("Usuário de ID {} removido do cache de autenticação", userId);
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public record CachedPrincipal(User user, List<GrantedAuthority> authorities) {
+
+        static CachedPrincipal of(User user) {
+            List<GrantedAuthority> authorities = ROLE_PERMISSIONS
+                    .getOrDefault(user.getRole(), Collections.emptyList())
+                    .stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+            return new CachedPrincipal(user, authorities);
+        }
+    }
+}
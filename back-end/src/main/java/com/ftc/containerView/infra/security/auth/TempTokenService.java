@@ -1,9 +1,11 @@
 package com.ftc.containerView.infra.security.auth;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.ftc.containerView.model.user.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,8 +21,18 @@ public class TempTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(TempTokenService.class);
 
-    @Value("${jwt.temp.secret}")
-    private String tempSecret;
+    public static final String ISSUER = "container-view-2fa";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma única vez
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public TempTokenService(@Value("${jwt.temp.secret}") String tempSecret) {
+        this.algorithm = Algorithm.HMAC256(tempSecret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
 
     public String generateTempToken(User user) {
         logger.info("Gerando token temporário para usuário: {}", user.getCpf());
@@ -35,9 +47,8 @@ public class TempTokenService {
     }
 
     private String generateTempTokenInternal(User user) {
-        Algorithm algorithm = Algorithm.HMAC256(tempSecret);
         return JWT.create()
-                .withIssuer("container-view-2fa")
+                .withIssuer(ISSUER)
                 .withSubject(user.getCpf())
                 .withExpiresAt(genExpirationDate())
                 .sign(algorithm);
@@ -56,12 +67,16 @@ public class TempTokenService {
     }
 
     private String validateTempTokenInternal(String tempToken) {
-        Algorithm algorithm = Algorithm.HMAC256(tempSecret);
-        return JWT.require(algorithm)
-                .withIssuer("container-view-2fa")
-                .build()
-                .verify(tempToken)
-                .getSubject();
+        return verifier.verify(tempToken).getSubject();
+    }
+
+    /**
+     * Verifica um token temporário já decodificado (evita um segundo parse do JSON).
+     *
+     * @throws JWTVerificationException se o token for inválido
+     */
+    DecodedJWT verify(DecodedJWT decodedToken) {
+        return verifier.verify(decodedToken);
     }
 
     private Instant genExpirationDate() {
@@ -0,0 +1,161 @@
+package com.ftc.containerView.infra.security.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Ponto único de verificação dos tokens recebidos pelo SecurityFilter.
+ *
+ * O token é decodificado uma única vez e o issuer define qual verificador se aplica
+ * (acesso normal ou temporário de 2FA), em vez de tentar os dois em sequência.
+ * Tokens já verificados ficam em um cache curto, indexado pelo SHA-256 do token
+ * (o token em si não é guardado), para que requisições repetidas não refaçam o HMAC.
+ * Uma entrada nunca vive além da expiração do próprio token.
+ *
+ * Métricas via Micrometer com o nome "verified_tokens".
+ */
+@Component
+public class TokenAuthenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticator.class);
+
+    private final TokenService tokenService;
+    private final TempTokenService tempTokenService;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final boolean cacheEnabled;
+
+    public TokenAuthenticator(TokenService tokenService,
+                              TempTokenService tempTokenService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.verified-token-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.verified-token-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.tokenService = tokenService;
+        this.tempTokenService = tempTokenService;
+        // max-size ou ttl-seconds = 0 desativa o cache (toda requisição verifica o HMAC)
+        this.cacheEnabled = maxSize > 0 && ttlSeconds > 0;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenLifetimeExpiry(Duration.ofSeconds(ttlSeconds)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verified_tokens");
+
+        logger.info("TokenAuthenticator inicializado - Cache ativo: {}, tamanho máximo: {}, TTL: {}s",
+                cacheEnabled, maxSize, ttlSeconds);
+    }
+
+    /**
+     * Verifica o token e retorna o subject (CPF) e o tipo do token.
+     * Retorna vazio para tokens malformados, com assinatura inválida, expirados ou de issuer desconhecido.
+     */
+    public Optional<VerifiedToken> authenticate(String token) {
+        String digest = cacheEnabled ? digest(token) : null;
+        if (cacheEnabled) {
+            VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+            if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached);
+            }
+        }
+
+        try {
+            DecodedJWT decodedToken = JWT.decode(token);
+            String issuer = decodedToken.getIssuer();
+
+            VerifiedToken verified;
+            if (TokenService.ISSUER.equals(issuer)) {
+                verified = VerifiedToken.of(tokenService.verify(decodedToken), TokenType.ACCESS);
+            } else if (TempTokenService.ISSUER.equals(issuer)) {
+                verified = VerifiedToken.of(tempTokenService.verify(decodedToken), TokenType.TEMPORARY);
+            } else {
+                logger.warn("Token com issuer desconhecido: {}", issuer);
+                return Optional.empty();
+            }
+
+            if (verified.subject() == null || verified.subject().isEmpty()) {
+                logger.warn("Token sem subject");
+                return Optional.empty();
+            }
+
+            if (cacheEnabled) {
+                verifiedTokens.put(digest, verified);
+            }
+            return Optional.of(verified);
+        } catch (JWTVerificationException e) {
+            logger.warn("Token JWT inválido: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    public enum TokenType {
+        ACCESS,
+        TEMPORARY
+    }
+
+    public record VerifiedToken(String subject, TokenType type, Instant expiresAt) {
+
+        static VerifiedToken of(DecodedJWT token, TokenType type) {
+            Instant expiresAt = token.getExpiresAtAsInstant() != null ? token.getExpiresAtAsInstant() : Instant.MAX;
+            return new VerifiedToken(token.getSubject(), type, expiresAt);
+        }
+    }
+
+    /**
+     * A entrada vive o menor entre o TTL configurado e o tempo restante do token.
+     */
+    private static class TokenLifetimeExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long ttlNanos;
+
+        TokenLifetimeExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            if (Instant.MAX.equals(token.expiresAt())) {
+                return ttlNanos;
+            }
+            long remainingNanos = Duration.between(Instant.now(), token.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, remainingNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.ftc.containerView.infra.security.auth;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.ftc.containerView.model.user.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,15 +21,24 @@ public class TokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String ISSUER = "container-view";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma única vez
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public TokenService(@Value("${jwt.secret}") String secret) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
 
     public String generateToken(User user) {
         logger.info("Gerando token JWT para usuário: {}", user.getCpf());
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             String token = JWT.create()
-                    .withIssuer("container-view")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getCpf())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
@@ -42,12 +53,7 @@ public class TokenService {
     public String validateToken(String token) {
         logger.info("Validando token JWT recebido");
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            String subject = JWT.require(algorithm)
-                    .withIssuer("container-view")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            String subject = verifier.verify(token).getSubject();
             logger.info("Token JWT válido para subject: {}", subject);
             return subject;
         } catch (JWTVerificationException e) {
@@ -56,6 +62,15 @@ public class TokenService {
         }
     }
 
+    /**
+     * Verifica um token já decodificado (evita um segundo parse do JSON).
+     *
+     * @throws JWTVerificationException se a assinatura, o issuer ou a expiração forem inválidos
+     */
+    DecodedJWT verify(DecodedJWT decodedToken) {
+        return verifier.verify(decodedToken);
+    }
+
     private Instant genExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
@@ -2,6 +2,7 @@ package com.ftc.containerView.infra.security.auth;
 
 import com.ftc.containerView.infra.errorhandling.exceptions.UnauthorizedAccessException;
 import com.ftc.containerView.infra.errorhandling.exceptions.UserNotFoundException;
+import com.ftc.containerView.infra.security.SecurityFilter;
 import com.ftc.containerView.model.user.User;
 import com.ftc.containerView.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +31,12 @@ public class UserContextService {
             throw new UnauthorizedAccessException("Usuário não autenticado");
         }
 
+        // Usuário já resolvido pelo SecurityFilter nesta requisição: não consulta o banco de novo
+        User requestUser = getRequestScopedUser();
+        if (requestUser != null && cpf.equals(requestUser.getCpf())) {
+            return requestUser;
+        }
+
         try {
             return userRepository.findByCpf(cpf)
                     .orElseThrow(() -> new UserNotFoundException("Usuário autenticado não encontrado: " + cpf));
@@ -37,6 +46,15 @@ public class UserContextService {
         }
     }
 
+    private User getRequestScopedUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object user = attributes.getAttribute(SecurityFilter.AUTHENTICATED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return user instanceof User ? (User) user : null;
+    }
+
     /**
      * ✅ Recupera CPF do SecurityContext (dados da sessão autenticada)
      */
@@ -0,0 +1,10 @@
+package com.ftc.containerView.model.container;
+
+import java.util.List;
+
+public record BatchContainerResultDTO(
+        int requested,
+        int created,
+        int failed,
+        List<BatchContainerRowResultDTO> rows
+) {}
@@ -0,0 +1,17 @@
+package com.ftc.containerView.model.container;
+
+public record BatchContainerRowResultDTO(
+        int index,
+        String containerId,
+        boolean created,
+        Long id,
+        String error
+) {
+    public static BatchContainerRowResultDTO created(int index, Container container) {
+        return new BatchContainerRowResultDTO(index, container.getContainerId(), true, container.getId(), null);
+    }
+
+    public static BatchContainerRowResultDTO failed(int index, String containerId, String error) {
+        return new BatchContainerRowResultDTO(index, containerId, false, null, error);
+    }
+}
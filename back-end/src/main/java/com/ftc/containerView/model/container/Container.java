@@ -26,7 +26,9 @@ import java.util.List;
 public class Container {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (e não IDENTITY) para permitir insert em lote via JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "containers_seq")
+    @SequenceGenerator(name = "containers_seq", sequenceName = "containers_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "container_id", nullable = false)
@@ -0,0 +1,9 @@
+package com.ftc.containerView.model.container;
+
+/**
+ * Par (id do container, lacre) usado para montar os lacres extras de uma página.
+ */
+public record ContainerSealRow(
+        Long containerId,
+        String seal
+) {}
@@ -0,0 +1,54 @@
+package com.ftc.containerView.model.container;
+
+import com.ftc.containerView.infra.pagination.SortField;
+
+import java.time.LocalDateTime;
+
+/**
+ * Campos aceitos em sortBy nas listagens de containers.
+ */
+public enum ContainerSortField implements SortField {
+
+    ID("id") {
+        @Override
+        public Object parse(String value) {
+            return Long.valueOf(value);
+        }
+    },
+    CREATED_AT("createdAt") {
+        @Override
+        public Object parse(String value) {
+            return LocalDateTime.parse(value);
+        }
+    },
+    CONTAINER_ID("containerId") {
+        @Override
+        public Object parse(String value) {
+            return value;
+        }
+    };
+
+    private final String property;
+
+    ContainerSortField(String property) {
+        this.property = property;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+
+    @Override
+    public String format(Object value) {
+        return value.toString();
+    }
+
+    public Object valueOf(ContainerSummaryDTO summary) {
+        return switch (this) {
+            case ID -> summary.id();
+            case CREATED_AT -> summary.createdAt();
+            case CONTAINER_ID -> summary.containerId();
+        };
+    }
+}
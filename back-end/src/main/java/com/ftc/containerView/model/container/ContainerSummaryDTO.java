@@ -0,0 +1,44 @@
+package com.ftc.containerView.model.container;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Linha das listagens paginadas de containers. Carrega apenas os ids do usuário e da
+ * operação (sem a entidade User/Operation) e os lacres extras já resolvidos.
+ */
+public record ContainerSummaryDTO(
+        Long id,
+        String containerId,
+        String description,
+        ContainerStatus status,
+        Long operationId,
+        Long userId,
+        int sacksCount,
+        float tareTons,
+        float liquidWeight,
+        float grossWeight,
+        String agencySeal,
+        List<String> otherSeals,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String updatedByCpf
+) {
+
+    /**
+     * Usado pela consulta JPQL (constructor expression); os lacres extras são
+     * preenchidos depois, em uma única consulta para a página inteira.
+     */
+    public ContainerSummaryDTO(Long id, String containerId, String description, ContainerStatus status,
+                               Long operationId, Long userId, int sacksCount, float tareTons,
+                               float liquidWeight, float grossWeight, String agencySeal,
+                               LocalDateTime createdAt, LocalDateTime updatedAt, String updatedByCpf) {
+        this(id, containerId, description, status, operationId, userId, sacksCount, tareTons,
+                liquidWeight, grossWeight, agencySeal, List.of(), createdAt, updatedAt, updatedByCpf);
+    }
+
+    public ContainerSummaryDTO withOtherSeals(List<String> otherSeals) {
+        return new ContainerSummaryDTO(id, containerId, description, status, operationId, userId, sacksCount,
+                tareTons, liquidWeight, grossWeight, agencySeal, otherSeals, createdAt, updatedAt, updatedByCpf);
+    }
+}
@@ -8,7 +8,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "container_images")
+// No banco o índice é parcial (content_hash não nulo), ver V20
+@Table(name = "container_images",
+        uniqueConstraints = @UniqueConstraint(name = "uk_container_images_content_hash",
+                columnNames = {"container_id_def", "category", "content_hash"}))
 @Builder
 @AllArgsConstructor
 @Data
@@ -16,7 +19,9 @@ import lombok.EqualsAndHashCode;
 public class ContainerImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (e não IDENTITY) para permitir insert em lote via JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "container_images_seq")
+    @SequenceGenerator(name = "container_images_seq", sequenceName = "container_images_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -30,7 +35,32 @@ public class ContainerImage {
     @Enumerated(EnumType.STRING)
     private ContainerImageCategory category;
 
+    // SHA-256 do arquivo recebido; nulo em imagens antigas e nas enviadas direto ao S3
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // CRC-32 do objeto no S3, para o ZIP da exportação; nulo até a primeira exportação
+    // nas imagens antigas e nas enviadas direto ao S3
+    @Column(name = "crc32")
+    private Long crc32;
+
+    // Miniatura e prévia são geradas em background pelo ImageRenditionService
+    @Column(name = "rendition_status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RenditionStatus renditionStatus;
+
+    // Falhas transitórias na geração das versões; ao atingir o limite a imagem vira FAILED
+    @Column(name = "rendition_attempts", nullable = false)
+    private int renditionAttempts;
+
     public ContainerImage() {
 
     }
+
+    @PrePersist
+    void prePersist() {
+        if (renditionStatus == null) {
+            renditionStatus = RenditionStatus.PENDING;
+        }
+    }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.ftc.containerView.model.images;
 public record ContainerImageResponseDTO(
         Long id,
         String imageUrl,
+        // Null enquanto as versões reduzidas não tiverem sido geradas: usar imageUrl
+        String thumbnailUrl,
+        String previewUrl,
         String imageKey,
         ContainerImageCategory category,
         int expirationMinutes
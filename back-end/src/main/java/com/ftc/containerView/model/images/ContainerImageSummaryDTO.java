@@ -0,0 +1,11 @@
+package com.ftc.containerView.model.images;
+
+/**
+ * Projeção leve de ContainerImage (sem carregar o Container associado).
+ */
+public record ContainerImageSummaryDTO(
+        Long id,
+        String imageKey,
+        ContainerImageCategory category,
+        RenditionStatus renditionStatus
+) {}
@@ -0,0 +1,12 @@
+package com.ftc.containerView.model.images;
+
+/**
+ * Imagem de container a incluir na exportação em ZIP (pasta por container e categoria);
+ * crc32 nulo se ainda não calculado.
+ */
+public record ImageExportItemDTO(
+        String containerId,
+        ContainerImageCategory category,
+        String imageKey,
+        Long crc32
+) {}
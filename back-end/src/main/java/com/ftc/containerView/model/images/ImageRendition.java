@@ -0,0 +1,48 @@
+package com.ftc.containerView.model.images;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Versões reduzidas de uma imagem, gravadas no S3 em chaves derivadas da original:
+ * images/containerImage_x.jpg -> images/renditions/thumb/containerImage_x.jpg
+ */
+public enum ImageRendition {
+    THUMBNAIL("thumb"),
+    PREVIEW("preview");
+
+    private static final String FOLDER = "renditions/";
+    private static final Pattern RENDITION_KEY = Pattern.compile("^(.*/)?renditions/(thumb|preview)/([^/]+)$");
+
+    private final String path;
+
+    ImageRendition(String path) {
+        this.path = path;
+    }
+
+    public String keyFor(String imageKey) {
+        int slash = imageKey.lastIndexOf('/');
+        return imageKey.substring(0, slash + 1) + FOLDER + path + "/" + imageKey.substring(slash + 1);
+    }
+
+    /**
+     * Chave da imagem seguida das chaves de todas as suas versões.
+     */
+    public static List<String> withRenditions(String imageKey) {
+        return Stream.concat(Stream.of(imageKey), Arrays.stream(values()).map(rendition -> rendition.keyFor(imageKey))).toList();
+    }
+
+    /**
+     * Chave da imagem original de uma versão, ou a própria chave se ela não for uma versão.
+     */
+    public static String sourceKey(String key) {
+        Matcher matcher = RENDITION_KEY.matcher(key);
+        if (!matcher.matches()) {
+            return key;
+        }
+        return (matcher.group(1) != null ? matcher.group(1) : "") + matcher.group(3);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ftc.containerView.model.images;
+
+public enum RenditionStatus {
+    PENDING,
+    READY,
+    // Imagem que não pôde ser decodificada: não é reprocessada
+    FAILED
+}
@@ -9,7 +9,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "sack_images")
+// No banco o índice é parcial (content_hash não nulo), ver V20
+@Table(name = "sack_images",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sack_images_content_hash",
+                columnNames = {"operation_id", "content_hash"}))
 @Builder
 @AllArgsConstructor
 @Data
@@ -17,7 +20,9 @@ import lombok.EqualsAndHashCode;
 public class SackImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (e não IDENTITY) para permitir insert em lote via JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sack_images_seq")
+    @SequenceGenerator(name = "sack_images_seq", sequenceName = "sack_images_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -27,7 +32,32 @@ public class SackImage {
     @Column(name = "image_key", nullable = false)
     private String imageKey;
 
+    // SHA-256 do arquivo recebido; nulo em imagens antigas e nas enviadas direto ao S3
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // CRC-32 do objeto no S3, para o ZIP da exportação; nulo até a primeira exportação
+    // nas imagens antigas e nas enviadas direto ao S3
+    @Column(name = "crc32")
+    private Long crc32;
+
+    // Miniatura e prévia são geradas em background pelo ImageRenditionService
+    @Column(name = "rendition_status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RenditionStatus renditionStatus;
+
+    // Falhas transitórias na geração das versões; ao atingir o limite a imagem vira FAILED
+    @Column(name = "rendition_attempts", nullable = false)
+    private int renditionAttempts;
+
     public SackImage() {
 
     }
+
+    @PrePersist
+    void prePersist() {
+        if (renditionStatus == null) {
+            renditionStatus = RenditionStatus.PENDING;
+        }
+    }
 }
\ No newline at end of file
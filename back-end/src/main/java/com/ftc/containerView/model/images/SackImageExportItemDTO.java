@@ -0,0 +1,9 @@
+package com.ftc.containerView.model.images;
+
+/**
+ * Imagem de sacaria a incluir na exportação em ZIP; crc32 nulo se ainda não calculado.
+ */
+public record SackImageExportItemDTO(
+        String imageKey,
+        Long crc32
+) {}
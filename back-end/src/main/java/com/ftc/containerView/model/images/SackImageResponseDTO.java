@@ -5,6 +5,9 @@ import java.time.LocalDateTime;
 public record SackImageResponseDTO(
         Long id,
         String imageUrl,
+        // Null enquanto as versões reduzidas não tiverem sido geradas: usar imageUrl
+        String thumbnailUrl,
+        String previewUrl,
         String imageKey,
         LocalDateTime uploadedAt,
         int expirationMinutes
@@ -0,0 +1,44 @@
+package com.ftc.containerView.model.ingestion;
+
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "image_ingestion_files")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@EqualsAndHashCode(of = "id")
+public class ImageIngestionFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "job_id", nullable = false)
+    private ImageIngestionJob job;
+
+    @Column(name = "category", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ContainerImageCategory category;
+
+    // Nome do arquivo dentro do spool_dir do job
+    @Column(name = "spool_file", nullable = false)
+    private String spoolFile;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+}
@@ -0,0 +1,74 @@
+package com.ftc.containerView.model.ingestion;
+
+import com.ftc.containerView.model.container.Container;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "image_ingestion_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_image_ingestion_jobs_idempotency",
+                columnNames = {"user_id", "idempotency_key"}))
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@EqualsAndHashCode(of = "id")
+public class ImageIngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "container_id_def", nullable = false)
+    private Container container;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private IngestionJobStatus status;
+
+    @Column(name = "spool_dir", nullable = false, length = 500)
+    private String spoolDir;
+
+    @Column(name = "total_images", nullable = false)
+    private int totalImages;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    private List<ImageIngestionFile> files = new ArrayList<>();
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,27 @@
+package com.ftc.containerView.model.ingestion;
+
+import java.time.LocalDateTime;
+
+public record ImageIngestionJobDTO(
+        Long jobId,
+        String containerId,
+        IngestionJobStatus status,
+        int totalImages,
+        int attempts,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt
+) {
+    public static ImageIngestionJobDTO from(ImageIngestionJob job) {
+        return new ImageIngestionJobDTO(
+                job.getId(),
+                job.getContainer().getContainerId(),
+                job.getStatus(),
+                job.getTotalImages(),
+                job.getAttempts(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.ftc.containerView.model.ingestion;
+
+public enum IngestionJobStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
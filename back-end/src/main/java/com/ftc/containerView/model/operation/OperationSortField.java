@@ -0,0 +1,47 @@
+package com.ftc.containerView.model.operation;
+
+import com.ftc.containerView.infra.pagination.SortField;
+
+import java.time.LocalDateTime;
+
+/**
+ * Campos aceitos em sortBy nas listagens de operações.
+ */
+public enum OperationSortField implements SortField {
+
+    ID("id") {
+        @Override
+        public Object parse(String value) {
+            return Long.valueOf(value);
+        }
+    },
+    CREATED_AT("createdAt") {
+        @Override
+        public Object parse(String value) {
+            return LocalDateTime.parse(value);
+        }
+    };
+
+    private final String property;
+
+    OperationSortField(String property) {
+        this.property = property;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+
+    @Override
+    public String format(Object value) {
+        return value.toString();
+    }
+
+    public Object valueOf(OperationSummaryDTO summary) {
+        return switch (this) {
+            case ID -> summary.id();
+            case CREATED_AT -> summary.createdAt();
+        };
+    }
+}
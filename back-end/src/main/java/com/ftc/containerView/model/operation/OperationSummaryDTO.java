@@ -0,0 +1,26 @@
+package com.ftc.containerView.model.operation;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Linha das listagens paginadas de operações, sem a entidade User associada.
+ */
+public record OperationSummaryDTO(
+        Long id,
+        String ctv,
+        String exporter,
+        String ship,
+        String terminal,
+        Date deadlineDraft,
+        String destination,
+        Date arrivalDate,
+        String reservation,
+        String refClient,
+        String loadDeadline,
+        OperationStatus status,
+        Long userId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String updatedByCpf
+) {}
@@ -0,0 +1,14 @@
+package com.ftc.containerView.model.pagination;
+
+import java.util.List;
+
+/**
+ * Fatia de uma listagem por cursor. Não há total de elementos; enquanto
+ * hasNext for true, nextCursor busca a próxima fatia.
+ */
+public record CursorSliceDTO<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -0,0 +1,6 @@
+package com.ftc.containerView.model.upload;
+
+import java.util.List;
+
+public record CreateUploadSessionDTO(List<UploadFileRequestDTO> files) {
+}
@@ -0,0 +1,72 @@
+package com.ftc.containerView.model.upload;
+
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.operation.Operation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sessão de upload direto ao S3: o servidor emite URLs PUT pré-assinadas e, na finalização,
+ * confere os objetos enviados e registra as imagens do container ou da operação (sacaria).
+ */
+@Entity
+@Table(name = "image_upload_sessions")
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@EqualsAndHashCode(of = "id")
+public class ImageUploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "target", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UploadSessionTarget target;
+
+    // Preenchido quando target = CONTAINER
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "container_id_def")
+    private Container container;
+
+    // Preenchido quando target = SACK
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "operation_id")
+    private Operation operation;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UploadSessionStatus status;
+
+    // Validade das URLs emitidas
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
+    private List<ImageUploadSessionFile> files = new ArrayList<>();
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,49 @@
+package com.ftc.containerView.model.upload;
+
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "image_upload_session_files")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@EqualsAndHashCode(of = "id")
+public class ImageUploadSessionFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "session_id", nullable = false)
+    private ImageUploadSession session;
+
+    // Null para imagens de sacaria
+    @Column(name = "category")
+    @Enumerated(EnumType.STRING)
+    private ContainerImageCategory category;
+
+    @Column(name = "image_key", nullable = false, unique = true)
+    private String imageKey;
+
+    // Tipo e tamanho declarados: fazem parte da assinatura da URL
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UploadFileStatus status;
+
+    @Column(name = "detail")
+    private String detail;
+}
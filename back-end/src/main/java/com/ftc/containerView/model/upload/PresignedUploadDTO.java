@@ -0,0 +1,19 @@
+package com.ftc.containerView.model.upload;
+
+import com.ftc.containerView.model.images.ContainerImageCategory;
+
+import java.util.Map;
+
+/**
+ * URL de upload de um arquivo. O PUT precisa enviar exatamente os headers informados
+ * (Content-Type e Content-Length fazem parte da assinatura).
+ */
+public record PresignedUploadDTO(
+        Long fileId,
+        ContainerImageCategory category,
+        String imageKey,
+        String method,
+        String url,
+        Map<String, String> headers
+) {
+}
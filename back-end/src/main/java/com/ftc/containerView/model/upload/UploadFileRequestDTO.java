@@ -0,0 +1,10 @@
+package com.ftc.containerView.model.upload;
+
+import com.ftc.containerView.model.images.ContainerImageCategory;
+
+/**
+ * Arquivo que o cliente pretende enviar. category é obrigatória para imagens de container
+ * e ignorada para sacaria.
+ */
+public record UploadFileRequestDTO(ContainerImageCategory category, String contentType, long size) {
+}
@@ -0,0 +1,8 @@
+package com.ftc.containerView.model.upload;
+
+public enum UploadFileStatus {
+    PENDING,
+    REGISTERED,
+    MISSING,
+    REJECTED
+}
@@ -0,0 +1,13 @@
+package com.ftc.containerView.model.upload;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record UploadSessionDTO(
+        Long sessionId,
+        UploadSessionTarget target,
+        UploadSessionStatus status,
+        LocalDateTime expiresAt,
+        List<PresignedUploadDTO> uploads
+) {
+}
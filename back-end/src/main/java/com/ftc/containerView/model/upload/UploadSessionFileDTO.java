@@ -0,0 +1,15 @@
+package com.ftc.containerView.model.upload;
+
+import com.ftc.containerView.model.images.ContainerImageCategory;
+
+public record UploadSessionFileDTO(
+        Long fileId,
+        ContainerImageCategory category,
+        String imageKey,
+        UploadFileStatus status,
+        String detail
+) {
+    public static UploadSessionFileDTO from(ImageUploadSessionFile file) {
+        return new UploadSessionFileDTO(file.getId(), file.getCategory(), file.getImageKey(), file.getStatus(), file.getDetail());
+    }
+}
@@ -0,0 +1,24 @@
+package com.ftc.containerView.model.upload;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado da finalização: REGISTERED foram gravadas no banco, MISSING não foram
+ * encontradas no S3 e REJECTED não conferiram com o declarado (e foram removidas).
+ */
+public record UploadSessionResultDTO(
+        Long sessionId,
+        UploadSessionTarget target,
+        UploadSessionStatus status,
+        int registeredCount,
+        List<UploadSessionFileDTO> files,
+        LocalDateTime completedAt
+) {
+    public static UploadSessionResultDTO from(ImageUploadSession session) {
+        List<UploadSessionFileDTO> files = session.getFiles().stream().map(UploadSessionFileDTO::from).toList();
+        int registered = (int) files.stream().filter(file -> file.status() == UploadFileStatus.REGISTERED).count();
+        return new UploadSessionResultDTO(session.getId(), session.getTarget(), session.getStatus(), registered, files,
+                session.getCompletedAt());
+    }
+}
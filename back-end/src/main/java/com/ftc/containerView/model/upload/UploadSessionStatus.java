@@ -0,0 +1,6 @@
+package com.ftc.containerView.model.upload;
+
+public enum UploadSessionStatus {
+    OPEN,
+    COMPLETED
+}
@@ -0,0 +1,6 @@
+package com.ftc.containerView.model.upload;
+
+public enum UploadSessionTarget {
+    CONTAINER,
+    SACK
+}
@@ -2,11 +2,65 @@ package com.ftc.containerView.repositories;
 
 import com.ftc.containerView.model.container.Container;
 import com.ftc.containerView.model.images.ContainerImage;
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import com.ftc.containerView.model.images.ContainerImageSummaryDTO;
+import com.ftc.containerView.model.images.ImageExportItemDTO;
+import com.ftc.containerView.model.images.RenditionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ContainerImageRepository extends JpaRepository<ContainerImage, Long> {
 
     List<ContainerImage> findByContainer(Container container);
+
+    List<ContainerImageSummaryDTO> findByContainerIdOrderById(Long containerId);
+
+    List<ContainerImageSummaryDTO> findByContainerIdAndCategoryOrderById(Long containerId, ContainerImageCategory category);
+
+    @Query("select ci.imageKey from ContainerImage ci where ci.container.id = :containerId")
+    List<String> findImageKeysByContainerId(Long containerId);
+
+    @Query("select ci.imageKey from ContainerImage ci where ci.container.operation.id = :operationId")
+    List<String> findImageKeysByOperationId(Long operationId);
+
+    @Query("select new com.ftc.containerView.model.images.ImageExportItemDTO(c.containerId, ci.category, ci.imageKey, ci.crc32) "
+            + "from ContainerImage ci join ci.container c where c.id = :containerId order by ci.category, ci.id")
+    List<ImageExportItemDTO> findExportItemsByContainerId(Long containerId);
+
+    @Query("select new com.ftc.containerView.model.images.ImageExportItemDTO(c.containerId, ci.category, ci.imageKey, ci.crc32) "
+            + "from ContainerImage ci join ci.container c where c.operation.id = :operationId "
+            + "order by c.containerId, c.id, ci.category, ci.id")
+    List<ImageExportItemDTO> findExportItemsByOperationId(Long operationId);
+
+    @Query("select ci.imageKey from ContainerImage ci where ci.imageKey in :imageKeys")
+    List<String> findExistingImageKeys(Collection<String> imageKeys);
+
+    @Query("select ci.contentHash from ContainerImage ci where ci.container.id = :containerId "
+            + "and ci.category = :category and ci.contentHash in :contentHashes")
+    List<String> findExistingContentHashes(Long containerId, ContainerImageCategory category, Collection<String> contentHashes);
+
+    @Query("select ci.imageKey from ContainerImage ci where ci.renditionStatus = :status order by ci.id")
+    List<String> findImageKeysByRenditionStatus(RenditionStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("update ContainerImage ci set ci.crc32 = :crc32 where ci.imageKey = :imageKey and ci.crc32 is null")
+    int updateCrc32(String imageKey, long crc32);
+
+    @Modifying
+    @Query("update ContainerImage ci set ci.renditionStatus = :status where ci.imageKey = :imageKey")
+    int updateRenditionStatus(String imageKey, RenditionStatus status);
+
+    @Modifying
+    @Query("update ContainerImage ci set ci.renditionAttempts = ci.renditionAttempts + 1 where ci.imageKey = :imageKey")
+    int incrementRenditionAttempts(String imageKey);
+
+    @Modifying
+    @Query("update ContainerImage ci set ci.renditionStatus = :status "
+            + "where ci.imageKey = :imageKey and ci.renditionAttempts >= :attempts")
+    int updateRenditionStatusAfterAttempts(String imageKey, RenditionStatus status, int attempts);
 }
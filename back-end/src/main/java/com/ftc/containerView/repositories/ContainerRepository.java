@@ -1,22 +1,37 @@
 package com.ftc.containerView.repositories;
 
 import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerSealRow;
 import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.container.ContainerSummaryDTO;
 import com.ftc.containerView.model.operation.Operation;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ContainerRepository extends JpaRepository<Container, Long> {
+public interface ContainerRepository extends JpaRepository<Container, Long>, ContainerRepositoryCustom {
 
     Optional<Container> findById(long id);
 
+    // Trava a linha do container até o fim da transação (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Container c where c.id = :id")
+    Optional<Container> findForUpdateById(Long id);
+
     Optional<Container> findByContainerId(String containerId);
 
+    @Query("select c.id from Container c where c.containerId = :containerId")
+    Optional<Long> findIdByContainerId(String containerId);
+
     Page<Container> findByOperation(Operation operation, Pageable pageable);
     Page<Container> findByStatus(ContainerStatus status, Pageable pageable);
 
@@ -24,4 +39,29 @@ public interface ContainerRepository extends JpaRepository<Container, Long> {
     long countByStatus(ContainerStatus status);
 
     boolean existsByContainerId(String containerId);
+
+    @Query("select c.containerId from Container c where c.containerId in :containerIds")
+    List<String> findExistingContainerIds(Collection<String> containerIds);
+
+    // Listagens: projeção direto em DTO (sem User/Operation); os lacres vêm de findSealsByContainerIds
+    String SUMMARY_SELECT = "select new com.ftc.containerView.model.container.ContainerSummaryDTO("
+            + "c.id, c.containerId, c.description, c.status, c.operation.id, c.user.id, c.sacksCount, "
+            + "c.tareTons, c.liquidWeight, c.grossWeight, c.agencySeal, c.createdAt, c.updatedAt, c.updatedByCpf) "
+            + "from Container c";
+
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "select count(c) from Container c")
+    Page<ContainerSummaryDTO> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where c.operation.id = :operationId",
+            countQuery = "select count(c) from Container c where c.operation.id = :operationId")
+    Page<ContainerSummaryDTO> findSummariesByOperationId(Long operationId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where c.status = :status",
+            countQuery = "select count(c) from Container c where c.status = :status")
+    Page<ContainerSummaryDTO> findSummariesByStatus(ContainerStatus status, Pageable pageable);
+
+    @Query("select new com.ftc.containerView.model.container.ContainerSealRow(c.id, s) "
+            + "from Container c join c.otherSeals s where c.id in :ids")
+    List<ContainerSealRow> findSealsByContainerIds(Collection<Long> ids);
 }
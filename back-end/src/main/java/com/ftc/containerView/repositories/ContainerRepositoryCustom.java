@@ -0,0 +1,20 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.model.container.ContainerSortField;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.container.ContainerSummaryDTO;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ContainerRepositoryCustom {
+
+    /**
+     * Busca até {@code limit} containers depois da posição {@code after} (ou do início, se nulo),
+     * ordenados por (sortField, id). Filtros nulos são ignorados. Sem COUNT.
+     */
+    List<ContainerSummaryDTO> findSummariesAfter(Long operationId, ContainerStatus status,
+                                                 ContainerSortField sortField, Sort.Direction direction,
+                                                 KeysetCursor after, int limit);
+}
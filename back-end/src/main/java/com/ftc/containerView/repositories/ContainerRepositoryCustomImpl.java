@@ -0,0 +1,33 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.infra.pagination.KeysetQuery;
+import com.ftc.containerView.model.container.ContainerSortField;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.container.ContainerSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+class ContainerRepositoryCustomImpl implements ContainerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ContainerSummaryDTO> findSummariesAfter(Long operationId, ContainerStatus status,
+                                                        ContainerSortField sortField, Sort.Direction direction,
+                                                        KeysetCursor after, int limit) {
+        KeysetQuery query = new KeysetQuery(ContainerRepository.SUMMARY_SELECT, "c");
+        if (operationId != null) {
+            query.where("c.operation.id = :operationId", "operationId", operationId);
+        }
+        if (status != null) {
+            query.where("c.status = :status", "status", status);
+        }
+        return query.after(sortField, direction, after)
+                .list(entityManager, ContainerSummaryDTO.class, limit);
+    }
+}
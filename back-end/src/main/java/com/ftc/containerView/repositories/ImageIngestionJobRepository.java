@@ -0,0 +1,29 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.model.ingestion.ImageIngestionJob;
+import com.ftc.containerView.model.ingestion.IngestionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageIngestionJobRepository extends JpaRepository<ImageIngestionJob, Long> {
+
+    Optional<ImageIngestionJob> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    List<ImageIngestionJob> findByStatusOrderById(IngestionJobStatus status);
+
+    /**
+     * Troca o status apenas se o job ainda estiver no status esperado.
+     * Usado para que um job seja processado por um único worker.
+     *
+     * @return 1 se o job foi atualizado, 0 caso contrário
+     */
+    @Modifying
+    @Query("update ImageIngestionJob j set j.status = :newStatus where j.id = :id and j.status = :expectedStatus")
+    int updateStatusIfCurrent(Long id, IngestionJobStatus expectedStatus, IngestionJobStatus newStatus);
+}
@@ -0,0 +1,31 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.model.upload.ImageUploadSession;
+import com.ftc.containerView.model.upload.UploadSessionStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ImageUploadSessionRepository extends JpaRepository<ImageUploadSession, Long> {
+
+    @EntityGraph(attributePaths = "files")
+    Optional<ImageUploadSession> findWithFilesById(Long id);
+
+    /**
+     * Troca o status apenas se a sessão ainda estiver no status esperado, para que
+     * finalizações concorrentes não registrem as imagens duas vezes.
+     *
+     * @return 1 se a sessão foi atualizada, 0 caso contrário
+     */
+    @Modifying
+    @Query("update ImageUploadSession s set s.status = :newStatus, s.completedAt = :completedAt " +
+            "where s.id = :id and s.status = :expectedStatus")
+    int updateStatusIfCurrent(Long id, UploadSessionStatus expectedStatus, UploadSessionStatus newStatus,
+                              LocalDateTime completedAt);
+}
@@ -3,10 +3,14 @@ package com.ftc.containerView.repositories;
 import com.ftc.containerView.model.container.Container;
 import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
 import com.ftc.containerView.model.user.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -14,9 +18,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OperationRepository extends JpaRepository<Operation, Long> {
+public interface OperationRepository extends JpaRepository<Operation, Long>, OperationRepositoryCustom {
 
     Optional<Operation> findById(Long id);
+
+    // Trava a linha da operação até o fim da transação (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Operation o where o.id = :id")
+    Optional<Operation> findForUpdateById(Long id);
     Optional<Operation> findByContainers(Container container);
     List<Operation> findByUser(User user);
     List<Operation> findByCreatedAt(LocalDateTime createdAt);
@@ -29,4 +38,22 @@ public interface OperationRepository extends JpaRepository<Operation, Long> {
     long countByUser(User user);
     long countByStatus(OperationStatus status);
 
+    // Listagens: projeção direto em DTO, sem carregar o User (ManyToOne EAGER) de cada linha
+    String SUMMARY_SELECT = "select new com.ftc.containerView.model.operation.OperationSummaryDTO("
+            + "o.id, o.ctv, o.exporter, o.ship, o.terminal, o.deadlineDraft, o.destination, o.arrivalDate, "
+            + "o.reservation, o.refClient, o.loadDeadline, o.status, u.id, o.createdAt, o.updatedAt, o.updatedByCpf) "
+            + "from Operation o left join o.user u";
+
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "select count(o) from Operation o")
+    Page<OperationSummaryDTO> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where o.status = :status",
+            countQuery = "select count(o) from Operation o where o.status = :status")
+    Page<OperationSummaryDTO> findSummariesByStatus(OperationStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where u.id = :userId",
+            countQuery = "select count(o) from Operation o where o.user.id = :userId")
+    Page<OperationSummaryDTO> findSummariesByUserId(Long userId, Pageable pageable);
+
 }
@@ -0,0 +1,19 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.model.operation.OperationSortField;
+import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface OperationRepositoryCustom {
+
+    /**
+     * Busca até {@code limit} operações depois da posição {@code after} (ou do início, se nulo),
+     * ordenadas por (sortField, id). Filtro nulo é ignorado. Sem COUNT.
+     */
+    List<OperationSummaryDTO> findSummariesAfter(OperationStatus status, OperationSortField sortField,
+                                                 Sort.Direction direction, KeysetCursor after, int limit);
+}
@@ -0,0 +1,29 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.infra.pagination.KeysetQuery;
+import com.ftc.containerView.model.operation.OperationSortField;
+import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+class OperationRepositoryCustomImpl implements OperationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OperationSummaryDTO> findSummariesAfter(OperationStatus status, OperationSortField sortField,
+                                                        Sort.Direction direction, KeysetCursor after, int limit) {
+        KeysetQuery query = new KeysetQuery(OperationRepository.SUMMARY_SELECT, "o");
+        if (status != null) {
+            query.where("o.status = :status", "status", status);
+        }
+        return query.after(sortField, direction, after)
+                .list(entityManager, OperationSummaryDTO.class, limit);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.model.images.OrphanedImageKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrphanedImageKeyRepository extends JpaRepository<OrphanedImageKey, Long> {
+
+    List<OrphanedImageKey> findByImageKeyIn(Collection<String> imageKeys);
+
+    List<OrphanedImageKey> findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderById(int maxAttempts,
+                                                                                       LocalDateTime now,
+                                                                                       Pageable pageable);
+}
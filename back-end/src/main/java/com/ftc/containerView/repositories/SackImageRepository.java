@@ -1,9 +1,15 @@
 package com.ftc.containerView.repositories;
 
+import com.ftc.containerView.model.images.RenditionStatus;
 import com.ftc.containerView.model.images.SackImage;
+import com.ftc.containerView.model.images.SackImageExportItemDTO;
 import com.ftc.containerView.model.operation.Operation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SackImageRepository extends JpaRepository<SackImage, Long> {
@@ -11,4 +17,37 @@ public interface SackImageRepository extends JpaRepository<SackImage, Long> {
     List<SackImage> findByOperation(Operation operation);
     int countByOperation(Operation operation);
     void deleteAllByOperation(Operation operation);
+
+    @Query("select si.imageKey from SackImage si where si.operation.id = :operationId order by si.id")
+    List<String> findImageKeysByOperationId(Long operationId);
+
+    @Query("select new com.ftc.containerView.model.images.SackImageExportItemDTO(si.imageKey, si.crc32) "
+            + "from SackImage si where si.operation.id = :operationId order by si.id")
+    List<SackImageExportItemDTO> findExportItemsByOperationId(Long operationId);
+
+    @Query("select si.imageKey from SackImage si where si.imageKey in :imageKeys")
+    List<String> findExistingImageKeys(Collection<String> imageKeys);
+
+    @Query("select si.contentHash from SackImage si where si.operation.id = :operationId and si.contentHash in :contentHashes")
+    List<String> findExistingContentHashes(Long operationId, Collection<String> contentHashes);
+
+    @Query("select si.imageKey from SackImage si where si.renditionStatus = :status order by si.id")
+    List<String> findImageKeysByRenditionStatus(RenditionStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("update SackImage si set si.crc32 = :crc32 where si.imageKey = :imageKey and si.crc32 is null")
+    int updateCrc32(String imageKey, long crc32);
+
+    @Modifying
+    @Query("update SackImage si set si.renditionStatus = :status where si.imageKey = :imageKey")
+    int updateRenditionStatus(String imageKey, RenditionStatus status);
+
+    @Modifying
+    @Query("update SackImage si set si.renditionAttempts = si.renditionAttempts + 1 where si.imageKey = :imageKey")
+    int incrementRenditionAttempts(String imageKey);
+
+    @Modifying
+    @Query("update SackImage si set si.renditionStatus = :status "
+            + "where si.imageKey = :imageKey and si.renditionAttempts >= :attempts")
+    int updateRenditionStatusAfterAttempts(String imageKey, RenditionStatus status, int attempts);
 }
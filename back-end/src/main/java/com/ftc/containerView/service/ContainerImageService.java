@@ -1,6 +1,8 @@
 package com.ftc.containerView.service;
 
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
 import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.errorhandling.exceptions.ContainerNotFoundException;
 import com.ftc.containerView.infra.errorhandling.exceptions.ImageNotFoundException;
 import com.ftc.containerView.infra.errorhandling.exceptions.OperationNotFoundException;
 import com.ftc.containerView.model.container.Container;
@@ -8,6 +10,9 @@ import com.ftc.containerView.model.container.ContainerStatus;
 import com.ftc.containerView.model.images.ContainerImage;
 import com.ftc.containerView.model.images.ContainerImageCategory;
 import com.ftc.containerView.model.images.ContainerImageResponseDTO;
+import com.ftc.containerView.model.images.ContainerImageSummaryDTO;
+import com.ftc.containerView.model.images.ImageRendition;
+import com.ftc.containerView.model.images.RenditionStatus;
 import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.repositories.ContainerImageRepository;
 import com.ftc.containerView.repositories.ContainerRepository;
@@ -15,9 +20,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -29,36 +38,29 @@ public class ContainerImageService {
     private static final Logger logger = LoggerFactory.getLogger(ContainerImageService.class);
     private final ContainerRepository containerRepository;
     private final ContainerService containerService;
+    private final PresignedUrlCache presignedUrlCache;
 
-    public ContainerImageService(ContainerImageRepository containerImageRepository, S3Service s3Service, ContainerRepository containerRepository, ContainerService containerService) {
+    public ContainerImageService(ContainerImageRepository containerImageRepository, S3Service s3Service, ContainerRepository containerRepository, ContainerService containerService, PresignedUrlCache presignedUrlCache) {
         this.containerImageRepository = containerImageRepository;
         this.s3Service = s3Service;
         this.containerRepository = containerRepository;
         this.containerService = containerService;
+        this.presignedUrlCache = presignedUrlCache;
     }
 
     public List<ContainerImageResponseDTO> findContainerImagesByCategory(ContainerImageCategory category, String containerId, int expirationMinutes) {
         logger.debug("Buscando imagens [{}] do container de ID: {}", category, containerId);
 
-        Container container = containerRepository.findByContainerId(containerId).orElse(null);
+        Long containerIdDef = containerRepository.findIdByContainerId(containerId).orElse(null);
 
-        if (container == null) {
+        if (containerIdDef == null) {
             logger.debug("Container de ID {} não foi encontrada", containerId);
             throw new IllegalArgumentException("Container não pode ser nulo");
         }
 
-        List<ContainerImage> images = containerImageRepository.findByContainer(container);
-
-        if (images == null || images.isEmpty()) {
-            logger.debug("Nenhuma imagem de container foi encontrada");
-            return new ArrayList<>();
-        }
-
-        logger.debug("Lista com {} imagens de containeres foi fornecida", images.size());
-
-        List<ContainerImage> categoryImages = images.stream()
-                .filter(x -> x.getCategory() == category)
-                .toList();
+        // Filtra a categoria direto no SQL (índice container_id_def, category)
+        List<ContainerImageSummaryDTO> categoryImages =
+                containerImageRepository.findByContainerIdAndCategoryOrderById(containerIdDef, category);
 
         logger.debug("{} imagens encontradas para a categoria {}", categoryImages.size(), category);
 
@@ -68,17 +70,125 @@ public class ContainerImageService {
         }
 
         return categoryImages.stream()
-                .map(image -> new ContainerImageResponseDTO(
-                        image.getId(),
-                        s3Service.generatePresignedUrl(image.getImageKey(), expirationMinutes),
-                        image.getImageKey(),
-                        image.getCategory(),
-                        expirationMinutes
-                ))
+                .map(image -> toResponse(image, expirationMinutes))
                 .toList();
 
     }
 
+    /**
+     * Busca em uma única consulta todas as imagens do container (projeção leve, sem URLs).
+     */
+    public List<ContainerImageSummaryDTO> findContainerImageSummaries(String containerId) {
+        logger.debug("Buscando todas as imagens do container de ID: {}", containerId);
+
+        Long containerIdDef = containerRepository.findIdByContainerId(containerId)
+                .orElseThrow(() -> {
+                    logger.debug("Container de ID {} não foi encontrado", containerId);
+                    return new ContainerNotFoundException("Container não encontrado com ID: " + containerId);
+                });
+
+        List<ContainerImageSummaryDTO> images = containerImageRepository.findByContainerIdOrderById(containerIdDef);
+        logger.debug("{} imagens encontradas para o container {}", images.size(), containerId);
+        return images;
+    }
+
+    /**
+     * ETag da galeria que seria entregue agora, se todas as URLs já estiverem no cache de
+     * URLs (nenhuma assinatura). Vazio quando alguma URL precisaria ser assinada: nesse
+     * caso a resposta mudaria e nenhum ETag já entregue pode ser confirmado com 304.
+     */
+    public Optional<String> findCachedGalleryETag(List<ContainerImageSummaryDTO> images, int expirationMinutes) {
+        List<ContainerImageResponseDTO> cachedImages = new ArrayList<>(images.size());
+        for (ContainerImageSummaryDTO image : images) {
+            Optional<ContainerImageResponseDTO> cached = toCachedResponse(image, expirationMinutes);
+            if (cached.isEmpty()) {
+                return Optional.empty();
+            }
+            cachedImages.add(cached.get());
+        }
+        return Optional.of(computeGalleryETag(cachedImages));
+    }
+
+    /**
+     * ETag calculado sobre as URLs entregues, que carregam o instante da assinatura. Um
+     * ETag só volta a ser gerado enquanto o cache entrega exatamente as mesmas URLs, ou
+     * seja, enquanto resta a elas pelo menos minRemainingFraction da validade: um 304
+     * nunca confirma URLs expiradas nem que o cache já deixou de entregar.
+     */
+    public String computeGalleryETag(List<ContainerImageResponseDTO> signedImages) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (ContainerImageResponseDTO image : signedImages) {
+            fingerprint.append(image.id())
+                    .append('|').append(image.category())
+                    .append('|').append(image.imageKey())
+                    .append('|').append(image.expirationMinutes())
+                    .append('|').append(image.imageUrl())
+                    .append('|').append(image.thumbnailUrl())
+                    .append('|').append(image.previewUrl())
+                    .append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * URLs pré-assinadas de todas as imagens, na ordem recebida. A assinatura é HMAC local
+     * e em geral sai do cache: não compensa dividir o trabalho no ForkJoinPool comum,
+     * compartilhado com o resto da JVM.
+     */
+    public List<ContainerImageResponseDTO> signImages(List<ContainerImageSummaryDTO> images, int expirationMinutes) {
+        return images.stream()
+                .map(image -> toResponse(image, expirationMinutes))
+                .toList();
+    }
+
+    /**
+     * Agrupa as imagens assinadas por categoria (todas as categorias presentes no mapa, mesmo vazias).
+     */
+    public Map<ContainerImageCategory, List<ContainerImageResponseDTO>> buildImageGallery(List<ContainerImageResponseDTO> signedImages) {
+        Map<ContainerImageCategory, List<ContainerImageResponseDTO>> gallery = new EnumMap<>(ContainerImageCategory.class);
+        for (ContainerImageCategory category : ContainerImageCategory.values()) {
+            gallery.put(category, new ArrayList<>());
+        }
+        for (ContainerImageResponseDTO image : signedImages) {
+            gallery.get(image.category()).add(image);
+        }
+        return gallery;
+    }
+
+    /**
+     * URLs da original e, quando já geradas, da miniatura e da prévia.
+     */
+    private ContainerImageResponseDTO toResponse(ContainerImageSummaryDTO image, int expirationMinutes) {
+        boolean renditionsReady = image.renditionStatus() == RenditionStatus.READY;
+        return new ContainerImageResponseDTO(
+                image.id(),
+                presignedUrlCache.getPresignedUrl(image.imageKey(), expirationMinutes),
+                renditionsReady ? presignedUrlCache.getPresignedUrl(ImageRendition.THUMBNAIL.keyFor(image.imageKey()), expirationMinutes) : null,
+                renditionsReady ? presignedUrlCache.getPresignedUrl(ImageRendition.PREVIEW.keyFor(image.imageKey()), expirationMinutes) : null,
+                image.imageKey(),
+                image.category(),
+                expirationMinutes
+        );
+    }
+
+    /**
+     * Como toResponse, mas só com URLs já em cache; vazio se alguma precisaria ser assinada.
+     */
+    private Optional<ContainerImageResponseDTO> toCachedResponse(ContainerImageSummaryDTO image, int expirationMinutes) {
+        Optional<String> imageUrl = presignedUrlCache.getCachedUrl(image.imageKey(), expirationMinutes);
+        if (image.renditionStatus() != RenditionStatus.READY) {
+            return imageUrl.map(url -> new ContainerImageResponseDTO(image.id(), url, null, null,
+                    image.imageKey(), image.category(), expirationMinutes));
+        }
+        Optional<String> thumbnailUrl = presignedUrlCache.getCachedUrl(ImageRendition.THUMBNAIL.keyFor(image.imageKey()), expirationMinutes);
+        Optional<String> previewUrl = presignedUrlCache.getCachedUrl(ImageRendition.PREVIEW.keyFor(image.imageKey()), expirationMinutes);
+        if (imageUrl.isEmpty() || thumbnailUrl.isEmpty() || previewUrl.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ContainerImageResponseDTO(image.id(), imageUrl.get(), thumbnailUrl.get(), previewUrl.get(),
+                image.imageKey(), image.category(), expirationMinutes));
+    }
+
     @Transactional
     public void deleteContainerImage(String containerId, Long imageId, Long userId) {
         logger.info("Removendo imagem {} do container {} por usuário {}",
@@ -112,14 +222,16 @@ public class ContainerImageService {
             throw new IllegalArgumentException("Imagem não pertence ao container especificado");
         }
 
-        // Deletar do S3
+        // Deletar do S3 (original, miniatura e prévia)
+        List<String> keys = ImageRendition.withRenditions(imageToDelete.getImageKey());
         try {
-            s3Service.deleteFile(imageToDelete.getImageKey());
+            s3Service.deleteObjects(keys);
             logger.debug("Imagem deletada do S3: {}", imageToDelete.getImageKey());
         } catch (Exception e) {
             logger.error("Erro ao deletar imagem do S3, continuando com remoção do banco: {}", e.getMessage());
             // Continua mesmo se falhar no S3 (segue o padrão do OperationService)
         }
+        keys.forEach(presignedUrlCache::invalidate);
 
         // Deletar do banco
         containerImageRepository.delete(imageToDelete);
@@ -1,6 +1,8 @@
 package com.ftc.containerView.service;
 
 import com.ftc.containerView.infra.errorhandling.exceptions.*;
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.infra.pagination.Pagination;
 import com.ftc.containerView.infra.security.InputSanitizer;
 import com.ftc.containerView.model.container.*;
 import com.ftc.containerView.model.images.AddImagesToContainerResultDTO;
@@ -8,7 +10,9 @@ import com.ftc.containerView.model.images.ContainerImage;
 import com.ftc.containerView.model.images.ContainerImageCategory;
 import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.pagination.CursorSliceDTO;
 import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.repositories.ContainerImageRepository;
 import com.ftc.containerView.repositories.ContainerRepository;
 import com.ftc.containerView.repositories.OperationRepository;
 import com.ftc.containerView.repositories.UserRepository;
@@ -17,7 +21,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -34,16 +40,21 @@ public class ContainerService {
     private final StoreImageService storeImageService;
     private final OperationRepository operationRepository;
     private final InputSanitizer inputSanitizer;
+    private final ContainerImageRepository containerImageRepository;
+    private final ImageDeletionService imageDeletionService;
 
     @Autowired
     public ContainerService(ContainerRepository containerRepository, UserRepository userRepository,
                             StoreImageService storeImageService, OperationRepository operationRepository,
-                            InputSanitizer inputSanitizer) {
+                            InputSanitizer inputSanitizer, ContainerImageRepository containerImageRepository,
+                            ImageDeletionService imageDeletionService) {
         this.containerRepository = containerRepository;
         this.userRepository = userRepository;
         this.storeImageService = storeImageService;
         this.operationRepository = operationRepository;
         this.inputSanitizer = inputSanitizer;
+        this.containerImageRepository = containerImageRepository;
+        this.imageDeletionService = imageDeletionService;
     }
 
     /**
@@ -263,11 +274,11 @@ public class ContainerService {
     /**
      * Busca todos os containers com paginação
      */
-    public Page<Container> getContainers(Pageable pageable) {
+    public Page<ContainerSummaryDTO> getContainers(Pageable pageable) {
         logger.info("Buscando containers com paginação - Página: {}, Tamanho: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Container> containers = containerRepository.findAll(pageable);
+        Page<ContainerSummaryDTO> containers = withOtherSeals(containerRepository.findSummaries(pageable));
 
         logger.info("Encontrados {} containers na página {} de {} (Total: {})",
                 containers.getNumberOfElements(),
@@ -311,17 +322,18 @@ public class ContainerService {
     /**
      * Busca containers por operação com paginação
      */
-    public Page<Container> getContainersByOperation(Long operationId, Pageable pageable) {
+    public Page<ContainerSummaryDTO> getContainersByOperation(Long operationId, Pageable pageable) {
         logger.info("Buscando containers da operação {} - Página: {}, Tamanho: {}",
                 operationId, pageable.getPageNumber(), pageable.getPageSize());
 
-        Operation operation = operationRepository.findById(operationId)
-                .orElseThrow(() -> {
-                    logger.warn("Operação com ID {} não encontrada", operationId);
-                    return new OperationNotFoundException("Operação não encontrada com ID: " + operationId);
-                });
+        Page<ContainerSummaryDTO> containers = containerRepository.findSummariesByOperationId(operationId, pageable);
 
-        Page<Container> containers = containerRepository.findByOperation(operation, pageable);
+        // Só confere a existência da operação quando a página vem vazia
+        if (containers.isEmpty() && !operationRepository.existsById(operationId)) {
+            logger.warn("Operação com ID {} não encontrada", operationId);
+            throw new OperationNotFoundException("Operação não encontrada com ID: " + operationId);
+        }
+        containers = withOtherSeals(containers);
 
         logger.info("Encontrados {} containers da operação {} na página {} de {} (Total: {})",
                 containers.getNumberOfElements(), operationId,
@@ -334,11 +346,11 @@ public class ContainerService {
     /**
      * Busca containers por status com paginação
      */
-    public Page<Container> getContainersByStatus(ContainerStatus status, Pageable pageable) {
+    public Page<ContainerSummaryDTO> getContainersByStatus(ContainerStatus status, Pageable pageable) {
         logger.info("Buscando containers com status {} - Página: {}, Tamanho: {}",
                 status, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Container> containers = containerRepository.findByStatus(status, pageable);
+        Page<ContainerSummaryDTO> containers = withOtherSeals(containerRepository.findSummariesByStatus(status, pageable));
 
         logger.info("Encontrados {} containers com status {} na página {} de {} (Total: {})",
                 containers.getNumberOfElements(), status,
@@ -348,9 +360,70 @@ public class ContainerService {
         return containers;
     }
 
+    /**
+     * Busca containers por cursor (keyset) ordenados por (sortBy, id), sem COUNT.
+     * Quando há cursor, a ordenação gravada nele prevalece sobre sortBy/sortDirection.
+     */
+    public CursorSliceDTO<ContainerSummaryDTO> getContainersSlice(Long operationId, ContainerStatus status,
+                                                                  String sortBy, String sortDirection,
+                                                                  String cursor, int size) {
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        ContainerSortField sortField = Pagination.sortField(ContainerSortField.class,
+                after != null ? after.sortBy() : sortBy);
+        Sort.Direction direction = after != null ? after.direction() : Pagination.direction(sortDirection);
+
+        logger.info("Buscando containers por cursor - Operação: {}, Status: {}, Ordenação: {} {}, Tamanho: {}",
+                operationId, status, sortField.property(), direction, size);
+
+        // Um registro a mais indica se existe próxima fatia
+        List<ContainerSummaryDTO> rows = containerRepository.findSummariesAfter(
+                operationId, status, sortField, direction, after, size + 1);
+
+        if (rows.isEmpty() && after == null && operationId != null && !operationRepository.existsById(operationId)) {
+            logger.warn("Operação com ID {} não encontrada", operationId);
+            throw new OperationNotFoundException("Operação não encontrada com ID: " + operationId);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ContainerSummaryDTO> content = withOtherSeals(hasNext ? rows.subList(0, size) : rows);
+
+        String nextCursor = null;
+        if (hasNext) {
+            ContainerSummaryDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(sortField.property(), direction, last.id(),
+                    sortField.format(sortField.valueOf(last))).encode();
+        }
+
+        logger.info("Encontrados {} containers por cursor (próxima fatia: {})", content.size(), hasNext);
+
+        return new CursorSliceDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Preenche os lacres extras de uma página de containers com uma única consulta,
+     * em vez de inicializar a coleção de cada container.
+     */
+    private Page<ContainerSummaryDTO> withOtherSeals(Page<ContainerSummaryDTO> page) {
+        return new PageImpl<>(withOtherSeals(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private List<ContainerSummaryDTO> withOtherSeals(List<ContainerSummaryDTO> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        List<Long> ids = summaries.stream().map(ContainerSummaryDTO::id).toList();
+        Map<Long, List<String>> sealsByContainer = containerRepository.findSealsByContainerIds(ids).stream()
+                .collect(Collectors.groupingBy(ContainerSealRow::containerId,
+                        Collectors.mapping(ContainerSealRow::seal, Collectors.toList())));
+        return summaries.stream()
+                .map(summary -> summary.withOtherSeals(sealsByContainer.getOrDefault(summary.id(), List.of())))
+                .toList();
+    }
+
     /**
      * Deleta um container por ID
      */
+    @Transactional
     public void deleteContainerByContainerId(String containerId) {
         logger.info("Excluindo container com ID: {}", containerId);
         try {
@@ -359,8 +432,10 @@ public class ContainerService {
                     () -> new ContainerNotFoundException("Container não encontrado com ID: " + containerId)
             );
 
+            List<String> imageKeys = containerImageRepository.findImageKeysByContainerId(containerToDelete.getId());
             containerRepository.deleteById(containerToDelete.getId());
-            logger.info("Container com ID {} excluído com sucesso.", containerId);
+            imageDeletionService.deleteAfterCommit(imageKeys);
+            logger.info("Container com ID {} excluído com sucesso ({} imagens a remover do S3).", containerId, imageKeys.size());
 
         } catch (ContainerNotFoundException e) {
             logger.warn("Container não encontrado com ID: " + containerId);
@@ -491,82 +566,98 @@ public class ContainerService {
     }
 
     /**
-     * Cria múltiplos containers em lote
+     * Cria múltiplos containers em lote.
+     *
+     * Duplicidades e operações são resolvidas com uma consulta cada (IN (...)) e os containers
+     * válidos são gravados com um único saveAll (insert em lote, inclusive os lacres).
+     * Linhas inválidas não interrompem o lote: cada uma aparece no relatório com o motivo.
      */
     @Transactional
-    public List<Container> createMultipleContainers(List<CreateContainerDTO> containerDTOs, Long userId) {
+    public BatchContainerResultDTO createMultipleContainers(List<CreateContainerDTO> containerDTOs, Long userId) {
         logger.info("Criando {} containers em lote para usuário {}", containerDTOs.size(), userId);
 
         // Validar usuário uma vez só
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado com ID: " + userId));
 
-        List<Container> createdContainers = new ArrayList<>();
-        Set<String> containerIds = new HashSet<>();
+        // Sanitiza os IDs antes de comparar: é o valor sanitizado que fica gravado
+        List<String> sanitizedIds = containerDTOs.stream()
+                .map(dto -> inputSanitizer.sanitizePlainText(dto.containerId()))
+                .collect(Collectors.toList());
+
+        Set<String> existingIds = new HashSet<>(containerRepository.findExistingContainerIds(
+                sanitizedIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())));
 
-        // Validar IDs duplicados na própria lista
-        for (CreateContainerDTO dto : containerDTOs) {
-            if (!containerIds.add(dto.containerId())) {
-                logger.error("Container duplicado na requisição: {}", dto.containerId());
-                throw new IllegalArgumentException("Container duplicado na requisição: " + dto.containerId());
+        Set<Long> operationIds = containerDTOs.stream()
+                .map(CreateContainerDTO::operationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Operation> operationsById = operationRepository.findAllById(operationIds).stream()
+                .collect(Collectors.toMap(Operation::getId, operation -> operation));
+
+        BatchContainerRowResultDTO[] rows = new BatchContainerRowResultDTO[containerDTOs.size()];
+        List<Container> toCreate = new ArrayList<>();
+        List<Integer> toCreateIndexes = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+
+        for (int i = 0; i < containerDTOs.size(); i++) {
+            CreateContainerDTO containerDTO = containerDTOs.get(i);
+            String sanitizedContainerId = sanitizedIds.get(i);
+
+            String error = null;
+            if (sanitizedContainerId == null || sanitizedContainerId.isBlank()) {
+                error = "ID do container é obrigatório";
+            } else if (!seenIds.add(sanitizedContainerId)) {
+                error = "Container duplicado na requisição: " + sanitizedContainerId;
+            } else if (existingIds.contains(sanitizedContainerId)) {
+                error = "Container já existe: " + sanitizedContainerId;
+            } else if (containerDTO.operationId() == null || !operationsById.containsKey(containerDTO.operationId())) {
+                error = "Operação não encontrada: " + containerDTO.operationId();
             }
-        }
 
-        // Criar cada container
-        for (CreateContainerDTO containerDTO : containerDTOs) {
-            try {
-                // Verificar se já existe
-                if (containerRepository.existsByContainerId(containerDTO.containerId())) {
-                    logger.error("Container já existe: {}", containerDTO.containerId());
-                    throw new IllegalArgumentException("Container já existe: " + containerDTO.containerId());
-                }
-
-                // Validar operação existe
-                Operation operation = operationRepository.findById(containerDTO.operationId())
-                        .orElseThrow(() -> new OperationNotFoundException(
-                                "Operação não encontrada: " + containerDTO.operationId()));
-
-                // Sanitização dos campos de texto livre
-                String sanitizedContainerId = inputSanitizer.sanitizePlainText(containerDTO.containerId());
-                String sanitizedDescription = inputSanitizer.sanitizeBasicHtml(containerDTO.description());
-                String sanitizedAgencySeal = inputSanitizer.sanitizePlainText(containerDTO.agencySeal());
+            if (error != null) {
+                logger.warn("Container {} ignorado no lote: {}", containerDTO.containerId(), error);
+                rows[i] = BatchContainerRowResultDTO.failed(i, containerDTO.containerId(), error);
+                continue;
+            }
 
-                // ✅ CORREÇÃO: Usar collect(Collectors.toList()) em vez de toList()
-                List<String> sanitizedOtherSeals = null;
-                if (containerDTO.otherSeals() != null) {
-                    sanitizedOtherSeals = containerDTO.otherSeals().stream()
-                            .map(inputSanitizer::sanitizePlainText)
-                            .collect(Collectors.toList());  // ✅ LISTA MUTÁVEL
-                }
-
-                Container newContainer = new Container(
-                        sanitizedContainerId,
-                        sanitizedDescription,
-                        user,
-                        operation,
-                        containerDTO.sacksCount(),
-                        containerDTO.tareTons(),
-                        containerDTO.liquidWeight(),
-                        containerDTO.grossWeight(),
-                        sanitizedAgencySeal,
-                        sanitizedOtherSeals,
-                        containerDTO.status() != null ? containerDTO.status() : ContainerStatus.OPEN
-                );
-
-                Container saved = containerRepository.save(newContainer);
-                createdContainers.add(saved);
-
-                logger.debug("Container {} criado com sucesso", sanitizedContainerId);
-
-            } catch (Exception e) {
-                // Em caso de erro, fazer rollback de toda a transação
-                logger.error("Erro ao criar container {}: {}", containerDTO.containerId(), e.getMessage());
-                throw new RuntimeException("Erro ao criar container " + containerDTO.containerId() + ": " + e.getMessage(), e);
+            // Sanitização dos campos de texto livre
+            String sanitizedDescription = inputSanitizer.sanitizeBasicHtml(containerDTO.description());
+            String sanitizedAgencySeal = inputSanitizer.sanitizePlainText(containerDTO.agencySeal());
+
+            List<String> sanitizedOtherSeals = null;
+            if (containerDTO.otherSeals() != null) {
+                sanitizedOtherSeals = containerDTO.otherSeals().stream()
+                        .map(inputSanitizer::sanitizePlainText)
+                        .collect(Collectors.toList());  // ✅ LISTA MUTÁVEL
             }
+
+            toCreate.add(new Container(
+                    sanitizedContainerId,
+                    sanitizedDescription,
+                    user,
+                    operationsById.get(containerDTO.operationId()),
+                    containerDTO.sacksCount(),
+                    containerDTO.tareTons(),
+                    containerDTO.liquidWeight(),
+                    containerDTO.grossWeight(),
+                    sanitizedAgencySeal,
+                    sanitizedOtherSeals,
+                    containerDTO.status() != null ? containerDTO.status() : ContainerStatus.OPEN
+            ));
+            toCreateIndexes.add(i);
+        }
+
+        List<Container> savedContainers = containerRepository.saveAll(toCreate);
+        for (int i = 0; i < savedContainers.size(); i++) {
+            int index = toCreateIndexes.get(i);
+            rows[index] = BatchContainerRowResultDTO.created(index, savedContainers.get(i));
         }
 
-        logger.info("{} containers criados com sucesso", createdContainers.size());
-        return createdContainers;
+        int failed = containerDTOs.size() - savedContainers.size();
+        logger.info("{} containers criados com sucesso, {} rejeitados", savedContainers.size(), failed);
+
+        return new BatchContainerResultDTO(containerDTOs.size(), savedContainers.size(), failed, Arrays.asList(rows));
     }
 
     /**
@@ -593,57 +684,21 @@ public class ContainerService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado com ID: " + userId));
 
-        List<ContainerImage> newImages = new ArrayList<>();
-        Map<String, Integer> imagesByCategory = new HashMap<>();
-
-        // Processar cada categoria de imagem
-        if (vazioForradoImages != null && vazioForradoImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    vazioForradoImages, container.getId(), ContainerImageCategory.VAZIO_FORRADO);
-            newImages.addAll(images);
-            imagesByCategory.put("VAZIO_FORRADO", images.size());
-        }
-
-        if (fiadaImages != null && fiadaImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    fiadaImages, container.getId(), ContainerImageCategory.FIADA);
-            newImages.addAll(images);
-            imagesByCategory.put("FIADA", images.size());
-        }
+        Map<ContainerImageCategory, MultipartFile[]> imagesToStore = new EnumMap<>(ContainerImageCategory.class);
+        imagesToStore.put(ContainerImageCategory.VAZIO_FORRADO, vazioForradoImages);
+        imagesToStore.put(ContainerImageCategory.FIADA, fiadaImages);
+        imagesToStore.put(ContainerImageCategory.CHEIO_ABERTO, cheioAbertoImages);
+        imagesToStore.put(ContainerImageCategory.MEIA_PORTA, meiaPortaImages);
+        imagesToStore.put(ContainerImageCategory.LACRADO_FECHADO, lacradoFechadoImages);
+        imagesToStore.put(ContainerImageCategory.LACRES_PRINCIPAIS, lacresPrincipalImages);
+        imagesToStore.put(ContainerImageCategory.LACRES_OUTROS, lacresOutrosImages);
 
-        if (cheioAbertoImages != null && cheioAbertoImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    cheioAbertoImages, container.getId(), ContainerImageCategory.CHEIO_ABERTO);
-            newImages.addAll(images);
-            imagesByCategory.put("CHEIO_ABERTO", images.size());
-        }
+        // Todas as categorias em uma única chamada (upload paralelo + insert em lote)
+        List<ContainerImage> newImages = storeImageService.storeImagesToContainer(imagesToStore, container.getId());
 
-        if (meiaPortaImages != null && meiaPortaImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    meiaPortaImages, container.getId(), ContainerImageCategory.MEIA_PORTA);
-            newImages.addAll(images);
-            imagesByCategory.put("MEIA_PORTA", images.size());
-        }
-
-        if (lacradoFechadoImages != null && lacradoFechadoImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    lacradoFechadoImages, container.getId(), ContainerImageCategory.LACRADO_FECHADO);
-            newImages.addAll(images);
-            imagesByCategory.put("LACRADO_FECHADO", images.size());
-        }
-
-        if (lacresPrincipalImages != null && lacresPrincipalImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    lacresPrincipalImages, container.getId(), ContainerImageCategory.LACRES_PRINCIPAIS);
-            newImages.addAll(images);
-            imagesByCategory.put("LACRES_PRINCIPAIS", images.size());
-        }
-
-        if (lacresOutrosImages != null && lacresOutrosImages.length > 0) {
-            List<ContainerImage> images = storeImageService.storeImagesToContainer(
-                    lacresOutrosImages, container.getId(), ContainerImageCategory.LACRES_OUTROS);
-            newImages.addAll(images);
-            imagesByCategory.put("LACRES_OUTROS", images.size());
+        Map<String, Integer> imagesByCategory = new HashMap<>();
+        for (ContainerImage image : newImages) {
+            imagesByCategory.merge(image.getCategory().name(), 1, Integer::sum);
         }
 
         // Adicionar novas imagens ao container
@@ -0,0 +1,255 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.model.images.ImageRendition;
+import com.ftc.containerView.model.images.OrphanedImageKey;
+import com.ftc.containerView.repositories.OrphanedImageKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remoção em lote de imagens do S3 quando operações e containers são excluídos.
+ *
+ * As chaves são apagadas só depois do commit da exclusão no banco (se a transação
+ * for desfeita, as imagens continuam válidas), em background e via DeleteObjects
+ * com até 1000 chaves por requisição. Chaves que falham ficam em orphaned_image_keys
+ * e são retentadas periodicamente com backoff.
+ */
+@Service
+public class ImageDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDeletionService.class);
+
+    private static final int RETRY_BATCH_SIZE = 1000;
+    // Limite de parâmetros do IN ao consultar chaves já registradas
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final int MAX_BACKOFF_EXPONENT = 6;
+
+    private final S3Service s3Service;
+    private final PresignedUrlCache presignedUrlCache;
+    private final OrphanedImageKeyRepository orphanedImageKeyRepository;
+    private final ScheduledThreadPoolExecutor workers;
+    private final long retryIntervalSeconds;
+    private final int maxAttempts;
+    private final Counter deletedCounter;
+    private final Counter orphanedCounter;
+
+    @Autowired
+    public ImageDeletionService(S3Service s3Service,
+                                PresignedUrlCache presignedUrlCache,
+                                OrphanedImageKeyRepository orphanedImageKeyRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.images.deletion.workers:1}") int workerCount,
+                                @Value("${app.images.deletion.retry-interval-seconds:300}") long retryIntervalSeconds,
+                                @Value("${app.images.deletion.max-attempts:10}") int maxAttempts) {
+        this.s3Service = s3Service;
+        this.presignedUrlCache = presignedUrlCache;
+        this.orphanedImageKeyRepository = orphanedImageKeyRepository;
+        this.retryIntervalSeconds = Math.max(1, retryIntervalSeconds);
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        this.workers = new ScheduledThreadPoolExecutor(Math.max(1, workerCount), new CustomizableThreadFactory("image-deletion-"));
+        this.workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.workers.scheduleWithFixedDelay(this::retryOrphanedKeys,
+                this.retryIntervalSeconds, this.retryIntervalSeconds, TimeUnit.SECONDS);
+
+        this.deletedCounter = Counter.builder("image_deletions_total")
+                .description("Imagens removidas do S3 após exclusão no banco")
+                .tag("outcome", "deleted")
+                .register(meterRegistry);
+        this.orphanedCounter = Counter.builder("image_deletions_total")
+                .description("Imagens removidas do S3 após exclusão no banco")
+                .tag("outcome", "orphaned")
+                .register(meterRegistry);
+
+        logger.info("ImageDeletionService inicializado - Workers: {}, retentativa a cada {}s, tentativas: {}",
+                workerCount, this.retryIntervalSeconds, this.maxAttempts);
+    }
+
+    /**
+     * Agenda a remoção das chaves do S3, junto com a miniatura e a prévia de cada imagem.
+     * Dentro de uma transação, a remoção só é disparada após o commit; fora dela, é
+     * disparada imediatamente.
+     */
+    public void deleteAfterCommit(Collection<String> imageKeys) {
+        Set<String> uniqueKeys = new HashSet<>();
+        imageKeys.forEach(imageKey -> uniqueKeys.addAll(ImageRendition.withRenditions(imageKey)));
+        List<String> keys = List.copyOf(uniqueKeys);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(keys);
+                }
+            });
+            logger.debug("Remoção de {} imagens do S3 agendada para após o commit", keys.size());
+        } else {
+            submit(keys);
+        }
+    }
+
+    /**
+     * Agenda a remoção das chaves do S3 caso a transação atual seja desfeita. Usado para
+     * objetos enviados antes do insert das linhas que os referenciam: falhas de insert (no
+     * flush) ou posteriores na mesma transação só aparecem no commit.
+     * @return false se não houver transação ativa (nada é agendado)
+     */
+    public boolean deleteOnRollback(Collection<String> imageKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        List<String> keys = List.copyOf(imageKeys);
+        if (keys.isEmpty()) {
+            return true;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    logger.warn("Transação desfeita; removendo {} imagens já enviadas ao S3", keys.size());
+                    submit(keys);
+                }
+            }
+        });
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void submit(List<String> keys) {
+        try {
+            workers.execute(() -> delete(keys));
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando: as chaves ficam registradas para a próxima execução
+            logger.warn("Pool de remoção encerrado; registrando {} imagens para retentativa", keys.size());
+            recordOrphans(keys, "Remoção não executada: aplicação encerrando");
+        }
+    }
+
+    private void delete(List<String> keys) {
+        keys.forEach(presignedUrlCache::invalidate);
+
+        List<String> failed;
+        String error = "DeleteObjects falhou para a chave";
+        try {
+            failed = s3Service.deleteObjects(keys);
+        } catch (Exception e) {
+            logger.error("Erro ao remover {} imagens do S3: {}", keys.size(), e.getMessage(), e);
+            failed = keys;
+            error = String.valueOf(e.getMessage());
+        }
+
+        deletedCounter.increment(keys.size() - failed.size());
+        logger.info("Removidas {} de {} imagens do S3", keys.size() - failed.size(), keys.size());
+
+        if (!failed.isEmpty()) {
+            recordOrphans(failed, error);
+        }
+    }
+
+    private void recordOrphans(List<String> keys, String error) {
+        try {
+            Set<String> alreadyRecorded = new HashSet<>();
+            for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+                orphanedImageKeyRepository.findByImageKeyIn(keys.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, keys.size())))
+                        .forEach(orphan -> alreadyRecorded.add(orphan.getImageKey()));
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<OrphanedImageKey> orphans = keys.stream()
+                    .filter(key -> !alreadyRecorded.contains(key))
+                    .map(key -> OrphanedImageKey.builder()
+                            .imageKey(key)
+                            .attempts(0)
+                            .lastError(truncate(error))
+                            .createdAt(now)
+                            .nextAttemptAt(now.plusSeconds(retryIntervalSeconds))
+                            .build())
+                    .toList();
+            orphanedImageKeyRepository.saveAll(orphans);
+
+            orphanedCounter.increment(orphans.size());
+            logger.warn("{} imagens registradas para retentativa de remoção do S3", orphans.size());
+        } catch (Exception e) {
+            logger.error("Erro ao registrar {} imagens órfãs no S3: {}", keys.size(), keys, e);
+        }
+    }
+
+    /**
+     * Retenta as chaves órfãs vencidas. Sucesso remove o registro; falha incrementa
+     * as tentativas e dobra o intervalo até a próxima.
+     */
+    void retryOrphanedKeys() {
+        try {
+            List<OrphanedImageKey> due = orphanedImageKeyRepository
+                    .findByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderById(maxAttempts, LocalDateTime.now(),
+                            PageRequest.of(0, RETRY_BATCH_SIZE));
+            if (due.isEmpty()) {
+                return;
+            }
+
+            List<String> keys = due.stream().map(OrphanedImageKey::getImageKey).toList();
+            Set<String> failed = new HashSet<>(s3Service.deleteObjects(keys));
+
+            List<OrphanedImageKey> deleted = new ArrayList<>();
+            List<OrphanedImageKey> stillOrphaned = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (OrphanedImageKey orphan : due) {
+                if (!failed.contains(orphan.getImageKey())) {
+                    deleted.add(orphan);
+                    continue;
+                }
+                orphan.setAttempts(orphan.getAttempts() + 1);
+                orphan.setLastError("DeleteObjects falhou para a chave");
+                orphan.setNextAttemptAt(now.plusSeconds(
+                        retryIntervalSeconds << Math.min(orphan.getAttempts(), MAX_BACKOFF_EXPONENT)));
+                stillOrphaned.add(orphan);
+                if (orphan.getAttempts() >= maxAttempts) {
+                    logger.error("Imagem {} não removida do S3 após {} tentativas", orphan.getImageKey(), orphan.getAttempts());
+                }
+            }
+
+            orphanedImageKeyRepository.deleteAllInBatch(deleted);
+            orphanedImageKeyRepository.saveAll(stillOrphaned);
+            deletedCounter.increment(deleted.size());
+
+            logger.info("Retentativa de remoção do S3: {} removidas, {} ainda pendentes", deleted.size(), stillOrphaned.size());
+        } catch (Exception e) {
+            logger.error("Erro na retentativa de remoção de imagens do S3: {}", e.getMessage(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message;
+    }
+}
@@ -0,0 +1,541 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.errorhandling.exceptions.ContainerNotFoundException;
+import com.ftc.containerView.infra.errorhandling.exceptions.ImageStorageException;
+import com.ftc.containerView.infra.errorhandling.exceptions.OperationNotFoundException;
+import com.ftc.containerView.infra.export.ZipArchiveLayout;
+import com.ftc.containerView.model.images.ImageExportItemDTO;
+import com.ftc.containerView.model.images.SackImageExportItemDTO;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.ContainerRepository;
+import com.ftc.containerView.repositories.OperationRepository;
+import com.ftc.containerView.repositories.SackImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Exportação de todas as imagens de um container ou operação em um único ZIP, montado em
+ * stream enquanto é enviado (pastas &lt;container&gt;/&lt;CATEGORIA&gt;/ e sacaria/).
+ *
+ * Antes do envio, um HEAD por imagem (em paralelo, limitado) fornece o tamanho de cada
+ * objeto: com isso a estrutura do ZIP (ZipArchiveLayout) e o tamanho total são conhecidos,
+ * a resposta leva Content-Length e ETag, e requisições Range (retomada de downloads
+ * interrompidos) são atendidas lendo do S3 só os trechos pedidos. O CRC-32 de cada imagem
+ * vem do banco (calculado no upload), então o diretório central é montado sem ler nenhum
+ * objeto. Imagens sem CRC (antigas ou enviadas direto ao S3) são lidas por inteiro quando
+ * o trecho inclui o data descriptor ou o diretório central, e o valor calculado é gravado
+ * para as próximas exportações.
+ *
+ * As leituras do S3 são abertas com antecedência (app.images.export.prefetch objetos à
+ * frente) e consumidas em ordem, cada uma com no máximo ~4 MB em buffer: a memória usada
+ * não depende do tamanho da exportação. Uma leitura interrompida (timeout enquanto
+ * aguardava o cliente, falha de rede) é reaberta a partir do último byte lido.
+ *
+ * Métricas expostas:
+ * - image_exports_total: exportações (tag outcome: completed, failed)
+ * - image_export_bytes_total: bytes enviados em exportações concluídas
+ * - image_export_active: exportações em andamento
+ */
+@Service
+public class ImageExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageExportService.class);
+
+    private static final String SACK_FOLDER = "sacaria";
+    // HEADs simultâneos ao montar a exportação: operações grandes têm milhares de imagens
+    private static final int MAX_PARALLEL_HEADS = 32;
+    private static final int COPY_BUFFER_SIZE = 65536;
+
+    /**
+     * @param crc32s CRC-32 de cada imagem, na ordem de imageKeys; nulo se ainda não calculado
+     */
+    public record ImageExport(String fileName, ZipArchiveLayout layout, List<String> imageKeys, List<Long> crc32s, String eTag) {}
+
+    private record ObjectRead(int index, String imageKey, long from, long to, boolean computeCrc) {}
+
+    private record PendingRead(ObjectRead read, CompletableFuture<ResponseInputStream<GetObjectResponse>> stream) {
+
+        void cancel() {
+            stream.cancel(true);
+            stream.whenComplete((input, error) -> {
+                if (input != null) {
+                    input.abort();
+                }
+            });
+        }
+    }
+
+    private final S3Service s3Service;
+    private final ContainerRepository containerRepository;
+    private final ContainerImageRepository containerImageRepository;
+    private final SackImageRepository sackImageRepository;
+    private final OperationRepository operationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int prefetch;
+    private final int maxReadAttempts;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final AtomicInteger activeExports = new AtomicInteger();
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter bytesCounter;
+
+    @Autowired
+    public ImageExportService(S3Service s3Service,
+                              ContainerRepository containerRepository,
+                              ContainerImageRepository containerImageRepository,
+                              SackImageRepository sackImageRepository,
+                              OperationRepository operationRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.images.export.prefetch:4}") int prefetch,
+                              @Value("${app.images.export.max-read-attempts:3}") int maxReadAttempts) {
+        this.s3Service = s3Service;
+        this.containerRepository = containerRepository;
+        this.containerImageRepository = containerImageRepository;
+        this.sackImageRepository = sackImageRepository;
+        this.operationRepository = operationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.prefetch = Math.max(1, prefetch);
+        this.maxReadAttempts = Math.max(1, maxReadAttempts);
+
+        Gauge.builder("image_export_active", activeExports, AtomicInteger::get)
+                .description("Exportações de imagens em ZIP em andamento")
+                .register(meterRegistry);
+        this.completedCounter = exportsCounter(meterRegistry, "completed");
+        this.failedCounter = exportsCounter(meterRegistry, "failed");
+        this.bytesCounter = Counter.builder("image_export_bytes_total")
+                .description("Bytes enviados em exportações de imagens concluídas")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("ImageExportService inicializado - Prefetch: {}, tentativas de leitura: {}", this.prefetch, this.maxReadAttempts);
+    }
+
+    public ImageExport prepareContainerExport(String containerId) {
+        Long containerIdDef = containerRepository.findIdByContainerId(containerId)
+                .orElseThrow(() -> new ContainerNotFoundException("Container não encontrado com ID: " + containerId));
+
+        List<ImageExportItemDTO> items = containerImageRepository.findExportItemsByContainerId(containerIdDef);
+        List<String> names = new ArrayList<>(items.size());
+        List<String> keys = new ArrayList<>(items.size());
+        List<Long> crcs = new ArrayList<>(items.size());
+        addContainerItems(items, names, keys, crcs);
+        return prepare("container_" + folderName(containerId) + ".zip", names, keys, crcs);
+    }
+
+    /**
+     * Imagens de todos os containers da operação e as de sacaria.
+     */
+    public ImageExport prepareOperationExport(Long operationId) {
+        if (!operationRepository.existsById(operationId)) {
+            throw new OperationNotFoundException("Operação não encontrada com ID: " + operationId);
+        }
+
+        List<ImageExportItemDTO> items = containerImageRepository.findExportItemsByOperationId(operationId);
+        List<SackImageExportItemDTO> sackItems = sackImageRepository.findExportItemsByOperationId(operationId);
+        List<String> names = new ArrayList<>(items.size() + sackItems.size());
+        List<String> keys = new ArrayList<>(items.size() + sackItems.size());
+        List<Long> crcs = new ArrayList<>(items.size() + sackItems.size());
+        addContainerItems(items, names, keys, crcs);
+        for (int i = 0; i < sackItems.size(); i++) {
+            SackImageExportItemDTO item = sackItems.get(i);
+            names.add(SACK_FOLDER + "/" + entryName(i + 1, item.imageKey()));
+            keys.add(item.imageKey());
+            crcs.add(item.crc32());
+        }
+        return prepare("operacao_" + operationId + ".zip", names, keys, crcs);
+    }
+
+    /**
+     * Resposta HTTP da exportação: 200 com o arquivo inteiro, 206 para um único intervalo
+     * em Range (If-Range com ETag diferente devolve o arquivo inteiro) ou 416 para um
+     * intervalo fora do arquivo. Múltiplos intervalos são atendidos com o arquivo inteiro.
+     */
+    public ResponseEntity<StreamingResponseBody> toResponse(ImageExport export, String rangeHeader, String ifRange) {
+        long length = export.layout().length();
+        String eTag = "\"" + export.eTag() + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(export.fileName())
+                .build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(eTag);
+
+        List<HttpRange> ranges = List.of();
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(eTag))) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // Range malformado é ignorado (RFC 9110): responde com o arquivo inteiro
+                logger.debug("Range ignorado na exportação {}: {}", export.fileName(), e.getMessage());
+            }
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            // HttpRange não valida o início contra o tamanho (ex.: bytes=<length>- ao retomar um download completo)
+            if (start >= length || start > end) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        headers.setContentLength(end - start + 1);
+
+        long rangeStart = start;
+        long rangeEnd = end;
+        StreamingResponseBody body = output -> stream(export, rangeStart, rangeEnd, output);
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    private void stream(ImageExport export, long start, long end, OutputStream output) throws IOException {
+        long startTime = System.currentTimeMillis();
+        activeExports.incrementAndGet();
+        logger.info("Exportação {} iniciada: {} imagens, bytes {}-{} de {}",
+                export.fileName(), export.layout().size(), start, end, export.layout().length());
+        try {
+            write(export, start, end, output);
+            output.flush();
+            completedCounter.increment();
+            bytesCounter.increment(end - start + 1);
+            logger.info("Exportação {} concluída: {} bytes em {}ms",
+                    export.fileName(), end - start + 1, System.currentTimeMillis() - startTime);
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            logger.warn("Exportação {} interrompida após {}ms: {}",
+                    export.fileName(), System.currentTimeMillis() - startTime, e.getMessage());
+            throw e;
+        } finally {
+            activeExports.decrementAndGet();
+        }
+    }
+
+    /**
+     * Escreve os bytes start a end (inclusive) do ZIP.
+     */
+    void write(ImageExport export, long start, long end, OutputStream output) throws IOException {
+        ZipArchiveLayout layout = export.layout();
+        boolean trailerInRange = end >= layout.trailerOffset();
+        List<ObjectRead> reads = planReads(export, start, end, trailerInRange);
+
+        long[] crcs = new long[layout.size()];
+        for (int i = 0; i < layout.size(); i++) {
+            Long stored = export.crc32s().get(i);
+            crcs[i] = stored != null ? stored : 0;
+        }
+        Map<String, Long> computed = new LinkedHashMap<>();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        Deque<PendingRead> pending = new ArrayDeque<>();
+        int nextToOpen = 0;
+        int nextToConsume = 0;
+        try {
+            for (int i = 0; i < layout.size(); i++) {
+                if (overlaps(layout.headerOffset(i), layout.dataOffset(i), start, end)) {
+                    writeSlice(output, layout.localHeader(i), layout.headerOffset(i), start, end);
+                }
+
+                if (nextToConsume < reads.size() && reads.get(nextToConsume).index() == i) {
+                    while (nextToOpen < reads.size() && pending.size() < prefetch) {
+                        ObjectRead read = reads.get(nextToOpen++);
+                        pending.add(new PendingRead(read, open(read, read.from())));
+                    }
+                    ObjectRead read = reads.get(nextToConsume++);
+                    long crc = copy(pending.poll(), layout.dataOffset(i), buffer, start, end, output);
+                    if (read.computeCrc()) {
+                        crcs[i] = crc;
+                        computed.put(read.imageKey(), crc);
+                    }
+                }
+
+                if (overlaps(layout.descriptorOffset(i), layout.descriptorEnd(i), start, end)) {
+                    writeSlice(output, layout.dataDescriptor(i, crcs[i]), layout.descriptorOffset(i), start, end);
+                }
+            }
+            if (trailerInRange) {
+                writeSlice(output, layout.trailer(crcs), layout.trailerOffset(), start, end);
+            }
+        } finally {
+            pending.forEach(PendingRead::cancel);
+            saveComputedCrcs(computed);
+        }
+    }
+
+    /**
+     * Trechos de cada objeto a ler do S3: o necessário para o intervalo pedido, ou o objeto
+     * inteiro quando o CRC da entrada precisa ser enviado e ainda não foi calculado.
+     */
+    private List<ObjectRead> planReads(ImageExport export, long start, long end, boolean trailerInRange) {
+        ZipArchiveLayout layout = export.layout();
+        List<ObjectRead> reads = new ArrayList<>();
+        for (int i = 0; i < layout.size(); i++) {
+            long size = layout.entry(i).size();
+            if (size == 0) {
+                continue;
+            }
+            long dataOffset = layout.dataOffset(i);
+            boolean needsCrc = export.crc32s().get(i) == null
+                    && (trailerInRange || overlaps(layout.descriptorOffset(i), layout.descriptorEnd(i), start, end));
+            if (needsCrc) {
+                reads.add(new ObjectRead(i, export.imageKeys().get(i), 0, size, true));
+            } else if (overlaps(dataOffset, dataOffset + size, start, end)) {
+                long from = Math.max(start, dataOffset) - dataOffset;
+                long to = Math.min(end + 1, dataOffset + size) - dataOffset;
+                reads.add(new ObjectRead(i, export.imageKeys().get(i), from, to, false));
+            }
+        }
+        return reads;
+    }
+
+    /**
+     * Copia o trecho do objeto para a saída (só a parte dentro do intervalo) e devolve o
+     * CRC-32 do objeto, quando pedido. Falhas de leitura reabrem o objeto na posição atual.
+     */
+    private long copy(PendingRead pending, long dataOffset, byte[] buffer, long start, long end, OutputStream output) throws IOException {
+        ObjectRead read = pending.read();
+        CRC32 crc = new CRC32();
+        long position = read.from();
+        int attempts = 1;
+        CompletableFuture<ResponseInputStream<GetObjectResponse>> opening = pending.stream();
+        InputStream input = null;
+        try {
+            while (position < read.to()) {
+                int count;
+                try {
+                    if (input == null) {
+                        // A primeira leitura já foi aberta pelo prefetch; as seguintes recomeçam em position
+                        CompletableFuture<ResponseInputStream<GetObjectResponse>> next = opening != null ? opening : open(read, position);
+                        opening = null;
+                        input = await(next, read.imageKey());
+                    }
+                    count = input.read(buffer, 0, (int) Math.min(buffer.length, read.to() - position));
+                    if (count < 0) {
+                        throw new EOFException("Objeto terminou antes do tamanho informado pelo S3");
+                    }
+                } catch (IOException | SdkException e) {
+                    if (attempts++ >= maxReadAttempts) {
+                        throw new IOException("Erro ao ler " + read.imageKey() + " do S3: " + e.getMessage(), e);
+                    }
+                    logger.warn("Leitura de {} interrompida no byte {}; reabrindo: {}", read.imageKey(), position, e.getMessage());
+                    closeQuietly(input);
+                    input = null;
+                    continue;
+                }
+
+                if (read.computeCrc()) {
+                    crc.update(buffer, 0, count);
+                }
+                writeSlice(output, buffer, count, dataOffset + position, start, end);
+                position += count;
+            }
+        } finally {
+            closeQuietly(input);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Grava os CRC-32 calculados nesta leitura: as próximas exportações dessas imagens não
+     * precisam ler os objetos. Uma falha aqui não afeta a resposta.
+     */
+    private void saveComputedCrcs(Map<String, Long> crcs) {
+        if (crcs.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> crcs.forEach((imageKey, crc) -> {
+                // A chave é de imagem de container ou de sacaria
+                if (containerImageRepository.updateCrc32(imageKey, crc) == 0) {
+                    sackImageRepository.updateCrc32(imageKey, crc);
+                }
+            }));
+            logger.debug("CRC-32 de {} imagens gravado na exportação", crcs.size());
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao gravar o CRC-32 de {} imagens exportadas: {}", crcs.size(), e.getMessage());
+        }
+    }
+
+    private CompletableFuture<ResponseInputStream<GetObjectResponse>> open(ObjectRead read, long position) {
+        return s3Service.getObjectStreamAsync(read.imageKey(), position, read.to() - 1);
+    }
+
+    /**
+     * HEAD de todas as imagens (tamanho e data) e montagem da estrutura do ZIP. Imagens
+     * registradas que não existem mais no S3 ficam de fora.
+     */
+    private ImageExport prepare(String fileName, List<String> names, List<String> keys, List<Long> crcs) {
+        Map<Integer, CompletableFuture<HeadObjectResponse>> heads = new HashMap<>();
+        Semaphore permits = new Semaphore(MAX_PARALLEL_HEADS);
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                permits.acquire();
+                heads.put(i, s3Service.headObjectAsync(keys.get(i)).whenComplete((response, error) -> permits.release()));
+            }
+            CompletableFuture.allOf(heads.values().toArray(CompletableFuture[]::new)).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageStorageException("Exportação interrompida", e);
+        } catch (CompletionException e) {
+            throw new ImageStorageException("Erro ao consultar as imagens no S3 para exportação", e.getCause());
+        }
+
+        List<ZipArchiveLayout.Entry> entries = new ArrayList<>(keys.size());
+        List<String> exportedKeys = new ArrayList<>(keys.size());
+        List<Long> exportedCrcs = new ArrayList<>(keys.size());
+        MessageDigest digest = sha256();
+        for (int i = 0; i < keys.size(); i++) {
+            HeadObjectResponse head = heads.get(i).join();
+            if (head == null) {
+                logger.warn("Imagem {} registrada mas ausente no S3; fora da exportação {}", keys.get(i), fileName);
+                continue;
+            }
+            Instant lastModified = head.lastModified() != null ? head.lastModified() : Instant.EPOCH;
+            entries.add(new ZipArchiveLayout.Entry(names.get(i), head.contentLength(), lastModified));
+            exportedKeys.add(keys.get(i));
+            exportedCrcs.add(crcs.get(i));
+            // Chaves de imagem não são reaproveitadas: nome, chave e versão do objeto definem o conteúdo
+            digest.update((names.get(i) + "\n" + keys.get(i) + "\n" + head.contentLength() + "\n" + head.eTag() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        ZipArchiveLayout layout = new ZipArchiveLayout(entries, zone);
+        String eTag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        logger.info("Exportação {} preparada: {} imagens, {} bytes", fileName, entries.size(), layout.length());
+        return new ImageExport(fileName, layout, exportedKeys, exportedCrcs, eTag);
+    }
+
+    private static void addContainerItems(List<ImageExportItemDTO> items, List<String> names, List<String> keys, List<Long> crcs) {
+        Map<String, Integer> counters = new HashMap<>();
+        for (ImageExportItemDTO item : items) {
+            String folder = folderName(item.containerId()) + "/" + item.category().name();
+            int position = counters.merge(folder, 1, Integer::sum);
+            names.add(folder + "/" + entryName(position, item.imageKey()));
+            keys.add(item.imageKey());
+            crcs.add(item.crc32());
+        }
+    }
+
+    private static String entryName(int position, String imageKey) {
+        int dot = imageKey.lastIndexOf('.');
+        String extension = dot > imageKey.lastIndexOf('/') ? imageKey.substring(dot + 1).toLowerCase() : "jpg";
+        return String.format("%03d.%s", position, extension);
+    }
+
+    /**
+     * Identificador do container como nome de pasta: sem separadores nem "..".
+     */
+    private static String folderName(String containerId) {
+        String name = containerId.replaceAll("[^A-Za-z0-9._-]", "_");
+        return name.isEmpty() || name.chars().allMatch(c -> c == '.') ? "_" + name : name;
+    }
+
+    private static boolean overlaps(long from, long to, long start, long end) {
+        return from <= end && to > start;
+    }
+
+    private static void writeSlice(OutputStream output, byte[] bytes, long offset, long start, long end) throws IOException {
+        writeSlice(output, bytes, bytes.length, offset, start, end);
+    }
+
+    /**
+     * Escreve a parte de bytes[0, length) (que começa em offset no ZIP) dentro de [start, end].
+     */
+    private static void writeSlice(OutputStream output, byte[] bytes, int length, long offset, long start, long end) throws IOException {
+        long from = Math.max(start, offset);
+        long to = Math.min(end + 1, offset + length);
+        if (from < to) {
+            output.write(bytes, (int) (from - offset), (int) (to - from));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future, String imageKey) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Leitura de " + imageKey + " interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro ao abrir " + imageKey + " no S3: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void closeQuietly(InputStream input) {
+        if (input == null) {
+            return;
+        }
+        try {
+            input.close();
+        } catch (IOException e) {
+            logger.debug("Erro ao fechar leitura do S3: {}", e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+
+    private static Counter exportsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_exports_total")
+                .description("Exportações de imagens em ZIP")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,494 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.ContainerNotFoundException;
+import com.ftc.containerView.infra.errorhandling.exceptions.ImageStorageException;
+import com.ftc.containerView.infra.errorhandling.exceptions.IngestionJobNotFoundException;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.container.CreateContainerDTO;
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import com.ftc.containerView.model.ingestion.ImageIngestionFile;
+import com.ftc.containerView.model.ingestion.ImageIngestionJob;
+import com.ftc.containerView.model.ingestion.ImageIngestionJobDTO;
+import com.ftc.containerView.model.ingestion.IngestionJobStatus;
+import com.ftc.containerView.repositories.ContainerRepository;
+import com.ftc.containerView.repositories.ImageIngestionJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestão assíncrona de imagens de containers.
+ *
+ * A requisição só valida as imagens, grava os arquivos em disco (spool) e registra um job;
+ * o envio ao S3 e o registro das imagens são feitos depois por um pool de workers.
+ * O banco é a fila durável: jobs PENDING/PROCESSING são retomados na inicialização.
+ *
+ * Uma Idempotency-Key por usuário faz com que reenvios do mesmo payload (timeout do
+ * cliente, por exemplo) devolvam o job já existente em vez de duplicar as imagens.
+ */
+@Service
+public class ImageIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final ImageIngestionJobRepository jobRepository;
+    private final ContainerRepository containerRepository;
+    private final ContainerService containerService;
+    private final StoreImageService storeImageService;
+    private final ImageValidationService imageValidationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledThreadPoolExecutor workers;
+    private final Path spoolRoot;
+    private final int maxAttempts;
+    private final long retryDelaySeconds;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public ImageIngestionService(ImageIngestionJobRepository jobRepository,
+                                 ContainerRepository containerRepository,
+                                 ContainerService containerService,
+                                 StoreImageService storeImageService,
+                                 ImageValidationService imageValidationService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.images.ingestion.spool-dir:${java.io.tmpdir}/containerview-ingestion}") String spoolDir,
+                                 @Value("${app.images.ingestion.workers:2}") int workerCount,
+                                 @Value("${app.images.ingestion.max-attempts:3}") int maxAttempts,
+                                 @Value("${app.images.ingestion.retry-delay-seconds:30}") long retryDelaySeconds) {
+        this.jobRepository = jobRepository;
+        this.containerRepository = containerRepository;
+        this.containerService = containerService;
+        this.storeImageService = storeImageService;
+        this.imageValidationService = imageValidationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spoolRoot = Paths.get(spoolDir);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelaySeconds = retryDelaySeconds;
+
+        // Poucos workers: cada job mantém uma conexão do banco durante o upload
+        this.workers = new ScheduledThreadPoolExecutor(Math.max(1, workerCount), new CustomizableThreadFactory("image-ingestion-"));
+        // Retentativas agendadas não rodam após o shutdown: o job continua PENDING e é retomado no próximo start
+        this.workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        Gauge.builder("image_ingestion_queue_depth", workers, w -> w.getQueue().size())
+                .description("Jobs de ingestão de imagens aguardando worker")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("image_ingestion_jobs_total")
+                .description("Jobs de ingestão de imagens finalizados")
+                .tag("outcome", "completed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("image_ingestion_jobs_total")
+                .description("Jobs de ingestão de imagens finalizados")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+
+        logger.info("ImageIngestionService inicializado - Spool: {}, workers: {}, tentativas: {}",
+                spoolRoot, workerCount, this.maxAttempts);
+    }
+
+    /**
+     * Cria o container e agenda o envio das imagens. Retorna o job existente se a
+     * Idempotency-Key já tiver sido usada por este usuário.
+     */
+    public ImageIngestionJobDTO submitNewContainer(CreateContainerDTO containerDTO,
+                                                   Map<ContainerImageCategory, MultipartFile[]> imagesByCategory,
+                                                   Long userId,
+                                                   String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
+        Optional<ImageIngestionJobDTO> existing = findExistingJob(userId, idempotencyKey);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        validateImages(imagesByCategory);
+        Path spoolDir = spool(imagesByCategory);
+
+        return register(spoolDir, userId, idempotencyKey, () -> containerService.createContainer(containerDTO), imagesByCategory);
+    }
+
+    /**
+     * Agenda o envio de imagens para um container existente. Retorna o job existente se a
+     * Idempotency-Key já tiver sido usada por este usuário.
+     */
+    public ImageIngestionJobDTO submitImagesToContainer(String containerId,
+                                                        Map<ContainerImageCategory, MultipartFile[]> imagesByCategory,
+                                                        Long userId,
+                                                        String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
+        Optional<ImageIngestionJobDTO> existing = findExistingJob(userId, idempotencyKey);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        Container container = containerService.getContainersByContainerId(containerId);
+        containerService.validateContainerCanBeEdited(container);
+
+        validateImages(imagesByCategory);
+        Path spoolDir = spool(imagesByCategory);
+
+        return register(spoolDir, userId, idempotencyKey,
+                () -> containerRepository.getReferenceById(container.getId()), imagesByCategory);
+    }
+
+    public ImageIngestionJobDTO getJob(Long jobId, Long userId) {
+        // Jobs de outro usuário respondem como inexistentes
+        return transactionTemplate.execute(status -> jobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(userId))
+                .map(ImageIngestionJobDTO::from)
+                .orElseThrow(() -> new IngestionJobNotFoundException(jobId)));
+    }
+
+    /**
+     * Retoma jobs interrompidos por um restart. Assume uma única instância processando a fila:
+     * um job PROCESSING nesse momento não tem mais worker e volta para PENDING.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinishedJobs() {
+        List<Long> jobIds = transactionTemplate.execute(status -> {
+            for (ImageIngestionJob job : jobRepository.findByStatusOrderById(IngestionJobStatus.PROCESSING)) {
+                job.setStatus(IngestionJobStatus.PENDING);
+            }
+            return jobRepository.findByStatusOrderById(IngestionJobStatus.PENDING).stream()
+                    .map(ImageIngestionJob::getId)
+                    .toList();
+        });
+
+        if (!jobIds.isEmpty()) {
+            logger.info("Retomando {} jobs de ingestão de imagens não finalizados", jobIds.size());
+        }
+        jobIds.forEach(jobId -> dispatch(jobId, 0));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private ImageIngestionJobDTO register(Path spoolDir, Long userId, String idempotencyKey,
+                                          ContainerResolver containerResolver,
+                                          Map<ContainerImageCategory, MultipartFile[]> imagesByCategory) {
+        ImageIngestionJobDTO job;
+        try {
+            // Container (quando criado aqui) e job são gravados na mesma transação
+            job = transactionTemplate.execute(status -> {
+                ImageIngestionJob newJob = ImageIngestionJob.builder()
+                        .container(containerResolver.resolve())
+                        .userId(userId)
+                        .idempotencyKey(idempotencyKey)
+                        .status(IngestionJobStatus.PENDING)
+                        .spoolDir(spoolDir.toString())
+                        .build();
+
+                int index = 0;
+                for (Map.Entry<ContainerImageCategory, MultipartFile[]> entry : imagesByCategory.entrySet()) {
+                    if (entry.getValue() == null) {
+                        continue;
+                    }
+                    for (MultipartFile image : entry.getValue()) {
+                        newJob.getFiles().add(ImageIngestionFile.builder()
+                                .job(newJob)
+                                .category(entry.getKey())
+                                .spoolFile(spoolFileName(index++))
+                                .originalFilename(image.getOriginalFilename())
+                                .contentType(image.getContentType())
+                                .sizeBytes(image.getSize())
+                                .build());
+                    }
+                }
+                newJob.setTotalImages(newJob.getFiles().size());
+
+                return ImageIngestionJobDTO.from(jobRepository.save(newJob));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Reenvio concorrente com a mesma Idempotency-Key: o outro já registrou o job
+            deleteSpool(spoolDir);
+            if (idempotencyKey != null) {
+                Optional<ImageIngestionJobDTO> existing = findExistingJob(userId, idempotencyKey);
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            deleteSpool(spoolDir);
+            throw e;
+        }
+
+        logger.info("Job de ingestão {} registrado para o container {} com {} imagens",
+                job.jobId(), job.containerId(), job.totalImages());
+        dispatch(job.jobId(), 0);
+        return job;
+    }
+
+    private void dispatch(Long jobId, long delaySeconds) {
+        workers.schedule(() -> process(jobId), delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private void process(Long jobId) {
+        // Garante que o job seja processado por um único worker
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.updateStatusIfCurrent(
+                jobId, IngestionJobStatus.PENDING, IngestionJobStatus.PROCESSING));
+        if (claimed == null || claimed == 0) {
+            logger.debug("Job de ingestão {} já está sendo processado ou foi finalizado", jobId);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Path spoolDir = null;
+        try {
+            // Upload, registro das imagens e conclusão do job na mesma transação:
+            // se o processo cair no meio, nada fica registrado e o job é refeito
+            spoolDir = transactionTemplate.execute(status -> {
+                ImageIngestionJob job = jobRepository.findById(jobId)
+                        .orElseThrow(() -> new IngestionJobNotFoundException(jobId));
+                job.setAttempts(job.getAttempts() + 1);
+
+                Container container = containerRepository.findById(job.getContainer().getId())
+                        .orElseThrow(() -> new ContainerNotFoundException("Container não encontrado para o job " + jobId));
+                containerService.validateContainerCanBeEdited(container);
+
+                Path dir = Paths.get(job.getSpoolDir());
+                storeImageService.storeImagesToContainer(loadSpooledImages(job, dir), container.getId());
+
+                container.setStatus(ContainerStatus.PENDING);
+
+                job.setStatus(IngestionJobStatus.COMPLETED);
+                job.setErrorMessage(null);
+                job.setCompletedAt(LocalDateTime.now());
+                return dir;
+            });
+
+            completedCounter.increment();
+            logger.info("Job de ingestão {} concluído em {}ms", jobId, System.currentTimeMillis() - startTime);
+            deleteSpool(spoolDir);
+        } catch (Exception e) {
+            logger.error("Erro ao processar job de ingestão {}: {}", jobId, e.getMessage(), e);
+            handleFailure(jobId, e);
+        }
+    }
+
+    /**
+     * Falhas de upload (S3) são refeitas até max-attempts; erros de validação ou de estado
+     * do container não mudam com nova tentativa e finalizam o job como FAILED.
+     */
+    private void handleFailure(Long jobId, Exception error) {
+        String message = truncate(error.getMessage());
+        boolean retryable = error instanceof ImageStorageException;
+
+        ImageIngestionJob job = transactionTemplate.execute(status -> {
+            Optional<ImageIngestionJob> found = jobRepository.findById(jobId);
+            if (found.isEmpty()) {
+                return null;
+            }
+            ImageIngestionJob failedJob = found.get();
+            // A transação do processamento foi revertida: a tentativa é contada aqui
+            failedJob.setAttempts(failedJob.getAttempts() + 1);
+            failedJob.setErrorMessage(message);
+            if (retryable && failedJob.getAttempts() < maxAttempts) {
+                failedJob.setStatus(IngestionJobStatus.PENDING);
+            } else {
+                failedJob.setStatus(IngestionJobStatus.FAILED);
+                failedJob.setCompletedAt(LocalDateTime.now());
+            }
+            return failedJob;
+        });
+
+        if (job == null) {
+            return;
+        }
+        if (job.getStatus() == IngestionJobStatus.PENDING) {
+            long delay = retryDelaySeconds * job.getAttempts();
+            logger.warn("Job de ingestão {} será refeito em {}s (tentativa {} de {})",
+                    jobId, delay, job.getAttempts() + 1, maxAttempts);
+            dispatch(jobId, delay);
+        } else {
+            failedCounter.increment();
+            logger.error("Job de ingestão {} falhou após {} tentativa(s): {}", jobId, job.getAttempts(), message);
+            deleteSpool(Paths.get(job.getSpoolDir()));
+        }
+    }
+
+    private Map<ContainerImageCategory, MultipartFile[]> loadSpooledImages(ImageIngestionJob job, Path dir) {
+        Map<ContainerImageCategory, List<MultipartFile>> grouped = new EnumMap<>(ContainerImageCategory.class);
+        for (ImageIngestionFile file : job.getFiles()) {
+            grouped.computeIfAbsent(file.getCategory(), category -> new ArrayList<>())
+                    .add(new SpooledImageFile(dir.resolve(file.getSpoolFile()), file));
+        }
+
+        Map<ContainerImageCategory, MultipartFile[]> imagesByCategory = new EnumMap<>(ContainerImageCategory.class);
+        grouped.forEach((category, files) -> imagesByCategory.put(category, files.toArray(new MultipartFile[0])));
+        return imagesByCategory;
+    }
+
+    private Optional<ImageIngestionJobDTO> findExistingJob(Long userId, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        Optional<ImageIngestionJobDTO> existing = transactionTemplate.execute(status ->
+                jobRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).map(ImageIngestionJobDTO::from));
+        existing.ifPresent(job -> logger.info("Idempotency-Key já utilizada pelo usuário {}: devolvendo job {}", userId, job.jobId()));
+        return existing;
+    }
+
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key deve ter entre 1 e " + MAX_IDEMPOTENCY_KEY_LENGTH + " caracteres");
+        }
+    }
+
+    private void validateImages(Map<ContainerImageCategory, MultipartFile[]> imagesByCategory) {
+        int total = 0;
+        for (MultipartFile[] images : imagesByCategory.values()) {
+            if (images == null) {
+                continue;
+            }
+            for (MultipartFile image : images) {
+                imageValidationService.validateImage(image);
+                total++;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Nenhuma imagem enviada");
+        }
+    }
+
+    /**
+     * Grava os arquivos do multipart em um diretório próprio do job.
+     * A ordem dos arquivos é a mesma usada em register() para nomear cada um.
+     */
+    private Path spool(Map<ContainerImageCategory, MultipartFile[]> imagesByCategory) {
+        Path dir = spoolRoot.resolve(UUID.randomUUID().toString());
+        try {
+            Files.createDirectories(dir);
+            int index = 0;
+            for (MultipartFile[] images : imagesByCategory.values()) {
+                if (images == null) {
+                    continue;
+                }
+                for (MultipartFile image : images) {
+                    try (InputStream content = image.getInputStream()) {
+                        Files.copy(content, dir.resolve(spoolFileName(index++)));
+                    }
+                }
+            }
+            return dir;
+        } catch (IOException e) {
+            deleteSpool(dir);
+            throw new ImageStorageException("Erro ao gravar imagens para processamento", e);
+        }
+    }
+
+    private static String spoolFileName(int index) {
+        return index + ".img";
+    }
+
+    private void deleteSpool(Path dir) {
+        try {
+            FileSystemUtils.deleteRecursively(dir);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o diretório de spool {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+    @FunctionalInterface
+    private interface ContainerResolver {
+        Container resolve();
+    }
+
+    /**
+     * MultipartFile lido do spool em disco, para reaproveitar a validação e o pipeline de upload.
+     */
+    private static class SpooledImageFile implements MultipartFile {
+
+        private final Path path;
+        private final ImageIngestionFile file;
+
+        SpooledImageFile(Path path, ImageIngestionFile file) {
+            this.path = path;
+            this.file = file;
+        }
+
+        @Override
+        public String getName() {
+            return file.getCategory().name();
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return file.getOriginalFilename();
+        }
+
+        @Override
+        public String getContentType() {
+            return file.getContentType();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return file.getSizeBytes() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return file.getSizeBytes();
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
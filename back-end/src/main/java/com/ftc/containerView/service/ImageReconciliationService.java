@@ -0,0 +1,269 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.model.images.ImageRendition;
+import com.ftc.containerView.model.images.OrphanedImageKey;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.OrphanedImageKeyRepository;
+import com.ftc.containerView.repositories.SackImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conciliação do bucket de imagens com container_images e sack_images.
+ *
+ * Percorre a pasta de imagens página a página (ListObjectsV2, até 1000 chaves) e, para
+ * cada página, consulta quais chaves existem no banco com um IN indexado em image_key.
+ * Só a página corrente fica em memória. Objetos sem registro e mais antigos que o
+ * período de carência (uploads cujo registro ainda não foi gravado não são tocados)
+ * são movidos para quarentena, removidos ou apenas reportados, conforme o modo.
+ * Chaves já registradas em orphaned_image_keys ficam com o ImageDeletionService.
+ */
+@Service
+public class ImageReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageReconciliationService.class);
+
+    public enum Mode { REPORT, QUARANTINE, DELETE }
+
+    public record Report(Mode mode, long scanned, long orphaned, long reclaimed, long reclaimedBytes,
+                         long failed, long skippedRecent, boolean limitReached, Duration duration) {}
+
+    private final S3Service s3Service;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ContainerImageRepository containerImageRepository;
+    private final SackImageRepository sackImageRepository;
+    private final OrphanedImageKeyRepository orphanedImageKeyRepository;
+    private final Mode mode;
+    private final Duration gracePeriod;
+    private final String quarantinePrefix;
+    private final long maxOrphansPerRun;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong lastSuccessEpochSeconds = new AtomicLong();
+    private final Counter scannedCounter;
+    private final Counter orphanedCounter;
+    private final Counter reclaimedCounter;
+    private final Counter failedCounter;
+    private final Counter reclaimedBytesCounter;
+
+    @Autowired
+    public ImageReconciliationService(S3Service s3Service,
+                                      PresignedUrlCache presignedUrlCache,
+                                      ContainerImageRepository containerImageRepository,
+                                      SackImageRepository sackImageRepository,
+                                      OrphanedImageKeyRepository orphanedImageKeyRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${aws.s3.images.folder}") String imagesFolder,
+                                      @Value("${app.images.reconciliation.enabled:false}") boolean enabled,
+                                      @Value("${app.images.reconciliation.mode:QUARANTINE}") Mode mode,
+                                      @Value("${app.images.reconciliation.interval-hours:24}") long intervalHours,
+                                      @Value("${app.images.reconciliation.initial-delay-minutes:30}") long initialDelayMinutes,
+                                      @Value("${app.images.reconciliation.grace-period-hours:24}") long gracePeriodHours,
+                                      @Value("${app.images.reconciliation.quarantine-prefix:quarantine}") String quarantinePrefix,
+                                      @Value("${app.images.reconciliation.max-orphans-per-run:10000}") long maxOrphansPerRun) {
+        this.s3Service = s3Service;
+        this.presignedUrlCache = presignedUrlCache;
+        this.containerImageRepository = containerImageRepository;
+        this.sackImageRepository = sackImageRepository;
+        this.orphanedImageKeyRepository = orphanedImageKeyRepository;
+        this.mode = mode;
+        this.gracePeriod = Duration.ofHours(Math.max(1, gracePeriodHours));
+        this.quarantinePrefix = quarantinePrefix.endsWith("/") ? quarantinePrefix : quarantinePrefix + "/";
+        this.maxOrphansPerRun = Math.max(1, maxOrphansPerRun);
+
+        // A quarentena dentro da pasta de imagens seria listada de novo a cada execução
+        if (this.quarantinePrefix.startsWith(imagesFolder + "/")) {
+            throw new IllegalStateException("app.images.reconciliation.quarantine-prefix não pode ficar dentro de " + imagesFolder + "/");
+        }
+
+        this.scannedCounter = objectsCounter(meterRegistry, "scanned");
+        this.orphanedCounter = objectsCounter(meterRegistry, "orphaned");
+        this.reclaimedCounter = objectsCounter(meterRegistry, "reclaimed");
+        this.failedCounter = objectsCounter(meterRegistry, "failed");
+        this.reclaimedBytesCounter = Counter.builder("image_reconciliation_reclaimed_bytes_total")
+                .description("Bytes de imagens órfãs removidos da pasta de imagens do S3")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("image_reconciliation_last_success_seconds", lastSuccessEpochSeconds, AtomicLong::get)
+                .description("Epoch da última conciliação concluída do bucket de imagens")
+                .register(meterRegistry);
+
+        // Uma thread só: execuções agendadas nunca se sobrepõem
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("image-reconciliation-"));
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        if (enabled) {
+            this.scheduler.scheduleWithFixedDelay(this::runScheduled,
+                    Math.max(0, initialDelayMinutes), TimeUnit.HOURS.toMinutes(Math.max(1, intervalHours)), TimeUnit.MINUTES);
+        }
+
+        logger.info("ImageReconciliationService inicializado - Ativo: {}, modo: {}, intervalo: {}h, carência: {}h, limite por execução: {}",
+                enabled, mode, intervalHours, this.gracePeriod.toHours(), this.maxOrphansPerRun);
+    }
+
+    /**
+     * Executa uma conciliação completa do bucket.
+     * @throws IllegalStateException se já houver uma conciliação em andamento
+     */
+    public Report reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Conciliação de imagens já em andamento");
+        }
+        try {
+            return doReconcile();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void runScheduled() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Erro na conciliação do bucket de imagens: {}", e.getMessage(), e);
+        }
+    }
+
+    private Report doReconcile() {
+        Instant start = Instant.now();
+        Instant cutoff = start.minus(gracePeriod);
+        // Com o limite atingido o restante da execução só reporta: protege contra um banco
+        // vazio ou apontando para outro ambiente apagar o bucket inteiro
+        Mode effectiveMode = mode;
+        long scanned = 0, orphaned = 0, reclaimed = 0, reclaimedBytes = 0, failed = 0, skippedRecent = 0;
+
+        String continuationToken = null;
+        do {
+            ListObjectsV2Response page = s3Service.listImages(continuationToken);
+            continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+
+            List<S3Object> candidates = new ArrayList<>();
+            for (S3Object object : page.contents()) {
+                if (object.lastModified().isAfter(cutoff)) {
+                    skippedRecent++;
+                } else {
+                    candidates.add(object);
+                }
+            }
+            scanned += page.contents().size();
+            scannedCounter.increment(page.contents().size());
+
+            List<S3Object> orphans = findOrphans(candidates);
+            if (orphans.isEmpty()) {
+                continue;
+            }
+            orphaned += orphans.size();
+            orphanedCounter.increment(orphans.size());
+
+            if (effectiveMode != Mode.REPORT && orphaned > maxOrphansPerRun) {
+                logger.error("Conciliação encontrou mais de {} imagens órfãs; restante da execução apenas reportado", maxOrphansPerRun);
+                effectiveMode = Mode.REPORT;
+            }
+
+            List<S3Object> removed = switch (effectiveMode) {
+                case REPORT -> List.of();
+                case QUARANTINE -> quarantine(orphans);
+                case DELETE -> delete(orphans);
+            };
+            long removedBytes = removed.stream().mapToLong(S3Object::size).sum();
+            reclaimed += removed.size();
+            reclaimedBytes += removedBytes;
+            reclaimedCounter.increment(removed.size());
+            reclaimedBytesCounter.increment(removedBytes);
+            if (effectiveMode != Mode.REPORT) {
+                failed += orphans.size() - removed.size();
+                failedCounter.increment(orphans.size() - removed.size());
+            }
+
+            logger.info("Conciliação ({}): {} imagens órfãs nesta página, {} tratadas. Ex.: {}",
+                    effectiveMode, orphans.size(), removed.size(), orphans.get(0).key());
+        } while (continuationToken != null);
+
+        lastSuccessEpochSeconds.set(Instant.now().getEpochSecond());
+        Report report = new Report(mode, scanned, orphaned, reclaimed, reclaimedBytes, failed, skippedRecent,
+                effectiveMode != mode, Duration.between(start, Instant.now()));
+        logger.info("Conciliação do bucket de imagens concluída: {}", report);
+        return report;
+    }
+
+    /**
+     * Objetos da página sem registro em container_images, sack_images ou orphaned_image_keys.
+     * Miniaturas e prévias são conferidas pela chave da imagem original.
+     */
+    private List<S3Object> findOrphans(List<S3Object> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> sourceKeys = new HashSet<>();
+        candidates.forEach(object -> sourceKeys.add(ImageRendition.sourceKey(object.key())));
+        Set<String> known = new HashSet<>(containerImageRepository.findExistingImageKeys(sourceKeys));
+        known.addAll(sackImageRepository.findExistingImageKeys(sourceKeys));
+
+        List<String> keys = candidates.stream().map(S3Object::key).toList();
+        orphanedImageKeyRepository.findByImageKeyIn(keys).stream()
+                .map(OrphanedImageKey::getImageKey)
+                .forEach(known::add);
+
+        return candidates.stream()
+                .filter(object -> !known.contains(object.key()) && !known.contains(ImageRendition.sourceKey(object.key())))
+                .toList();
+    }
+
+    private List<S3Object> quarantine(List<S3Object> orphans) {
+        List<S3Object> copied = new ArrayList<>();
+        for (S3Object object : orphans) {
+            try {
+                s3Service.copyObject(object.key(), quarantinePrefix + object.key());
+                copied.add(object);
+            } catch (Exception e) {
+                logger.warn("Falha ao mover {} para a quarentena: {}", object.key(), e.getMessage());
+            }
+        }
+        return delete(copied);
+    }
+
+    private List<S3Object> delete(List<S3Object> orphans) {
+        if (orphans.isEmpty()) {
+            return List.of();
+        }
+
+        orphans.forEach(object -> presignedUrlCache.invalidate(object.key()));
+        Set<String> failedKeys = new HashSet<>(s3Service.deleteObjects(orphans.stream().map(S3Object::key).toList()));
+        return orphans.stream().filter(object -> !failedKeys.contains(object.key())).toList();
+    }
+
+    private static Counter objectsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_reconciliation_objects_total")
+                .description("Objetos da pasta de imagens do S3 processados pela conciliação")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,279 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.images.ImageResizer;
+import com.ftc.containerView.model.images.ImageRendition;
+import com.ftc.containerView.model.images.RenditionStatus;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.SackImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração da miniatura (THUMBNAIL) e da prévia (PREVIEW) das imagens de containers e sacaria.
+ *
+ * As imagens registradas são enfileiradas após o commit e processadas por um pool próprio,
+ * fora da thread da requisição: a original é lida do S3, reduzida e as versões são gravadas
+ * em chaves derivadas (ImageRendition.keyFor). Só então rendition_status vira READY e as
+ * respostas passam a incluir as URLs das versões. Uma varredura periódica reprocessa as
+ * imagens PENDING (falhas transitórias, restart com fila em memória, imagens antigas).
+ * Cada falha transitória é contada em rendition_attempts; ao atingir
+ * app.images.renditions.max-attempts a imagem vira FAILED e deixa de ser reprocessada.
+ */
+@Service
+public class ImageRenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    private final S3Service s3Service;
+    private final ContainerImageRepository containerImageRepository;
+    private final SackImageRepository sackImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledThreadPoolExecutor workers;
+    private final boolean enabled;
+    private final int thumbnailSize;
+    private final int previewSize;
+    private final float jpegQuality;
+    private final int backfillBatchSize;
+    private final int maxAttempts;
+    // Chaves enfileiradas ou em processamento: a varredura não duplica trabalho já agendado
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+    private final Counter unreadableCounter;
+    private final Counter bytesCounter;
+    private final Timer renderTimer;
+
+    @Autowired
+    public ImageRenditionService(S3Service s3Service,
+                                 ContainerImageRepository containerImageRepository,
+                                 SackImageRepository sackImageRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.images.renditions.enabled:true}") boolean enabled,
+                                 @Value("${app.images.renditions.workers:2}") int workerCount,
+                                 @Value("${app.images.renditions.thumbnail-size:320}") int thumbnailSize,
+                                 @Value("${app.images.renditions.preview-size:1280}") int previewSize,
+                                 @Value("${app.images.renditions.jpeg-quality:0.8}") float jpegQuality,
+                                 @Value("${app.images.renditions.backfill-interval-seconds:300}") long backfillIntervalSeconds,
+                                 @Value("${app.images.renditions.backfill-batch-size:200}") int backfillBatchSize,
+                                 @Value("${app.images.renditions.max-attempts:5}") int maxAttempts) {
+        this.s3Service = s3Service;
+        this.containerImageRepository = containerImageRepository;
+        this.sackImageRepository = sackImageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.thumbnailSize = Math.max(16, thumbnailSize);
+        this.previewSize = Math.max(this.thumbnailSize, previewSize);
+        this.jpegQuality = Math.min(1.0f, Math.max(0.1f, jpegQuality));
+        this.backfillBatchSize = Math.max(1, backfillBatchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        // Redução de imagem é CPU e memória (a original decodificada): poucos workers
+        this.workers = new ScheduledThreadPoolExecutor(Math.max(1, workerCount), new CustomizableThreadFactory("image-rendition-"));
+        this.workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        if (enabled) {
+            this.workers.scheduleWithFixedDelay(this::backfill,
+                    Math.max(1, backfillIntervalSeconds), Math.max(1, backfillIntervalSeconds), TimeUnit.SECONDS);
+        }
+
+        Gauge.builder("image_rendition_queue_depth", workers, w -> w.getQueue().size())
+                .description("Imagens aguardando geração de miniatura e prévia")
+                .register(meterRegistry);
+        this.generatedCounter = imagesCounter(meterRegistry, "generated");
+        this.failedCounter = imagesCounter(meterRegistry, "failed");
+        this.unreadableCounter = imagesCounter(meterRegistry, "unreadable");
+        this.bytesCounter = Counter.builder("image_rendition_bytes_total")
+                .description("Bytes gravados no S3 em miniaturas e prévias")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.renderTimer = Timer.builder("image_rendition_duration")
+                .description("Tempo para ler a original, reduzir e gravar as versões de uma imagem")
+                .register(meterRegistry);
+
+        logger.info("ImageRenditionService inicializado - Ativo: {}, workers: {}, miniatura: {}px, prévia: {}px, qualidade: {}, tentativas: {}",
+                enabled, workerCount, this.thumbnailSize, this.previewSize, this.jpegQuality, this.maxAttempts);
+    }
+
+    /**
+     * Agenda a geração das versões das imagens. Com transação ativa, só após o commit:
+     * se o registro for desfeito as imagens nem existem no banco.
+     */
+    public void generateAfterCommit(Collection<String> imageKeys) {
+        if (!enabled || imageKeys.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = List.copyOf(imageKeys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(ImageRenditionService.this::submit);
+                }
+            });
+        } else {
+            keys.forEach(this::submit);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Imagens não processadas continuam PENDING e são retomadas pela varredura no próximo start
+        workers.shutdownNow();
+    }
+
+    private void submit(String imageKey) {
+        if (!inFlight.add(imageKey)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    render(imageKey);
+                } finally {
+                    inFlight.remove(imageKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imageKey);
+            logger.warn("Geração de versões de {} não agendada (serviço encerrando)", imageKey);
+        }
+    }
+
+    private void render(String imageKey) {
+        // Todas as saídas (inclusive imagem inexistente ou ilegível) entram no tempo medido
+        Timer.Sample sample = Timer.start();
+        try {
+            generate(imageKey);
+        } finally {
+            sample.stop(renderTimer);
+        }
+    }
+
+    private void generate(String imageKey) {
+        byte[] original;
+        try {
+            original = s3Service.getFile(imageKey);
+        } catch (NoSuchKeyException e) {
+            unreadableCounter.increment();
+            logger.warn("Imagem {} não existe no S3; versões não serão geradas", imageKey);
+            updateStatus(imageKey, RenditionStatus.FAILED);
+            return;
+        } catch (Exception e) {
+            logger.warn("Erro ao ler {} do S3 para gerar versões: {}", imageKey, e.getMessage());
+            recordTransientFailure(imageKey);
+            return;
+        }
+
+        List<byte[]> renditions;
+        try {
+            BufferedImage preview = ImageResizer.scaleToFit(ImageResizer.decode(original, previewSize), previewSize);
+            BufferedImage thumbnail = ImageResizer.scaleToFit(preview, thumbnailSize);
+            renditions = List.of(ImageResizer.encodeJpeg(thumbnail, jpegQuality), ImageResizer.encodeJpeg(preview, jpegQuality));
+        } catch (IOException | RuntimeException e) {
+            unreadableCounter.increment();
+            logger.warn("Imagem {} não pôde ser decodificada; versões não serão geradas: {}", imageKey, e.getMessage());
+            updateStatus(imageKey, RenditionStatus.FAILED);
+            return;
+        }
+
+        try {
+            long bytes = 0;
+            List<ImageRendition> types = List.of(ImageRendition.THUMBNAIL, ImageRendition.PREVIEW);
+            for (int i = 0; i < types.size(); i++) {
+                s3Service.putObject(renditions.get(i), types.get(i).keyFor(imageKey), "image/jpeg");
+                bytes += renditions.get(i).length;
+            }
+            updateStatus(imageKey, RenditionStatus.READY);
+            generatedCounter.increment();
+            bytesCounter.increment(bytes);
+            logger.debug("Versões de {} geradas ({} bytes)", imageKey, bytes);
+        } catch (Exception e) {
+            logger.warn("Erro ao gravar versões de {}: {}", imageKey, e.getMessage());
+            recordTransientFailure(imageKey);
+        }
+    }
+
+    /**
+     * Falha transitória: a imagem segue PENDING para a varredura até atingir maxAttempts,
+     * quando vira FAILED.
+     */
+    private void recordTransientFailure(String imageKey) {
+        failedCounter.increment();
+        Boolean exhausted = transactionTemplate.execute(tx -> {
+            if (containerImageRepository.incrementRenditionAttempts(imageKey) > 0) {
+                return containerImageRepository.updateRenditionStatusAfterAttempts(imageKey, RenditionStatus.FAILED, maxAttempts) > 0;
+            }
+            sackImageRepository.incrementRenditionAttempts(imageKey);
+            return sackImageRepository.updateRenditionStatusAfterAttempts(imageKey, RenditionStatus.FAILED, maxAttempts) > 0;
+        });
+        if (Boolean.TRUE.equals(exhausted)) {
+            logger.error("Versões de {} não geradas após {} tentativas; imagem marcada como FAILED", imageKey, maxAttempts);
+        }
+    }
+
+    private void updateStatus(String imageKey, RenditionStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            // A chave é de uma imagem de container ou de sacaria; a outra tabela não atualiza nada
+            if (containerImageRepository.updateRenditionStatus(imageKey, status) == 0) {
+                sackImageRepository.updateRenditionStatus(imageKey, status);
+            }
+        });
+    }
+
+    /**
+     * Enfileira imagens PENDING que não estejam em andamento, sem deixar a fila crescer
+     * além de um lote.
+     */
+    private void backfill() {
+        try {
+            if (workers.getQueue().size() >= backfillBatchSize) {
+                return;
+            }
+            PageRequest batch = PageRequest.of(0, backfillBatchSize);
+            List<String> pending = new ArrayList<>(containerImageRepository.findImageKeysByRenditionStatus(RenditionStatus.PENDING, batch));
+            pending.addAll(sackImageRepository.findImageKeysByRenditionStatus(RenditionStatus.PENDING, batch));
+            pending.removeAll(inFlight);
+            if (!pending.isEmpty()) {
+                logger.info("Varredura de versões: {} imagens pendentes enfileiradas", pending.size());
+                pending.forEach(this::submit);
+            }
+        } catch (Exception e) {
+            logger.error("Erro na varredura de imagens sem versões: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Counter imagesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_renditions_total")
+                .description("Imagens processadas pela geração de miniatura e prévia")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
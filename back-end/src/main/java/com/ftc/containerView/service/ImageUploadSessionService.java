@@ -0,0 +1,456 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.errorhandling.exceptions.FileNotSupportedException;
+import com.ftc.containerView.infra.errorhandling.exceptions.ImageExceedsMaxSizeException;
+import com.ftc.containerView.infra.errorhandling.exceptions.ImageStorageException;
+import com.ftc.containerView.infra.errorhandling.exceptions.UploadSessionNotFoundException;
+import com.ftc.containerView.infra.images.ImageHeaderReader;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.images.ContainerImage;
+import com.ftc.containerView.model.images.SackImage;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.upload.*;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.ImageUploadSessionRepository;
+import com.ftc.containerView.repositories.SackImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Upload de imagens direto do cliente para o S3.
+ *
+ * A abertura da sessão valida tipo e tamanho declarados de cada arquivo (mesmas regras do
+ * upload multipart), gera as chaves e devolve uma URL PUT pré-assinada por arquivo; os bytes
+ * não passam pelo servidor. Na finalização cada objeto é conferido com um HEAD e com a
+ * leitura do cabeçalho (GET dos primeiros 64 KB), que passa pelas mesmas regras de conteúdo
+ * do upload multipart: assinatura PNG/JPEG, tipo declarado e limite de pixels. Os que
+ * conferem são registrados em um único saveAll; os rejeitados são apagados do bucket após o
+ * commit. Objetos enviados e nunca finalizados não têm registro no banco e são recolhidos
+ * pela conciliação do bucket após a carência.
+ */
+@Service
+public class ImageUploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadSessionService.class);
+
+    // Cobre PNG e a maioria dos JPEG; metadados maiores buscam o restante sob demanda
+    private static final int HEADER_PREFIX_BYTES = 65_536;
+
+    private final ImageUploadSessionRepository sessionRepository;
+    private final ContainerImageRepository containerImageRepository;
+    private final SackImageRepository sackImageRepository;
+    private final ContainerService containerService;
+    private final OperationService operationService;
+    private final ImageValidationService imageValidationService;
+    private final ImageDeletionService imageDeletionService;
+    private final ImageRenditionService imageRenditionService;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    private final int urlExpirationMinutes;
+    private final int completionWindowMinutes;
+    private final int maxFiles;
+    private final Counter registeredCounter;
+    private final Counter missingCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public ImageUploadSessionService(ImageUploadSessionRepository sessionRepository,
+                                     ContainerImageRepository containerImageRepository,
+                                     SackImageRepository sackImageRepository,
+                                     ContainerService containerService,
+                                     OperationService operationService,
+                                     ImageValidationService imageValidationService,
+                                     ImageDeletionService imageDeletionService,
+                                     ImageRenditionService imageRenditionService,
+                                     S3Service s3Service,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.images.upload-sessions.url-expiration-minutes:15}") int urlExpirationMinutes,
+                                     @Value("${app.images.upload-sessions.completion-window-minutes:60}") int completionWindowMinutes,
+                                     @Value("${app.images.upload-sessions.max-files:50}") int maxFiles) {
+        this.sessionRepository = sessionRepository;
+        this.containerImageRepository = containerImageRepository;
+        this.sackImageRepository = sackImageRepository;
+        this.containerService = containerService;
+        this.operationService = operationService;
+        this.imageValidationService = imageValidationService;
+        this.imageDeletionService = imageDeletionService;
+        this.imageRenditionService = imageRenditionService;
+        this.s3Service = s3Service;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.urlExpirationMinutes = Math.max(1, urlExpirationMinutes);
+        // A finalização precisa ser aceita pelo menos enquanto as URLs forem válidas
+        this.completionWindowMinutes = Math.max(this.urlExpirationMinutes, completionWindowMinutes);
+        this.maxFiles = Math.max(1, maxFiles);
+
+        this.registeredCounter = filesCounter(meterRegistry, "registered");
+        this.missingCounter = filesCounter(meterRegistry, "missing");
+        this.rejectedCounter = filesCounter(meterRegistry, "rejected");
+
+        logger.info("ImageUploadSessionService inicializado - Validade das URLs: {}min, janela de finalização: {}min, arquivos por sessão: {}",
+                this.urlExpirationMinutes, this.completionWindowMinutes, this.maxFiles);
+    }
+
+    public UploadSessionDTO createContainerSession(String containerId, CreateUploadSessionDTO request, Long userId) {
+        Container container = containerService.getContainersByContainerId(containerId);
+        containerService.validateContainerCanBeEdited(container);
+
+        validateFiles(request, true);
+
+        ImageUploadSession session = newSession(userId, UploadSessionTarget.CONTAINER);
+        session.setContainer(container);
+        for (UploadFileRequestDTO file : request.files()) {
+            addFile(session, file, StoreImageService.containerImageFileName(file.category(), container.getId()));
+        }
+
+        logger.info("Sessão de upload aberta para o container {} com {} arquivos. UserId: {}",
+                containerId, request.files().size(), userId);
+        return open(session);
+    }
+
+    public UploadSessionDTO createSackSession(Long operationId, CreateUploadSessionDTO request, Long userId) {
+        Operation operation = operationService.findOperationById(operationId);
+        operationService.validateOperationCanBeEdited(operation);
+
+        validateFiles(request, false);
+
+        ImageUploadSession session = newSession(userId, UploadSessionTarget.SACK);
+        session.setOperation(operation);
+        for (UploadFileRequestDTO file : request.files()) {
+            addFile(session, file, StoreImageService.sackImageFileName(operationId));
+        }
+
+        logger.info("Sessão de upload de sacaria aberta para a operação {} com {} arquivos. UserId: {}",
+                operationId, request.files().size(), userId);
+        return open(session);
+    }
+
+    /**
+     * Confere os objetos enviados e registra as imagens. Idempotente: uma sessão já
+     * finalizada devolve o resultado da primeira finalização.
+     */
+    public UploadSessionResultDTO complete(UploadSessionTarget target, Long sessionId, Long userId) {
+        ImageUploadSession session = transactionTemplate.execute(status -> loadSession(target, sessionId, userId));
+
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return UploadSessionResultDTO.from(session);
+        }
+        if (LocalDateTime.now().isAfter(session.getCreatedAt().plusMinutes(completionWindowMinutes))) {
+            throw new IllegalStateException("Sessão de upload " + sessionId + " expirada");
+        }
+
+        // HEADs e cabeçalhos em paralelo, fora da transação: nenhuma conexão do banco presa esperando o S3
+        Map<Long, HeadObjectResponse> objects = headObjects(session.getFiles());
+        Map<Long, String> rejections = checkContents(session.getFiles(), objects);
+
+        UploadSessionResultDTO result = transactionTemplate.execute(status -> register(target, sessionId, userId, objects, rejections));
+        logger.info("Sessão de upload {} finalizada: {} de {} imagens registradas. UserId: {}",
+                sessionId, result.registeredCount(), result.files().size(), userId);
+        return result;
+    }
+
+    private UploadSessionResultDTO register(UploadSessionTarget target, Long sessionId, Long userId,
+                                            Map<Long, HeadObjectResponse> objects, Map<Long, String> rejections) {
+        // Só uma finalização concorrente passa daqui; as demais falham com 409
+        if (sessionRepository.updateStatusIfCurrent(sessionId, UploadSessionStatus.OPEN,
+                UploadSessionStatus.COMPLETED, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Sessão de upload " + sessionId + " já está sendo finalizada");
+        }
+        ImageUploadSession session = loadSession(target, sessionId, userId);
+
+        // O container ou a operação podem ter sido finalizados depois da abertura da sessão
+        if (target == UploadSessionTarget.CONTAINER) {
+            containerService.validateContainerCanBeEdited(session.getContainer());
+        } else {
+            operationService.validateOperationCanBeEdited(session.getOperation());
+        }
+
+        List<ImageUploadSessionFile> verified = new ArrayList<>();
+        List<String> rejectedKeys = new ArrayList<>();
+        for (ImageUploadSessionFile file : session.getFiles()) {
+            HeadObjectResponse object = objects.get(file.getId());
+            if (object == null) {
+                file.setStatus(UploadFileStatus.MISSING);
+                file.setDetail("Arquivo não encontrado no S3");
+                missingCounter.increment();
+            } else if (!matchesDeclared(file, object)) {
+                // A assinatura da URL já amarra tipo e tamanho; isto cobre objetos gravados por outro caminho
+                file.setStatus(UploadFileStatus.REJECTED);
+                file.setDetail("Arquivo difere do declarado: " + object.contentType() + ", " + object.contentLength() + " bytes");
+                rejectedKeys.add(file.getImageKey());
+                rejectedCounter.increment();
+            } else if (rejections.containsKey(file.getId())) {
+                // O tipo declarado não garante o conteúdo: o cliente envia os bytes que quiser
+                file.setStatus(UploadFileStatus.REJECTED);
+                file.setDetail(rejections.get(file.getId()));
+                rejectedKeys.add(file.getImageKey());
+                rejectedCounter.increment();
+            } else {
+                file.setStatus(UploadFileStatus.REGISTERED);
+                verified.add(file);
+                registeredCounter.increment();
+            }
+        }
+
+        if (target == UploadSessionTarget.CONTAINER) {
+            registerContainerImages(session.getContainer(), verified);
+        } else {
+            registerSackImages(session.getOperation(), verified);
+        }
+        imageDeletionService.deleteAfterCommit(rejectedKeys);
+        imageRenditionService.generateAfterCommit(verified.stream().map(ImageUploadSessionFile::getImageKey).toList());
+
+        return UploadSessionResultDTO.from(session);
+    }
+
+    private void registerContainerImages(Container container, List<ImageUploadSessionFile> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        List<ContainerImage> images = new ArrayList<>(files.size());
+        for (ImageUploadSessionFile file : files) {
+            ContainerImage image = new ContainerImage();
+            image.setImageKey(file.getImageKey());
+            image.setContainer(container);
+            image.setCategory(file.getCategory());
+            images.add(image);
+        }
+        containerImageRepository.saveAll(images);
+        // Mesma regra do upload multipart: imagens novas voltam o container para revisão
+        container.setStatus(ContainerStatus.PENDING);
+    }
+
+    private void registerSackImages(Operation operation, List<ImageUploadSessionFile> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        List<SackImage> images = new ArrayList<>(files.size());
+        for (ImageUploadSessionFile file : files) {
+            SackImage image = new SackImage();
+            image.setImageKey(file.getImageKey());
+            image.setOperation(operation);
+            images.add(image);
+        }
+        sackImageRepository.saveAll(images);
+    }
+
+    /**
+     * HEAD de todos os arquivos da sessão. Arquivos ausentes ficam fora do mapa; qualquer
+     * outra falha aborta a finalização e a sessão continua aberta para nova tentativa.
+     */
+    private Map<Long, HeadObjectResponse> headObjects(List<ImageUploadSessionFile> files) {
+        Map<Long, CompletableFuture<HeadObjectResponse>> requests = new HashMap<>();
+        for (ImageUploadSessionFile file : files) {
+            requests.put(file.getId(), s3Service.headObjectAsync(file.getImageKey()));
+        }
+
+        try {
+            CompletableFuture.allOf(requests.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new ImageStorageException("Erro ao conferir os arquivos enviados ao S3", e.getCause());
+        }
+
+        Map<Long, HeadObjectResponse> objects = new HashMap<>();
+        requests.forEach((fileId, request) -> {
+            HeadObjectResponse object = request.join();
+            if (object != null) {
+                objects.put(fileId, object);
+            }
+        });
+        return objects;
+    }
+
+    /**
+     * Confere o cabeçalho dos objetos que passaram no HEAD com ImageValidationService.validateContent.
+     * Os primeiros HEADER_PREFIX_BYTES de todos são lidos em paralelo. Devolve o motivo da
+     * rejeição por arquivo; falhas de leitura do S3 abortam a finalização, como no HEAD.
+     */
+    private Map<Long, String> checkContents(List<ImageUploadSessionFile> files, Map<Long, HeadObjectResponse> objects) {
+        List<ImageUploadSessionFile> checked = new ArrayList<>();
+        List<CompletableFuture<byte[]>> prefixes = new ArrayList<>();
+        for (ImageUploadSessionFile file : files) {
+            if (matchesDeclared(file, objects.get(file.getId()))) {
+                checked.add(file);
+                prefixes.add(s3Service.getRangeAsync(file.getImageKey(), 0,
+                        Math.min(file.getSizeBytes(), HEADER_PREFIX_BYTES) - 1));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(prefixes.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new ImageStorageException("Erro ao ler os arquivos enviados ao S3", e.getCause());
+        }
+
+        Map<Long, String> rejections = new HashMap<>();
+        for (int i = 0; i < checked.size(); i++) {
+            ImageUploadSessionFile file = checked.get(i);
+            try {
+                imageValidationService.validateContent(file.getImageKey(), file.getContentType(),
+                        new HeaderStream(file, prefixes.get(i).join()));
+            } catch (FileNotSupportedException | ImageExceedsMaxSizeException e) {
+                rejections.put(file.getId(), e.getMessage());
+            }
+        }
+        return rejections;
+    }
+
+    private static boolean matchesDeclared(ImageUploadSessionFile file, HeadObjectResponse object) {
+        return object != null
+                && object.contentLength() != null && object.contentLength() == file.getSizeBytes()
+                && file.getContentType().equals(object.contentType());
+    }
+
+    private ImageUploadSession loadSession(UploadSessionTarget target, Long sessionId, Long userId) {
+        // Sessões de outro usuário ou de outro tipo respondem como inexistentes
+        ImageUploadSession session = sessionRepository.findWithFilesById(sessionId)
+                .filter(s -> s.getTarget() == target && s.getUserId().equals(userId))
+                .orElseThrow(() -> new UploadSessionNotFoundException(sessionId));
+        return session;
+    }
+
+    private void validateFiles(CreateUploadSessionDTO request, boolean requireCategory) {
+        if (request == null || request.files() == null || request.files().isEmpty()) {
+            throw new IllegalArgumentException("Nenhum arquivo informado para a sessão de upload");
+        }
+        if (request.files().size() > maxFiles) {
+            throw new IllegalArgumentException("Máximo de " + maxFiles + " arquivos por sessão de upload");
+        }
+        for (UploadFileRequestDTO file : request.files()) {
+            if (file == null) {
+                throw new IllegalArgumentException("Arquivo inválido na sessão de upload");
+            }
+            if (requireCategory && file.category() == null) {
+                throw new IllegalArgumentException("Categoria da imagem é obrigatória");
+            }
+            if (file.size() <= 0) {
+                throw new IllegalArgumentException("Tamanho do arquivo deve ser maior que zero");
+            }
+            imageValidationService.validateDeclaredImage(file.contentType(), file.size());
+        }
+    }
+
+    private ImageUploadSession newSession(Long userId, UploadSessionTarget target) {
+        LocalDateTime now = LocalDateTime.now();
+        return ImageUploadSession.builder()
+                .userId(userId)
+                .target(target)
+                .status(UploadSessionStatus.OPEN)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(urlExpirationMinutes))
+                .build();
+    }
+
+    private void addFile(ImageUploadSession session, UploadFileRequestDTO file, String fileName) {
+        session.getFiles().add(ImageUploadSessionFile.builder()
+                .session(session)
+                .category(session.getTarget() == UploadSessionTarget.CONTAINER ? file.category() : null)
+                .imageKey(s3Service.imageKey(fileName))
+                .contentType(file.contentType())
+                .sizeBytes(file.size())
+                .status(UploadFileStatus.PENDING)
+                .build());
+    }
+
+    /**
+     * Persiste a sessão e assina as URLs (assinatura local, sem chamada ao S3).
+     */
+    private UploadSessionDTO open(ImageUploadSession session) {
+        ImageUploadSession saved = sessionRepository.save(session);
+
+        Function<ImageUploadSessionFile, PresignedUploadDTO> presign = file -> new PresignedUploadDTO(
+                file.getId(),
+                file.getCategory(),
+                file.getImageKey(),
+                "PUT",
+                s3Service.generatePresignedPutUrl(file.getImageKey(), file.getContentType(), file.getSizeBytes(), urlExpirationMinutes),
+                Map.of("Content-Type", file.getContentType(),
+                        "Content-Length", Long.toString(file.getSizeBytes())));
+
+        return new UploadSessionDTO(saved.getId(), saved.getTarget(), saved.getStatus(), saved.getExpiresAt(),
+                saved.getFiles().stream().map(presign).toList());
+    }
+
+    /**
+     * Cabeçalho de um objeto do S3: serve o prefixo já lido e, se o leitor precisar de mais
+     * (JPEG com EXIF/ICC acima do prefixo), busca o restante até ImageHeaderReader.MAX_HEADER_BYTES
+     * em uma única requisição. Falha de leitura sai como ImageStorageException, não como
+     * IOException, para não ser confundida com um arquivo inválido.
+     */
+    private final class HeaderStream extends InputStream {
+
+        private final String imageKey;
+        private final long limit;
+        private byte[] buffer;
+        private int position;
+        private long fetched;
+
+        HeaderStream(ImageUploadSessionFile file, byte[] prefix) {
+            this.imageKey = file.getImageKey();
+            this.limit = Math.min(file.getSizeBytes(), ImageHeaderReader.MAX_HEADER_BYTES);
+            this.buffer = prefix;
+            this.fetched = prefix.length;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == buffer.length && !fetchRest()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.length - position);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fetchRest() {
+            if (fetched >= limit) {
+                return false;
+            }
+            try {
+                buffer = s3Service.getRangeAsync(imageKey, fetched, limit - 1).join();
+            } catch (CompletionException e) {
+                throw new ImageStorageException("Erro ao ler o cabeçalho de " + imageKey + " no S3", e.getCause());
+            }
+            position = 0;
+            fetched = buffer.length == 0 ? limit : fetched + buffer.length;
+            return buffer.length > 0;
+        }
+    }
+
+    private static Counter filesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_upload_session_files_total")
+                .description("Arquivos de sessões de upload direto ao S3 conferidos na finalização")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
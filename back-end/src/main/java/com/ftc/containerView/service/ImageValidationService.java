@@ -2,23 +2,131 @@ package com.ftc.containerView.service;
 
 import com.ftc.containerView.infra.errorhandling.exceptions.FileNotSupportedException;
 import com.ftc.containerView.infra.errorhandling.exceptions.ImageExceedsMaxSizeException;
-import io.micrometer.core.instrument.config.validate.ValidationException;
+import com.ftc.containerView.infra.images.ImageHeaderReader;
+import com.ftc.containerView.infra.images.ImageHeaderReader.ImageHeader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Set;
 
+/**
+ * Validação das imagens recebidas, sempre antes de qualquer envio ao S3.
+ *
+ * Além do tipo e do tamanho declarados, o conteúdo é conferido pelo cabeçalho: a assinatura
+ * precisa ser de PNG ou JPEG e corresponder ao tipo declarado, e a resolução lida do
+ * cabeçalho não pode passar de app.images.validation.max-pixels. Um PNG de poucos KB pode
+ * declarar 50000x50000 pixels e expandir para gigabytes ao ser decodificado (normalização,
+ * miniaturas); o limite barra essas imagens sem decodificar nenhuma.
+ *
+ * Métricas expostas:
+ * - image_validation_total: imagens validadas (tag outcome: accepted, rejected_type,
+ *   rejected_size, rejected_content, rejected_dimensions)
+ */
 @Service
 public class ImageValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageValidationService.class);
+
     private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png");
     private static final long MAX_SIZE = 10_000_000; // 10MB
 
-    public void validateImage(MultipartFile file) {
-        if (!ALLOWED_TYPES.contains(file.getContentType())) {
+    private final long maxPixels;
+    private final Counter acceptedCounter;
+    private final Counter rejectedTypeCounter;
+    private final Counter rejectedSizeCounter;
+    private final Counter rejectedContentCounter;
+    private final Counter rejectedDimensionsCounter;
+
+    public ImageValidationService(MeterRegistry meterRegistry,
+                                  @Value("${app.images.validation.max-pixels:50000000}") long maxPixels) {
+        this.maxPixels = Math.max(1, maxPixels);
+        this.acceptedCounter = imagesCounter(meterRegistry, "accepted");
+        this.rejectedTypeCounter = imagesCounter(meterRegistry, "rejected_type");
+        this.rejectedSizeCounter = imagesCounter(meterRegistry, "rejected_size");
+        this.rejectedContentCounter = imagesCounter(meterRegistry, "rejected_content");
+        this.rejectedDimensionsCounter = imagesCounter(meterRegistry, "rejected_dimensions");
+
+        logger.info("ImageValidationService inicializado - Máximo de pixels: {}", this.maxPixels);
+    }
+
+    /**
+     * Valida tipo e tamanho declarados e o cabeçalho do arquivo. Só os primeiros bytes são
+     * lidos do multipart, não o arquivo inteiro.
+     * @return formato e dimensões lidos do cabeçalho
+     */
+    public ImageHeader validateImage(MultipartFile file) {
+        validateDeclaredImage(file.getContentType(), file.getSize());
+
+        try (InputStream input = file.getInputStream()) {
+            return validateContent(file.getOriginalFilename(), file.getContentType(), input);
+        } catch (IOException e) {
+            // Falha ao abrir ou fechar o multipart; erros de leitura do cabeçalho já foram tratados
+            rejectedContentCounter.increment();
+            logger.warn("Imagem {} rejeitada: {}", file.getOriginalFilename(), e.getMessage());
+            throw new FileNotSupportedException("Conteúdo do arquivo não é uma imagem PNG ou JPEG válida");
+        }
+    }
+
+    /**
+     * Valida tipo e tamanho declarados pelo cliente para arquivos que ainda não passaram
+     * pelo servidor (abertura de sessão de upload direto ao S3). O conteúdo é conferido
+     * depois, com validateContent, na finalização da sessão.
+     */
+    public void validateDeclaredImage(String contentType, long size) {
+        if (!ALLOWED_TYPES.contains(contentType)) {
+            rejectedTypeCounter.increment();
             throw new FileNotSupportedException("Tipo de arquivo não permitido");
         }
-        if (file.getSize() > MAX_SIZE) {
+        if (size > MAX_SIZE) {
+            rejectedSizeCounter.increment();
             throw new ImageExceedsMaxSizeException("Arquivo muito grande");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Confere o cabeçalho do conteúdo: assinatura PNG ou JPEG, correspondência com o tipo
+     * declarado e resolução até o limite. Lê no máximo ImageHeaderReader.MAX_HEADER_BYTES
+     * do stream, que não é fechado aqui.
+     * @return formato e dimensões lidos do cabeçalho
+     */
+    public ImageHeader validateContent(String fileName, String declaredType, InputStream content) {
+        ImageHeader header;
+        try {
+            header = ImageHeaderReader.read(content);
+        } catch (IOException e) {
+            rejectedContentCounter.increment();
+            logger.warn("Imagem {} rejeitada: {}", fileName, e.getMessage());
+            throw new FileNotSupportedException("Conteúdo do arquivo não é uma imagem PNG ou JPEG válida");
+        }
+
+        if (!header.contentType().equals(declaredType)) {
+            rejectedContentCounter.increment();
+            logger.warn("Imagem {} rejeitada: declarada como {}, conteúdo {}",
+                    fileName, declaredType, header.contentType());
+            throw new FileNotSupportedException("Conteúdo do arquivo não corresponde ao tipo declarado");
+        }
+        if (header.pixels() > maxPixels) {
+            rejectedDimensionsCounter.increment();
+            logger.warn("Imagem {} rejeitada: {}x{} pixels (máximo {})",
+                    fileName, header.width(), header.height(), maxPixels);
+            throw new ImageExceedsMaxSizeException("Resolução da imagem acima do limite");
+        }
+
+        acceptedCounter.increment();
+        return header;
+    }
+
+    private static Counter imagesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("image_validation_total")
+                .description("Imagens validadas antes do envio ao S3")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
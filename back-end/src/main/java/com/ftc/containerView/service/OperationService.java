@@ -1,18 +1,27 @@
 package com.ftc.containerView.service;
 
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
 import com.ftc.containerView.infra.aws.S3Service;
 import com.ftc.containerView.infra.errorhandling.exceptions.*;
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.infra.pagination.Pagination;
 import com.ftc.containerView.infra.security.InputSanitizer;
 import com.ftc.containerView.model.container.ContainerStatus;
 import com.ftc.containerView.model.images.AddSackImagesResultDTO;
+import com.ftc.containerView.model.images.ImageRendition;
+import com.ftc.containerView.model.images.RenditionStatus;
 import com.ftc.containerView.model.images.SackImage;
 import com.ftc.containerView.model.images.SackImageResponseDTO;
 import com.ftc.containerView.model.operation.OperationDTO;
+import com.ftc.containerView.model.operation.OperationSortField;
 import com.ftc.containerView.model.container.Container;
 import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.operation.OperationSummaryDTO;
 import com.ftc.containerView.model.operation.UpdateOperationDTO;
+import com.ftc.containerView.model.pagination.CursorSliceDTO;
 import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.repositories.ContainerImageRepository;
 import com.ftc.containerView.repositories.ContainerRepository;
 import com.ftc.containerView.repositories.OperationRepository;
 import com.ftc.containerView.repositories.SackImageRepository;
@@ -23,11 +32,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -43,9 +54,13 @@ public class OperationService {
     private final StoreImageService storeImageService;
     private final InputSanitizer inputSanitizer;
     private final ContainerRepository containerRepository;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ContainerImageRepository containerImageRepository;
+    private final ImageDeletionService imageDeletionService;
 
     @Autowired
-    public OperationService(OperationRepository operationRepository, UserRepository userRepository, S3Service s3Service, ContainerRepository containerRepository, ContainerService containerService, SackImageRepository sackImageRepository, StoreImageService storeImageService, InputSanitizer inputSanitizer, ContainerRepository containerRepository1) {
+    public OperationService(OperationRepository operationRepository, UserRepository userRepository, S3Service s3Service, ContainerRepository containerRepository, ContainerService containerService, SackImageRepository sackImageRepository, StoreImageService storeImageService, InputSanitizer inputSanitizer, ContainerRepository containerRepository1, PresignedUrlCache presignedUrlCache,
+                            ContainerImageRepository containerImageRepository, ImageDeletionService imageDeletionService) {
         this.operationRepository = operationRepository;
         this.userRepository = userRepository;
         this.s3Service = s3Service;
@@ -53,14 +68,17 @@ public class OperationService {
         this.storeImageService = storeImageService;
         this.inputSanitizer = inputSanitizer;
         this.containerRepository = containerRepository1;
+        this.presignedUrlCache = presignedUrlCache;
+        this.containerImageRepository = containerImageRepository;
+        this.imageDeletionService = imageDeletionService;
         logger.info("OperationService inicializado com sucesso");
     }
 
-    public Page<Operation> findOperations(Pageable pageable) {
+    public Page<OperationSummaryDTO> findOperations(Pageable pageable) {
         logger.info("Buscando operações com paginação - Página: {}, Tamanho: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Operation> operations = operationRepository.findAll(pageable);
+        Page<OperationSummaryDTO> operations = operationRepository.findSummaries(pageable);
 
         logger.info("Encontradas {} operações na página {} de {} (Total: {})",
                 operations.getNumberOfElements(),
@@ -71,6 +89,39 @@ public class OperationService {
         return operations;
     }
 
+    /**
+     * Busca operações por cursor (keyset) ordenadas por (sortBy, id), sem COUNT.
+     * Quando há cursor, a ordenação gravada nele prevalece sobre sortBy/sortDirection.
+     */
+    public CursorSliceDTO<OperationSummaryDTO> getOperationsSlice(OperationStatus status, String sortBy,
+                                                                  String sortDirection, String cursor, int size) {
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        OperationSortField sortField = Pagination.sortField(OperationSortField.class,
+                after != null ? after.sortBy() : sortBy);
+        Sort.Direction direction = after != null ? after.direction() : Pagination.direction(sortDirection);
+
+        logger.info("Buscando operações por cursor - Status: {}, Ordenação: {} {}, Tamanho: {}",
+                status, sortField.property(), direction, size);
+
+        // Um registro a mais indica se existe próxima fatia
+        List<OperationSummaryDTO> rows = operationRepository.findSummariesAfter(
+                status, sortField, direction, after, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<OperationSummaryDTO> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            OperationSummaryDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(sortField.property(), direction, last.id(),
+                    sortField.format(sortField.valueOf(last))).encode();
+        }
+
+        logger.info("Encontradas {} operações por cursor (próxima fatia: {})", content.size(), hasNext);
+
+        return new CursorSliceDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
     public Operation findOperationById(Long id) {
         logger.debug("Buscando operação com ID: {}", id);
 
@@ -86,11 +137,11 @@ public class OperationService {
 
     }
 
-    public Page<Operation> getOperationsByStatus(OperationStatus status, Pageable pageable) {
+    public Page<OperationSummaryDTO> getOperationsByStatus(OperationStatus status, Pageable pageable) {
         logger.info("Buscando operações com status {} - Página: {}, Tamanho: {}",
                 status, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Operation> operations = operationRepository.findByStatus(status, pageable);
+        Page<OperationSummaryDTO> operations = operationRepository.findSummariesByStatus(status, pageable);
 
         logger.info("Encontradas {} operações com status {} na página {} de {} (Total: {})",
                 operations.getNumberOfElements(), status,
@@ -101,17 +152,17 @@ public class OperationService {
     }
 
 
-    public Page<Operation> getOperationsByUser(Long userId, Pageable pageable) {
+    public Page<OperationSummaryDTO> getOperationsByUser(Long userId, Pageable pageable) {
         logger.info("Buscando operações do usuário {} - Página: {}, Tamanho: {}",
                 userId, pageable.getPageNumber(), pageable.getPageSize());
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.warn("Usuário com ID {} não encontrado", userId);
-                    return new UserNotFoundException("Usuário não encontrado com ID: " + userId);
-                });
+        Page<OperationSummaryDTO> operations = operationRepository.findSummariesByUserId(userId, pageable);
 
-        Page<Operation> operations = operationRepository.findByUser(user, pageable);
+        // Só confere a existência do usuário quando a página vem vazia
+        if (operations.isEmpty() && !userRepository.existsById(userId)) {
+            logger.warn("Usuário com ID {} não encontrado", userId);
+            throw new UserNotFoundException("Usuário não encontrado com ID: " + userId);
+        }
 
         logger.info("Encontradas {} operações do usuário {} na página {} de {} (Total: {})",
                 operations.getNumberOfElements(), userId,
@@ -285,10 +336,13 @@ public class OperationService {
 
         return operation.getSacksImages().stream()
                 .map(sackImage -> {
-                    String imageUrl = s3Service.generatePresignedUrl(sackImage.getImageKey(), expirationMinutes);
+                    String imageUrl = presignedUrlCache.getPresignedUrl(sackImage.getImageKey(), expirationMinutes);
+                    boolean renditionsReady = sackImage.getRenditionStatus() == RenditionStatus.READY;
                     return new SackImageResponseDTO(
                             sackImage.getId(),
                             imageUrl,
+                            renditionsReady ? presignedUrlCache.getPresignedUrl(ImageRendition.THUMBNAIL.keyFor(sackImage.getImageKey()), expirationMinutes) : null,
+                            renditionsReady ? presignedUrlCache.getPresignedUrl(ImageRendition.PREVIEW.keyFor(sackImage.getImageKey()), expirationMinutes) : null,
                             sackImage.getImageKey(),
                             operation.getCreatedAt(), // ou adicionar campo específico se houver
                             expirationMinutes
@@ -322,13 +376,15 @@ public class OperationService {
             throw new IllegalArgumentException("Imagem não pertence à operação especificada");
         }
 
-        // Deletar do S3
+        // Deletar do S3 (original, miniatura e prévia)
+        List<String> keys = ImageRendition.withRenditions(imageToDelete.getImageKey());
         try {
-            s3Service.deleteFile(imageToDelete.getImageKey());
+            s3Service.deleteObjects(keys);
             logger.debug("Imagem de sacaria deletada do S3: {}", imageToDelete.getImageKey());
         } catch (Exception e) {
             logger.error("Erro ao deletar imagem do S3, continuando com remoção do banco: {}", e.getMessage());
         }
+        keys.forEach(presignedUrlCache::invalidate);
 
         // Remover da lista da operação
         operation.getSacksImages().removeIf(img -> img.getId().equals(imageId));
@@ -433,7 +489,7 @@ public class OperationService {
         logger.debug("Transição de status válida");
     }
 
-    private void validateOperationCanBeEdited(Operation operation) {
+    public void validateOperationCanBeEdited(Operation operation) {
         logger.debug("Validando se operação {} pode ser editada", operation.getId());
 
         if (operation.getStatus() == OperationStatus.COMPLETED) {
@@ -465,6 +521,7 @@ public class OperationService {
 
     public List<Operation> findOperationByCreatedAtBetween(LocalDateTime createdAt1, LocalDateTime createdAt2) { return operationRepository.findByCreatedAtBetween(createdAt1, createdAt2); }
 
+    @Transactional
     public void deleteOperation(Operation operation) {
 
         logger.debug("Excluindo operação com ID: {}", operation.getId());
@@ -474,8 +531,15 @@ public class OperationService {
                 logger.warn("Operação com ID {} nao encontrada", operation.getId());
                 throw new OperationNotFoundException("Operação com ID " + operation.getId() + " nao encontrada");
             }
+
+            // Imagens das sacarias e dos containers da operação (removidos em cascata no banco)
+            List<String> imageKeys = new ArrayList<>(sackImageRepository.findImageKeysByOperationId(operation.getId()));
+            imageKeys.addAll(containerImageRepository.findImageKeysByOperationId(operation.getId()));
+
             operationRepository.delete(operation);
-            logger.debug("Operação com ID {} excluída com sucesso", operation.getId());
+            imageDeletionService.deleteAfterCommit(imageKeys);
+            logger.debug("Operação com ID {} excluída com sucesso ({} imagens a remover do S3)",
+                    operation.getId(), imageKeys.size());
         } catch (Exception e) {
             logger.error("Erro ao excluir operação com ID: {}. Erro: {}",
                     operation.getId(), e.getMessage(), e);
@@ -1,6 +1,6 @@
 package com.ftc.containerView.service;
 
-import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
 import com.ftc.containerView.model.images.ContainerImage;
 import com.ftc.containerView.model.images.ContainerImageCategory;
 import com.ftc.containerView.model.images.SackImage;
@@ -19,14 +19,14 @@ public class SackImageService {
 
     private final SackImageRepository sackImageRepository;
     private final OperationRepository operationRepository;
-    private final S3Service s3Service;
+    private final PresignedUrlCache presignedUrlCache;
     private static final Logger logger = LoggerFactory.getLogger(SackImageService.class);
 
 
-    public SackImageService(SackImageRepository sackImageRepository, OperationRepository operationRepository, S3Service s3Service) {
+    public SackImageService(SackImageRepository sackImageRepository, OperationRepository operationRepository, PresignedUrlCache presignedUrlCache) {
         this.sackImageRepository = sackImageRepository;
         this.operationRepository = operationRepository;
-        this.s3Service = s3Service;
+        this.presignedUrlCache = presignedUrlCache;
     }
 
     public List<String> findSackImages(Long operationId) {
@@ -55,7 +55,7 @@ public class SackImageService {
 
         for (String imageKey : sackImagesKeys) {
 
-            imageLinks.add(s3Service.generatePresignedUrl(imageKey, 120));
+            imageLinks.add(presignedUrlCache.getPresignedUrl(imageKey, 120));
             logger.debug("Link da imagem {} gerado", imageKey);
         }
 
@@ -1,10 +1,17 @@
 package com.ftc.containerView.service;
 
+import com.ftc.containerView.infra.aws.ImageUploadPipeline;
+import com.ftc.containerView.infra.aws.ImageUploadPipeline.UploadResult;
+import com.ftc.containerView.infra.aws.ImageUploadPipeline.UploadTask;
 import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.errorhandling.exceptions.ContainerNotFoundException;
 import com.ftc.containerView.infra.errorhandling.exceptions.ImageStorageException;
+import com.ftc.containerView.infra.errorhandling.exceptions.OperationNotFoundException;
+import com.ftc.containerView.model.container.Container;
 import com.ftc.containerView.model.images.ContainerImage;
 import com.ftc.containerView.model.images.ContainerImageCategory;
 import com.ftc.containerView.model.images.SackImage;
+import com.ftc.containerView.model.operation.Operation;
 import com.ftc.containerView.repositories.ContainerImageRepository;
 import com.ftc.containerView.repositories.ContainerRepository;
 import com.ftc.containerView.repositories.OperationRepository;
@@ -12,12 +19,26 @@ import com.ftc.containerView.repositories.SackImageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 public class StoreImageService {
@@ -32,81 +53,368 @@ public class StoreImageService {
 
     private final S3Service s3Service;
 
+    private final ImageUploadPipeline imageUploadPipeline;
+
+    private final ImageRenditionService imageRenditionService;
+
+    private final ImageDeletionService imageDeletionService;
+
     @Autowired
-    public StoreImageService(ImageValidationService imageValidationService, ContainerRepository containerRepository, ContainerImageRepository containerImageRepository, SackImageRepository sackImageRepository, OperationRepository operationRepository, S3Service s3Service) {
+    public StoreImageService(ImageValidationService imageValidationService, ContainerRepository containerRepository, ContainerImageRepository containerImageRepository, SackImageRepository sackImageRepository, OperationRepository operationRepository, S3Service s3Service, ImageUploadPipeline imageUploadPipeline, ImageRenditionService imageRenditionService, ImageDeletionService imageDeletionService) {
         this.imageValidationService = imageValidationService;
         this.containerRepository = containerRepository;
         this.containerImageRepository = containerImageRepository;
         this.sackImageRepository = sackImageRepository;
         this.operationRepository = operationRepository;
         this.s3Service = s3Service;
+        this.imageUploadPipeline = imageUploadPipeline;
+        this.imageRenditionService = imageRenditionService;
+        this.imageDeletionService = imageDeletionService;
     }
 
     public List<ContainerImage> storeImagesToContainer(MultipartFile[] images, long containerIdDef, ContainerImageCategory category) {
-        logger.info("Armazenando {} imagens para o container {}.", images != null ? images.length : 0, containerIdDef);
-        int imageCount = 0;
-        List<ContainerImage> containerImages = new ArrayList<>();
+        Map<ContainerImageCategory, MultipartFile[]> imagesByCategory = new EnumMap<>(ContainerImageCategory.class);
+        if (images != null) {
+            imagesByCategory.put(category, images);
+        }
+        return storeImagesToContainer(imagesByCategory, containerIdDef);
+    }
 
-        if (images == null || images.length == 0) {
-            return containerImages;
+    /**
+     * Armazena as imagens de todas as categorias de uma vez: um único envio paralelo ao S3
+     * e um único saveAll (insert em lote via JDBC batch).
+     * O container é anexado por referência (proxy), sem SELECT por imagem.
+     *
+     * Dentro de uma transação o insert só é executado no flush/commit, fora deste método;
+     * por isso os objetos enviados são removidos do S3 se a transação for desfeita
+     * (ImageDeletionService.deleteOnRollback). Sem transação, o insert é feito com flush
+     * imediato e a remoção acontece aqui mesmo em caso de erro.
+     *
+     * Imagens com o mesmo conteúdo (SHA-256) de uma já registrada no container e categoria,
+     * ou repetidas no próprio envio, não são reenviadas: a lista devolvida só traz as novas.
+     * O índice único uk_container_images_content_hash garante isso também entre envios
+     * simultâneos; ver saveNewContainerImages.
+     */
+    public List<ContainerImage> storeImagesToContainer(Map<ContainerImageCategory, MultipartFile[]> imagesByCategory, long containerIdDef) {
+        List<UploadTask> tasks = new ArrayList<>();
+        List<ContainerImageCategory> taskCategories = new ArrayList<>();
+        List<String> taskHashes = new ArrayList<>();
+        int duplicates = 0;
+
+        // Valida tudo antes de enviar qualquer arquivo ao S3
+        for (Map.Entry<ContainerImageCategory, MultipartFile[]> entry : imagesByCategory.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            List<String> hashes = new ArrayList<>(entry.getValue().length);
+            for (MultipartFile image : entry.getValue()) {
+                imageValidationService.validateImage(image);
+                hashes.add(contentHash(image));
+            }
+
+            Set<String> known = hashes.isEmpty() ? new HashSet<>()
+                    : new HashSet<>(containerImageRepository.findExistingContentHashes(containerIdDef, entry.getKey(), hashes));
+            for (int i = 0; i < hashes.size(); i++) {
+                if (!known.add(hashes.get(i))) {
+                    duplicates++;
+                    continue;
+                }
+                MultipartFile image = entry.getValue()[i];
+                String fileName = containerImageFileName(entry.getKey(), containerIdDef);
+                tasks.add(new UploadTask(image, fileName, image.getContentType()));
+                taskCategories.add(entry.getKey());
+                taskHashes.add(hashes.get(i));
+            }
         }
 
-        for (MultipartFile image : images) {
-            String uniqueId = UUID.randomUUID().toString();
-            String fileName = "containerImage_" + uniqueId + "_" + category + "_" + containerIdDef + ".jpg";
+        logger.info("Armazenando {} imagens para o container {} ({} já registradas ignoradas).", tasks.size(), containerIdDef, duplicates);
 
-            imageValidationService.validateImage(image);
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UploadResult> results = imageUploadPipeline.uploadAll(tasks);
+        List<String> uploadedKeys = checkUploadResults(results, "container " + containerIdDef);
+        boolean removedOnRollback = imageDeletionService.deleteOnRollback(uploadedKeys);
 
-            try {
+        try {
+            Container container = lockContainer(containerIdDef);
+            List<ContainerImage> containerImages = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
                 ContainerImage containerImage = new ContainerImage();
-                containerImage.setImageKey(s3Service.uploadFile(image.getBytes(), fileName, "application/jpg"));
-                containerImage.setContainer(containerRepository.findById(containerIdDef).get());
-                containerImage.setCategory(category);
-                ContainerImage savedImage = containerImageRepository.save(containerImage);
-                containerImages.add(savedImage);
-                logger.info("Imagem {} {} armazenada com sucesso como {}.", category,imageCount, fileName);
+                containerImage.setImageKey(results.get(i).imageKey());
+                containerImage.setContainer(container);
+                containerImage.setCategory(taskCategories.get(i));
+                containerImage.setContentHash(taskHashes.get(i));
+                containerImage.setCrc32(results.get(i).crc32());
+                containerImages.add(containerImage);
             }
-            catch (Exception e) {
-                logger.error("Erro ao armazenar imagem {} para container {}: {}", fileName, containerIdDef, e.getMessage(), e);
-                throw new ImageStorageException("Erro ao armazenar imagem para o container: " + containerIdDef, e);
+
+            List<ContainerImage> savedImages = saveNewContainerImages(containerImages, containerIdDef, removedOnRollback);
+            imageRenditionService.generateAfterCommit(savedImages.stream().map(ContainerImage::getImageKey).toList());
+            logger.info("Todas as {} imagens processadas para o container {}.", savedImages.size(), containerIdDef);
+            return savedImages;
+        } catch (Exception e) {
+            logger.error("Erro ao registrar imagens do container {}: {}", containerIdDef, e.getMessage(), e);
+            if (!removedOnRollback) {
+                discardUploadedKeys(uploadedKeys);
             }
+            throw new ImageStorageException("Erro ao armazenar imagem para o container: " + containerIdDef, e);
         }
-        logger.info("Todas as imagens processadas para o container {}.", containerIdDef);
-        return containerImages;
     }
 
+    /**
+     * Como em storeImagesToContainer, imagens já registradas na operação (mesmo SHA-256)
+     * não são reenviadas e ficam fora da lista devolvida.
+     */
     public List<SackImage> storeSackImages(MultipartFile[] images, long operationId) {
         logger.info("Armazenando {} imagens de sacaria para a operação {}.", images != null ? images.length : 0, operationId);
-        int imageCount = 0;
-        List<SackImage> sackImages = new ArrayList<>();
 
         if (images == null || images.length == 0) {
-            return sackImages;
+            return new ArrayList<>();
         }
 
+        // Valida tudo antes de enviar qualquer arquivo ao S3
+        List<String> hashes = new ArrayList<>(images.length);
         for (MultipartFile image : images) {
+            imageValidationService.validateImage(image);
+            hashes.add(contentHash(image));
+        }
 
-            String uniqueId = UUID.randomUUID().toString();
-            String fileName = "sackImage_" + uniqueId + "_" + operationId + ".jpg";
+        Set<String> known = new HashSet<>(sackImageRepository.findExistingContentHashes(operationId, hashes));
+        List<UploadTask> tasks = new ArrayList<>(images.length);
+        List<String> taskHashes = new ArrayList<>(images.length);
+        for (int i = 0; i < images.length; i++) {
+            if (!known.add(hashes.get(i))) {
+                continue;
+            }
+            String fileName = sackImageFileName(operationId);
+            tasks.add(new UploadTask(images[i], fileName, images[i].getContentType()));
+            taskHashes.add(hashes.get(i));
+        }
 
-            imageValidationService.validateImage(image);
+        if (tasks.size() < images.length) {
+            logger.info("{} imagens de sacaria já registradas na operação {} ignoradas.", images.length - tasks.size(), operationId);
+        }
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UploadResult> results = imageUploadPipeline.uploadAll(tasks);
+        List<String> uploadedKeys = checkUploadResults(results, "operação " + operationId);
+        boolean removedOnRollback = imageDeletionService.deleteOnRollback(uploadedKeys);
 
-            try {
+        try {
+            Operation operation = lockOperation(operationId);
+            List<SackImage> sackImages = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
                 SackImage sackImage = new SackImage();
-                sackImage.setImageKey(s3Service.uploadFile(image.getBytes(), fileName, "application/jpg"));
-                sackImage.setOperation(operationRepository.findById(operationId).get());
-                SackImage savedImage = sackImageRepository.save(sackImage);
-                sackImages.add(savedImage);
-                logger.info("Imagem de sacaria {} armazenada com sucesso como {} na operação {}.", imageCount, fileName, operationId);
+                sackImage.setImageKey(results.get(i).imageKey());
+                sackImage.setOperation(operation);
+                sackImage.setContentHash(taskHashes.get(i));
+                sackImage.setCrc32(results.get(i).crc32());
+                sackImages.add(sackImage);
             }
-            catch (Exception e) {
-                logger.error("Erro ao armazenar imagem de sacaria {} para operação {}: {}", fileName, operationId, e.getMessage(), e);
-                throw new ImageStorageException("Erro ao armazenar imagem de sacaria para a operação: " + operationId, e);
+
+            List<SackImage> savedImages = saveNewSackImages(sackImages, operationId, removedOnRollback);
+            imageRenditionService.generateAfterCommit(savedImages.stream().map(SackImage::getImageKey).toList());
+            logger.info("Todas as {} imagens de sacaria processadas para a operação {}.", savedImages.size(), operationId);
+            return savedImages;
+        } catch (Exception e) {
+            logger.error("Erro ao registrar imagens de sacaria da operação {}: {}", operationId, e.getMessage(), e);
+            if (!removedOnRollback) {
+                discardUploadedKeys(uploadedKeys);
+            }
+            throw new ImageStorageException("Erro ao armazenar imagem de sacaria para a operação: " + operationId, e);
+        }
+    }
+
+    static String containerImageFileName(ContainerImageCategory category, long containerIdDef) {
+        return "containerImage_" + UUID.randomUUID() + "_" + category + "_" + containerIdDef + ".jpg";
+    }
+
+    static String sackImageFileName(long operationId) {
+        return "sackImage_" + UUID.randomUUID() + "_" + operationId + ".jpg";
+    }
+
+    /**
+     * SHA-256 (hex) do conteúdo, lido do multipart em blocos sem carregar o arquivo inteiro.
+     *
+     * É uma leitura a mais do arquivo, separada da que o ImageNormalizer faz no pipeline de
+     * upload, e precisa ser: a decisão de pular duplicatas é uma consulta em lote ao banco
+     * feita antes de qualquer envio, então o hash de todos os arquivos tem que existir antes
+     * de o pipeline começar. Calcular o hash sobre os bytes lidos pelo normalizador obrigaria
+     * a normalizar (decodificar e recodificar) também as duplicatas que serão descartadas, ou
+     * a manter todos os arquivos do envio em memória até a consulta. O hash é do arquivo
+     * recebido, não do normalizado, para que o mesmo original reenviado seja reconhecido
+     * mesmo se a configuração da normalização mudar; a leitura custa bem menos que a decodificação.
+     */
+    static String contentHash(MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
             }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new ImageStorageException("Erro ao ler imagem " + file.getOriginalFilename(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
         }
-        logger.info("Todas as imagens de sacaria processadas para a operação {}.", operationId);
-        return sackImages;
     }
 
+    /**
+     * Em transação, trava o container até o commit: envios simultâneos ao mesmo container
+     * conferem e gravam os hashes um de cada vez. Sem transação não há o que travar.
+     */
+    private Container lockContainer(long containerIdDef) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return containerRepository.getReferenceById(containerIdDef);
+        }
+        return containerRepository.findForUpdateById(containerIdDef)
+                .orElseThrow(() -> new ContainerNotFoundException("Container não encontrado com ID: " + containerIdDef));
+    }
 
-}
\ No newline at end of file
+    private Operation lockOperation(long operationId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operationRepository.getReferenceById(operationId);
+        }
+        return operationRepository.findForUpdateById(operationId)
+                .orElseThrow(() -> new OperationNotFoundException("Operação não encontrada com ID: " + operationId));
+    }
+
+    /**
+     * Grava as imagens cujo conteúdo ainda não está registrado no container. A consulta é
+     * refeita aqui porque outro envio pode ter registrado o mesmo conteúdo durante o upload:
+     * essas imagens contam como já armazenadas e os objetos enviados para elas são removidos.
+     *
+     * Em transação o container está travado (lockContainer) e o insert sai no commit. Sem
+     * transação o insert é imediato e o índice único uk_container_images_content_hash pode
+     * barrar uma gravação concorrente; nesse caso a consulta é refeita uma vez.
+     */
+    private List<ContainerImage> saveNewContainerImages(List<ContainerImage> images, long containerIdDef, boolean inTransaction) {
+        List<ContainerImage> newImages = withoutStoredContainerImages(images, containerIdDef);
+        if (inTransaction) {
+            return containerImageRepository.saveAll(newImages);
+        }
+        try {
+            return containerImageRepository.saveAllAndFlush(newImages);
+        } catch (DataIntegrityViolationException e) {
+            if (!isViolationOf(e, "uk_container_images_content_hash")) {
+                throw e;
+            }
+            // Envio concorrente registrou o mesmo conteúdo entre a consulta e o insert
+            logger.warn("Imagens do container {} registradas por outro envio; conferindo novamente", containerIdDef);
+            newImages.forEach(image -> image.setId(null));
+            return containerImageRepository.saveAllAndFlush(withoutStoredContainerImages(newImages, containerIdDef));
+        }
+    }
+
+    private List<SackImage> saveNewSackImages(List<SackImage> images, long operationId, boolean inTransaction) {
+        List<SackImage> newImages = withoutStoredSackImages(images, operationId);
+        if (inTransaction) {
+            return sackImageRepository.saveAll(newImages);
+        }
+        try {
+            return sackImageRepository.saveAllAndFlush(newImages);
+        } catch (DataIntegrityViolationException e) {
+            if (!isViolationOf(e, "uk_sack_images_content_hash")) {
+                throw e;
+            }
+            logger.warn("Imagens de sacaria da operação {} registradas por outro envio; conferindo novamente", operationId);
+            newImages.forEach(image -> image.setId(null));
+            return sackImageRepository.saveAllAndFlush(withoutStoredSackImages(newImages, operationId));
+        }
+    }
+
+    private List<ContainerImage> withoutStoredContainerImages(List<ContainerImage> images, long containerIdDef) {
+        Map<ContainerImageCategory, List<String>> hashesByCategory = new EnumMap<>(ContainerImageCategory.class);
+        for (ContainerImage image : images) {
+            hashesByCategory.computeIfAbsent(image.getCategory(), category -> new ArrayList<>()).add(image.getContentHash());
+        }
+        Map<ContainerImageCategory, Set<String>> stored = new EnumMap<>(ContainerImageCategory.class);
+        hashesByCategory.forEach((category, hashes) -> stored.put(category,
+                new HashSet<>(containerImageRepository.findExistingContentHashes(containerIdDef, category, hashes))));
+
+        return withoutStored(images, image -> stored.get(image.getCategory()).contains(image.getContentHash()),
+                ContainerImage::getImageKey, "container " + containerIdDef);
+    }
+
+    private List<SackImage> withoutStoredSackImages(List<SackImage> images, long operationId) {
+        Set<String> stored = new HashSet<>(sackImageRepository.findExistingContentHashes(operationId,
+                images.stream().map(SackImage::getContentHash).toList()));
+
+        return withoutStored(images, image -> stored.contains(image.getContentHash()),
+                SackImage::getImageKey, "operação " + operationId);
+    }
+
+    private <T> List<T> withoutStored(List<T> images, Predicate<T> stored, Function<T, String> imageKey, String target) {
+        List<T> newImages = new ArrayList<>(images.size());
+        List<String> storedKeys = new ArrayList<>();
+        for (T image : images) {
+            if (stored.test(image)) {
+                storedKeys.add(imageKey.apply(image));
+            } else {
+                newImages.add(image);
+            }
+        }
+        if (!storedKeys.isEmpty()) {
+            logger.info("{} imagens para {} registradas por outro envio durante o upload; ignoradas.", storedKeys.size(), target);
+            discardUploadedKeys(storedKeys);
+        }
+        return newImages;
+    }
+
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+
+    /**
+     * Confere o resultado dos uploads. Se algum falhou, remove do S3 os que deram certo
+     * (para não deixar objetos sem registro no banco) e lança exceção listando cada falha.
+     *
+     * @return chaves enviadas com sucesso
+     */
+    private List<String> checkUploadResults(List<UploadResult> results, String target) {
+        List<String> uploadedKeys = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        for (UploadResult result : results) {
+            if (result.isSuccess()) {
+                uploadedKeys.add(result.imageKey());
+            } else {
+                String originalName = result.task().file().getOriginalFilename();
+                failures.add((originalName != null ? originalName : result.task().fileName())
+                        + " (" + result.error().getMessage() + ")");
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            logger.error("Falha no upload de {} de {} imagens para {}: {}", failures.size(), results.size(), target, failures);
+            discardUploadedKeys(uploadedKeys);
+            throw new ImageStorageException("Falha ao armazenar " + failures.size() + " imagem(ns) para " + target + ": "
+                    + String.join("; ", failures), results.stream()
+                    .filter(r -> !r.isSuccess())
+                    .findFirst()
+                    .map(UploadResult::error)
+                    .orElse(null));
+        }
+
+        return uploadedKeys;
+    }
+
+    private void discardUploadedKeys(List<String> uploadedKeys) {
+        if (uploadedKeys.isEmpty()) {
+            return;
+        }
+        logger.warn("Removendo {} imagens já enviadas ao S3 para manter consistência com o banco", uploadedKeys.size());
+        try {
+            s3Service.deleteFiles(uploadedKeys);
+        } catch (Exception e) {
+            logger.error("Erro ao remover imagens enviadas ao S3: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ftc.containerView.service;
 
 import com.ftc.containerView.infra.errorhandling.exceptions.UserNotFoundException;
 import com.ftc.containerView.infra.security.InputSanitizer;
+import com.ftc.containerView.infra.security.auth.PrincipalCache;
 import com.ftc.containerView.model.user.User;
 import com.ftc.containerView.model.user.UserRole;
 import com.ftc.containerView.repositories.UserRepository;
@@ -23,11 +24,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final InputSanitizer inputSanitizer;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public UserService(UserRepository userRepository, InputSanitizer inputSanitizer) {
+    public UserService(UserRepository userRepository, InputSanitizer inputSanitizer, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.inputSanitizer = inputSanitizer;
+        this.principalCache = principalCache;
     }
 
     public User saveUser(User user) {
@@ -142,6 +145,8 @@ public class UserService {
             }
             if (changed) {
                 User saved = userRepository.save(existingUser);
+                // Senha ou papel podem ter mudado: após o commit, a próxima requisição recarrega o usuário
+                principalCache.evict(existingUser.getCpf());
                 logger.info("Usuário com ID {} atualizado com sucesso.", userId);
                 return saved;
             } else {
@@ -164,6 +169,7 @@ public class UserService {
                 throw new UserNotFoundException("Usuário nao encontrado com ID: " + id);
             }
             userRepository.deleteById(id);
+            principalCache.evictByUserId(id);
             logger.info("Usuário com ID {} excluído com sucesso.", id);
         } catch (Exception e) {
             logger.error("Erro ao excluir usuário com ID: {}. Erro: {}", id, e.getMessage(), e);
@@ -0,0 +1,34 @@
+-- Jobs de ingestão assíncrona de imagens (arquivos guardados em disco e enviados ao S3 em background)
+CREATE TABLE image_ingestion_jobs (
+                                      id BIGSERIAL PRIMARY KEY,
+                                      container_id_def BIGINT NOT NULL,
+                                      user_id BIGINT NOT NULL,
+                                      idempotency_key VARCHAR(100),
+                                      status VARCHAR(20) NOT NULL,
+                                      spool_dir VARCHAR(500) NOT NULL,
+                                      total_images INTEGER NOT NULL,
+                                      attempts INTEGER NOT NULL DEFAULT 0,
+                                      error_message VARCHAR(1000),
+                                      created_at TIMESTAMP NOT NULL,
+                                      updated_at TIMESTAMP,
+                                      completed_at TIMESTAMP,
+                                      FOREIGN KEY (container_id_def) REFERENCES containers(id) ON DELETE CASCADE,
+                                      FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                      CONSTRAINT uk_image_ingestion_jobs_idempotency UNIQUE (user_id, idempotency_key),
+                                      CONSTRAINT chk_image_ingestion_job_status CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED'))
+);
+
+-- Jobs não finalizados são retomados na inicialização
+CREATE INDEX idx_image_ingestion_jobs_status ON image_ingestion_jobs(status);
+
+-- Arquivos de cada job, guardados no diretório spool_dir até o processamento
+CREATE TABLE image_ingestion_files (
+                                       id BIGSERIAL PRIMARY KEY,
+                                       job_id BIGINT NOT NULL,
+                                       category VARCHAR(50) NOT NULL,
+                                       spool_file VARCHAR(255) NOT NULL,
+                                       original_filename VARCHAR(255),
+                                       content_type VARCHAR(100),
+                                       size_bytes BIGINT NOT NULL,
+                                       FOREIGN KEY (job_id) REFERENCES image_ingestion_jobs(id) ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+-- Ajusta a sequence de containers para o allocationSize (50) da entidade.
+-- Permite insert em lote (JDBC batch) de containers e de container_other_seals.
+ALTER SEQUENCE containers_id_seq INCREMENT BY 50;
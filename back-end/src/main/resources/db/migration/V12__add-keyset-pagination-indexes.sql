@@ -0,0 +1,13 @@
+-- Índices da paginação por cursor: cada ordenação permitida (sortBy) é (coluna, id),
+-- com e sem o filtro da listagem à frente
+CREATE INDEX idx_containers_created_at_id ON containers(created_at, id);
+CREATE INDEX idx_containers_operation_id_id ON containers(operation_id, id);
+CREATE INDEX idx_containers_operation_created_at_id ON containers(operation_id, created_at, id);
+CREATE INDEX idx_containers_operation_container_id ON containers(operation_id, container_id);
+CREATE INDEX idx_containers_status_id ON containers(status, id);
+CREATE INDEX idx_containers_status_created_at_id ON containers(status, created_at, id);
+CREATE INDEX idx_containers_status_container_id ON containers(status, container_id);
+
+CREATE INDEX idx_operations_created_at_id ON operations(created_at, id);
+CREATE INDEX idx_operations_status_id ON operations(status, id);
+CREATE INDEX idx_operations_status_created_at_id ON operations(status, created_at, id);
@@ -0,0 +1,12 @@
+-- Índices das colunas filtradas pelos repositórios que ainda não tinham índice
+-- (containers.operation_id/status e operations.status/created_at estão no V12,
+-- container_images.container_id_def no V9)
+CREATE INDEX idx_containers_user_id ON containers(user_id);
+CREATE INDEX idx_operations_user_id_id ON operations(user_id, id);
+CREATE INDEX idx_container_other_seals_container_id ON container_other_seals(container_id);
+CREATE INDEX idx_sack_images_operation_id_id ON sack_images(operation_id, id);
+
+-- Chaves estrangeiras com ON DELETE CASCADE: sem índice, apagar um container ou job
+-- varre as tabelas filhas inteiras
+CREATE INDEX idx_image_ingestion_jobs_container_id_def ON image_ingestion_jobs(container_id_def);
+CREATE INDEX idx_image_ingestion_files_job_id ON image_ingestion_files(job_id);
@@ -0,0 +1,11 @@
+-- Chaves de imagens removidas do banco que falharam ao ser apagadas do S3 (retentadas em background)
+CREATE TABLE orphaned_image_keys (
+                                     id BIGSERIAL PRIMARY KEY,
+                                     image_key VARCHAR(255) UNIQUE NOT NULL,
+                                     attempts INTEGER NOT NULL DEFAULT 0,
+                                     last_error VARCHAR(1000),
+                                     created_at TIMESTAMP NOT NULL,
+                                     next_attempt_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_orphaned_image_keys_next_attempt ON orphaned_image_keys(next_attempt_at);
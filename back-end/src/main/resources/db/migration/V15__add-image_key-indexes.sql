@@ -0,0 +1,4 @@
+-- Índices para a conciliação de objetos órfãos no S3: cada página do ListObjectsV2
+-- (até 1000 chaves) é verificada com IN (...) em image_key nas duas tabelas
+CREATE INDEX idx_container_images_image_key ON container_images(image_key);
+CREATE INDEX idx_sack_images_image_key ON sack_images(image_key);
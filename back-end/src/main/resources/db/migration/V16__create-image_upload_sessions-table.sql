@@ -0,0 +1,40 @@
+-- Sessões de upload direto ao S3 via URLs pré-assinadas (PUT). O cliente envia as imagens
+-- direto ao bucket e chama a finalização, que confere os objetos e registra as imagens
+CREATE TABLE image_upload_sessions (
+                                       id BIGSERIAL PRIMARY KEY,
+                                       user_id BIGINT NOT NULL,
+                                       target VARCHAR(20) NOT NULL,
+                                       container_id_def BIGINT,
+                                       operation_id BIGINT,
+                                       status VARCHAR(20) NOT NULL,
+                                       expires_at TIMESTAMP NOT NULL,
+                                       created_at TIMESTAMP NOT NULL,
+                                       completed_at TIMESTAMP,
+                                       FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                       FOREIGN KEY (container_id_def) REFERENCES containers(id) ON DELETE CASCADE,
+                                       FOREIGN KEY (operation_id) REFERENCES operations(id) ON DELETE CASCADE,
+                                       CONSTRAINT chk_image_upload_session_target CHECK (
+                                           (target = 'CONTAINER' AND container_id_def IS NOT NULL)
+                                               OR (target = 'SACK' AND operation_id IS NOT NULL)),
+                                       CONSTRAINT chk_image_upload_session_status CHECK (status IN ('OPEN', 'COMPLETED'))
+);
+
+CREATE INDEX idx_image_upload_sessions_user_id ON image_upload_sessions(user_id);
+CREATE INDEX idx_image_upload_sessions_container_id_def ON image_upload_sessions(container_id_def);
+CREATE INDEX idx_image_upload_sessions_operation_id ON image_upload_sessions(operation_id);
+
+-- Um registro por URL emitida; image_key é gerada pelo servidor
+CREATE TABLE image_upload_session_files (
+                                            id BIGSERIAL PRIMARY KEY,
+                                            session_id BIGINT NOT NULL,
+                                            category VARCHAR(50),
+                                            image_key VARCHAR(255) UNIQUE NOT NULL,
+                                            content_type VARCHAR(100) NOT NULL,
+                                            size_bytes BIGINT NOT NULL,
+                                            status VARCHAR(20) NOT NULL,
+                                            detail VARCHAR(255),
+                                            FOREIGN KEY (session_id) REFERENCES image_upload_sessions(id) ON DELETE CASCADE,
+                                            CONSTRAINT chk_image_upload_session_file_status CHECK (status IN ('PENDING', 'REGISTERED', 'MISSING', 'REJECTED'))
+);
+
+CREATE INDEX idx_image_upload_session_files_session_id ON image_upload_session_files(session_id);
@@ -0,0 +1,13 @@
+-- Miniatura e prévia de cada imagem são geradas em background após o registro.
+-- Imagens já existentes entram como PENDING e são processadas aos poucos pela varredura
+ALTER TABLE container_images ADD COLUMN rendition_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE sack_images ADD COLUMN rendition_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+
+ALTER TABLE container_images ADD CONSTRAINT chk_container_images_rendition_status
+    CHECK (rendition_status IN ('PENDING', 'READY', 'FAILED'));
+ALTER TABLE sack_images ADD CONSTRAINT chk_sack_images_rendition_status
+    CHECK (rendition_status IN ('PENDING', 'READY', 'FAILED'));
+
+-- A varredura só procura as pendentes: índices parciais ficam pequenos depois do backfill
+CREATE INDEX idx_container_images_rendition_pending ON container_images(id) WHERE rendition_status = 'PENDING';
+CREATE INDEX idx_sack_images_rendition_pending ON sack_images(id) WHERE rendition_status = 'PENDING';
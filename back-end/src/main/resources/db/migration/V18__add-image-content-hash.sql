@@ -0,0 +1,10 @@
+-- SHA-256 (hex) do arquivo recebido, para não reenviar ao S3 a mesma foto no mesmo
+-- container/categoria ou operação (reenvios após timeout do cliente).
+-- Imagens antigas e as enviadas direto ao S3 ficam sem hash e não participam da deduplicação
+ALTER TABLE container_images ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE sack_images ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_container_images_content_hash ON container_images(container_id_def, category, content_hash)
+    WHERE content_hash IS NOT NULL;
+CREATE INDEX idx_sack_images_content_hash ON sack_images(operation_id, content_hash)
+    WHERE content_hash IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Falhas transitórias (leitura ou gravação no S3) ao gerar miniatura e prévia.
+-- Ao atingir app.images.renditions.max-attempts a imagem vira FAILED e sai da varredura
+ALTER TABLE container_images ADD COLUMN rendition_attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sack_images ADD COLUMN rendition_attempts INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,25 @@
+-- A deduplicação por conteúdo era só uma consulta antes do upload: dois envios simultâneos
+-- da mesma foto passavam pela consulta e registravam a imagem duas vezes. Os índices passam
+-- a ser únicos; continuam parciais porque imagens sem hash não participam da deduplicação.
+DROP INDEX IF EXISTS idx_container_images_content_hash;
+DROP INDEX IF EXISTS idx_sack_images_content_hash;
+
+-- Duplicatas já gravadas: mantém a imagem mais antiga e tira o hash das demais
+UPDATE container_images ci SET content_hash = NULL
+WHERE ci.content_hash IS NOT NULL
+  AND EXISTS (SELECT 1 FROM container_images other
+              WHERE other.container_id_def = ci.container_id_def
+                AND other.category = ci.category
+                AND other.content_hash = ci.content_hash
+                AND other.id < ci.id);
+UPDATE sack_images si SET content_hash = NULL
+WHERE si.content_hash IS NOT NULL
+  AND EXISTS (SELECT 1 FROM sack_images other
+              WHERE other.operation_id = si.operation_id
+                AND other.content_hash = si.content_hash
+                AND other.id < si.id);
+
+CREATE UNIQUE INDEX uk_container_images_content_hash ON container_images(container_id_def, category, content_hash)
+    WHERE content_hash IS NOT NULL;
+CREATE UNIQUE INDEX uk_sack_images_content_hash ON sack_images(operation_id, content_hash)
+    WHERE content_hash IS NOT NULL;
@@ -0,0 +1,5 @@
+-- CRC-32 do objeto gravado no S3 (o conteúdo enviado, já normalizado). A exportação em ZIP
+-- usa o valor no data descriptor e no diretório central sem precisar ler a imagem.
+-- Nulo nas imagens antigas e nas enviadas direto ao S3: calculado na primeira exportação
+ALTER TABLE container_images ADD COLUMN crc32 BIGINT;
+ALTER TABLE sack_images ADD COLUMN crc32 BIGINT;
@@ -0,0 +1,4 @@
+-- Ajusta as sequences das tabelas de imagens para o allocationSize (50) das entidades.
+-- Permite que o Hibernate reserve IDs em blocos e faça insert em lote (JDBC batch).
+ALTER SEQUENCE container_images_id_seq INCREMENT BY 50;
+ALTER SEQUENCE sack_images_id_seq INCREMENT BY 50;
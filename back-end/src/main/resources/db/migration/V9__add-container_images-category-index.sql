@@ -0,0 +1,2 @@
+-- Índice para a busca de imagens por container e categoria (endpoints /containers/{id}/images/{CATEGORIA})
+CREATE INDEX idx_container_images_container_category ON container_images(container_id_def, category);
@@ -0,0 +1,116 @@
+package com.ftc.containerView.infra.async;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.ExportCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vagas do pool de exportação: recusa quando cheio e devolução ao fim do processamento assíncrono.
+ */
+class ImageExportExecutorTest {
+
+    // 1 exportação em andamento + 1 na fila
+    private final ImageExportExecutor executor = new ImageExportExecutor(new SimpleMeterRegistry(), 1, 1, 60_000, 15);
+    private final CountDownLatch finish = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        finish.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void appliesExportTimeoutToTheRequest() {
+        MockHttpServletRequest request = asyncRequest();
+
+        executor.submit(request, body());
+
+        assertEquals(60_000L, timeoutOf(request));
+    }
+
+    @Test
+    void rejectsWhenRunningAndQueuedSlotsAreTaken() {
+        executor.submit(asyncRequest(), body());
+        executor.submit(asyncRequest(), body());
+
+        ExportCapacityExceededException e = assertThrows(ExportCapacityExceededException.class,
+                () -> executor.submit(asyncRequest(), body()));
+        assertEquals(15, e.getRetryAfterSeconds());
+        assertThrows(ExportCapacityExceededException.class, executor::checkCapacity);
+    }
+
+    @Test
+    void responseWithoutBodyTakesNoSlot() {
+        ResponseEntity<StreamingResponseBody> notSatisfiable = ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).build();
+        for (int i = 0; i < 3; i++) {
+            assertSame(notSatisfiable, executor.submit(asyncRequest(), notSatisfiable));
+        }
+        executor.checkCapacity();
+    }
+
+    @Test
+    void slotIsReleasedWhenAsyncProcessingCompletes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        MockHttpServletRequest request = asyncRequest();
+        executor.submit(request, body());
+        executor.submit(asyncRequest(), body());
+
+        WebAsyncUtils.getAsyncManager(request).startCallableProcessing(() -> {
+            started.countDown();
+            finish.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(ExportCapacityExceededException.class, executor::checkCapacity);
+
+        finish.countDown();
+        awaitConcurrentResult(WebAsyncUtils.getAsyncManager(request));
+        request.getAsyncContext().complete();
+
+        executor.checkCapacity();
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/containers/MSCU1111111/images/export");
+        request.setAsyncSupported(true);
+        WebAsyncUtils.getAsyncManager(request)
+                .setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        return request;
+    }
+
+    private static long timeoutOf(MockHttpServletRequest request) {
+        StandardServletAsyncWebRequest asyncWebRequest =
+                (StandardServletAsyncWebRequest) WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        asyncWebRequest.startAsync();
+        return request.getAsyncContext().getTimeout();
+    }
+
+    private static void awaitConcurrentResult(WebAsyncManager asyncManager) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!asyncManager.hasConcurrentResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(asyncManager.hasConcurrentResult());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> body() {
+        return ResponseEntity.ok(output -> {});
+    }
+}
@@ -0,0 +1,74 @@
+package com.ftc.containerView.infra.aws;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PresignedUrlCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger signatures = new AtomicInteger();
+    private final S3Service s3Service = mock(S3Service.class);
+    private PresignedUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(s3Service.generatePresignedUrl(anyString(), anyInt())).thenAnswer(invocation ->
+                "https://s3/" + invocation.getArgument(0) + "?expires=" + invocation.getArgument(1)
+                        + "&signature=" + signatures.incrementAndGet());
+        cache = new PresignedUrlCache(s3Service, new SimpleMeterRegistry(), 100, 0.5, clock::get);
+    }
+
+    @Test
+    void reusesUrlUntilHalfOfItsLifetime() {
+        String first = cache.getPresignedUrl("a.jpg", 120);
+
+        advance(Duration.ofMinutes(59));
+        assertEquals(first, cache.getPresignedUrl("a.jpg", 120));
+
+        advance(Duration.ofMinutes(1));
+        String second = cache.getPresignedUrl("a.jpg", 120);
+        assertNotEquals(first, second);
+        assertEquals(2, signatures.get());
+    }
+
+    @Test
+    void keepsOneUrlPerExpirationWithTheirOwnWindows() {
+        String shortLived = cache.getPresignedUrl("a.jpg", 10);
+        String longLived = cache.getPresignedUrl("a.jpg", 120);
+
+        // A URL de 10 minutos é renovada sem descartar a de 120
+        advance(Duration.ofMinutes(6));
+        assertNotEquals(shortLived, cache.getPresignedUrl("a.jpg", 10));
+        assertEquals(longLived, cache.getPresignedUrl("a.jpg", 120));
+        assertEquals(3, signatures.get());
+    }
+
+    @Test
+    void invalidateRemovesEveryExpirationOfTheImageOnly() {
+        String short10 = cache.getPresignedUrl("a.jpg", 10);
+        String long120 = cache.getPresignedUrl("a.jpg", 120);
+        String other = cache.getPresignedUrl("b.jpg", 120);
+
+        cache.invalidate("a.jpg");
+
+        assertNotEquals(short10, cache.getPresignedUrl("a.jpg", 10));
+        assertNotEquals(long120, cache.getPresignedUrl("a.jpg", 120));
+        assertEquals(other, cache.getPresignedUrl("b.jpg", 120));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,180 @@
+package com.ftc.containerView.infra.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipArchiveLayoutTest {
+
+    private static final Instant MODIFIED = Instant.parse("2024-03-01T08:30:10Z");
+    private static final long GB = 1L << 30;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void assembledArchiveOpensWithZipFile() throws IOException {
+        List<byte[]> contents = List.of(random(1500, 1), new byte[0], random(70_000, 2));
+        List<String> names = List.of("MSCU1111111/FIADA/001.jpg", "MSCU1111111/FIADA/002.png", "sacaria/001 ação.jpg");
+        ZipArchiveLayout layout = layout(names, contents);
+
+        byte[] archive = assemble(layout, contents);
+        assertEquals(layout.length(), archive.length);
+
+        Path file = Files.write(directory.resolve("export.zip"), archive);
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            List<String> entryNames = Collections.list(zip.entries()).stream().map(ZipEntry::getName).toList();
+            assertEquals(names, entryNames);
+            for (int i = 0; i < names.size(); i++) {
+                ZipEntry entry = zip.getEntry(names.get(i));
+                assertEquals(ZipEntry.STORED, entry.getMethod());
+                assertEquals(contents.get(i).length, entry.getSize());
+                assertEquals(contents.get(i).length, entry.getCompressedSize());
+                assertEquals(crc(contents.get(i)), entry.getCrc());
+                try (InputStream input = zip.getInputStream(entry)) {
+                    assertArrayEquals(contents.get(i), input.readAllBytes());
+                }
+            }
+        }
+    }
+
+    @Test
+    void offsetsFollowEntriesInOrder() {
+        List<byte[]> contents = List.of(random(10, 3), random(20, 4));
+        ZipArchiveLayout layout = layout(List.of("a.jpg", "bb.jpg"), contents);
+
+        assertEquals(0, layout.headerOffset(0));
+        assertEquals(30 + 5, layout.dataOffset(0));
+        assertEquals(layout.dataOffset(0) + 10, layout.descriptorOffset(0));
+        assertEquals(layout.descriptorEnd(0), layout.headerOffset(1));
+        assertEquals(layout.descriptorEnd(1), layout.trailerOffset());
+        assertEquals(layout.trailerOffset() + 2 * 46 + 5 + 6 + 22, layout.length());
+    }
+
+    @Test
+    void emptyArchiveIsOnlyTheEndRecord() throws IOException {
+        ZipArchiveLayout layout = new ZipArchiveLayout(List.of(), ZoneOffset.UTC);
+
+        assertEquals(22, layout.length());
+        Path file = Files.write(directory.resolve("empty.zip"), layout.trailer(new long[0]));
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertEquals(0, zip.size());
+        }
+    }
+
+    @Test
+    void rejectsEntriesOf4GbOrMore() {
+        List<ZipArchiveLayout.Entry> entries = List.of(new ZipArchiveLayout.Entry("grande.jpg", 4 * GB, MODIFIED));
+
+        assertThrows(IllegalArgumentException.class, () -> new ZipArchiveLayout(entries, ZoneOffset.UTC));
+    }
+
+    /**
+     * Só a estrutura: três entradas de 2 GB colocam o cabeçalho da terceira e o diretório
+     * central depois de 4 GB, sem gerar o conteúdo.
+     */
+    @Test
+    void writesZip64RecordsForOffsetsBeyond4Gb() {
+        List<ZipArchiveLayout.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            entries.add(new ZipArchiveLayout.Entry("f" + i + ".jpg", 2 * GB, MODIFIED));
+        }
+        ZipArchiveLayout layout = new ZipArchiveLayout(entries, ZoneOffset.UTC);
+        long[] crcs = {11, 22, 33};
+        ByteBuffer trailer = ByteBuffer.wrap(layout.trailer(crcs)).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(layout.length() - layout.trailerOffset(), trailer.capacity());
+        long centralSize = 3 * (46 + 6) + 12;
+        assertEquals(layout.trailerOffset() + centralSize + 56 + 20 + 22, layout.length());
+
+        // Diretório central: só a terceira entrada tem offset acima de 4 GB (campo extra ZIP64)
+        int position = 0;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0x02014b50, trailer.getInt(position));
+            assertEquals((int) crcs[i], trailer.getInt(position + 16));
+            assertEquals((int) (2 * GB), trailer.getInt(position + 20));
+            int extraLength = trailer.getShort(position + 30);
+            long headerOffset = Integer.toUnsignedLong(trailer.getInt(position + 42));
+            if (i < 2) {
+                assertEquals(0, extraLength);
+                assertEquals(layout.headerOffset(i), headerOffset);
+            } else {
+                assertEquals(12, extraLength);
+                assertEquals(0xFFFFFFFFL, headerOffset);
+                assertEquals(0x0001, trailer.getShort(position + 46 + 6));
+                assertEquals(8, trailer.getShort(position + 46 + 6 + 2));
+                assertEquals(layout.headerOffset(i), trailer.getLong(position + 46 + 6 + 4));
+            }
+            position += 46 + 6 + extraLength;
+        }
+
+        // Registro de fim ZIP64, localizador e registro de fim com os campos saturados
+        assertEquals(0x06064b50, trailer.getInt(position));
+        assertEquals(3, trailer.getLong(position + 32));
+        assertEquals(centralSize, trailer.getLong(position + 40));
+        assertEquals(layout.trailerOffset(), trailer.getLong(position + 48));
+        assertEquals(0x07064b50, trailer.getInt(position + 56));
+        assertEquals(layout.trailerOffset() + centralSize, trailer.getLong(position + 64));
+        int end = position + 56 + 20;
+        assertEquals(0x06054b50, trailer.getInt(end));
+        assertEquals(3, trailer.getShort(end + 10));
+        assertEquals(centralSize, trailer.getInt(end + 12));
+        assertEquals(0xFFFFFFFF, trailer.getInt(end + 16));
+    }
+
+    /**
+     * Arquivo de referência montado parte a parte, na ordem do layout.
+     */
+    static byte[] assemble(ZipArchiveLayout layout, List<byte[]> contents) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long[] crcs = new long[layout.size()];
+        for (int i = 0; i < layout.size(); i++) {
+            crcs[i] = crc(contents.get(i));
+            output.writeBytes(layout.localHeader(i));
+            output.writeBytes(contents.get(i));
+            output.writeBytes(layout.dataDescriptor(i, crcs[i]));
+        }
+        output.writeBytes(layout.trailer(crcs));
+        return output.toByteArray();
+    }
+
+    static ZipArchiveLayout layout(List<String> names, List<byte[]> contents) {
+        List<ZipArchiveLayout.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            entries.add(new ZipArchiveLayout.Entry(names.get(i), contents.get(i).length, MODIFIED));
+        }
+        return new ZipArchiveLayout(entries, ZoneOffset.UTC);
+    }
+
+    static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+}
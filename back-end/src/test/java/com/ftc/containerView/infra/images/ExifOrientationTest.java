@@ -0,0 +1,56 @@
+package com.ftc.containerView.infra.images;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExifOrientationTest {
+
+    private final byte[] jpeg = TestImages.jpeg(TestImages.marked(16, 16, 4), 0.9f);
+
+    @Test
+    void readsBigAndLittleEndianTiff() {
+        assertEquals(6, ExifOrientation.read(TestImages.withSegments(jpeg, TestImages.exifOrientation(6, false))));
+        assertEquals(8, ExifOrientation.read(TestImages.withSegments(jpeg, TestImages.exifOrientation(8, true))));
+    }
+
+    @Test
+    void findsExifAfterOtherAppSegments() {
+        byte[] data = TestImages.withSegments(jpeg,
+                TestImages.textSegment(TestImages.APP1, "http://ns.adobe.com/xap/1.0/\0", 200),
+                TestImages.textSegment(TestImages.COM, "comentário", 50),
+                TestImages.exifOrientation(3, false));
+
+        assertEquals(3, ExifOrientation.read(data));
+    }
+
+    @Test
+    void defaultsToNormal() {
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(jpeg));
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(TestImages.withSegments(jpeg, TestImages.exifOrientation(9, false))));
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(TestImages.png(TestImages.marked(16, 16, 4))));
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(new byte[0]));
+    }
+
+    @Test
+    void truncatedExifDefaultsToNormal() {
+        byte[] exif = TestImages.exifOrientation(6, false);
+        byte[] data = TestImages.withSegments(jpeg, exif);
+        // Os 4 bytes finais (offset da próxima IFD) não são necessários para ler a tag
+        int entryEnd = indexOf(data, exif) + exif.length - 4;
+        for (int length = 4; length < entryEnd; length++) {
+            assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(Arrays.copyOf(data, length)), "truncado em " + length);
+        }
+    }
+
+    private static int indexOf(byte[] data, byte[] part) {
+        for (int i = 0; i + part.length <= data.length; i++) {
+            if (Arrays.equals(data, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("segmento não encontrado");
+    }
+}
@@ -0,0 +1,165 @@
+package com.ftc.containerView.infra.images;
+
+import com.ftc.containerView.infra.images.ImageHeaderReader.ImageHeader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageHeaderReaderTest {
+
+    private final byte[] jpeg = TestImages.jpeg(TestImages.marked(64, 48, 8), 0.9f);
+
+    @Test
+    void readsPng() throws IOException {
+        ImageHeader header = read(TestImages.png(TestImages.marked(40, 30, 4)));
+
+        assertEquals(new ImageHeader("image/png", 40, 30), header);
+        assertEquals(1200, header.pixels());
+    }
+
+    @Test
+    void readsJpeg() throws IOException {
+        assertEquals(new ImageHeader("image/jpeg", 64, 48), read(jpeg));
+    }
+
+    @Test
+    void skipsExifAndIccBeforeSofWithoutReadingThem() throws IOException {
+        byte[] data = TestImages.withSegments(jpeg,
+                TestImages.exifOrientation(6, false),
+                TestImages.textSegment(TestImages.APP2, "ICC_PROFILE\0", 60_000),
+                TestImages.textSegment(TestImages.COM, "comentário", 200));
+        CountingInputStream input = new CountingInputStream(data);
+
+        assertEquals(new ImageHeader("image/jpeg", 64, 48), ImageHeaderReader.read(input));
+        // Os segmentos são pulados pelo comprimento: só o buffer em volta de cada marcador é lido
+        assertTrue(input.read < 4096, "lidos " + input.read + " de " + data.length + " bytes");
+    }
+
+    @Test
+    void rejectsTruncatedHeaders() {
+        byte[] data = TestImages.withSegments(jpeg, TestImages.exifOrientation(6, false));
+        int sofEnd = TestImages.segmentOffset(data, TestImages.SOF0) + 9;
+        for (int length = 0; length < sofEnd; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IOException.class, () -> read(truncated), "truncado em " + length);
+        }
+
+        byte[] png = TestImages.png(TestImages.marked(40, 30, 4));
+        for (int length = 0; length < 24; length++) {
+            byte[] truncated = Arrays.copyOf(png, length);
+            assertThrows(IOException.class, () -> read(truncated), "PNG truncado em " + length);
+        }
+    }
+
+    @Test
+    void rejectsUnknownSignatures() {
+        assertThrows(IOException.class, () -> read("GIF89a\u0001\0\u0001\0".getBytes()));
+        assertThrows(IOException.class, () -> read("<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes()));
+        // 0x89 'P' sem o restante da assinatura PNG
+        assertThrows(IOException.class, () -> read(new byte[]{(byte) 0x89, 'P', 'X', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13}));
+    }
+
+    @Test
+    void rejectsZeroDimensions() {
+        assertThrows(IOException.class, () -> read(pngHeader(0, 30)));
+        assertThrows(IOException.class, () -> read(pngHeader(40, 0)));
+
+        byte[] zeroHeight = jpeg.clone();
+        int sof = TestImages.segmentOffset(zeroHeight, TestImages.SOF0);
+        zeroHeight[sof + 5] = 0;
+        zeroHeight[sof + 6] = 0;
+        assertThrows(IOException.class, () -> read(zeroHeight));
+    }
+
+    @Test
+    void readsDeclaredDimensionsWithoutDecoding() throws IOException {
+        // Bomba de descompressão: só o IHDR, declarando 2,5 bilhões de pixels
+        ImageHeader header = read(pngHeader(50_000, 50_000));
+
+        assertEquals(2_500_000_000L, header.pixels());
+    }
+
+    @Test
+    void rejectsMetadataAboveLimitBeforeSof() {
+        // 17 segmentos de 64 KB passam de 1 MB antes do SOF
+        byte[][] segments = new byte[17][];
+        Arrays.fill(segments, TestImages.textSegment(TestImages.APP2, "ICC_PROFILE\0", 65_533));
+        byte[] data = TestImages.withSegments(jpeg, segments);
+
+        assertThrows(IOException.class, () -> read(data));
+    }
+
+    @Test
+    void acceptsMetadataBelowLimitWithinMaxHeaderBytes() throws IOException {
+        byte[][] segments = new byte[15][];
+        Arrays.fill(segments, TestImages.textSegment(TestImages.APP2, "ICC_PROFILE\0", 65_533));
+        byte[] data = TestImages.withSegments(jpeg, segments);
+        int sofEnd = TestImages.segmentOffset(data, TestImages.SOF0) + 9;
+
+        // Quem lê o arquivo aos pedaços pode parar em MAX_HEADER_BYTES
+        assertTrue(sofEnd <= ImageHeaderReader.MAX_HEADER_BYTES);
+        assertEquals(new ImageHeader("image/jpeg", 64, 48), read(Arrays.copyOf(data, sofEnd)));
+    }
+
+    @Test
+    void rejectsScanBeforeSof() {
+        byte[] data = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDA, 0, 2};
+
+        assertThrows(IOException.class, () -> read(data));
+    }
+
+    private static ImageHeader read(byte[] data) throws IOException {
+        return ImageHeaderReader.read(new ByteArrayInputStream(data));
+    }
+
+    private static byte[] pngHeader(int width, int height) {
+        return ByteBuffer.allocate(33)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})
+                .putInt(13).put("IHDR".getBytes())
+                .putInt(width).putInt(height)
+                .put(new byte[]{8, 2, 0, 0, 0})
+                .putInt(0)
+                .array();
+    }
+
+    private static final class CountingInputStream extends InputStream {
+
+        private final InputStream input;
+        private long read;
+
+        CountingInputStream(byte[] data) {
+            this.input = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = input.read();
+            if (value != -1) {
+                read++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = input.read(buffer, offset, length);
+            if (count > 0) {
+                read += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            return input.skip(count);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ftc.containerView.infra.images;
+
+import com.ftc.containerView.infra.images.ImageNormalizer.Format;
+import com.ftc.containerView.infra.images.ImageNormalizer.NormalizedImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageNormalizerTest {
+
+    private static final int MAX_DIMENSION = 320;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ImageNormalizer normalizer = new ImageNormalizer(meterRegistry, true, MAX_DIMENSION, 0.85f, Format.JPEG, 2);
+
+    @Test
+    void pngScreenshotIsKeptAsPng() {
+        byte[] png = TestImages.png(TestImages.screenshot(300, 200));
+
+        NormalizedImage result = normalize("tela.png", "image/png", png);
+
+        assertEquals("image/png", result.contentType());
+        assertEquals("png", result.extension());
+        assertArrayEquals(png, content(result));
+        assertEquals(1.0, count("kept"));
+    }
+
+    @Test
+    void largeImageIsResizedAndReencoded() {
+        byte[] png = TestImages.png(TestImages.noise(800, 400, 1));
+
+        NormalizedImage result = normalize("foto.png", "image/png", png);
+
+        assertEquals("image/jpeg", result.contentType());
+        assertEquals("jpg", result.extension());
+        BufferedImage image = TestImages.read(content(result));
+        assertEquals(MAX_DIMENSION, image.getWidth());
+        assertEquals(MAX_DIMENSION / 2, image.getHeight());
+        assertEquals(1.0, count("normalized"));
+    }
+
+    @Test
+    void rotatedJpegIsReencodedUprightWithoutExif() {
+        // Já comprimido: sem a rotação, recodificar não compensaria
+        byte[] jpeg = TestImages.withSegments(TestImages.jpeg(TestImages.marked(60, 30, 10), 0.3f),
+                TestImages.exifOrientation(6, false));
+
+        NormalizedImage result = normalize("foto.jpg", "image/jpeg", jpeg);
+
+        BufferedImage image = TestImages.read(content(result));
+        assertEquals(30, image.getWidth());
+        assertEquals(60, image.getHeight());
+        assertFalse(TestImages.markers(content(result)).contains(TestImages.APP1));
+        assertEquals(1.0, count("normalized"));
+    }
+
+    @Test
+    void compactJpegIsKeptWithMetadataStripped() {
+        byte[] original = TestImages.jpeg(TestImages.noise(120, 80, 3), 0.3f);
+        byte[] jpeg = TestImages.withSegments(original, TestImages.exifOrientation(1, false),
+                TestImages.textSegment(TestImages.COM, "gps e câmera", 30));
+
+        NormalizedImage result = normalize("foto.jpg", "image/jpeg", jpeg);
+
+        assertEquals("image/jpeg", result.contentType());
+        assertArrayEquals(original, content(result));
+        assertEquals(1.0, count("kept"));
+    }
+
+    @Test
+    void undecodableImageIsSentUnchanged() {
+        Optional<NormalizedImage> result = normalizer.normalize(
+                multipart("x.jpg", "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, 1, 2, 3}));
+
+        assertTrue(result.isEmpty());
+        assertEquals(1.0, count("failed"));
+    }
+
+    @Test
+    void disabledNormalizerSendsEverythingUnchanged() {
+        ImageNormalizer disabled = new ImageNormalizer(new SimpleMeterRegistry(), false, MAX_DIMENSION, 0.85f, Format.JPEG, 2);
+        byte[] png = TestImages.png(TestImages.noise(800, 400, 1));
+
+        assertTrue(disabled.normalize(new MockMultipartFile("file", "foto.png", "image/png", png)).isEmpty());
+    }
+
+    private NormalizedImage normalize(String name, String contentType, byte[] content) {
+        return normalizer.normalize(multipart(name, contentType, content)).orElseThrow();
+    }
+
+    /**
+     * Multipart que só pode ser lido em stream: a normalização não copia o original para o heap.
+     */
+    private static MockMultipartFile multipart(String name, String contentType, byte[] content) {
+        return new MockMultipartFile("file", name, contentType, content) {
+            @Override
+            public byte[] getBytes() {
+                throw new AssertionError("original copiado para o heap");
+            }
+        };
+    }
+
+    private static byte[] content(NormalizedImage result) {
+        try (InputStream input = result.content().open()) {
+            byte[] content = input.readAllBytes();
+            assertEquals(result.contentLength(), content.length);
+            return content;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("image_normalization_total", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ftc.containerView.infra.images;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageResizerTest {
+
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 20;
+
+    /**
+     * O bloco vermelho gravado no canto superior esquerdo deve aparecer, depois de aplicada
+     * a orientação, no canto em que a especificação EXIF o exibe.
+     */
+    @ParameterizedTest(name = "orientação {0}")
+    @CsvSource({
+            "1, TOP_LEFT",
+            "2, TOP_RIGHT",
+            "3, BOTTOM_RIGHT",
+            "4, BOTTOM_LEFT",
+            "5, TOP_LEFT",
+            "6, TOP_RIGHT",
+            "7, BOTTOM_RIGHT",
+            "8, BOTTOM_LEFT"
+    })
+    void decodeAppliesExifOrientation(int orientation, Corner marked) throws IOException {
+        byte[] jpeg = TestImages.withSegments(TestImages.jpeg(TestImages.marked(WIDTH, HEIGHT, 8), 1.0f),
+                TestImages.exifOrientation(orientation, false));
+
+        BufferedImage image = ImageResizer.decode(jpeg, 1000);
+
+        boolean swapped = orientation >= 5;
+        assertEquals(swapped ? HEIGHT : WIDTH, image.getWidth());
+        assertEquals(swapped ? WIDTH : HEIGHT, image.getHeight());
+        for (Corner corner : Corner.values()) {
+            assertEquals(corner == marked, isRed(corner.pixel(image)), "canto " + corner);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}x{1} em {2}")
+    @CsvSource({
+            "4000, 3000, 1280, 1280, 960",
+            "3000, 4000, 1280, 960, 1280",
+            "800, 600, 1280, 800, 600"
+    })
+    void scaleToFitLimitsLongestSide(int width, int height, int maxDimension, int expectedWidth, int expectedHeight) {
+        BufferedImage image = ImageResizer.scaleToFit(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), maxDimension);
+
+        assertEquals(expectedWidth, image.getWidth());
+        assertEquals(expectedHeight, image.getHeight());
+        assertEquals(BufferedImage.TYPE_INT_RGB, image.getType());
+    }
+
+    private static boolean isRed(int rgb) {
+        int red = (rgb >> 16) & 0xFF;
+        int blue = rgb & 0xFF;
+        assertTrue(red > 180 || blue > 180, "cor inesperada " + Integer.toHexString(rgb));
+        return red > blue;
+    }
+
+    enum Corner {
+        TOP_LEFT, TOP_RIGHT, BOTTOM_LEFT, BOTTOM_RIGHT;
+
+        int pixel(BufferedImage image) {
+            int x = this == TOP_LEFT || this == BOTTOM_LEFT ? 2 : image.getWidth() - 3;
+            int y = this == TOP_LEFT || this == TOP_RIGHT ? 2 : image.getHeight() - 3;
+            return image.getRGB(x, y);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ftc.containerView.infra.images;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JpegMetadataStripperTest {
+
+    private final byte[] jpeg = TestImages.jpeg(TestImages.noise(64, 48, 7), 0.9f);
+
+    @Test
+    void removesExifXmpAndCommentsKeepingIccAndAdobe() {
+        byte[] exif = TestImages.exifOrientation(6, false);
+        byte[] xmp = TestImages.textSegment(TestImages.APP1, "http://ns.adobe.com/xap/1.0/\0", 300);
+        byte[] comment = TestImages.textSegment(TestImages.COM, "câmera do terminal", 40);
+        byte[] icc = TestImages.textSegment(TestImages.APP2, "ICC_PROFILE\0", 120);
+        byte[] adobe = TestImages.textSegment(TestImages.APP14, "Adobe", 12);
+        byte[] data = TestImages.withSegments(jpeg, exif, icc, xmp, comment, adobe);
+
+        byte[] stripped = JpegMetadataStripper.strip(data);
+
+        List<Integer> markers = TestImages.markers(stripped);
+        assertFalse(markers.contains(TestImages.APP1), "APP1 mantido: " + markers);
+        assertFalse(markers.contains(TestImages.COM), "COM mantido: " + markers);
+        assertTrue(markers.contains(TestImages.APP2), "ICC removido: " + markers);
+        assertTrue(markers.contains(TestImages.APP14), "Adobe removido: " + markers);
+        assertEquals(data.length - exif.length - xmp.length - comment.length, stripped.length);
+    }
+
+    @Test
+    void keepsCompressedDataUntouched() {
+        byte[] data = TestImages.withSegments(jpeg, TestImages.exifOrientation(1, true),
+                TestImages.textSegment(TestImages.COM, "comentário", 20));
+
+        byte[] stripped = JpegMetadataStripper.strip(data);
+
+        // Sem os segmentos removidos o resultado é exatamente o JPEG original, e continua decodificável
+        assertArrayEquals(jpeg, stripped);
+        assertEquals(64, TestImages.read(stripped).getWidth());
+    }
+
+    @Test
+    void otherAppSegmentsAreRemovedToo() {
+        byte[] data = TestImages.withSegments(jpeg,
+                TestImages.textSegment(0xED, "Photoshop 3.0\0", 60),
+                TestImages.textSegment(TestImages.APP2, "MPF\0", 30));
+
+        assertArrayEquals(jpeg, JpegMetadataStripper.strip(data));
+    }
+
+    @Test
+    void streamsWithoutMetadataReadingOnlyTheHeader() throws IOException {
+        byte[] exif = TestImages.exifOrientation(6, false);
+        byte[] data = TestImages.withSegments(jpeg, exif, TestImages.textSegment(TestImages.COM, "comentário", 20));
+
+        CountingInputStream header = new CountingInputStream(data);
+        List<JpegMetadataStripper.Segment> metadata = JpegMetadataStripper.metadataSegments(header);
+
+        assertEquals(2, metadata.size());
+        assertTrue(header.read < data.length / 2, "cabeçalho lido: " + header.read + " de " + data.length);
+        try (InputStream stripped = JpegMetadataStripper.without(new ByteArrayInputStream(data), metadata)) {
+            assertArrayEquals(jpeg, stripped.readAllBytes());
+        }
+    }
+
+    @Test
+    void returnsInputWhenStructureIsNotRecognized() {
+        byte[] png = TestImages.png(TestImages.marked(8, 8, 2));
+        assertSame(png, JpegMetadataStripper.strip(png));
+
+        byte[] withExif = TestImages.withSegments(jpeg, TestImages.exifOrientation(6, false));
+        byte[] truncated = Arrays.copyOf(withExif, 30);
+        assertSame(truncated, JpegMetadataStripper.strip(truncated));
+    }
+
+    private static final class CountingInputStream extends ByteArrayInputStream {
+
+        private int read;
+
+        CountingInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) {
+            int n = super.read(buffer, offset, length);
+            read += Math.max(n, 0);
+            return n;
+        }
+
+        @Override
+        public synchronized int read() {
+            int b = super.read();
+            read += b < 0 ? 0 : 1;
+            return b;
+        }
+    }
+}
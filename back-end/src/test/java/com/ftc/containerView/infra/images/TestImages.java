@@ -0,0 +1,193 @@
+package com.ftc.containerView.infra.images;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Imagens e segmentos JPEG gerados para os testes, sem arquivos de fixture.
+ */
+final class TestImages {
+
+    static final int SOI = 0xD8;
+    static final int APP0 = 0xE0;
+    static final int APP1 = 0xE1;
+    static final int APP2 = 0xE2;
+    static final int APP14 = 0xEE;
+    static final int COM = 0xFE;
+    static final int SOF0 = 0xC0;
+    static final int SOS = 0xDA;
+
+    private TestImages() {
+    }
+
+    /**
+     * Fundo azul com um bloco vermelho no canto superior esquerdo, para conferir rotações.
+     */
+    static BufferedImage marked(int width, int height, int block) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, block, block);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Ruído: recodificar não reduz muito, mas também não infla como uma captura de tela.
+     */
+    static BufferedImage noise(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Cores chapadas, como uma captura de tela: PNG muito menor que o JPEG equivalente.
+     */
+    static BufferedImage screenshot(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.DARK_GRAY);
+        for (int y = 10; y < height; y += 14) {
+            graphics.fillRect(10, y, width / 2 + (y % 5) * 10, 2);
+        }
+        graphics.setColor(new Color(30, 120, 200));
+        graphics.fillRect(width - 80, 10, 70, 30);
+        graphics.dispose();
+        return image;
+    }
+
+    static byte[] png(BufferedImage image) {
+        return write(image, "png");
+    }
+
+    static byte[] jpeg(BufferedImage image, float quality) {
+        try {
+            return ImageResizer.encodeJpeg(image, quality);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static BufferedImage read(byte[] data) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Segmento JPEG completo: marcador, tamanho e payload.
+     */
+    static byte[] segment(int marker, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + payload.length);
+        buffer.put((byte) 0xFF).put((byte) marker).putShort((short) (payload.length + 2)).put(payload);
+        return buffer.array();
+    }
+
+    /**
+     * APP1 "Exif" com a IFD0 contendo apenas a tag Orientation.
+     */
+    static byte[] exifOrientation(int orientation, boolean littleEndian) {
+        ByteBuffer tiff = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4)
+                .order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        tiff.put("Exif".getBytes(StandardCharsets.US_ASCII)).put((byte) 0).put((byte) 0);
+        tiff.put(littleEndian ? (byte) 'I' : (byte) 'M').put(littleEndian ? (byte) 'I' : (byte) 'M');
+        tiff.putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        return segment(APP1, tiff.array());
+    }
+
+    static byte[] textSegment(int marker, String prefix, int size) {
+        byte[] payload = new byte[Math.max(size, prefix.length())];
+        byte[] text = prefix.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(text, 0, payload, 0, text.length);
+        return segment(marker, payload);
+    }
+
+    /**
+     * Insere os segmentos logo após o SOI e o APP0 (JFIF), onde câmeras gravam o EXIF.
+     */
+    static byte[] withSegments(byte[] jpeg, byte[]... segments) {
+        int offset = 2;
+        if ((jpeg[3] & 0xFF) == APP0) {
+            offset += 2 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(jpeg, 0, offset);
+        for (byte[] segment : segments) {
+            output.writeBytes(segment);
+        }
+        output.write(jpeg, offset, jpeg.length - offset);
+        return output.toByteArray();
+    }
+
+    /**
+     * Marcadores dos segmentos antes do SOS, na ordem do arquivo.
+     */
+    static List<Integer> markers(byte[] jpeg) {
+        List<Integer> markers = new ArrayList<>();
+        int offset = 2;
+        while (offset + 4 <= jpeg.length) {
+            int marker = jpeg[offset + 1] & 0xFF;
+            markers.add(marker);
+            if (marker == SOS) {
+                break;
+            }
+            offset += 2 + (((jpeg[offset + 2] & 0xFF) << 8) | (jpeg[offset + 3] & 0xFF));
+        }
+        return markers;
+    }
+
+    /**
+     * Posição do primeiro segmento com o marcador, ou -1 se não houver antes do SOS.
+     */
+    static int segmentOffset(byte[] jpeg, int marker) {
+        int offset = 2;
+        while (offset + 4 <= jpeg.length) {
+            int current = jpeg[offset + 1] & 0xFF;
+            if (current == marker) {
+                return offset;
+            }
+            if (current == SOS) {
+                break;
+            }
+            offset += 2 + (((jpeg[offset + 2] & 0xFF) << 8) | (jpeg[offset + 3] & 0xFF));
+        }
+        return -1;
+    }
+
+    private static byte[] write(BufferedImage image, String format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ftc.containerView.infra.pagination;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.InvalidPageRequestException;
+import com.ftc.containerView.model.container.ContainerSortField;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripPreservesAllFields() {
+        KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.DESC, 42L, "2024-05-01T10:15:30");
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void roundTripKeepsValueContainingSeparator() {
+        KeysetCursor cursor = new KeysetCursor("containerId", Sort.Direction.ASC, 7L, "MSCU|123|x");
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals("MSCU|123|x", decoded.value());
+        assertEquals(7L, decoded.id());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor("containerId", Sort.Direction.ASC, 1L, "??>>~~ção").encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @Test
+    void nullValueIsDecodedAsEmpty() {
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor("id", Sort.Direction.ASC, 3L, null).encode());
+
+        assertEquals("", decoded.value());
+        assertEquals(3L, decoded.id());
+    }
+
+    @Test
+    void rejectsTamperedOrInvalidCursors() {
+        assertInvalid("não é base64!");
+        assertInvalid(raw("v1|id|ASC|3"));
+        assertInvalid(raw("v2|id|ASC|3|"));
+        assertInvalid(raw("v1|id|SIDEWAYS|3|"));
+        assertInvalid(raw("v1|id|ASC|três|"));
+        assertInvalid("");
+    }
+
+    @Test
+    void afterRejectsValueThatDoesNotParseForTheSortField() {
+        KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.ASC, 3L, "ontem");
+        KeysetQuery query = new KeysetQuery("select c from Container c", "c");
+
+        assertThrows(InvalidPageRequestException.class,
+                () -> query.after(ContainerSortField.CREATED_AT, Sort.Direction.ASC, cursor));
+    }
+
+    @Test
+    void afterAcceptsFormattedSortValue() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("createdAt", Sort.Direction.ASC, 3L,
+                ContainerSortField.CREATED_AT.format(createdAt)).encode());
+
+        assertEquals(createdAt, ContainerSortField.CREATED_AT.parse(cursor.value()));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThrows(InvalidPageRequestException.class, () -> KeysetCursor.decode(cursor));
+    }
+}
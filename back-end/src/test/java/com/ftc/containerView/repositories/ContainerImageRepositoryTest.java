@@ -0,0 +1,172 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.audit.JpaAuditingConfig;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.images.ContainerImage;
+import com.ftc.containerView.model.images.ContainerImageCategory;
+import com.ftc.containerView.model.images.ContainerImageSummaryDTO;
+import com.ftc.containerView.model.images.ImageExportItemDTO;
+import com.ftc.containerView.model.images.RenditionStatus;
+import com.ftc.containerView.model.images.SackImage;
+import com.ftc.containerView.model.images.SackImageExportItemDTO;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.user.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.ftc.containerView.model.images.ContainerImageCategory.CHEIO_ABERTO;
+import static com.ftc.containerView.model.images.ContainerImageCategory.FIADA;
+import static com.ftc.containerView.repositories.RepositoryFixtures.persistContainer;
+import static com.ftc.containerView.repositories.RepositoryFixtures.persistOperation;
+import static com.ftc.containerView.repositories.RepositoryFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consultas usadas pela listagem e pela exportação de imagens, contra o H2.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaAuditingConfig.class)
+@ActiveProfiles("test")
+class ContainerImageRepositoryTest {
+
+    @Autowired
+    private ContainerRepository containerRepository;
+
+    @Autowired
+    private ContainerImageRepository containerImageRepository;
+
+    @Autowired
+    private SackImageRepository sackImageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Operation operation;
+    private Container first;
+    private Container second;
+
+    @BeforeEach
+    void setUp() {
+        User user = persistUser(entityManager);
+        operation = persistOperation(entityManager, user);
+        Operation otherOperation = persistOperation(entityManager, user);
+
+        // Inseridos fora da ordem de containerId para conferir a ordenação da exportação
+        second = persistContainer(entityManager, "MSCU2222222", user, operation);
+        first = persistContainer(entityManager, "MSCU1111111", user, operation);
+        Container other = persistContainer(entityManager, "MSCU9999999", user, otherOperation);
+
+        persistImage(first, FIADA, "fiada-1.jpg");
+        persistImage(first, CHEIO_ABERTO, "cheio-1.jpg");
+        persistImage(first, FIADA, "fiada-2.png");
+        persistImage(second, FIADA, "segundo-fiada.jpg");
+        persistImage(other, FIADA, "outro-fiada.jpg");
+        persistSackImage(operation, "sacaria-1.jpg");
+        persistSackImage(otherOperation, "outra-sacaria.jpg");
+        persistSackImage(operation, "sacaria-2.jpg");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findsIdByContainerId() {
+        assertEquals(Optional.of(first.getId()), containerRepository.findIdByContainerId("MSCU1111111"));
+        assertEquals(Optional.of(second.getId()), containerRepository.findIdByContainerId("MSCU2222222"));
+        assertTrue(containerRepository.findIdByContainerId("INEXISTENTE").isEmpty());
+    }
+
+    @Test
+    void findsImagesOfOneContainerAndCategoryOrderedById() {
+        List<ContainerImageSummaryDTO> images = containerImageRepository.findByContainerIdAndCategoryOrderById(first.getId(), FIADA);
+
+        assertEquals(List.of("fiada-1.jpg", "fiada-2.png"), images.stream().map(ContainerImageSummaryDTO::imageKey).toList());
+        assertTrue(images.get(0).id() < images.get(1).id());
+        assertTrue(images.stream().allMatch(image -> image.category() == FIADA
+                && image.renditionStatus() == RenditionStatus.PENDING));
+        assertTrue(containerImageRepository.findByContainerIdAndCategoryOrderById(second.getId(), CHEIO_ABERTO).isEmpty());
+    }
+
+    @Test
+    void exportItemsOfContainerAreGroupedByCategory() {
+        assertEquals(List.of(
+                        new ImageExportItemDTO("MSCU1111111", CHEIO_ABERTO, "cheio-1.jpg", null),
+                        new ImageExportItemDTO("MSCU1111111", FIADA, "fiada-1.jpg", null),
+                        new ImageExportItemDTO("MSCU1111111", FIADA, "fiada-2.png", null)),
+                containerImageRepository.findExportItemsByContainerId(first.getId()));
+    }
+
+    @Test
+    void exportItemsOfOperationAreGroupedByContainerAndCategory() {
+        assertEquals(List.of(
+                        new ImageExportItemDTO("MSCU1111111", CHEIO_ABERTO, "cheio-1.jpg", null),
+                        new ImageExportItemDTO("MSCU1111111", FIADA, "fiada-1.jpg", null),
+                        new ImageExportItemDTO("MSCU1111111", FIADA, "fiada-2.png", null),
+                        new ImageExportItemDTO("MSCU2222222", FIADA, "segundo-fiada.jpg", null)),
+                containerImageRepository.findExportItemsByOperationId(operation.getId()));
+        assertEquals(List.of(new SackImageExportItemDTO("sacaria-1.jpg", null), new SackImageExportItemDTO("sacaria-2.jpg", null)),
+                sackImageRepository.findExportItemsByOperationId(operation.getId()));
+    }
+
+    @Test
+    void crc32IsSavedOnlyOnce() {
+        assertEquals(1, containerImageRepository.updateCrc32("fiada-1.jpg", 123L));
+        assertEquals(0, containerImageRepository.updateCrc32("fiada-1.jpg", 456L));
+        assertEquals(0, containerImageRepository.updateCrc32("sacaria-1.jpg", 789L));
+        assertEquals(1, sackImageRepository.updateCrc32("sacaria-1.jpg", 789L));
+        entityManager.clear();
+
+        assertEquals(new ImageExportItemDTO("MSCU1111111", FIADA, "fiada-1.jpg", 123L),
+                containerImageRepository.findExportItemsByContainerId(first.getId()).get(1));
+        assertEquals(new SackImageExportItemDTO("sacaria-1.jpg", 789L),
+                sackImageRepository.findExportItemsByOperationId(operation.getId()).get(0));
+    }
+
+    @Test
+    void contentHashIsUniquePerContainerAndCategory() {
+        Container container = containerRepository.getReferenceById(first.getId());
+        persistImage(container, FIADA, "fiada-3.jpg", "hash-1");
+        // Mesmo conteúdo em outra categoria ou outro container não é duplicata
+        persistImage(container, CHEIO_ABERTO, "cheio-2.jpg", "hash-1");
+        persistImage(containerRepository.getReferenceById(second.getId()), FIADA, "segundo-fiada-2.jpg", "hash-1");
+        entityManager.flush();
+
+        assertEquals(List.of("hash-1"), containerImageRepository.findExistingContentHashes(first.getId(), FIADA, List.of("hash-1", "hash-2")));
+
+        persistImage(container, FIADA, "fiada-4.jpg", "hash-1");
+        assertThrows(ConstraintViolationException.class, () -> entityManager.flush());
+    }
+
+    private void persistImage(Container container, ContainerImageCategory category, String imageKey) {
+        // Imagens sem hash (antigas) não participam do índice único
+        persistImage(container, category, imageKey, null);
+    }
+
+    private void persistImage(Container container, ContainerImageCategory category, String imageKey, String contentHash) {
+        ContainerImage image = new ContainerImage();
+        image.setContainer(container);
+        image.setCategory(category);
+        image.setImageKey(imageKey);
+        image.setContentHash(contentHash);
+        entityManager.persist(image);
+    }
+
+    private void persistSackImage(Operation op, String imageKey) {
+        SackImage image = new SackImage();
+        image.setOperation(op);
+        image.setImageKey(imageKey);
+        entityManager.persist(image);
+    }
+}
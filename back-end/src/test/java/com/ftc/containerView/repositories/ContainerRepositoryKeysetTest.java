@@ -0,0 +1,152 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.infra.audit.JpaAuditingConfig;
+import com.ftc.containerView.infra.pagination.KeysetCursor;
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerSortField;
+import com.ftc.containerView.model.container.ContainerSummaryDTO;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.ftc.containerView.repositories.RepositoryFixtures.persistOperation;
+import static com.ftc.containerView.repositories.RepositoryFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paginação por cursor (createdAt, id) contra o H2: fatias consecutivas devem cobrir
+ * todos os containers uma única vez, com empates em createdAt desempatados pelo id.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaAuditingConfig.class)
+@ActiveProfiles("test")
+class ContainerRepositoryKeysetTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 3, 1, 8, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private ContainerRepository containerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Operation operation;
+
+    @BeforeEach
+    void setUp() {
+        User user = persistUser(entityManager);
+        operation = persistOperation(entityManager, user);
+        Operation otherOperation = persistOperation(entityManager, user);
+
+        // Três containers empatados em T1, dois em T2, inseridos fora de ordem
+        persistContainer("C-T2-A", user, operation, T2);
+        persistContainer("C-T1-A", user, operation, T1);
+        persistContainer("C-T1-B", user, operation, T1);
+        persistContainer("C-OTHER", user, otherOperation, T1);
+        persistContainer("C-T2-B", user, operation, T2);
+        persistContainer("C-T1-C", user, operation, T1);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void slicesByCreatedAtAscendingCoverEveryRowOnceWithTiesById() {
+        List<Long> expected = containerRepository.findAll().stream()
+                .filter(c -> c.getOperation().getId().equals(operation.getId()))
+                .sorted(Comparator.comparing(Container::getCreatedAt).thenComparing(Container::getId))
+                .map(Container::getId)
+                .toList();
+
+        List<ContainerSummaryDTO> seen = readAllSlices(ContainerSortField.CREATED_AT, Sort.Direction.ASC, 2);
+
+        assertEquals(expected, ids(seen));
+        assertEquals(T1, seen.get(0).createdAt());
+        assertEquals(T2, seen.get(seen.size() - 1).createdAt());
+    }
+
+    @Test
+    void slicesByCreatedAtDescendingAreTheReverseOrder() {
+        List<Long> ascending = ids(readAllSlices(ContainerSortField.CREATED_AT, Sort.Direction.ASC, 2));
+        List<Long> descending = ids(readAllSlices(ContainerSortField.CREATED_AT, Sort.Direction.DESC, 2));
+
+        List<Long> reversed = new ArrayList<>(ascending);
+        Collections.reverse(reversed);
+        assertEquals(reversed, descending);
+    }
+
+    @Test
+    void sliceBoundaryInsideATieDoesNotSkipOrRepeatRows() {
+        // Tamanho 1: cada fronteira cai dentro de um grupo de createdAt iguais
+        List<Long> bySingleRows = ids(readAllSlices(ContainerSortField.CREATED_AT, Sort.Direction.ASC, 1));
+        List<Long> byLargeSlice = ids(readAllSlices(ContainerSortField.CREATED_AT, Sort.Direction.ASC, 100));
+
+        assertEquals(5, bySingleRows.size());
+        assertEquals(byLargeSlice, bySingleRows);
+    }
+
+    @Test
+    void lastSliceHasNoExtraRow() {
+        List<ContainerSummaryDTO> first = containerRepository.findSummariesAfter(operation.getId(), null,
+                ContainerSortField.ID, Sort.Direction.ASC, null, 6);
+
+        assertEquals(5, first.size());
+        assertTrue(containerRepository.findSummariesAfter(operation.getId(), null, ContainerSortField.ID,
+                Sort.Direction.ASC, cursorAfter(ContainerSortField.ID, Sort.Direction.ASC, first.get(4)), 6).isEmpty());
+    }
+
+    /**
+     * Percorre as fatias como ContainerService.getContainersSlice: pede size + 1 linhas e
+     * gera o cursor a partir da última linha entregue.
+     */
+    private List<ContainerSummaryDTO> readAllSlices(ContainerSortField sortField, Sort.Direction direction, int size) {
+        List<ContainerSummaryDTO> seen = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            List<ContainerSummaryDTO> rows = containerRepository.findSummariesAfter(operation.getId(), null,
+                    sortField, direction, after, size + 1);
+            boolean hasNext = rows.size() > size;
+            List<ContainerSummaryDTO> content = hasNext ? rows.subList(0, size) : rows;
+            seen.addAll(content);
+            if (!hasNext) {
+                return seen;
+            }
+            // Passa pelo texto codificado, como o cliente faria
+            after = KeysetCursor.decode(cursorAfter(sortField, direction, content.get(content.size() - 1)).encode());
+        }
+    }
+
+    private static KeysetCursor cursorAfter(ContainerSortField sortField, Sort.Direction direction, ContainerSummaryDTO last) {
+        return new KeysetCursor(sortField.property(), direction, last.id(), sortField.format(sortField.valueOf(last)));
+    }
+
+    private static List<Long> ids(List<ContainerSummaryDTO> rows) {
+        return rows.stream().map(ContainerSummaryDTO::id).toList();
+    }
+
+    private void persistContainer(String containerId, User user, Operation op, LocalDateTime createdAt) {
+        Container container = RepositoryFixtures.persistContainer(entityManager, containerId, user, op);
+        entityManager.flush();
+        // createdAt é preenchido pela auditoria; os empates são forçados depois do insert
+        entityManager.createQuery("update Container c set c.createdAt = :createdAt where c.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", container.getId())
+                .executeUpdate();
+    }
+}
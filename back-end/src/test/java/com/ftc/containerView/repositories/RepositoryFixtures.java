@@ -0,0 +1,43 @@
+package com.ftc.containerView.repositories;
+
+import com.ftc.containerView.model.container.Container;
+import com.ftc.containerView.model.container.ContainerStatus;
+import com.ftc.containerView.model.operation.Operation;
+import com.ftc.containerView.model.operation.OperationDTO;
+import com.ftc.containerView.model.operation.OperationStatus;
+import com.ftc.containerView.model.user.User;
+import com.ftc.containerView.model.user.UserRole;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * Entidades mínimas persistidas pelos testes de repositório (@DataJpaTest).
+ */
+final class RepositoryFixtures {
+
+    private RepositoryFixtures() {
+    }
+
+    static User persistUser(EntityManager entityManager) {
+        User user = new User("Ana", "Souza", "12345678901", "ana@example.com", "senha", UserRole.ADMIN);
+        entityManager.persist(user);
+        return user;
+    }
+
+    static Operation persistOperation(EntityManager entityManager, User user) {
+        Operation op = new Operation(new OperationDTO("CTV", "Exportador", "Navio", "Terminal", new Date(),
+                "Destino", new Date(), "Reserva", "Ref", "Prazo"), user);
+        op.setStatus(OperationStatus.OPEN);
+        entityManager.persist(op);
+        return op;
+    }
+
+    static Container persistContainer(EntityManager entityManager, String containerId, User user, Operation op) {
+        Container container = new Container(containerId, "Descrição", user, op, 1, 1, 1, 1, "Lacre",
+                new ArrayList<>(), ContainerStatus.OPEN);
+        entityManager.persist(container);
+        return container;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.PresignedUrlCache;
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.model.images.ContainerImageResponseDTO;
+import com.ftc.containerView.model.images.ContainerImageSummaryDTO;
+import com.ftc.containerView.model.images.RenditionStatus;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.ContainerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.ftc.containerView.model.images.ContainerImageCategory.CHEIO_ABERTO;
+import static com.ftc.containerView.model.images.ContainerImageCategory.FIADA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Revalidação da galeria com um relógio controlado: um cliente que revalida a cada poucos
+ * segundos nunca pode receber 304 para URLs que já expiraram ou que o cache deixou de entregar.
+ */
+class ContainerImageServiceTest {
+
+    private static final int EXPIRATION_MINUTES = 10;
+    private static final long EXPIRATION_NANOS = Duration.ofMinutes(EXPIRATION_MINUTES).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final S3Service s3Service = mock(S3Service.class);
+
+    private final List<ContainerImageSummaryDTO> images = List.of(
+            new ContainerImageSummaryDTO(1L, "a.jpg", FIADA, RenditionStatus.READY),
+            new ContainerImageSummaryDTO(2L, "b.jpg", FIADA, RenditionStatus.PENDING),
+            new ContainerImageSummaryDTO(3L, "c.jpg", CHEIO_ABERTO, RenditionStatus.READY));
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.05, 0.2, 0.5, 0.8})
+    void notModifiedNeverOutlivesSignedUrls(double minRemainingFraction) {
+        ContainerImageService service = service(minRemainingFraction);
+
+        List<ContainerImageResponseDTO> held = service.signImages(images, EXPIRATION_MINUTES);
+        String heldETag = service.computeGalleryETag(held);
+        int notModified = 0;
+        int refreshed = 0;
+
+        long step = Duration.ofSeconds(7).toNanos();
+        for (long elapsed = 0; elapsed < 6 * EXPIRATION_NANOS; elapsed += step) {
+            clock.addAndGet(step);
+
+            Optional<String> cachedETag = service.findCachedGalleryETag(images, EXPIRATION_MINUTES);
+            if (cachedETag.isPresent() && cachedETag.get().equals(heldETag)) {
+                // 304: o cliente continua com as URLs que já tinha
+                notModified++;
+                long remaining = oldestExpiry(held) - clock.get();
+                assertTrue(remaining >= minRemainingFraction * EXPIRATION_NANOS - 1,
+                        "304 com " + remaining + "ns restantes de validade");
+            } else {
+                refreshed++;
+                held = service.signImages(images, EXPIRATION_MINUTES);
+                heldETag = service.computeGalleryETag(held);
+                assertTrue(oldestExpiry(held) - clock.get() >= minRemainingFraction * EXPIRATION_NANOS - 1);
+            }
+        }
+
+        // O cache ainda evita respostas completas na maior parte das revalidações
+        assertTrue(notModified > refreshed, notModified + " respostas 304 e " + refreshed + " completas");
+    }
+
+    @Test
+    void galleryChangeOrUncachedUrlNeverMatches() {
+        ContainerImageService service = service(0.5);
+
+        assertTrue(service.findCachedGalleryETag(images, EXPIRATION_MINUTES).isEmpty());
+
+        String eTag = service.computeGalleryETag(service.signImages(images, EXPIRATION_MINUTES));
+        assertEquals(Optional.of(eTag), service.findCachedGalleryETag(images, EXPIRATION_MINUTES));
+
+        // Miniaturas prontas mudam a resposta (e ainda precisam ser assinadas)
+        List<ContainerImageSummaryDTO> renditionsReady = images.stream()
+                .map(image -> new ContainerImageSummaryDTO(image.id(), image.imageKey(), image.category(), RenditionStatus.READY))
+                .toList();
+        assertTrue(service.findCachedGalleryETag(renditionsReady, EXPIRATION_MINUTES).isEmpty());
+        assertNotEquals(eTag, service.findCachedGalleryETag(images.subList(0, 2), EXPIRATION_MINUTES).orElseThrow());
+
+        // Outra expiração é outra galeria
+        assertTrue(service.findCachedGalleryETag(images, EXPIRATION_MINUTES * 2).isEmpty());
+    }
+
+    private ContainerImageService service(double minRemainingFraction) {
+        // A URL leva o instante da assinatura, como a X-Amz-Date de uma URL SigV4
+        when(s3Service.generatePresignedUrl(anyString(), anyInt())).thenAnswer(invocation ->
+                "https://s3/" + invocation.getArgument(0) + "?signedAt=" + clock.get());
+        PresignedUrlCache cache = new PresignedUrlCache(s3Service, new SimpleMeterRegistry(), 100, minRemainingFraction, clock::get);
+        return new ContainerImageService(mock(ContainerImageRepository.class), s3Service,
+                mock(ContainerRepository.class), mock(ContainerService.class), cache);
+    }
+
+    private static long oldestExpiry(List<ContainerImageResponseDTO> gallery) {
+        return gallery.stream()
+                .flatMap(image -> Stream.of(image.imageUrl(), image.thumbnailUrl(), image.previewUrl()))
+                .filter(Objects::nonNull)
+                .mapToLong(url -> Long.parseLong(url.substring(url.indexOf("signedAt=") + 9)) + EXPIRATION_NANOS)
+                .min()
+                .orElseThrow();
+    }
+}
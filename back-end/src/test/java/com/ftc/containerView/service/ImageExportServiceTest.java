@@ -0,0 +1,283 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.aws.S3Service;
+import com.ftc.containerView.infra.export.ZipArchiveLayout;
+import com.ftc.containerView.repositories.ContainerImageRepository;
+import com.ftc.containerView.repositories.ContainerRepository;
+import com.ftc.containerView.repositories.OperationRepository;
+import com.ftc.containerView.repositories.SackImageRepository;
+import com.ftc.containerView.service.ImageExportService.ImageExport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Montagem do ZIP em stream (write) com o S3 simulado em memória: qualquer intervalo
+ * escrito precisa ser idêntico ao mesmo trecho do arquivo montado parte a parte.
+ */
+class ImageExportServiceTest {
+
+    private static final Instant MODIFIED = Instant.parse("2024-03-01T08:30:10Z");
+
+    private final S3Service s3Service = mock(S3Service.class);
+    private final ContainerImageRepository containerImageRepository = mock(ContainerImageRepository.class);
+    private final SackImageRepository sackImageRepository = mock(SackImageRepository.class);
+    private final ImageExportService service = new ImageExportService(s3Service,
+            mock(ContainerRepository.class), containerImageRepository,
+            sackImageRepository, mock(OperationRepository.class),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2, 3);
+
+    private final Map<String, byte[]> objects = Map.of(
+            "img-a.jpg", random(3000, 1),
+            "img-vazia.jpg", new byte[0],
+            "img-b.png", random(70_000, 2),
+            "img-c.jpg", random(1200, 3));
+    private final List<String> keys = List.of("img-a.jpg", "img-vazia.jpg", "img-b.png", "img-c.jpg");
+
+    private ImageExport export;
+    private byte[] archive;
+
+    @BeforeEach
+    void setUp() {
+        List<ZipArchiveLayout.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            entries.add(new ZipArchiveLayout.Entry("MSCU1111111/FIADA/00" + (i + 1) + ".jpg", objects.get(keys.get(i)).length, MODIFIED));
+        }
+        ZipArchiveLayout layout = new ZipArchiveLayout(entries, ZoneOffset.UTC);
+        // Sem CRC gravado, como imagens antigas: o CRC é calculado lendo os objetos
+        export = new ImageExport("container_MSCU1111111.zip", layout, keys, Collections.nCopies(keys.size(), null), "etag");
+        archive = assemble(layout);
+
+        when(s3Service.getObjectStreamAsync(anyString(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> stream(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), -1));
+    }
+
+    @Test
+    void writesWholeArchive() throws IOException {
+        assertArrayEquals(archive, write(0, archive.length - 1));
+    }
+
+    @Test
+    void concatenatedRangesEqualWholeArchive() throws IOException {
+        ZipArchiveLayout layout = export.layout();
+        long[] cuts = {
+                0,
+                layout.dataOffset(0) + 100,        // dentro dos dados
+                layout.descriptorOffset(0) + 5,    // dentro do data descriptor
+                layout.headerOffset(2) + 3,        // dentro do cabeçalho local
+                layout.descriptorOffset(2) + 15,   // último byte do data descriptor
+                layout.trailerOffset() + 7,        // dentro do diretório central
+                archive.length
+        };
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (int i = 0; i + 1 < cuts.length; i++) {
+            joined.writeBytes(write(cuts[i], cuts[i + 1] - 1));
+        }
+        assertArrayEquals(archive, joined.toByteArray());
+    }
+
+    @Test
+    void rangesAroundEveryBoundaryMatchArchive() throws IOException {
+        ZipArchiveLayout layout = export.layout();
+        TreeSet<Long> points = new TreeSet<>();
+        for (int i = 0; i < layout.size(); i++) {
+            for (long boundary : new long[]{layout.headerOffset(i), layout.dataOffset(i), layout.descriptorOffset(i), layout.descriptorEnd(i)}) {
+                points.addAll(List.of(boundary - 1, boundary, boundary + 1));
+            }
+        }
+        points.addAll(List.of(layout.trailerOffset() - 1, layout.trailerOffset(), layout.trailerOffset() + 1, (long) archive.length - 1));
+        points.removeIf(point -> point < 0 || point >= archive.length);
+
+        for (long start : points) {
+            // Retomada (até o fim), um único byte e um trecho curto a partir de cada fronteira
+            for (long end : new long[]{archive.length - 1, start, Math.min(start + 40, archive.length - 1)}) {
+                assertArrayEquals(Arrays.copyOfRange(archive, (int) start, (int) end + 1), write(start, end), "bytes " + start + "-" + end);
+            }
+        }
+    }
+
+    @Test
+    void rangeInsideDataReadsOnlyThatSlice() throws IOException {
+        long dataOffset = export.layout().dataOffset(2);
+
+        write(dataOffset + 1000, dataOffset + 1999);
+
+        verify(s3Service).getObjectStreamAsync("img-b.png", 1000, 1999);
+        verifyNoMoreInteractions(s3Service);
+    }
+
+    @Test
+    void rangeWithDescriptorReadsWholeObjectForCrc() throws IOException {
+        long descriptorOffset = export.layout().descriptorOffset(0);
+
+        write(descriptorOffset + 4, descriptorOffset + 7);
+
+        verify(s3Service).getObjectStreamAsync("img-a.jpg", 0, 2999);
+        verifyNoMoreInteractions(s3Service);
+    }
+
+    @Test
+    void storedCrcsBuildTrailerWithoutReadingObjects() throws IOException {
+        export = withStoredCrcs();
+        long trailerOffset = export.layout().trailerOffset();
+
+        assertArrayEquals(Arrays.copyOfRange(archive, (int) trailerOffset, archive.length), write(trailerOffset, archive.length - 1));
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void storedCrcsWriteWholeArchive() throws IOException {
+        export = withStoredCrcs();
+
+        assertArrayEquals(archive, write(0, archive.length - 1));
+        verifyNoInteractions(containerImageRepository, sackImageRepository);
+    }
+
+    @Test
+    void computedCrcsAreSaved() throws IOException {
+        when(containerImageRepository.updateCrc32(anyString(), anyLong())).thenReturn(1);
+        when(containerImageRepository.updateCrc32(eq("img-c.jpg"), anyLong())).thenReturn(0);
+
+        write(export.layout().trailerOffset(), archive.length - 1);
+
+        verify(containerImageRepository).updateCrc32("img-a.jpg", crc("img-a.jpg"));
+        verify(containerImageRepository).updateCrc32("img-b.png", crc("img-b.png"));
+        // Chave que não é de imagem de container: gravada na sacaria
+        verify(sackImageRepository).updateCrc32("img-c.jpg", crc("img-c.jpg"));
+    }
+
+    @Test
+    void interruptedReadResumesFromLastByte() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            boolean fail = key.equals("img-b.png") && calls.getAndIncrement() == 0;
+            return stream(key, invocation.getArgument(1), invocation.getArgument(2), fail ? 20_000 : -1);
+        }).when(s3Service).getObjectStreamAsync(anyString(), anyLong(), anyLong());
+
+        assertArrayEquals(archive, write(0, archive.length - 1));
+        verify(s3Service).getObjectStreamAsync("img-b.png", 0, 69_999);
+        verify(s3Service).getObjectStreamAsync("img-b.png", 20_000, 69_999);
+    }
+
+    @Test
+    void failsAfterMaxReadAttempts() {
+        doAnswer(invocation -> stream(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), 10))
+                .when(s3Service).getObjectStreamAsync(anyString(), anyLong(), anyLong());
+
+        assertThrows(IOException.class, () -> write(0, archive.length - 1));
+        verify(s3Service, times(3)).getObjectStreamAsync(eq("img-a.jpg"), anyLong(), anyLong());
+    }
+
+    private byte[] write(long start, long end) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.write(export, start, end, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Trecho start..end do objeto; com failAfter >= 0 a leitura falha depois desse número de bytes.
+     */
+    private CompletableFuture<ResponseInputStream<GetObjectResponse>> stream(String key, long start, long end, int failAfter) {
+        byte[] data = Arrays.copyOfRange(objects.get(key), (int) start, (int) end + 1);
+        InputStream input = new ByteArrayInputStream(data);
+        if (failAfter >= 0) {
+            input = new FailingInputStream(input, failAfter);
+        }
+        return CompletableFuture.completedFuture(
+                new ResponseInputStream<>(GetObjectResponse.builder().build(), AbortableInputStream.create(input)));
+    }
+
+    private ImageExport withStoredCrcs() {
+        List<Long> crcs = keys.stream().map(this::crc).toList();
+        return new ImageExport(export.fileName(), export.layout(), keys, crcs, export.eTag());
+    }
+
+    private long crc(String key) {
+        CRC32 crc = new CRC32();
+        crc.update(objects.get(key));
+        return crc.getValue();
+    }
+
+    private byte[] assemble(ZipArchiveLayout layout) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long[] crcs = new long[layout.size()];
+        for (int i = 0; i < layout.size(); i++) {
+            byte[] content = objects.get(keys.get(i));
+            crcs[i] = crc(keys.get(i));
+            output.writeBytes(layout.localHeader(i));
+            output.writeBytes(content);
+            output.writeBytes(layout.dataDescriptor(i, crcs[i]));
+        }
+        output.writeBytes(layout.trailer(crcs));
+        return output.toByteArray();
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static final class FailingInputStream extends InputStream {
+
+        private final InputStream input;
+        private int remaining;
+
+        FailingInputStream(InputStream input, int failAfter) {
+            this.input = input;
+            this.remaining = failAfter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Conexão encerrada");
+            }
+            int count = input.read(buffer, offset, Math.min(length, remaining));
+            remaining -= Math.max(count, 0);
+            return count;
+        }
+    }
+}
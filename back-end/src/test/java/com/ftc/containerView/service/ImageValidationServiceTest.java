@@ -0,0 +1,118 @@
+package com.ftc.containerView.service;
+
+import com.ftc.containerView.infra.errorhandling.exceptions.FileNotSupportedException;
+import com.ftc.containerView.infra.errorhandling.exceptions.ImageExceedsMaxSizeException;
+import com.ftc.containerView.infra.images.ImageHeaderReader.ImageHeader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImageValidationServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageValidationService service = new ImageValidationService(registry, 50_000_000);
+
+    private final byte[] png = encode(40, 30, "png");
+    private final byte[] jpeg = encode(64, 48, "jpg");
+
+    @Test
+    void acceptsPngAndJpegMatchingDeclaredType() {
+        assertEquals(new ImageHeader("image/png", 40, 30), service.validateImage(file("image/png", png)));
+        assertEquals(new ImageHeader("image/jpeg", 64, 48), service.validateImage(file("image/jpeg", jpeg)));
+        assertEquals(2, count("accepted"));
+    }
+
+    @Test
+    void rejectsDeclaredTypeNotAllowed() {
+        assertThrows(FileNotSupportedException.class, () -> service.validateImage(file("image/gif", png)));
+        assertEquals(1, count("rejected_type"));
+    }
+
+    @Test
+    void rejectsFileAboveMaxSize() {
+        assertThrows(ImageExceedsMaxSizeException.class,
+                () -> service.validateImage(file("image/png", Arrays.copyOf(png, 10_000_001))));
+        assertEquals(1, count("rejected_size"));
+    }
+
+    @Test
+    void rejectsContentNotMatchingDeclaredType() {
+        FileNotSupportedException exception = assertThrows(FileNotSupportedException.class,
+                () -> service.validateImage(file("image/jpeg", png)));
+
+        assertEquals("Conteúdo do arquivo não corresponde ao tipo declarado", exception.getMessage());
+        assertEquals(1, count("rejected_content"));
+    }
+
+    @Test
+    void rejectsContentThatIsNotAnImage() {
+        assertThrows(FileNotSupportedException.class,
+                () -> service.validateImage(file("image/png", "<html></html>".getBytes())));
+        assertThrows(FileNotSupportedException.class,
+                () -> service.validateImage(file("image/jpeg", Arrays.copyOf(jpeg, 10))));
+        assertEquals(2, count("rejected_content"));
+    }
+
+    @Test
+    void rejectsImagesAbovePixelLimit() {
+        ImageValidationService limited = new ImageValidationService(registry, 1_000);
+
+        assertThrows(ImageExceedsMaxSizeException.class, () -> limited.validateImage(file("image/png", png)));
+        // Um IHDR declarando 50000x50000 é barrado sem decodificar nada
+        assertThrows(ImageExceedsMaxSizeException.class,
+                () -> service.validateImage(file("image/png", pngHeader(50_000, 50_000))));
+        assertEquals(2, count("rejected_dimensions"));
+    }
+
+    @Test
+    void validatesContentOfDirectUploads() {
+        service.validateDeclaredImage("image/jpeg", jpeg.length);
+
+        assertEquals(new ImageHeader("image/jpeg", 64, 48),
+                service.validateContent("chave", "image/jpeg", new ByteArrayInputStream(jpeg)));
+        assertThrows(FileNotSupportedException.class,
+                () -> service.validateContent("chave", "image/png", new ByteArrayInputStream(jpeg)));
+        assertEquals(1, count("accepted"));
+        assertEquals(1, count("rejected_content"));
+    }
+
+    private double count(String outcome) {
+        return registry.get("image_validation_total").tag("outcome", outcome).counter().count();
+    }
+
+    private static MockMultipartFile file(String contentType, byte[] content) {
+        return new MockMultipartFile("file", "imagem", contentType, content);
+    }
+
+    private static byte[] encode(int width, int height, String format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] pngHeader(int width, int height) {
+        return ByteBuffer.allocate(33)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})
+                .putInt(13).put("IHDR".getBytes())
+                .putInt(width).putInt(height)
+                .put(new byte[]{8, 2, 0, 0, 0})
+                .putInt(0)
+                .array();
+    }
+}